@@ -0,0 +1,45 @@
+package rca.ac.rw.template.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import rca.ac.rw.template.analytics.dto.MarketValueStatisticsDto;
+
+import java.time.Year;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/analytics/transfer-prices")
+@AllArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+public class AdminMarketValueController {
+
+    private final MarketValueStatisticsService marketValueStatisticsService;
+
+    /**
+     * GET /api/v1/admin/analytics/transfer-prices?manufacturer=...&model=...&year=...&quantiles=0.1,0.5,0.9 :
+     * Admin reads estimated percentile transfer prices for a segment. Every filter is optional;
+     * omitted ones include all values.
+     */
+    @GetMapping
+    public ResponseEntity<MarketValueStatisticsDto> getTransferPriceStatistics(
+            @RequestParam(required = false) String manufacturer,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) Year year,
+            @RequestParam(required = false) List<Double> quantiles) {
+        return ResponseEntity.ok(marketValueStatisticsService.getStatistics(manufacturer, model, year, quantiles));
+    }
+
+    /**
+     * POST /api/v1/admin/analytics/transfer-prices/rebuild : Admin rebuilds the price sketches from the
+     * ownership ledger. Returns the number of transfer amounts read.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Long> rebuildTransferPriceStatistics() {
+        log.info("Admin request to rebuild transfer price statistics.");
+        return ResponseEntity.ok(marketValueStatisticsService.rebuild());
+    }
+}
@@ -0,0 +1,38 @@
+package rca.ac.rw.template.analytics;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/analytics/transfer-alerts")
+@AllArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminTransferAlertController {
+
+    private final SuspiciousTransferDetector suspiciousTransferDetector;
+
+    /**
+     * GET /api/v1/admin/analytics/transfer-alerts : Admin lists the most recent suspicious-transfer alerts,
+     * newest first.
+     */
+    @GetMapping
+    public ResponseEntity<List<SuspiciousTransferAlert>> getRecentAlerts() {
+        return ResponseEntity.ok(suspiciousTransferDetector.getRecentAlerts());
+    }
+
+    /**
+     * GET /api/v1/admin/analytics/transfer-alerts/stats : Admin reads the detector counters
+     * (events processed and dropped, queue depth, tracked vehicles and owners).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getStatistics() {
+        return ResponseEntity.ok(suspiciousTransferDetector.getStatistics());
+    }
+}
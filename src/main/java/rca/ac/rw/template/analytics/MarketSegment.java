@@ -0,0 +1,18 @@
+package rca.ac.rw.template.analytics;
+
+import java.util.Locale;
+
+/**
+ * Key of one transfer-price sketch: manufacturer, model and year of manufacture.
+ * Names are trimmed and lower-cased so spelling variants of the same model share a sketch.
+ */
+public record MarketSegment(String manufacturer, String modelName, int manufacturedYear) {
+
+    public static MarketSegment of(String manufacturer, String modelName, int manufacturedYear) {
+        return new MarketSegment(normalize(manufacturer), normalize(modelName), manufacturedYear);
+    }
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
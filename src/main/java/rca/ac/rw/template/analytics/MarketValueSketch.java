@@ -0,0 +1,45 @@
+package rca.ac.rw.template.analytics;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Persisted {@link QuantileSketch} of the transfer amounts of one {@link MarketSegment}.
+ * Written with JDBC upserts by {@link MarketValueStatisticsService}.
+ */
+@Entity
+@Table(name = "market_value_sketch", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_market_value_sketch_segment", columnNames = {"manufacturer", "model_name", "manufacturer_year"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketValueSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "manufacturer", nullable = false)
+    private String manufacturer;
+
+    @Column(name = "model_name", nullable = false)
+    private String modelName;
+
+    @Column(name = "manufacturer_year", nullable = false)
+    private int manufacturedYear;
+
+    @Column(name = "value_count", nullable = false)
+    private long valueCount;
+
+    @Column(name = "sketch", nullable = false, columnDefinition = "bytea")
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
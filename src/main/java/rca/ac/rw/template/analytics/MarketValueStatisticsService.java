@@ -0,0 +1,288 @@
+package rca.ac.rw.template.analytics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import rca.ac.rw.template.analytics.dto.MarketValueStatisticsDto;
+import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Median and percentile transfer prices per manufacturer, model and year of manufacture, answered from memory.
+ * <p>
+ * Every transfer amount (and the declared price of a newly registered vehicle) is added to the
+ * {@link QuantileSketch} of its {@link MarketSegment} once the transaction commits. Queries merge the
+ * matching sketches, so any combination of manufacturer, model and year is answered without touching the
+ * ledger.
+ * <p>
+ * Each node also keeps the amounts it recorded since its last flush as per-segment deltas. Every
+ * {@code analytics.market-value.flush-interval-ms} the deltas are merged into the stored sketches of
+ * {@code market_value_sketch}, each under a row lock, so nodes add to one another's counts instead of
+ * overwriting them. The in-memory sketches are then reloaded from the table, which brings in the amounts
+ * recorded by other nodes. When the table is empty on startup, the sketches are built once from the whole
+ * ownership ledger.
+ * <p>
+ * Sketches are estimates: each quantile is within {@code analytics.market-value.relative-accuracy} of the
+ * true value. Amounts recorded between the last flush and a crash are lost until the next rebuild, and other
+ * nodes' amounts show up one flush interval late. Stored sketches of another accuracy (the setting was changed)
+ * are rebuilt from the ledger at startup, and converted when read meanwhile.
+ */
+@Service
+@Slf4j
+public class MarketValueStatisticsService {
+
+    public static final List<Double> DEFAULT_QUANTILES = List.of(0.1, 0.25, 0.5, 0.75, 0.9);
+
+    private static final String LEDGER_SQL = """
+            SELECT v.manufacturer_company, v.model_name, v.manufacturer_year, os.transfer_amount
+            FROM (SELECT vehicle_id, transfer_amount FROM ownership
+                  UNION ALL
+                  SELECT vehicle_id, transfer_amount FROM ownership_archive) os
+            JOIN vehicles v ON v.id = os.vehicle_id
+            WHERE os.transfer_amount IS NOT NULL
+            """;
+    private static final String LOAD_SQL =
+            "SELECT manufacturer, model_name, manufacturer_year, sketch FROM market_value_sketch";
+    // Rebuild only: the ledger is the whole truth, so the stored sketch is replaced
+    private static final String REPLACE_SQL = """
+            INSERT INTO market_value_sketch (manufacturer, model_name, manufacturer_year, value_count, sketch, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (manufacturer, model_name, manufacturer_year)
+            DO UPDATE SET value_count = EXCLUDED.value_count, sketch = EXCLUDED.sketch, updated_at = EXCLUDED.updated_at
+            """;
+    private static final String INSERT_SQL = """
+            INSERT INTO market_value_sketch (manufacturer, model_name, manufacturer_year, value_count, sketch, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (manufacturer, model_name, manufacturer_year) DO NOTHING
+            """;
+    private static final String LOCK_SQL =
+            "SELECT sketch FROM market_value_sketch WHERE manufacturer = ? AND model_name = ? AND manufacturer_year = ? FOR UPDATE";
+    private static final String UPDATE_SQL =
+            "UPDATE market_value_sketch SET value_count = ?, sketch = ?, updated_at = ? " +
+                    "WHERE manufacturer = ? AND model_name = ? AND manufacturer_year = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double relativeAccuracy;
+    private volatile Map<MarketSegment, QuantileSketch> sketches = new ConcurrentHashMap<>();
+    // Amounts recorded on this node and not yet merged into market_value_sketch
+    private final Map<MarketSegment, QuantileSketch> deltas = new ConcurrentHashMap<>();
+
+    public MarketValueStatisticsService(JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${analytics.market-value.relative-accuracy:0.01}") double relativeAccuracy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.relativeAccuracy = relativeAccuracy;
+    }
+
+    /**
+     * Adds a transfer amount to its segment's sketch once the current transaction commits.
+     */
+    public void record(String manufacturer, String modelName, Year manufacturedYear, BigDecimal amount) {
+        if (amount == null || manufacturedYear == null) {
+            return;
+        }
+        MarketSegment segment = MarketSegment.of(manufacturer, modelName, manufacturedYear.getValue());
+        double value = amount.doubleValue();
+        AfterCommit.run(() -> {
+            add(sketches, segment, value);
+            add(deltas, segment, value);
+        });
+    }
+
+    /**
+     * Merges the sketches matching the filters and reads the requested quantiles.
+     *
+     * @param manufacturer     Optional manufacturer filter (case-insensitive).
+     * @param modelName        Optional model filter (case-insensitive).
+     * @param manufacturedYear Optional year-of-manufacture filter.
+     * @param quantiles        Quantiles in [0, 1]; {@link #DEFAULT_QUANTILES} when empty.
+     * @throws ResourceNotFoundException if no transfer matches the filters.
+     * @throws ValidationException if a quantile is outside [0, 1].
+     */
+    public MarketValueStatisticsDto getStatistics(String manufacturer, String modelName, Year manufacturedYear, List<Double> quantiles) {
+        List<Double> requested = quantiles == null || quantiles.isEmpty() ? DEFAULT_QUANTILES : quantiles;
+        for (Double q : requested) {
+            if (q == null || q < 0 || q > 1) {
+                throw new ValidationException("Quantiles must be between 0 and 1.");
+            }
+        }
+        String manufacturerKey = manufacturer != null ? MarketSegment.normalize(manufacturer) : null;
+        String modelKey = modelName != null ? MarketSegment.normalize(modelName) : null;
+
+        QuantileSketch merged = new QuantileSketch(relativeAccuracy);
+        int segments = 0;
+        for (Map.Entry<MarketSegment, QuantileSketch> entry : sketches.entrySet()) {
+            MarketSegment segment = entry.getKey();
+            if ((manufacturerKey == null || manufacturerKey.equals(segment.manufacturer()))
+                    && (modelKey == null || modelKey.equals(segment.modelName()))
+                    && (manufacturedYear == null || manufacturedYear.getValue() == segment.manufacturedYear())) {
+                merged.merge(entry.getValue());
+                segments++;
+            }
+        }
+        if (merged.getCount() == 0) {
+            throw new ResourceNotFoundException("Transfer price statistics", "segment",
+                    manufacturer + " / " + modelName + " / " + manufacturedYear);
+        }
+
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        for (Double q : requested) {
+            values.put("p" + BigDecimal.valueOf(q * 100).stripTrailingZeros().toPlainString(), money(merged.quantile(q)));
+        }
+        return new MarketValueStatisticsDto(manufacturer, modelName, manufacturedYear, segments, merged.getCount(),
+                money(merged.getMin()), money(merged.getMax()), values, relativeAccuracy);
+    }
+
+    /**
+     * Rebuilds every sketch from the ownership ledger (including archived records) and replaces the stored ones.
+     * Amounts committed while the rebuild runs may be missed or counted twice until the next rebuild.
+     *
+     * @return The number of transfer amounts read.
+     */
+    public long rebuild() {
+        long start = System.nanoTime();
+        deltas.clear(); // Already in the ledger
+        Map<MarketSegment, QuantileSketch> rebuilt = new ConcurrentHashMap<>();
+        long[] read = {0};
+        jdbcTemplate.query(LEDGER_SQL, rs -> {
+            add(rebuilt, MarketSegment.of(rs.getString(1), rs.getString(2), rs.getInt(3)), rs.getBigDecimal(4).doubleValue());
+            read[0]++;
+        });
+        sketches = rebuilt;
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(REPLACE_SQL, rebuilt.entrySet().stream()
+                .map(entry -> row(entry.getKey(), entry.getValue(), now))
+                .toList());
+        log.info("Market value sketches rebuilt: {} amounts in {} segments in {} ms",
+                read[0], rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+        return read[0];
+    }
+
+    /**
+     * Loads the persisted sketches, or builds them from the ledger when none were persisted yet or some were
+     * persisted with another accuracy.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        Loaded loaded = reload();
+        if (loaded.segments() == 0 || loaded.converted() > 0) {
+            if (loaded.converted() > 0) {
+                log.info("{} market value sketches are stored with another accuracy than {}; rebuilding",
+                        loaded.converted(), relativeAccuracy);
+            }
+            rebuild();
+            return;
+        }
+        log.info("Market value sketches loaded for {} segments in {} ms", loaded.segments(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Merges this node's deltas into the stored sketches, then reloads the sketches to pick up other nodes'.
+     */
+    @Scheduled(fixedDelayString = "${analytics.market-value.flush-interval-ms:60000}")
+    @PreDestroy
+    public void flush() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        int flushed = 0;
+        for (MarketSegment segment : new ArrayList<>(deltas.keySet())) {
+            QuantileSketch delta = deltas.remove(segment); // add() computes under the same key, so no amount slips past
+            if (delta == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeIntoStored(segment, delta, now));
+                flushed++;
+            } catch (RuntimeException e) {
+                log.warn("Could not flush the market value sketch of {}; retrying on the next flush: {}", segment, e.getMessage());
+                add(deltas, segment, delta);
+            }
+        }
+        reload();
+        log.debug("Flushed {} market value sketches", flushed);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Adds the delta to the stored sketch of its segment, holding the row lock between the read and the write.
+     */
+    private void mergeIntoStored(MarketSegment segment, QuantileSketch delta, OffsetDateTime now) {
+        if (jdbcTemplate.update(INSERT_SQL, row(segment, delta, now)) == 1) {
+            return; // First amounts of the segment on any node
+        }
+        byte[] stored = jdbcTemplate.queryForObject(LOCK_SQL, byte[].class,
+                segment.manufacturer(), segment.modelName(), segment.manufacturedYear());
+        QuantileSketch merged = QuantileSketch.fromBytes(stored).withAccuracy(relativeAccuracy);
+        merged.merge(delta);
+        jdbcTemplate.update(UPDATE_SQL, merged.getCount(), merged.toBytes(), now,
+                segment.manufacturer(), segment.modelName(), segment.manufacturedYear());
+    }
+
+    /**
+     * Replaces the in-memory sketches with the stored ones plus this node's unflushed deltas. Stored sketches of
+     * another accuracy are converted to this node's, so they merge with its own.
+     */
+    private Loaded reload() {
+        Map<MarketSegment, QuantileSketch> loaded = new ConcurrentHashMap<>();
+        int[] converted = {0};
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            QuantileSketch sketch = QuantileSketch.fromBytes(rs.getBytes(4));
+            if (sketch.getRelativeAccuracy() != relativeAccuracy) {
+                sketch = sketch.withAccuracy(relativeAccuracy);
+                converted[0]++;
+            }
+            loaded.put(new MarketSegment(rs.getString(1), rs.getString(2), rs.getInt(3)), sketch);
+        });
+        int stored = loaded.size();
+        deltas.forEach((segment, delta) -> add(loaded, segment, delta));
+        sketches = loaded;
+        return new Loaded(stored, converted[0]);
+    }
+
+    private void add(Map<MarketSegment, QuantileSketch> target, MarketSegment segment, double value) {
+        target.compute(segment, (s, sketch) -> {
+            QuantileSketch result = sketch != null ? sketch : new QuantileSketch(relativeAccuracy);
+            result.add(value);
+            return result;
+        });
+    }
+
+    private void add(Map<MarketSegment, QuantileSketch> target, MarketSegment segment, QuantileSketch values) {
+        target.compute(segment, (s, sketch) -> {
+            QuantileSketch result = sketch != null ? sketch : new QuantileSketch(relativeAccuracy);
+            result.merge(values);
+            return result;
+        });
+    }
+
+    private static Object[] row(MarketSegment segment, QuantileSketch sketch, OffsetDateTime now) {
+        QuantileSketch snapshot = sketch.copy();
+        return new Object[]{segment.manufacturer(), segment.modelName(), segment.manufacturedYear(),
+                snapshot.getCount(), snapshot.toBytes(), now};
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Loaded(int segments, int converted) {
+    }
+}
@@ -0,0 +1,193 @@
+package rca.ac.rw.template.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch with a relative-error guarantee (the DDSketch bucketing scheme).
+ * <p>
+ * A positive value {@code x} is counted in bucket {@code ceil(log(x) / log(gamma))}, where
+ * {@code gamma = (1 + a) / (1 - a)}; every quantile it returns is within {@code a} (relative) of the true
+ * value of that rank. Buckets are kept sparse, so a sketch costs a few hundred bytes whatever the number of
+ * values added, and two sketches built with the same accuracy merge by adding their bucket counts.
+ * Zero and negative values are counted as zero.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class QuantileSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1).");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public synchronized void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            buckets.merge(index(value), 1L, Long::sum);
+        }
+        min = count == 0 ? value : Math.min(min, value);
+        max = count == 0 ? value : Math.max(max, value);
+        count++;
+    }
+
+    /**
+     * Adds every value counted by {@code other} to this sketch.
+     *
+     * @throws IllegalArgumentException if the sketches were built with different accuracies.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracy.");
+        }
+        QuantileSketch snapshot = other.copy();
+        synchronized (this) {
+            if (snapshot.count == 0) {
+                return;
+            }
+            snapshot.buckets.forEach((index, n) -> buckets.merge(index, n, Long::sum));
+            zeroCount += snapshot.zeroCount;
+            min = count == 0 ? snapshot.min : Math.min(min, snapshot.min);
+            max = count == 0 ? snapshot.max : Math.max(max, snapshot.max);
+            count += snapshot.count;
+        }
+    }
+
+    /**
+     * @param q Quantile in [0, 1], e.g. 0.5 for the median.
+     * @return The estimated value at that quantile, or NaN if the sketch is empty.
+     */
+    public synchronized double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1].");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return Math.max(min, 0);
+        }
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (rank < seen) {
+                double estimate = estimate(bucket.getKey());
+                return Math.min(Math.max(estimate, min), max);
+            }
+        }
+        return max;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMin() {
+        return min;
+    }
+
+    public synchronized double getMax() {
+        return max;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public synchronized QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        copy.buckets.putAll(buckets);
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * @return This sketch if it has the given accuracy, otherwise a copy re-bucketed at that accuracy. The values
+     *         of each bucket move to the bucket of its estimate, so the copy's quantiles are within about both
+     *         accuracies added together.
+     */
+    public QuantileSketch withAccuracy(double accuracy) {
+        if (accuracy == relativeAccuracy) {
+            return this;
+        }
+        QuantileSketch snapshot = copy();
+        QuantileSketch converted = new QuantileSketch(accuracy);
+        snapshot.buckets.forEach((index, n) -> converted.buckets.merge(converted.index(snapshot.estimate(index)), n, Long::sum));
+        converted.zeroCount = snapshot.zeroCount;
+        converted.count = snapshot.count;
+        converted.min = snapshot.min;
+        converted.max = snapshot.max;
+        return converted;
+    }
+
+    /**
+     * Serializes the sketch: version, accuracy, counters, then (index, count) per non-empty bucket.
+     */
+    public synchronized byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 * 5 + 4 + buckets.size() * 12);
+        buffer.put(FORMAT_VERSION);
+        buffer.putDouble(relativeAccuracy);
+        buffer.putLong(count);
+        buffer.putLong(zeroCount);
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        buffer.putInt(buckets.size());
+        buckets.forEach((index, n) -> {
+            buffer.putInt(index);
+            buffer.putLong(n);
+        });
+        return buffer.array();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported sketch format version " + version + ".");
+        }
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble());
+        sketch.count = buffer.getLong();
+        sketch.zeroCount = buffer.getLong();
+        sketch.min = buffer.getDouble();
+        sketch.max = buffer.getDouble();
+        int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            sketch.buckets.put(buffer.getInt(), buffer.getLong());
+        }
+        return sketch;
+    }
+
+    // --- Helper Methods ---
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double estimate(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+}
@@ -0,0 +1,50 @@
+package rca.ac.rw.template.analytics;
+
+/**
+ * Times of the last {@code capacity} events of one key, in a ring. With a threshold of N events per window,
+ * a capacity of N is enough to answer "were the last N events within the window?", so each tracked key
+ * costs {@code 8 * N} bytes however many events it sees. It also remembers until when the key's alerts are muted.
+ * <p>
+ * Not thread-safe; {@link SuspiciousTransferDetector} only touches counters from its consumer thread.
+ */
+class SlidingWindowCounter {
+
+    private final long[] times;
+    private int next;
+    private int size;
+    private long mutedUntilMillis = Long.MIN_VALUE;
+
+    SlidingWindowCounter(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1.");
+        }
+        this.times = new long[capacity];
+    }
+
+    /**
+     * Records an event and returns the time of the oldest event kept, or -1 while fewer than
+     * {@code capacity} events were recorded.
+     */
+    long add(long timeMillis) {
+        times[next] = timeMillis;
+        next = (next + 1) % times.length;
+        if (size < times.length) {
+            size++;
+            return size == times.length ? times[next] : -1;
+        }
+        return times[next];
+    }
+
+    /**
+     * Mutes the key's alerts for {@code windowMillis} after an event, unless they are muted already.
+     *
+     * @return {@code true} if an alert may be raised for the event.
+     */
+    boolean mute(long timeMillis, long windowMillis) {
+        if (timeMillis < mutedUntilMillis) {
+            return false;
+        }
+        mutedUntilMillis = timeMillis + windowMillis;
+        return true;
+    }
+}
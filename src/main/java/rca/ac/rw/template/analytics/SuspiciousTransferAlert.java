@@ -0,0 +1,16 @@
+package rca.ac.rw.template.analytics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Raised by {@link SuspiciousTransferDetector}; also published as an application event.
+ *
+ * @param subjectId Vehicle ID for {@link TransferAlertKind#VEHICLE_RAPID_RESALE}, owner ID for
+ *                  {@link TransferAlertKind#OWNER_HIGH_INFLOW}.
+ * @param transfers Number of transfers seen within the window, including the one that raised the alert.
+ */
+public record SuspiciousTransferAlert(TransferAlertKind kind, UUID subjectId, int transfers, Duration window,
+                                      Instant firstTransferAt, Instant lastTransferAt, Instant detectedAt) {
+}
@@ -0,0 +1,188 @@
+package rca.ac.rw.template.analytics;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flags vehicles transferred too often within a short window and owners receiving an unusual number of
+ * vehicles per day, from the stream of committed transfers.
+ * <p>
+ * The transfer path only offers an event to a bounded queue after commit and never waits: when the queue is
+ * full the event is dropped and counted. A single consumer thread keeps one {@link SlidingWindowCounter} per
+ * vehicle and per owner in size-bounded caches that evict keys idle for longer than their window, so memory is
+ * capped at {@code max-tracked-keys} counters per cache. Alerts are logged, kept in a bounded list of recent
+ * alerts and published as {@link SuspiciousTransferAlert} application events.
+ * <p>
+ * Every transfer counts, bulk ones included. Once a key has raised an alert it stays quiet for one window, so
+ * a fleet sale to one owner raises one OWNER_HIGH_INFLOW alert rather than one per vehicle past the threshold.
+ * <p>
+ * Counters live on one node and start empty after a restart; this is a screening aid, not a ledger query.
+ */
+@Component
+@Slf4j
+public class SuspiciousTransferDetector {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final int vehicleThreshold;
+    private final Duration vehicleWindow;
+    private final int ownerThreshold;
+    private final Duration ownerWindow;
+    private final int recentAlertLimit;
+    private final BlockingQueue<TransferEvent> queue;
+    private final Cache<UUID, SlidingWindowCounter> vehicleCounters;
+    private final Cache<UUID, SlidingWindowCounter> ownerCounters;
+    private final Deque<SuspiciousTransferAlert> recentAlerts = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger recentAlertCount = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong alerts = new AtomicLong();
+    private final Thread consumer;
+
+    public SuspiciousTransferDetector(ApplicationEventPublisher eventPublisher,
+                                      @Value("${analytics.transfer-alerts.vehicle-threshold:3}") int vehicleThreshold,
+                                      @Value("${analytics.transfer-alerts.vehicle-window-hours:720}") long vehicleWindowHours,
+                                      @Value("${analytics.transfer-alerts.owner-threshold:10}") int ownerThreshold,
+                                      @Value("${analytics.transfer-alerts.owner-window-hours:24}") long ownerWindowHours,
+                                      @Value("${analytics.transfer-alerts.max-tracked-keys:1000000}") long maxTrackedKeys,
+                                      @Value("${analytics.transfer-alerts.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${analytics.transfer-alerts.recent-alerts:1000}") int recentAlertLimit) {
+        if (vehicleThreshold < 1 || ownerThreshold < 1) {
+            throw new IllegalArgumentException("analytics.transfer-alerts.vehicle-threshold and .owner-threshold must be at least 1.");
+        }
+        this.eventPublisher = eventPublisher;
+        this.vehicleThreshold = vehicleThreshold;
+        this.vehicleWindow = Duration.ofHours(vehicleWindowHours);
+        this.ownerThreshold = ownerThreshold;
+        this.ownerWindow = Duration.ofHours(ownerWindowHours);
+        this.recentAlertLimit = recentAlertLimit;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.vehicleCounters = CacheBuilder.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(vehicleWindow.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.ownerCounters = CacheBuilder.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(ownerWindow.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.consumer = new Thread(this::consume, "suspicious-transfer-detector");
+        this.consumer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        consumer.start();
+    }
+
+    /**
+     * Feeds a transfer to the detector once the current transaction commits. Never blocks.
+     */
+    public void record(UUID vehicleId, UUID newOwnerId, Instant transferredAt) {
+        TransferEvent event = new TransferEvent(vehicleId, newOwnerId, transferredAt.toEpochMilli());
+        AfterCommit.run(() -> {
+            if (!queue.offer(event)) {
+                dropped.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * @return The most recent alerts, newest first.
+     */
+    public List<SuspiciousTransferAlert> getRecentAlerts() {
+        return new ArrayList<>(recentAlerts);
+    }
+
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("processed", processed.get());
+        statistics.put("dropped", dropped.get());
+        statistics.put("queued", (long) queue.size());
+        statistics.put("alerts", alerts.get());
+        statistics.put("trackedVehicles", vehicleCounters.size());
+        statistics.put("trackedOwners", ownerCounters.size());
+        return statistics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        consumer.interrupt();
+    }
+
+    // --- Helper Methods ---
+
+    private void consume() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                process(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Suspicious transfer detector failed to process an event", e);
+            }
+        }
+    }
+
+    private void process(TransferEvent event) {
+        try {
+            check(TransferAlertKind.VEHICLE_RAPID_RESALE, event.vehicleId(), event.timeMillis(),
+                    vehicleCounters, vehicleThreshold, vehicleWindow);
+            check(TransferAlertKind.OWNER_HIGH_INFLOW, event.newOwnerId(), event.timeMillis(),
+                    ownerCounters, ownerThreshold, ownerWindow);
+        } finally {
+            processed.incrementAndGet(); // Counted once its alerts are raised
+        }
+    }
+
+    private void check(TransferAlertKind kind, UUID subjectId, long timeMillis,
+                       Cache<UUID, SlidingWindowCounter> counters, int threshold, Duration window) {
+        SlidingWindowCounter counter;
+        try {
+            counter = counters.get(subjectId, () -> new SlidingWindowCounter(threshold));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        long oldest = counter.add(timeMillis);
+        if (oldest >= 0 && timeMillis - oldest <= window.toMillis() && counter.mute(timeMillis, window.toMillis())) {
+            raise(new SuspiciousTransferAlert(kind, subjectId, threshold, window,
+                    Instant.ofEpochMilli(oldest), Instant.ofEpochMilli(timeMillis), Instant.now()));
+        }
+    }
+
+    private void raise(SuspiciousTransferAlert alert) {
+        alerts.incrementAndGet();
+        log.warn("Suspicious transfer activity: {} for {} ({} transfers between {} and {})",
+                alert.kind(), alert.subjectId(), alert.transfers(), alert.firstTransferAt(), alert.lastTransferAt());
+        recentAlerts.addFirst(alert);
+        if (recentAlertCount.incrementAndGet() > recentAlertLimit) {
+            recentAlerts.pollLast();
+            recentAlertCount.decrementAndGet();
+        }
+        eventPublisher.publishEvent(alert);
+    }
+
+    private record TransferEvent(UUID vehicleId, UUID newOwnerId, long timeMillis) {
+    }
+}
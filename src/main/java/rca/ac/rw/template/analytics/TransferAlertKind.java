@@ -0,0 +1,6 @@
+package rca.ac.rw.template.analytics;
+
+public enum TransferAlertKind {
+    VEHICLE_RAPID_RESALE, // The same vehicle transferred too many times within the vehicle window
+    OWNER_HIGH_INFLOW     // One owner received too many vehicles within the owner window
+}
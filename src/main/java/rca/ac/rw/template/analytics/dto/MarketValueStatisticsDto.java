@@ -0,0 +1,24 @@
+package rca.ac.rw.template.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketValueStatisticsDto {
+    private String manufacturer;     // null when all manufacturers are included
+    private String modelName;        // null when all models are included
+    private Year manufacturedYear;   // null when all years are included
+    private int segments;            // number of manufacturer/model/year sketches merged
+    private long count;
+    private BigDecimal min;
+    private BigDecimal max;
+    private Map<String, BigDecimal> quantiles; // e.g. "p50" -> median
+    private double relativeAccuracy;
+}
@@ -1,6 +1,6 @@
 package rca.ac.rw.template.auth;
 
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 import rca.ac.rw.template.auth.dtos.*;
 import rca.ac.rw.template.commons.exceptions.BadRequestException;
+import rca.ac.rw.template.commons.ratelimit.ClientRateLimit;
+import rca.ac.rw.template.commons.ratelimit.RateLimitKey;
 import rca.ac.rw.template.email.EmailService;
 import rca.ac.rw.template.users.Status;
 import rca.ac.rw.template.users.User; // For fetching User entity
@@ -27,6 +29,7 @@ public class AuthController {
     private final UserService userService;
     private final OtpService otpService;
     private final EmailService emailService;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Registers a new user, sends an OTP for account verification.
@@ -36,7 +39,8 @@ public class AuthController {
      * @return ResponseEntity with the created UserResponseDto.
      */
     @PostMapping("/register")
-    @RateLimiter(name = "auth-rate-limiter")
+    @ClientRateLimit(name = "auth", key = RateLimitKey.IP)
+    @ClientRateLimit(name = "otp-send", key = RateLimitKey.EMAIL)
     public ResponseEntity<UserResponseDto> registerUser(
             @Valid @RequestBody RegisterRequestDto registerDto,
             UriComponentsBuilder uriBuilder) {
@@ -57,7 +61,8 @@ public class AuthController {
      * @return ResponseEntity with success message.
      */
     @PatchMapping("/verify-account")
-    @RateLimiter(name = "otp-rate-limiter")
+    @ClientRateLimit(name = "auth", key = RateLimitKey.IP)
+    @ClientRateLimit(name = "otp-verify", key = RateLimitKey.EMAIL)
     ResponseEntity<?> verifyAccount(@Valid @RequestBody VerifyAccountDto verifyAccountRequest) {
         log.info("Verifying account for email: {}", verifyAccountRequest.email());
         if (!otpService.verifyOtp(verifyAccountRequest.email(), verifyAccountRequest.otp(), OtpType.VERIFY_ACCOUNT)) {
@@ -82,7 +87,8 @@ public class AuthController {
      * @return ResponseEntity with a message.
      */
     @PostMapping("/initiate-password-reset")
-    @RateLimiter(name = "auth-rate-limiter") // Added RateLimiter
+    @ClientRateLimit(name = "auth", key = RateLimitKey.IP)
+    @ClientRateLimit(name = "otp-send", key = RateLimitKey.EMAIL)
     ResponseEntity<?> initiatePasswordReset(@Valid @RequestBody InitiatePasswordResetDto initiateRequest) {
         log.info("Initiating password reset for email: {}", initiateRequest.email());
         // Ensure user exists before generating OTP and sending email
@@ -101,7 +107,7 @@ public class AuthController {
      * @return ResponseEntity with UserProfileResponseDto.
      */
     @GetMapping("/profile")
-    @RateLimiter(name = "auth-rate-limiter") // Added RateLimiter
+    @ClientRateLimit(name = "auth", key = RateLimitKey.USER)
     public ResponseEntity<UserProfileResponseDto> getLoggedInUserProfile() {
         log.info("Fetching profile for logged-in user.");
         // This now correctly calls getMyProfile which returns UserProfileResponseDto
@@ -116,7 +122,8 @@ public class AuthController {
      * @return ResponseEntity with success message.
      */
     @PatchMapping("/reset-password")
-    @RateLimiter(name = "auth-rate-limiter")
+    @ClientRateLimit(name = "auth", key = RateLimitKey.IP)
+    @ClientRateLimit(name = "otp-verify", key = RateLimitKey.EMAIL)
     ResponseEntity<?> resetPassword(@Valid @RequestBody ResetPasswordDto resetPasswordRequest) {
         log.info("Resetting password for email: {}", resetPasswordRequest.email());
         if (!otpService.verifyOtp(resetPasswordRequest.email(), resetPasswordRequest.otp(), OtpType.FORGOT_PASSWORD)) {
@@ -128,6 +135,7 @@ public class AuthController {
         // userService.updateUserStatus(resetPasswordRequest.email(), Status.ACTIVE);
 
         User user = userService.findUserByActualEmail(resetPasswordRequest.email()); // Use new public method
+        refreshTokenService.revokeAllSessions(user.getId()); // Sessions opened with the old password end here
         emailService.sendResetPasswordSuccessEmail(user.getEmail(), user.getFirstName());
 
         return ResponseEntity.ok("Password reset successfully. You can now login with your new password.");
@@ -141,7 +149,8 @@ public class AuthController {
      * @return ResponseEntity with LoginResponse (access token).
      */
     @PostMapping("/login")
-    @RateLimiter(name = "auth-rate-limiter")
+    @ClientRateLimit(name = "auth", key = RateLimitKey.IP)
+    @ClientRateLimit(name = "auth", key = RateLimitKey.EMAIL)
     public ResponseEntity<LoginResponse> login(
             @Valid @RequestBody LoginRequestDto loginRequestDto,
             HttpServletResponse response) {
@@ -149,4 +158,31 @@ public class AuthController {
         LoginResponse loginResult = authService.login(loginRequestDto, response);
         return ResponseEntity.ok(loginResult); // loginResult directly contains the token
     }
+
+    /**
+     * Issues a new access token from the refresh token cookie and rotates the cookie.
+     * A refresh token works once; reusing one revokes the whole login session.
+     *
+     * @param refreshToken The refresh token cookie set at login or by the previous refresh.
+     * @param response     HttpServletResponse to set the rotated refresh token cookie.
+     * @return ResponseEntity with LoginResponse (access token).
+     */
+    @PostMapping("/refresh")
+    @ClientRateLimit(name = "auth", key = RateLimitKey.IP)
+    public ResponseEntity<LoginResponse> refresh(
+            @CookieValue(name = "refreshToken", required = false) String refreshToken,
+            HttpServletResponse response) {
+        return ResponseEntity.ok(authService.refresh(refreshToken, response));
+    }
+
+    /**
+     * Logs out: revokes the current login session, so its access and refresh tokens stop working.
+     *
+     * @return ResponseEntity with success message.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+        authService.logout(request, response);
+        return ResponseEntity.ok("Logged out successfully");
+    }
 }
\ No newline at end of file
@@ -1,8 +1,6 @@
 package rca.ac.rw.template.auth;
 
 
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import rca.ac.rw.template.auth.dtos.LoginRequestDto;
 import rca.ac.rw.template.auth.dtos.LoginResponse;
 import rca.ac.rw.template.commons.exceptions.UnauthenticatedException;
@@ -10,21 +8,23 @@ import rca.ac.rw.template.users.Status;
 import rca.ac.rw.template.users.User;
 import rca.ac.rw.template.users.UserRepository;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
 @Service
 @AllArgsConstructor
 public class AuthService {
-    private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
+    private final JwtConfig jwtConfig;
+    private final RefreshTokenService refreshTokenService;
 
     public User getCurrentUser(){
         var authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -34,33 +34,79 @@ public class AuthService {
         return userRepository.findById(userId).orElse(null);
     }
 
+    /**
+     * Loads the user once and checks the password on {@link PasswordHashingService}'s pool.
+     *
+     * @throws UnauthenticatedException if the email or password is wrong, or the account is not active.
+     * @throws rca.ac.rw.template.commons.exceptions.ServiceUnavailableException if password hashing is saturated.
+     */
     public LoginResponse login(LoginRequestDto loginRequest, HttpServletResponse response) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.email(),
-                        loginRequest.password()
-                )
-        );
+        var user = userRepository.findByEmail(loginRequest.email()).orElse(null);
 
-        var user = userRepository.findByEmail(loginRequest.email())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        // Unknown emails are checked too (against a dummy hash), so both failures take as long and read the same
+        if (!passwordHashingService.matches(loginRequest.password(), user != null ? user.getPassword() : null)) {
+            throw new UnauthenticatedException("Invalid email or password.");
+        }
 
         if (!user.getStatus().equals(Status.ACTIVE)) {
             throw new UnauthenticatedException("User account is not active. Please verify your account first.");
         }
 
-        var accessToken = jwtService.generateAccessToken(user);
-        var refreshToken = jwtService.generateRefreshToken(user);
+        return issueTokens(user, UUID.randomUUID(), response);
+    }
 
-        var cookie = new Cookie("refreshToken", refreshToken.toString());
-        cookie.setHttpOnly(true);
-        cookie.setPath("/api/v1/auth/refresh");
-        cookie.setMaxAge(60 * 60 * 24 * 7); // 30 days
-        cookie.setSecure(true);
-        response.addCookie(cookie);
+    /**
+     * Rotates the refresh token from the cookie: the presented token is used up and a new access token and
+     * refresh token of the same session are issued.
+     *
+     * @throws UnauthenticatedException if the token is missing, invalid, expired, revoked or already used, or the
+     *                                  account is no longer active.
+     */
+    @Transactional(noRollbackFor = UnauthenticatedException.class)
+    public LoginResponse refresh(String refreshToken, HttpServletResponse response) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new UnauthenticatedException("Refresh token is missing");
+        }
+        RefreshToken consumed = refreshTokenService.consume(refreshToken);
+        var user = userRepository.findById(consumed.getUserId())
+                .filter(u -> Status.ACTIVE.equals(u.getStatus()))
+                .orElseThrow(() -> new UnauthenticatedException("User account is not active."));
+        return issueTokens(user, consumed.getSessionId(), response);
+    }
+
+    /**
+     * Revokes the session of the access token in the request and clears the refresh cookie.
+     */
+    public void logout(HttpServletRequest request, HttpServletResponse response) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            UUID sessionId = jwtService.verify(authHeader.substring(7)).sessionId();
+            if (sessionId != null) { // Tokens issued before sessions existed cannot be revoked; they run out at exp
+                refreshTokenService.revokeSession(sessionId);
+            }
+        }
+        response.addCookie(refreshCookie("", 0));
+    }
+
+    // --- Helper Methods ---
+
+    private LoginResponse issueTokens(User user, UUID sessionId, HttpServletResponse response) {
+        var accessToken = jwtService.generateAccessToken(user, sessionId);
+        var refreshToken = refreshTokenService.issue(user, sessionId);
+
+        response.addCookie(refreshCookie(refreshToken.toString(), jwtConfig.getRefreshTokenExpiration()));
 
         return new LoginResponse(
                 accessToken.toString()
         );
     }
+
+    private static Cookie refreshCookie(String value, int maxAgeSeconds) {
+        var cookie = new Cookie("refreshToken", value);
+        cookie.setHttpOnly(true);
+        cookie.setPath("/api/v1/auth/refresh");
+        cookie.setMaxAge(maxAgeSeconds);
+        cookie.setSecure(true);
+        return cookie;
+    }
 }
@@ -0,0 +1,228 @@
+package rca.ac.rw.template.auth;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live OTPs in a concurrent map keyed by (email, type); generating and verifying an OTP touch no table.
+ * <p>
+ * Each OTP is also put on a delay queue at its expiry, and the sweep every {@code auth.otp.expiry-sweep-ms}
+ * removes exactly the OTPs that have expired since the last one, so there is no bulk delete.
+ * <p>
+ * With {@code auth.otp.write-behind} set, every change is also queued and written to {@code otps} in batches
+ * every {@code auth.otp.write-behind-interval-ms}: new OTPs are inserted, replaced, used and expired ones deleted,
+ * so the table holds just the live OTPs and is reloaded on startup. Without it, a restart loses live OTPs and
+ * users ask for a new one. OTPs are node-local either way: deployments that verify on a different node than the
+ * one that issued the OTP should use {@code auth.otp.store=jpa}. The store is created after database
+ * initialization, so {@code otps} exists when it loads.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.otp.store", havingValue = "memory", matchIfMissing = true)
+@DependsOnDatabaseInitialization
+@Slf4j
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final int WRITE_BEHIND_BATCH_SIZE = 1000;
+
+    private static final String LOAD_SQL =
+            "SELECT id, otpValue, userEmail, otpType, expires_at FROM otps WHERE used = false AND expires_at > ? ORDER BY expires_at";
+    private static final String DELETE_STALE_SQL = "DELETE FROM otps WHERE used = true OR expires_at <= ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO otps (id, otpValue, userEmail, otpType, expires_at, used, created_at, updated_at) VALUES (?, ?, ?, ?, ?, false, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM otps WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean writeBehind;
+    private final ConcurrentHashMap<Key, Entry> live = new ConcurrentHashMap<>();
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private final LinkedBlockingQueue<Write> pendingWrites;
+    private final AtomicLong droppedWrites = new AtomicLong();
+
+    public InMemoryOtpStore(JdbcTemplate jdbcTemplate,
+                            @Value("${auth.otp.write-behind:false}") boolean writeBehind,
+                            @Value("${auth.otp.write-behind-capacity:100000}") int writeBehindCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehind = writeBehind;
+        this.pendingWrites = new LinkedBlockingQueue<>(Math.max(1, writeBehindCapacity));
+    }
+
+    @Override
+    public void put(String userEmail, OtpType otpType, String otpValue, LocalDateTime expiresAt) {
+        Key key = new Key(userEmail, otpType);
+        Entry entry = new Entry(UUID.randomUUID(), otpValue, expiresAt, toMillis(expiresAt));
+        Entry replaced = live.put(key, entry);
+        expiries.add(new Expiry(key, entry));
+        enqueue(Write.insert(userEmail, otpType, entry));
+        if (replaced != null) {
+            enqueue(Write.delete(replaced.id()));
+        }
+    }
+
+    @Override
+    public boolean consume(String userEmail, OtpType otpType, String otpValue) {
+        Key key = new Key(userEmail, otpType);
+        Entry entry = live.get(key);
+        if (entry == null || System.currentTimeMillis() >= entry.expiresAtMillis()
+                || !MessageDigest.isEqual(entry.value().getBytes(StandardCharsets.UTF_8), otpValue.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        // Only one of two concurrent verifications of the same OTP removes it
+        if (!live.remove(key, entry)) {
+            return false;
+        }
+        enqueue(Write.delete(entry.id()));
+        return true;
+    }
+
+    /**
+     * Removes the OTPs whose expiry has passed; OTPs replaced or used in the meantime are already gone.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${auth.otp.expiry-sweep-ms:30000}")
+    public int removeExpired() {
+        int removed = 0;
+        Expiry expiry;
+        while ((expiry = expiries.poll()) != null) {
+            if (live.remove(expiry.key(), expiry.entry())) {
+                enqueue(Write.delete(expiry.entry().id()));
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Removed {} expired OTPs; {} live", removed, live.size());
+        }
+        return removed;
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    /**
+     * Reloads the live OTPs written behind before the last shutdown and deletes the rest.
+     */
+    @PostConstruct
+    public void load() {
+        if (!writeBehind) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = jdbcTemplate.update(DELETE_STALE_SQL, now);
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            Key key = new Key(rs.getString("userEmail"), OtpType.valueOf(rs.getString("otpType")));
+            LocalDateTime expiresAt = rs.getObject("expires_at", LocalDateTime.class);
+            Entry entry = new Entry(rs.getObject("id", UUID.class), rs.getString("otpValue"), expiresAt, toMillis(expiresAt));
+            Entry replaced = live.put(key, entry); // Ordered by expiry: the newest OTP of a key wins
+            expiries.add(new Expiry(key, entry));
+            if (replaced != null) {
+                enqueue(Write.delete(replaced.id()));
+            }
+        }, now);
+        log.info("Loaded {} live OTPs from otps; deleted {} used or expired rows", live.size(), deleted);
+    }
+
+    /**
+     * Writes the queued changes to {@code otps}, oldest first.
+     */
+    @Scheduled(fixedDelayString = "${auth.otp.write-behind-interval-ms:1000}")
+    public void flush() {
+        if (!writeBehind) {
+            return;
+        }
+        List<Write> batch = new ArrayList<>(WRITE_BEHIND_BATCH_SIZE);
+        while (pendingWrites.drainTo(batch, WRITE_BEHIND_BATCH_SIZE) > 0) {
+            List<Write> inserts = batch.stream().filter(w -> w.entry() != null).toList();
+            List<Write> deletes = batch.stream().filter(w -> w.entry() == null).toList();
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                // Inserts first: a delete in the same batch may be for a row inserted in it
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, w) -> {
+                    ps.setObject(1, w.entry().id());
+                    ps.setString(2, w.entry().value());
+                    ps.setString(3, w.userEmail());
+                    ps.setString(4, w.otpType().name());
+                    ps.setObject(5, w.entry().expiresAt());
+                    ps.setObject(6, now);
+                    ps.setObject(7, now);
+                });
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes, deletes.size(), (ps, w) -> ps.setObject(1, w.id()));
+            } catch (RuntimeException e) {
+                log.error("Writing {} OTP changes behind failed; they are lost: {}", batch.size(), e.getMessage(), e);
+            }
+            batch.clear();
+        }
+        long dropped = droppedWrites.getAndSet(0);
+        if (dropped > 0) {
+            log.warn("OTP write-behind queue was full; {} changes were not persisted", dropped);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // --- Helper Methods ---
+
+    private void enqueue(Write write) {
+        if (writeBehind && !pendingWrites.offer(write)) {
+            droppedWrites.incrementAndGet();
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Key(String userEmail, OtpType otpType) {
+    }
+
+    private record Entry(UUID id, String value, LocalDateTime expiresAt, long expiresAtMillis) {
+    }
+
+    /**
+     * A row to insert (entry set) or to delete (entry null).
+     */
+    private record Write(UUID id, String userEmail, OtpType otpType, Entry entry) {
+        static Write insert(String userEmail, OtpType otpType, Entry entry) {
+            return new Write(entry.id(), userEmail, otpType, entry);
+        }
+
+        static Write delete(UUID id) {
+            return new Write(id, null, null, null);
+        }
+    }
+
+    private record Expiry(Key key, Entry entry) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(entry.expiresAtMillis() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(entry.expiresAtMillis(), ((Expiry) other).entry().expiresAtMillis());
+        }
+    }
+}
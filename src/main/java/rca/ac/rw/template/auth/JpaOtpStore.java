@@ -0,0 +1,47 @@
+package rca.ac.rw.template.auth;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * OTPs in the {@code otps} table only: every generation and verification is a database round trip, and used
+ * rows stay until {@link #removeExpired()} deletes them. Suits deployments where any node may verify an OTP
+ * issued by another.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.otp.store", havingValue = "jpa")
+@RequiredArgsConstructor
+public class JpaOtpStore implements OtpStore {
+
+    private final OtpRepository otpRepository;
+
+    @Override
+    @Transactional
+    public void put(String userEmail, OtpType otpType, String otpValue, LocalDateTime expiresAt) {
+        otpRepository.markOldOtpsAsUsed(userEmail, otpType, LocalDateTime.now());
+        otpRepository.save(new Otp(otpValue, userEmail, otpType, expiresAt));
+    }
+
+    @Override
+    @Transactional
+    public boolean consume(String userEmail, OtpType otpType, String otpValue) {
+        Optional<Otp> otp = otpRepository.findByUserEmailAndOtpValueAndOtpTypeAndUsedFalseAndExpiresAtAfter(
+                userEmail, otpValue, otpType, LocalDateTime.now());
+        otp.ifPresent(o -> {
+            o.setUsed(true);
+            otpRepository.save(o);
+        });
+        return otp.isPresent();
+    }
+
+    @Override
+    @Transactional
+    public int removeExpired() {
+        return otpRepository.deleteExpiredAndUsedOtps(LocalDateTime.now().minusDays(1));
+    }
+}
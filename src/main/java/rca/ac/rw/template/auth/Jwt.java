@@ -3,34 +3,66 @@ package rca.ac.rw.template.auth;
 
 import rca.ac.rw.template.users.Role;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.UUID;
 
 public class Jwt {
+    static final String SESSION_ID_CLAIM = "sid";
+    static final String TYPE_CLAIM = "type";
+
     private final Claims claims;
-    private final SecretKey secretKey;
+    private final String token;
 
-    public Jwt(Claims claims, SecretKey secretKey) {
+    /**
+     * @param claims The token's claims.
+     * @param token  The signed compact form of those claims.
+     */
+    public Jwt(Claims claims, String token) {
         this.claims = claims;
-        this.secretKey = secretKey;
+        this.token = token;
     }
 
     public boolean isExpired(){
         return claims.getExpiration().before(new Date());
     }
 
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
     public UUID getUserId(){
         return UUID.fromString(claims.getSubject());
     }
 
+    /**
+     * @return The token ID ({@code jti}), or null for tokens issued before tokens carried one.
+     */
+    public UUID getId() {
+        return claims.getId() != null ? UUID.fromString(claims.getId()) : null;
+    }
+
+    /**
+     * @return The login session the token belongs to ({@code sid}), or null for tokens issued before sessions.
+     */
+    public UUID getSessionId() {
+        Object sessionId = claims.get(SESSION_ID_CLAIM);
+        return sessionId != null ? UUID.fromString(sessionId.toString()) : null;
+    }
+
+    /**
+     * @return The token type; tokens without a type claim are access tokens.
+     */
+    public TokenType getType() {
+        Object type = claims.get(TYPE_CLAIM);
+        return type != null ? TokenType.valueOf(type.toString()) : TokenType.ACCESS;
+    }
+
     public Role getRole() {
-        return Role.valueOf(claims.get("role", String.class));
+        return Role.valueOf(String.valueOf(claims.get("role")));
     }
 
     public String toString(){
-        return Jwts.builder().claims(claims).signWith(secretKey).compact();
+        return token;
     }
 }
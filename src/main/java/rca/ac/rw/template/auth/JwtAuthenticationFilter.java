@@ -8,7 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,14 +15,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @AllArgsConstructor
 @Component
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     private final JwtService jwtService;
+    private final JwtConfig jwtConfig;
     private final AuthenticationEntryPoint authenticationEntryPoint;
 
     @Override
@@ -45,27 +46,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Parse token
-            String token = authHeader.substring(7);
-            Jwt jwt = jwtService.parseToken(token);
-
-            // Validate claims
-            if (jwt.getUserId() == null || jwt.getRole() == null) {
-                throw new InvalidJwtException("Missing token claims");
-            }
-
+            // Verify token (cached after the first request that presents it)
+            VerifiedToken token = jwtService.verify(authHeader.substring(7));
 
             // Set authentication
             UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            jwt.getUserId(),
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority("" + jwt.getRole()))
-                    );
+                    new UsernamePasswordAuthenticationToken(token.userId(), null, token.authorities());
 
-            authentication.setDetails(
-                    new WebAuthenticationDetailsSource().buildDetails(request)
-            );
+            if (jwtConfig.isAuthenticationDetails()) {
+                authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
+            }
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
             filterChain.doFilter(request, response);
@@ -14,6 +14,8 @@ public class JwtConfig {
     private String secret;
     private int accessTokenExpiration;
     private int refreshTokenExpiration;
+    private int verifiedCacheSize = 10000;     // Verified access tokens remembered by JwtService; 0 disables the cache
+    private boolean authenticationDetails = false; // Attach remote address/session details to each request's Authentication
 
     public SecretKey getSecretKey(){
         return Keys.hmacShaKeyFor(secret.getBytes());
@@ -1,49 +1,105 @@
 package rca.ac.rw.template.auth;
 
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import rca.ac.rw.template.auth.exceptions.InvalidJwtException;
 import rca.ac.rw.template.users.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.SignatureException;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
-@AllArgsConstructor
+/**
+ * Issues and verifies the HMAC-signed access and refresh tokens.
+ * <p>
+ * The signing key and the parser are derived once. Tokens that passed verification are remembered, keyed by
+ * the SHA-256 of the token, in a cache of at most {@code spring.jwt.verified-cache-size} entries; a later
+ * request with the same token is answered from the cache until the token's {@code exp}, without checking the
+ * signature or parsing the JSON again. Only verified tokens are cached, so a forged token never gets a hit.
+ * Revoked sessions are looked up in {@link TokenRevocationIndex}, in memory, on every request.
+ */
 @Service
 @Slf4j
 public class JwtService {
     private final JwtConfig config;
+    private final TokenRevocationIndex revocationIndex;
+    private final SecretKey secretKey;
+    private final JwtParser parser;
+    private final Cache<HashCode, VerifiedToken> verifiedTokens;
 
-    Jwt generateAccessToken(User user){
-        return generateToken(user, config.getAccessTokenExpiration());
+    public JwtService(JwtConfig config, TokenRevocationIndex revocationIndex) {
+        this.config = config;
+        this.revocationIndex = revocationIndex;
+        this.secretKey = config.getSecretKey();
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(0, config.getVerifiedCacheSize()))
+                .build();
+    }
+
+    Jwt generateAccessToken(User user, UUID sessionId){
+        return generateToken(user, sessionId, TokenType.ACCESS, config.getAccessTokenExpiration());
     }
 
-    Jwt generateRefreshToken(User user){
-        return generateToken(user, config.getRefreshTokenExpiration());
+    Jwt generateRefreshToken(User user, UUID sessionId){
+        return generateToken(user, sessionId, TokenType.REFRESH, config.getRefreshTokenExpiration());
     }
 
-    private Jwt generateToken(User user, long tokenExpiration){
+    private Jwt generateToken(User user, UUID sessionId, TokenType type, long tokenExpiration){
         var claims = Jwts.claims()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getId().toString())
+                .add(Jwt.SESSION_ID_CLAIM, sessionId.toString())
+                .add(Jwt.TYPE_CLAIM, type.name())
                 .add("email", user.getEmail())
                 .add("phoneNumber", user.getPhoneNumber())
                 .add("role", user.getRole())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + 1000 * tokenExpiration))
                 .build();
-        return new Jwt(claims, config.getSecretKey());
+        return new Jwt(claims, Jwts.builder().claims(claims).signWith(secretKey).compact());
+    }
+
+    /**
+     * Verifies an access token, from the cache when the same token was verified before and has not expired.
+     * The session's revocation is checked on every call, cached or not.
+     *
+     * @throws InvalidJwtException if the token is invalid, expired, revoked, not an access token or lacks the
+     *                             subject, role or expiry claims.
+     */
+    VerifiedToken verify(String token) {
+        HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.US_ASCII);
+        VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null && verified.isExpiredAt(System.currentTimeMillis())) {
+            verifiedTokens.invalidate(digest);
+            verified = null;
+        }
+        if (verified == null) {
+            verified = VerifiedToken.of(parseToken(token));
+            verifiedTokens.put(digest, verified);
+        }
+        if (revocationIndex.isRevoked(verified.sessionId())) {
+            throw new InvalidJwtException("Token revoked");
+        }
+        return verified;
     }
 
     Jwt parseToken(String token) {
         try {
             var claims = getClaims(token);
-            return new Jwt(claims, config.getSecretKey());
+            return new Jwt(claims, token);
         } catch (ExpiredJwtException ex) {
             log.debug("Token expired: {}", ex.getMessage()); // Debug level only
             throw new InvalidJwtException("Token expired");
@@ -57,10 +113,6 @@ public class JwtService {
     }
 
     private Claims getClaims(String token){
-        return Jwts.parser()
-                .verifyWith(config.getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -3,43 +3,36 @@ package rca.ac.rw.template.auth;
 import lombok.RequiredArgsConstructor; // Use this instead of @AllArgsConstructor for final fields
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor // Lombok for constructor injection of final fields
 @Slf4j
 public class OtpService {
 
-    private final OtpRepository otpRepository;
+    private final OtpStore otpStore;
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     private static final int OTP_EXPIRATION_MINUTES = 10; // Default OTP expiration
 
     /**
-     * Generates a new OTP, stores it in the database, and returns the OTP.
-     * Any previous active OTPs of the same type for the user will be marked as used.
+     * Generates a new OTP, stores it in the {@link OtpStore}, and returns the OTP.
+     * Any previous active OTP of the same type for the user is replaced.
      *
      * @param userEmail The email of the user.
      * @param otpType   The type of OTP.
      * @return The generated 6-digit OTP string.
      */
-    @Transactional
     public String generateAndStoreOtp(String userEmail, OtpType otpType) {
         log.info("Generating OTP for UserEmail: {}, Type: {}", userEmail, otpType);
 
-        // Step 1: Mark any existing active OTPs for this user and type as used
-        otpRepository.markOldOtpsAsUsed(userEmail, otpType, LocalDateTime.now());
-
-        // Step 2: Generate new OTP
+        // Step 1: Generate new OTP
         String otpValue = generateNumericOtp();
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(OTP_EXPIRATION_MINUTES);
 
-        // Step 3: Create and save the new OTP entity
-        Otp otpEntity = new Otp(otpValue, userEmail, otpType, expiresAt);
-        otpRepository.save(otpEntity);
+        // Step 2: Store it, replacing any active OTP for this user and type
+        otpStore.put(userEmail, otpType, otpValue, expiresAt);
 
         log.info("Stored new OTP: {} for UserEmail: {}, Type: {}, ExpiresAt: {}",
                 otpValue, userEmail, otpType, expiresAt);
@@ -47,15 +40,14 @@ public class OtpService {
     }
 
     /**
-     * Verifies the provided OTP against the one stored in the database.
-     * If verification is successful, the OTP is marked as used.
+     * Verifies the provided OTP against the one in the {@link OtpStore}.
+     * If verification is successful, the OTP is used up.
      *
      * @param userEmail The email of the user.
      * @param clientOtp The OTP string provided by the client.
      * @param otpType   The type of OTP being verified.
      * @return True if the OTP is valid, active, and matches, false otherwise.
      */
-    @Transactional
     public boolean verifyOtp(String userEmail, String clientOtp, OtpType otpType) {
         log.info("Verifying OTP. UserEmail: {}, ClientOTP: {}, Type: {}", userEmail, clientOtp, otpType);
 
@@ -64,15 +56,8 @@ public class OtpService {
             return false;
         }
 
-        // Find an OTP that matches the user, value, type, is not used, and has not expired.
-        Optional<Otp> otpOptional = otpRepository.findByUserEmailAndOtpValueAndOtpTypeAndUsedFalseAndExpiresAtAfter(
-                userEmail, clientOtp, otpType, LocalDateTime.now()
-        );
-
-        if (otpOptional.isPresent()) {
-            Otp otpEntity = otpOptional.get();
-            otpEntity.setUsed(true); // Mark as used
-            otpRepository.save(otpEntity);
+        // Use up the active OTP of this user and type if it matches and has not expired.
+        if (otpStore.consume(userEmail, otpType, clientOtp)) {
             log.info("OTP MATCHED and verified for UserEmail: {}, Type: {}. OTP marked as used.", userEmail, otpType);
             return true;
         } else {
@@ -104,14 +89,11 @@ public class OtpService {
 
     /**
      * Scheduled task or admin utility to clean up old, expired, or used OTPs.
-     * This helps keep the 'otps' table from growing indefinitely.
+     * The in-memory store also removes OTPs as they expire, so this finds little left to do there.
      */
-    @Transactional
     public void cleanupOldOtps() {
-
-        LocalDateTime cleanupThreshold = LocalDateTime.now().minusDays(1); // Example: clean OTPs expired more than a day ago
-        log.info("Performing cleanup of old OTPs expired or used before: {}", cleanupThreshold);
-        int deletedCount = otpRepository.deleteExpiredAndUsedOtps(cleanupThreshold);
+        log.info("Performing cleanup of expired or used OTPs");
+        int deletedCount = otpStore.removeExpired();
         log.info("Cleaned up {} old OTP records.", deletedCount);
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package rca.ac.rw.template.auth;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where {@link OtpService} keeps one-time passwords. At most one OTP per (email, type) is live at a time.
+ * <p>
+ * Selected with {@code auth.otp.store}: {@code memory} (default, {@link InMemoryOtpStore}) or {@code jpa}
+ * ({@link JpaOtpStore}, the {@code otps} table only).
+ */
+public interface OtpStore {
+
+    /**
+     * Stores a new OTP, replacing any live OTP of the same email and type.
+     */
+    void put(String userEmail, OtpType otpType, String otpValue, LocalDateTime expiresAt);
+
+    /**
+     * Uses up the live OTP of the email and type if it matches and has not expired.
+     *
+     * @return {@code true} if it matched; it cannot be used again.
+     */
+    boolean consume(String userEmail, OtpType otpType, String otpValue);
+
+    /**
+     * Removes expired and used OTPs.
+     *
+     * @return The number removed.
+     */
+    int removeExpired();
+}
@@ -0,0 +1,20 @@
+package rca.ac.rw.template.auth;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.password-hashing")
+@Data
+public class PasswordHashingConfig {
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2); // Concurrent BCrypt checks
+    private int queueCapacity = 64;               // Checks waiting for a thread; beyond this, logins get a 503
+    private Duration timeout = Duration.ofSeconds(5); // Longest a login waits for its check, queueing included
+    private int strength = 0;                     // BCrypt cost; 0 calibrates it at startup against targetMs
+    private int targetMs = 250;                   // Calibration: the highest cost whose hash stays under this
+    private int minStrength = 10;
+    private int maxStrength = 14;
+}
@@ -0,0 +1,142 @@
+package rca.ac.rw.template.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import rca.ac.rw.template.commons.exceptions.ServiceUnavailableException;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks login passwords on a dedicated, bounded pool instead of the request thread.
+ * <p>
+ * A BCrypt check is pure CPU work; run on request threads, a burst of logins takes every core and every other
+ * endpoint waits behind it. Here at most {@code auth.password-hashing.threads} checks run at once and at most
+ * {@code auth.password-hashing.queue-capacity} wait for a thread. A login that finds the queue full, or whose
+ * check has not finished within {@code auth.password-hashing.timeout}, fails at once with a 503 and a
+ * {@code Retry-After}, rather than adding to the backlog.
+ * <p>
+ * Published meters: {@code auth.password.hash} (time of the check itself), {@code auth.password.hash.wait}
+ * (time queued), {@code auth.password.hash.queue} and {@code auth.password.hash.active} (gauges), and
+ * {@code auth.password.hash.rejected} (logins turned away, tagged by reason).
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final String dummyHash;
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, PasswordHashingConfig config, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = Math.max(1, config.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())), named("password-hashing"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutNanos = config.getTimeout().toNanos();
+        // Hash of a password nobody knows, at the current cost: unknown emails are checked against it
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Time to check a login password")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.password.hash.wait")
+                .description("Time a password check waited for a hashing thread")
+                .register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("auth.password.hash.rejected").tag("reason", "queue-full")
+                .description("Logins turned away because password hashing was saturated")
+                .register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("auth.password.hash.rejected").tag("reason", "timeout")
+                .description("Logins turned away because password hashing was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password checks waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks running")
+                .register(meterRegistry);
+        log.info("Password hashing pool: {} threads, queue of {}, timeout {}", threads, config.getQueueCapacity(), config.getTimeout());
+    }
+
+    /**
+     * Checks a password against a stored hash on the hashing pool; the caller blocks until the check is done.
+     * A {@code null} hash (no such user) costs the same as a real check and never matches, so the response time
+     * does not tell which emails have accounts.
+     *
+     * @throws ServiceUnavailableException if the pool is saturated or the check did not finish in time.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        long submittedAt = System.nanoTime();
+        Future<Boolean> check;
+        try {
+            check = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    boolean matches = passwordEncoder.matches(rawPassword, encodedPassword != null ? encodedPassword : dummyHash);
+                    return matches && encodedPassword != null;
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            throw new ServiceUnavailableException("Too many logins in progress; please retry shortly.", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return check.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            check.cancel(true);
+            rejectedTimeout.increment();
+            throw new ServiceUnavailableException("Too many logins in progress; please retry shortly.", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            check.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Login was interrupted; please retry.", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password check failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // --- Helper Methods ---
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
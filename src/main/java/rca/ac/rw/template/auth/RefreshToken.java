@@ -0,0 +1,48 @@
+package rca.ac.rw.template.auth;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One issued refresh token, identified by its {@code jti}. A token is used once: refreshing sets
+ * {@code rotatedAt} and issues the next token of the same session. Presenting a rotated token again means it
+ * was copied, and the whole session is revoked.
+ */
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_session", columnList = "session_id"),
+        @Index(name = "idx_refresh_token_user_issued", columnList = "user_id, issued_at"),
+        @Index(name = "idx_refresh_token_issued_at", columnList = "issued_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "session_id", nullable = false, updatable = false)
+    private UUID sessionId;
+
+    @Column(name = "issued_at", nullable = false, updatable = false)
+    private Instant issuedAt;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+}
@@ -0,0 +1,38 @@
+package rca.ac.rw.template.auth;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Loads a token for rotation, locking it so two concurrent refreshes with the same token are serialized.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RefreshToken t WHERE t.id = :id")
+    Optional<RefreshToken> findByIdForUpdate(UUID id);
+
+    /**
+     * Sessions of a user that may still hold a live access token: those with a token issued after the cutoff.
+     */
+    @Query("SELECT DISTINCT t.sessionId FROM RefreshToken t WHERE t.userId = :userId AND t.issuedAt > :issuedAfter")
+    List<UUID> findSessionIdsIssuedAfter(UUID userId, Instant issuedAfter);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :revokedAt WHERE t.sessionId = :sessionId AND t.revokedAt IS NULL")
+    int revokeSession(UUID sessionId, Instant revokedAt);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.issuedAt < :issuedBefore")
+    int deleteIssuedBefore(Instant issuedBefore);
+}
@@ -0,0 +1,130 @@
+package rca.ac.rw.template.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rca.ac.rw.template.auth.exceptions.InvalidJwtException;
+import rca.ac.rw.template.commons.exceptions.UnauthenticatedException;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
+import rca.ac.rw.template.users.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tracks issued refresh tokens, rotates them and revokes login sessions.
+ * <p>
+ * Every login starts a session: its access and refresh tokens carry the session ID ({@code sid}) and a token
+ * ID ({@code jti}). Each refresh token is stored and may be used once. A refresh marks it rotated and issues the
+ * next token of the same session. Revoking a session marks its refresh tokens revoked and records the session ID
+ * in {@code revoked_token} until its last access token has expired; {@link TokenRevocationIndex} makes that
+ * visible to the authentication filter without a query per request.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationIndex revocationIndex;
+    private final JwtService jwtService;
+    private final Duration accessTokenLifetime;
+    private final Duration retention;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               RevokedTokenRepository revokedTokenRepository,
+                               TokenRevocationIndex revocationIndex,
+                               JwtService jwtService,
+                               JwtConfig jwtConfig) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revocationIndex = revocationIndex;
+        this.jwtService = jwtService;
+        this.accessTokenLifetime = Duration.ofSeconds(jwtConfig.getAccessTokenExpiration());
+        // A session's last access token can outlive its last refresh token; keep rows until both have expired
+        this.retention = Duration.ofSeconds(Math.max(jwtConfig.getAccessTokenExpiration(), jwtConfig.getRefreshTokenExpiration()));
+    }
+
+    /**
+     * Issues and stores a refresh token for a session.
+     */
+    @Transactional
+    public Jwt issue(User user, UUID sessionId) {
+        Jwt token = jwtService.generateRefreshToken(user, sessionId);
+        refreshTokenRepository.save(new RefreshToken(token.getId(), user.getId(), sessionId, Instant.now(),
+                token.getExpiration().toInstant(), null, null));
+        return token;
+    }
+
+    /**
+     * Verifies a refresh token and marks it used. Presenting an already rotated token revokes its session.
+     *
+     * @return The consumed token, whose user and session the caller issues the next tokens for.
+     * @throws UnauthenticatedException if the token is invalid, expired, revoked or already used.
+     */
+    @Transactional(noRollbackFor = UnauthenticatedException.class)
+    public RefreshToken consume(String token) {
+        Jwt jwt;
+        try {
+            jwt = jwtService.parseToken(token);
+        } catch (InvalidJwtException e) {
+            throw new UnauthenticatedException(e.getMessage());
+        }
+        if (jwt.getType() != TokenType.REFRESH || jwt.getId() == null) {
+            throw new UnauthenticatedException("Not a refresh token");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByIdForUpdate(jwt.getId())
+                .orElseThrow(() -> new UnauthenticatedException("Unknown refresh token"));
+        if (stored.getRevokedAt() != null) {
+            throw new UnauthenticatedException("Refresh token revoked");
+        }
+        if (stored.getRotatedAt() != null) {
+            log.warn("Refresh token {} of user {} was used twice; revoking session {}", stored.getId(), stored.getUserId(), stored.getSessionId());
+            revokeSession(stored.getSessionId());
+            throw new UnauthenticatedException("Refresh token already used; please log in again");
+        }
+        stored.setRotatedAt(Instant.now());
+        return refreshTokenRepository.save(stored);
+    }
+
+    /**
+     * Revokes a session: its refresh tokens stop working at once and its access tokens at the next request.
+     */
+    @Transactional
+    public void revokeSession(UUID sessionId) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(accessTokenLifetime);
+        refreshTokenRepository.revokeSession(sessionId, now);
+        revokedTokenRepository.save(new RevokedToken(sessionId, now, expiresAt));
+        AfterCommit.run(() -> revocationIndex.add(sessionId, expiresAt));
+    }
+
+    /**
+     * Revokes every session of a user that may still hold a live token.
+     *
+     * @return The number of sessions revoked.
+     */
+    @Transactional
+    public int revokeAllSessions(UUID userId) {
+        List<UUID> sessionIds = refreshTokenRepository.findSessionIdsIssuedAfter(userId, Instant.now().minus(accessTokenLifetime));
+        sessionIds.forEach(this::revokeSession);
+        log.info("Revoked {} sessions of user {}", sessionIds.size(), userId);
+        return sessionIds.size();
+    }
+
+    /**
+     * Deletes refresh tokens and revocations that can no longer match a live token.
+     */
+    @Scheduled(cron = "0 45 3 * * ?") // Daily at 3:45 AM
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int tokens = refreshTokenRepository.deleteIssuedBefore(now.minus(retention));
+        int revocations = revokedTokenRepository.deleteExpired(now);
+        log.info("Purged {} refresh tokens and {} revocations", tokens, revocations);
+    }
+}
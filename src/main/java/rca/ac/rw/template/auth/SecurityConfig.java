@@ -27,6 +27,7 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final  JwtAuthenticationFilter jwtAuthenticationFilter;
     private final SecurityExceptionHandler securityExceptionHandler;
+    private final PasswordHashingConfig passwordHashingConfig;
     private static final String[] AUTH_WHITELIST = {
             "/swagger-resources/**",
             "/configuration/ui",
@@ -46,7 +47,7 @@ public class SecurityConfig {
 
     @Bean
     PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength());
     }
 
     @Bean
@@ -89,4 +90,38 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // --- Helper Methods ---
+
+    /**
+     * The configured BCrypt cost or, if none is set, the highest cost between the minimum and maximum whose hash
+     * takes at most {@code auth.password-hashing.target-ms} on this machine. Each step doubles the work, so only
+     * the minimum is timed. Stored hashes carry their own cost and keep verifying when it changes; new and changed
+     * passwords get the new one.
+     */
+    private int bcryptStrength() {
+        if (passwordHashingConfig.getStrength() > 0) {
+            log.info("BCrypt strength {} (configured)", passwordHashingConfig.getStrength());
+            return passwordHashingConfig.getStrength();
+        }
+        int min = Math.max(4, passwordHashingConfig.getMinStrength());
+        int max = Math.min(31, Math.max(min, passwordHashingConfig.getMaxStrength()));
+
+        var encoder = new BCryptPasswordEncoder(min);
+        encoder.encode("warm-up");
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        long targetNanos = passwordHashingConfig.getTargetMs() * 1_000_000L;
+        int strength = min;
+        while (strength < max && (fastestNanos << (strength + 1 - min)) <= targetNanos) {
+            strength++;
+        }
+        log.info("BCrypt strength {} (calibrated: cost {} hashes in {} ms, target {} ms)",
+                strength, min, fastestNanos / 1_000_000, passwordHashingConfig.getTargetMs());
+        return strength;
+    }
+
 }
@@ -0,0 +1,127 @@
+package rca.ac.rw.template.auth;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of {@code revoked_token}: a Bloom filter in front of an exact map of ID to expiry.
+ * <p>
+ * {@link #isRevoked} is what the authentication filter calls on every request. Almost every ID is not revoked,
+ * and the Bloom filter answers that from a few bit probes; the map is read only on a filter hit, and decides.
+ * Entries are dropped once they expire, and the Bloom filter (which cannot forget) is rebuilt from the map at the
+ * same time, so memory follows the number of live revocations. Revocations made on other nodes are picked up
+ * by polling the table every {@code auth.revocation.sync-interval-ms}.
+ */
+@Component
+@Slf4j
+public class TokenRevocationIndex {
+
+    private static final Funnel<UUID> UUID_FUNNEL = (id, sink) -> sink.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private static final String LOAD_SQL = "SELECT id, revoked_at, expires_at FROM revoked_token WHERE expires_at > ?";
+    private static final String SYNC_SQL = "SELECT id, revoked_at, expires_at FROM revoked_token WHERE revoked_at > ? AND expires_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int expectedRevocations;
+    private final ConcurrentHashMap<UUID, Long> expiries = new ConcurrentHashMap<>(); // ID -> expiry in epoch millis
+    private volatile BloomFilter<UUID> filter;
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+
+    // The repository is injected so the schema (revoked_token) exists before the index loads
+    public TokenRevocationIndex(JdbcTemplate jdbcTemplate,
+                                RevokedTokenRepository revokedTokenRepository,
+                                @Value("${auth.revocation.expected-revocations:100000}") int expectedRevocations) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedRevocations = Math.max(1000, expectedRevocations);
+        this.filter = newFilter(0);
+    }
+
+    /**
+     * @return {@code true} if the ID was revoked and the revocation has not expired.
+     */
+    public boolean isRevoked(UUID id) {
+        if (id == null || !filter.mightContain(id)) {
+            return false;
+        }
+        Long expiresAt = expiries.get(id);
+        return expiresAt != null && System.currentTimeMillis() < expiresAt;
+    }
+
+    /**
+     * Adds a revocation on this node. Call once the {@code revoked_token} row has committed.
+     */
+    public synchronized void add(UUID id, Instant expiresAt) {
+        expiries.merge(id, expiresAt.toEpochMilli(), Math::max);
+        filter.put(id); // After the map, so a filter hit always finds the entry
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    @PostConstruct
+    public void load() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            apply(rs.getObject("id", UUID.class), rs.getObject("revoked_at", OffsetDateTime.class).toInstant(),
+                    rs.getObject("expires_at", OffsetDateTime.class).toInstant());
+        }, OffsetDateTime.ofInstant(now, ZoneOffset.UTC));
+        log.info("Token revocation index loaded {} revocations in {} ms", expiries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Picks up revocations written since the last sync, by this node or any other.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        // Rows commit out of revoked_at order; the overlap re-reads the last few seconds rather than miss one
+        Instant since = syncedUpTo.minusSeconds(30);
+        jdbcTemplate.query(SYNC_SQL, rs -> {
+            apply(rs.getObject("id", UUID.class), rs.getObject("revoked_at", OffsetDateTime.class).toInstant(),
+                    rs.getObject("expires_at", OffsetDateTime.class).toInstant());
+        }, OffsetDateTime.ofInstant(since, ZoneOffset.UTC), OffsetDateTime.ofInstant(Instant.now(), ZoneOffset.UTC));
+    }
+
+    /**
+     * Drops expired revocations and rebuilds the Bloom filter from the remaining ones.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval-ms:3600000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = expiries.size();
+        expiries.values().removeIf(expiresAt -> expiresAt <= now);
+        BloomFilter<UUID> rebuilt = newFilter(expiries.size());
+        expiries.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        if (before != expiries.size()) {
+            log.info("Token revocation index dropped {} expired revocations, {} remain", before - expiries.size(), expiries.size());
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void apply(UUID id, Instant revokedAt, Instant expiresAt) {
+        add(id, expiresAt);
+        if (revokedAt.isAfter(syncedUpTo)) {
+            syncedUpTo = revokedAt;
+        }
+    }
+
+    private BloomFilter<UUID> newFilter(int entries) {
+        return BloomFilter.create(UUID_FUNNEL, Math.max(expectedRevocations, 2L * entries), FALSE_POSITIVE_RATE);
+    }
+}
@@ -0,0 +1,5 @@
+package rca.ac.rw.template.auth;
+
+public enum TokenType {
+    ACCESS, REFRESH
+}
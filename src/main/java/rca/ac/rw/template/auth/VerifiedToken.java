@@ -0,0 +1,39 @@
+package rca.ac.rw.template.auth;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import rca.ac.rw.template.auth.exceptions.InvalidJwtException;
+import rca.ac.rw.template.users.Role;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What the authentication filter needs from an access token whose signature has been verified, built once per
+ * token and shared by every request that presents it. Immutable.
+ */
+record VerifiedToken(UUID userId, UUID sessionId, Role role, List<GrantedAuthority> authorities, long expiresAtMillis) {
+
+    static VerifiedToken of(Jwt jwt) {
+        TokenType type;
+        try {
+            type = jwt.getType();
+        } catch (RuntimeException e) {
+            throw new InvalidJwtException("Invalid token type");
+        }
+        if (type != TokenType.ACCESS) {
+            throw new InvalidJwtException("Not an access token");
+        }
+        try {
+            Role role = jwt.getRole();
+            return new VerifiedToken(jwt.getUserId(), jwt.getSessionId(), role, List.of(new SimpleGrantedAuthority(role.name())),
+                    jwt.getExpiration().getTime());
+        } catch (RuntimeException e) {
+            throw new InvalidJwtException("Missing token claims");
+        }
+    }
+
+    boolean isExpiredAt(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -2,10 +2,11 @@ package rca.ac.rw.template.auth.dtos;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import rca.ac.rw.template.commons.ratelimit.EmailKeyedRequest;
 
 public record InitiatePasswordResetDto(
         @NotBlank(message = "Email is required")
         @Email(message = "Email must be valid.")
         String email
-) {
+) implements EmailKeyedRequest {
 }
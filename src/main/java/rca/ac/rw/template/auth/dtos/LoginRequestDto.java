@@ -2,6 +2,7 @@ package rca.ac.rw.template.auth.dtos;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import rca.ac.rw.template.commons.ratelimit.EmailKeyedRequest;
 
 public record LoginRequestDto(
         @NotBlank(message = "Field is required")
@@ -10,5 +11,5 @@ public record LoginRequestDto(
 
         @NotBlank(message = "Password is required")
         String password
-) {
+) implements EmailKeyedRequest {
 }
@@ -5,6 +5,7 @@ import rca.ac.rw.template.commons.validation.ValidRwandanPhoneNumber;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import rca.ac.rw.template.commons.ratelimit.EmailKeyedRequest;
 
 
 
@@ -31,5 +32,5 @@ public record RegisterRequestDto(
         @NotBlank(message = "Password is required")
         @Size(min = 8, max = 250, message = "Password must be at least 8 characters long")
         String password
-) {
+) implements EmailKeyedRequest {
 }
@@ -3,6 +3,7 @@ package rca.ac.rw.template.auth.dtos;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import rca.ac.rw.template.commons.ratelimit.EmailKeyedRequest;
 
 public record ResetPasswordDto(
         @NotBlank(message = "Email is required")
@@ -14,5 +15,5 @@ public record ResetPasswordDto(
 
         @Size(min = 8, max = 50, message = "Password must be at least 8 characters long")
         String newPassword
-) {
+) implements EmailKeyedRequest {
 }
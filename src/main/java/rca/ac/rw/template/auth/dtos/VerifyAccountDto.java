@@ -3,6 +3,7 @@ package rca.ac.rw.template.auth.dtos;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import rca.ac.rw.template.commons.ratelimit.EmailKeyedRequest;
 
 public record VerifyAccountDto(
         @NotBlank(message = "Email is required")
@@ -11,5 +12,5 @@ public record VerifyAccountDto(
 
         @Size(min = 6, max = 6, message = "OTP must be 6 digits long.")
         String otp
-) {
+) implements EmailKeyedRequest {
 }
@@ -6,6 +6,7 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -17,8 +18,11 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import rca.ac.rw.template.commons.exceptions.BadRequestException;
+import rca.ac.rw.template.commons.exceptions.ConflictException;
 import rca.ac.rw.template.commons.response.ErrorResponse;
 import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
+import rca.ac.rw.template.commons.exceptions.ServiceUnavailableException;
+import rca.ac.rw.template.commons.exceptions.TooManyRequestsException;
 import rca.ac.rw.template.commons.exceptions.UnauthenticatedException;
 import rca.ac.rw.template.commons.exceptions.ValidationException;
 import org.springframework.security.core.AuthenticationException;
@@ -67,6 +71,31 @@ public class GlobalExceptionHandler {
         return buildResponseEntity(HttpStatus.UNAUTHORIZED, ex.getMessage(), request.getRequestURI());
     }
 
+    // Handler for ConflictException (concurrent change, e.g. a vehicle transferred by another request first)
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException(ConflictException ex, HttpServletRequest request) {
+        log.warn("ConflictException: {} on path: {}", ex.getMessage(), request.getRequestURI());
+        return buildResponseEntity(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
+    }
+
+    // Handler for TooManyRequestsException (client rate limits); tells the client when to retry
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex, HttpServletRequest request) {
+        log.warn("TooManyRequestsException: {} on path: {}", ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request.getRequestURI()));
+    }
+
+    // Handler for ServiceUnavailableException (saturated worker pools); tells the client when to retry
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex, HttpServletRequest request) {
+        log.warn("ServiceUnavailableException: {} on path: {}", ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI()));
+    }
+
     // Handler for Spring's MethodArgumentNotValidException (thrown by @Valid on @RequestBody)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpServletRequest request) {
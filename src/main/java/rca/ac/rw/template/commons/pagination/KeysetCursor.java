@@ -0,0 +1,42 @@
+package rca.ac.rw.template.commons.pagination;
+
+import org.springframework.data.domain.Sort;
+import rca.ac.rw.template.commons.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page: the sort property, its direction, the row's sort value and its id.
+ * Sent to clients as an opaque URL-safe string.
+ *
+ * @param property  Entity property the listing is sorted on.
+ * @param direction Sort direction.
+ * @param value     String form of the last row's sort value, {@code null} when the value was null.
+ * @param id        Id of the last row, used as tie-breaker.
+ */
+public record KeysetCursor(String property, Sort.Direction direction, String value, UUID id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR
+                + (value == null ? "" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String value = parts[3].isEmpty() ? null : parts[3].substring(1);
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), value, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid pagination cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package rca.ac.rw.template.commons.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) listing. Unlike {@link org.springframework.data.domain.Page}
+ * it carries no total count; pass {@code nextCursor} as {@code after} to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // null on the last page
+}
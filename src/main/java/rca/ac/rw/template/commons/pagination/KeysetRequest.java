@@ -0,0 +1,176 @@
+package rca.ac.rw.template.commons.pagination;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import rca.ac.rw.template.commons.exceptions.BadRequestException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination over one sort property plus {@code id} as tie-breaker.
+ * Instead of an OFFSET and a count query, each page continues strictly after the last row of the
+ * previous one, so the cost of a page does not grow with its depth.
+ * <p>
+ * The sort comes from the cursor when continuing a listing, otherwise from the first order of the
+ * request's {@link Pageable}. Null sort values follow the Postgres defaults (last when ascending,
+ * first when descending).
+ */
+public final class KeysetRequest {
+
+    private static final String ID = "id";
+
+    private final KeysetCursor cursor;
+    private final Sort.Order order;
+    private final int size;
+
+    private KeysetRequest(KeysetCursor cursor, Sort.Order order, int size) {
+        this.cursor = cursor;
+        this.order = order;
+        this.size = size;
+    }
+
+    /**
+     * @param after    Cursor from the previous page; blank for the first page.
+     * @param pageable Size and sort of the request (the page number is ignored).
+     */
+    public static KeysetRequest of(String after, Pageable pageable) {
+        int size = pageable.isPaged() ? pageable.getPageSize() : 20;
+        if (after != null && !after.isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            return new KeysetRequest(cursor, new Sort.Order(cursor.direction(), cursor.property()), size);
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(ID));
+        return new KeysetRequest(null, order, size);
+    }
+
+    /**
+     * Sort to run the query with: the seek property, then id in the same direction.
+     */
+    public Sort sort() {
+        if (ID.equals(order.getProperty())) {
+            return Sort.by(order.getDirection(), ID);
+        }
+        return Sort.by(order.getDirection(), order.getProperty()).and(Sort.by(order.getDirection(), ID));
+    }
+
+    /**
+     * Rows to fetch: one more than the page size, to know whether a next page exists.
+     */
+    public int limit() {
+        return size + 1;
+    }
+
+    /**
+     * Restricts a query to the rows after the cursor. Matches everything on the first page.
+     */
+    public <T> Specification<T> seek() {
+        return (root, query, cb) -> cursor == null ? null : seekPredicate(root, cb);
+    }
+
+    /**
+     * Builds the page from the fetched rows (at most {@link #limit()} of them, in {@link #sort()} order).
+     *
+     * @param rows   Fetched rows; entities or DTOs exposing the sort property and {@code id}.
+     * @param mapper Conversion of a row to the response type.
+     */
+    public <T, D> KeysetPage<D> toPage(List<T> rows, Function<T, D> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<T> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(order.getProperty(), order.getDirection(),
+                    asString(readProperty(last, order.getProperty())), (UUID) readProperty(last, ID)).encode();
+        }
+        return new KeysetPage<>(pageRows.stream().map(mapper).toList(), size, hasNext, nextCursor);
+    }
+
+    // --- Helper Methods ---
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(Root<?> root, CriteriaBuilder cb) {
+        boolean ascending = cursor.direction().isAscending();
+        Path<UUID> id = root.get(ID);
+        Predicate idAfter = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+        if (ID.equals(cursor.property())) {
+            return idAfter;
+        }
+
+        Path<?> path = resolvePath(root, cursor.property());
+        if (cursor.value() == null) {
+            // Nulls sort last ascending (only nulls remain) and first descending (non-nulls follow).
+            Predicate sameNull = cb.and(cb.isNull(path), idAfter);
+            return ascending ? sameNull : cb.or(cb.isNotNull(path), sameNull);
+        }
+
+        Expression<Comparable> key = (Expression<Comparable>) path;
+        Comparable value = (Comparable) fromString(cursor.value(), path.getJavaType());
+        Predicate tie = cb.and(cb.equal(key, value), idAfter);
+        if (ascending) {
+            return cb.or(cb.greaterThan(key, value), cb.isNull(key), tie);
+        }
+        return cb.or(cb.lessThan(key, value), tie);
+    }
+
+    private static Path<?> resolvePath(Root<?> root, String property) {
+        try {
+            Path<?> path = root;
+            for (String part : property.split("\\.")) {
+                path = path.get(part);
+            }
+            return path;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cannot paginate on property '" + property + "'", e);
+        }
+    }
+
+    private static Object readProperty(Object row, String property) {
+        try {
+            return new BeanWrapperImpl(row).getPropertyValue(property);
+        } catch (BeansException e) {
+            throw new BadRequestException("Cannot paginate on property '" + property + "'", e);
+        }
+    }
+
+    private static String asString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object fromString(String value, Class<?> type) {
+        try {
+            if (type == String.class) return value;
+            if (type == UUID.class) return UUID.fromString(value);
+            if (type == Instant.class) return Instant.parse(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == Year.class) return Year.parse(value);
+            if (type == BigDecimal.class) return new BigDecimal(value);
+            if (type == Long.class || type == long.class) return Long.valueOf(value);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(value);
+            if (type.isEnum()) return Enum.valueOf((Class<Enum>) type, value);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor value: " + value, e);
+        }
+        throw new BadRequestException("Cannot paginate on a property of type " + type.getSimpleName());
+    }
+}
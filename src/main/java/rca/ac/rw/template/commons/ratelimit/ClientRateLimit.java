@@ -0,0 +1,22 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import java.lang.annotation.*;
+
+/**
+ * Limits how often one client may call the annotated endpoint, with a token bucket per client key.
+ * The limit's capacity and refill period are configured under {@code rate-limits.limits.<name>}.
+ * Repeat the annotation to count the same request against several keys (e.g. per IP and per email).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(ClientRateLimits.class)
+public @interface ClientRateLimit {
+
+    /**
+     * The configured limit to apply.
+     */
+    String name();
+
+    RateLimitKey key() default RateLimitKey.IP;
+}
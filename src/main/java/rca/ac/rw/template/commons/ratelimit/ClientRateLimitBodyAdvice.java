@@ -0,0 +1,46 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import lombok.AllArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Locale;
+
+/**
+ * Applies the {@link RateLimitKey#EMAIL} limits of an endpoint once its request body has been read.
+ * Bodies that do not implement {@link EmailKeyedRequest}, or carry no email, are not counted.
+ */
+@ControllerAdvice
+@AllArgsConstructor
+public class ClientRateLimitBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final KeyedRateLimiter rateLimiter;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        for (ClientRateLimit limit : rateLimiter.limitsOf(methodParameter.getMethod())) {
+            if (limit.key() == RateLimitKey.EMAIL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        if (body instanceof EmailKeyedRequest request && request.email() != null) {
+            String email = request.email().trim().toLowerCase(Locale.ROOT);
+            for (ClientRateLimit limit : rateLimiter.limitsOf(parameter.getMethod())) {
+                if (limit.key() == RateLimitKey.EMAIL) {
+                    rateLimiter.acquire(limit.name(), RateLimitKey.EMAIL, email);
+                }
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.UUID;
+
+/**
+ * Applies the {@link RateLimitKey#IP} and {@link RateLimitKey#USER} limits of an endpoint before it runs.
+ * {@link RateLimitKey#EMAIL} limits need the request body and are applied by {@link ClientRateLimitBodyAdvice}.
+ */
+@Component
+@AllArgsConstructor
+public class ClientRateLimitInterceptor implements HandlerInterceptor {
+
+    private final KeyedRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        for (ClientRateLimit limit : rateLimiter.limitsOf(handlerMethod.getMethod())) {
+            if (limit.key() == RateLimitKey.IP) {
+                rateLimiter.acquire(limit.name(), RateLimitKey.IP, request.getRemoteAddr());
+            } else if (limit.key() == RateLimitKey.USER) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof UUID userId) {
+                    rateLimiter.acquire(limit.name(), RateLimitKey.USER, userId.toString());
+                } else {
+                    rateLimiter.acquire(limit.name(), RateLimitKey.IP, request.getRemoteAddr());
+                }
+            }
+        }
+        return true;
+    }
+}
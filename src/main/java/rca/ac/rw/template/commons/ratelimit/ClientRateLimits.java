@@ -0,0 +1,13 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import java.lang.annotation.*;
+
+/**
+ * Container of repeated {@link ClientRateLimit} annotations.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClientRateLimits {
+    ClientRateLimit[] value();
+}
@@ -0,0 +1,9 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+/**
+ * A request body that names the account it acts on, so {@link RateLimitKey#EMAIL} limits can count per account.
+ * Records with an {@code email} component implement it by declaring it.
+ */
+public interface EmailKeyedRequest {
+    String email();
+}
@@ -0,0 +1,105 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import rca.ac.rw.template.commons.exceptions.TooManyRequestsException;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets per (limit, client key), for the endpoints annotated with {@link ClientRateLimit}.
+ * <p>
+ * Each configured limit keeps its buckets in a Guava cache striped into {@code rate-limits.concurrency-level}
+ * segments, so requests of different clients only meet on a segment lock when they create a bucket, and a
+ * decision is a hash lookup plus one uncontended bucket monitor. Memory is bounded twice: at most
+ * {@code rate-limits.max-keys} buckets per limit, and buckets idle for {@code rate-limits.idle-eviction} (by then
+ * refilled, so indistinguishable from a new one) are dropped.
+ */
+@Component
+public class KeyedRateLimiter {
+
+    private static final ClientRateLimit[] NONE = new ClientRateLimit[0];
+
+    private final RateLimitProperties properties;
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+    private final Map<Method, ClientRateLimit[]> annotations = new ConcurrentHashMap<>();
+
+    public KeyedRateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Takes one token from the client's bucket of the limit.
+     *
+     * @throws TooManyRequestsException if the bucket is empty.
+     * @throws IllegalStateException    if the limit is not configured.
+     */
+    public void acquire(String limitName, RateLimitKey keyType, String key) {
+        Limiter limiter = limiters.get(limitName);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(limitName, this::createLimiter);
+        }
+        long waitNanos = limiter.tryAcquire(keyType.name() + ':' + key);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new TooManyRequestsException("Too many requests. Please try again in " + retryAfterSeconds + " seconds.", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * @return The {@link ClientRateLimit} annotations of a handler method, looked up once per method.
+     */
+    public ClientRateLimit[] limitsOf(Method method) {
+        if (method == null) {
+            return NONE;
+        }
+        return annotations.computeIfAbsent(method,
+                m -> AnnotatedElementUtils.findMergedRepeatableAnnotations(m, ClientRateLimit.class).toArray(ClientRateLimit[]::new));
+    }
+
+    /**
+     * @return The number of client buckets currently held for a limit.
+     */
+    public long size(String limitName) {
+        Limiter limiter = limiters.get(limitName);
+        return limiter != null ? limiter.buckets.size() : 0;
+    }
+
+    // --- Helper Methods ---
+
+    private Limiter createLimiter(String limitName) {
+        RateLimitProperties.Limit limit = properties.getLimits().get(limitName);
+        if (limit == null || limit.getCapacity() < 1 || limit.getRefillPeriod() == null || limit.getRefillPeriod().isZero()) {
+            throw new IllegalStateException("Rate limit '" + limitName + "' needs rate-limits.limits." + limitName
+                    + ".capacity and .refill-period to be configured.");
+        }
+        Cache<String, TokenBucket> buckets = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(properties.getIdleEviction())
+                .concurrencyLevel(properties.getConcurrencyLevel())
+                .build();
+        return new Limiter(limit.getCapacity(), (double) limit.getCapacity() / limit.getRefillPeriod().toNanos(), buckets);
+    }
+
+    private record Limiter(int capacity, double tokensPerNano, Cache<String, TokenBucket> buckets) {
+
+        long tryAcquire(String key) {
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.getIfPresent(key);
+            if (bucket == null) {
+                try {
+                    bucket = buckets.get(key, () -> new TokenBucket(capacity, now));
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return bucket.tryAcquire(capacity, tokensPerNano, now);
+        }
+    }
+}
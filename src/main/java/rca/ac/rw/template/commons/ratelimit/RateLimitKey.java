@@ -0,0 +1,13 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+/**
+ * What a {@link ClientRateLimit} counts requests per.
+ */
+public enum RateLimitKey {
+    /** The client's address, as seen by the servlet container. */
+    IP,
+    /** The {@code email()} of a request body implementing {@link EmailKeyedRequest}. */
+    EMAIL,
+    /** The authenticated user's ID; anonymous requests are counted per IP instead. */
+    USER
+}
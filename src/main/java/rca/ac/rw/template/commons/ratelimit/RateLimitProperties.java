@@ -0,0 +1,25 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "rate-limits")
+@Data
+public class RateLimitProperties {
+    private int maxKeys = 1_000_000;                  // Buckets kept per limit; least recently used are evicted first
+    private Duration idleEviction = Duration.ofMinutes(30); // A bucket unused this long is dropped (it would be full again)
+    private int concurrencyLevel = 64;                // Lock stripes of each limit's bucket map
+    private Map<String, Limit> limits = new HashMap<>();
+
+    @Data
+    public static class Limit {
+        private int capacity;       // Burst size, and requests allowed per refill period
+        private Duration refillPeriod;
+    }
+}
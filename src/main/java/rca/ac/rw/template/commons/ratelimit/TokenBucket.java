@@ -0,0 +1,34 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+/**
+ * A token bucket refilled continuously at {@code capacity} tokens per period. Each instance is one client's
+ * bucket, so its monitor is only ever contended by that client's own concurrent requests.
+ */
+final class TokenBucket {
+
+    private double tokens;
+    private long refilledAtNanos;
+
+    TokenBucket(int capacity, long nowNanos) {
+        this.tokens = capacity;
+        this.refilledAtNanos = nowNanos;
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    synchronized long tryAcquire(int capacity, double tokensPerNano, long nowNanos) {
+        long elapsed = nowNanos - refilledAtNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledAtNanos = nowNanos;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
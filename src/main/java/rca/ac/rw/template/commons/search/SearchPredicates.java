@@ -0,0 +1,41 @@
+package rca.ac.rw.template.commons.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Case-insensitive substring predicates shared by the search Specifications.
+ * <p>
+ * Each predicate renders as {@code lower(column) LIKE '%term%'}, which is exactly the expression the
+ * trigram GIN indexes in {@code db/search-indexes.sql} are built on, so Postgres can answer it with an
+ * index scan (one bitmap per column, OR-ed together) instead of a sequential scan. Keep the two in sync
+ * when adding a searchable column.
+ */
+public final class SearchPredicates {
+
+    private static final char ESCAPE = '\\';
+
+    private SearchPredicates() {
+    }
+
+    /**
+     * Matches rows where any of the given columns contains the term, ignoring case.
+     *
+     * @param searchTerm Raw user input; trimmed, lower-cased and with LIKE wildcards escaped.
+     */
+    @SafeVarargs
+    public static Predicate anyContainsIgnoreCase(CriteriaBuilder cb, String searchTerm, Expression<String>... columns) {
+        String pattern = "%" + escapeLike(searchTerm.trim().toLowerCase(Locale.ROOT)) + "%";
+        return cb.or(Arrays.stream(columns)
+                .map(column -> cb.like(cb.lower(column), pattern, ESCAPE))
+                .toArray(Predicate[]::new));
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -15,8 +15,9 @@ public class PlateNumberValidator implements ConstraintValidator<ValidPlateNumbe
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
+        // Presence is checked by @NotBlank where the plate is mandatory; an absent plate is allocated by the server.
         if (value == null || value.isEmpty()) {
-            return false;
+            return true;
         }
 
         // Remove spaces and check the format
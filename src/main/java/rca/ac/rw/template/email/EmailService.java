@@ -13,6 +13,8 @@ import org.thymeleaf.context.Context;
 import rca.ac.rw.template.auth.OtpType; // Assuming this is still used
 
 import java.math.BigDecimal; // Import BigDecimal
+import java.time.LocalDate;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
@@ -76,11 +78,12 @@ public class EmailService {
     }
 
     @Async
-    public void sendPostInspectionNotification(String to, String name, String plateNumber, String vehicleIdentifier) {
+    public void sendPostInspectionNotification(String to, String name, String plateNumber, String vehicleIdentifier, LocalDate inspectionDate) {
         Context context = new Context();
         context.setVariable("name", name);
         context.setVariable("plateNumber", plateNumber); // Current plate related to inspection
         context.setVariable("vehicleIdentifier", vehicleIdentifier); // e.g., Chassis number
+        context.setVariable("inspectionDate", inspectionDate);
         context.setVariable("companyName", "Rwanda Revenue Authority");
         sendEmail("post_inspection_notification", context, to, "Vehicle Inspection Update");
     }
@@ -141,6 +144,55 @@ public class EmailService {
     }
 
 
+    /**
+     * Sends one consolidated email to a previous owner listing every vehicle transferred away in a fleet transfer.
+     *
+     * @param to         The email address of the sender.
+     * @param senderName The full name of the sender.
+     * @param lines      One line per vehicle, with the plate given up and the new owner.
+     */
+    @Async
+    public void sendFleetTransferEmailToSender(String to, String senderName, List<TransferNoticeLine> lines) {
+        Context context = new Context();
+        context.setVariable("name", senderName);
+        context.setVariable("lines", lines);
+        context.setVariable("companyName", "Rwanda Revenue Authority");
+        sendEmail("fleet_transferred_sender", context, to, "Vehicle Ownership Transferred (" + lines.size() + " vehicles)");
+    }
+
+    /**
+     * Sends one consolidated email to a new owner listing every vehicle received in a fleet transfer.
+     *
+     * @param to           The email address of the receiver.
+     * @param receiverName The full name of the receiver.
+     * @param lines        One line per vehicle, with the plate received and the previous owner.
+     */
+    @Async
+    public void sendFleetTransferEmailToReceiver(String to, String receiverName, List<TransferNoticeLine> lines) {
+        Context context = new Context();
+        context.setVariable("name", receiverName);
+        context.setVariable("lines", lines);
+        context.setVariable("companyName", "Rwanda Revenue Authority");
+        sendEmail("fleet_transferred_receiver", context, to, "You Have Received Vehicle Ownership (" + lines.size() + " vehicles)");
+    }
+
+    /**
+     * Sends one consolidated reminder to an owner listing every vehicle whose inspection is coming up.
+     *
+     * @param to    The email address of the owner.
+     * @param name  The full name of the owner.
+     * @param lines One line per vehicle, with its due date.
+     */
+    @Async
+    public void sendInspectionDueReminder(String to, String name, List<InspectionDueLine> lines) {
+        Context context = new Context();
+        context.setVariable("name", name);
+        context.setVariable("lines", lines);
+        context.setVariable("companyName", "Rwanda Revenue Authority");
+        String subject = lines.size() == 1 ? "Vehicle Inspection Due" : "Vehicle Inspection Due (" + lines.size() + " vehicles)";
+        sendEmail("inspection_due_reminder", context, to, subject);
+    }
+
     // --- Private Helper Methods ---
 
     private void sendOtpEmail(String to, String name, String otp, OtpType otpType) {
@@ -0,0 +1,19 @@
+package rca.ac.rw.template.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One vehicle in a consolidated inspection-due reminder email.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InspectionDueLine {
+    private String vehicleIdentifier; // e.g., chassis number
+    private String plateNumber;
+    private LocalDate dueOn;
+}
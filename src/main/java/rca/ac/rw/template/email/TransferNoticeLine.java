@@ -0,0 +1,20 @@
+package rca.ac.rw.template.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One vehicle in a consolidated (fleet) ownership transfer email.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferNoticeLine {
+    private String vehicleIdentifier; // e.g., chassis number
+    private String plateNumber;       // Plate given up (sender) or received (receiver)
+    private BigDecimal amount;
+    private String counterpartyName;  // New owner for the sender, previous owner for the receiver
+}
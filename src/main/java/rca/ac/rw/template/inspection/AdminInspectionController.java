@@ -0,0 +1,79 @@
+package rca.ac.rw.template.inspection;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import rca.ac.rw.template.inspection.dto.InspectionScheduleDto;
+import rca.ac.rw.template.inspection.dto.RecordInspectionRequestDto;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/admin/inspections")
+@AllArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+public class AdminInspectionController {
+
+    private final InspectionService inspectionService;
+
+    /**
+     * GET /api/v1/admin/inspections/{vehicleId} : Admin displays the inspection schedule of a vehicle.
+     */
+    @GetMapping("/{vehicleId}")
+    public ResponseEntity<InspectionScheduleDto> getSchedule(@PathVariable UUID vehicleId) {
+        return ResponseEntity.ok(inspectionService.getSchedule(vehicleId));
+    }
+
+    /**
+     * POST /api/v1/admin/inspections/{vehicleId} : Admin records a passed inspection; the next one is scheduled
+     * and the owner is notified.
+     */
+    @PostMapping("/{vehicleId}")
+    public ResponseEntity<InspectionScheduleDto> recordInspection(@PathVariable UUID vehicleId,
+                                                                  @Valid @RequestBody(required = false) RecordInspectionRequestDto request) {
+        log.info("Admin request to record an inspection of vehicle {}", vehicleId);
+        return ResponseEntity.ok(inspectionService.recordInspection(vehicleId, request != null ? request.getInspectedOn() : null));
+    }
+
+    /**
+     * GET /api/v1/admin/inspections/due?before=yyyy-MM-dd : Admin pages through vehicles whose inspection is due
+     * on or before the date (today by default).
+     */
+    @GetMapping("/due")
+    public ResponseEntity<Page<InspectionScheduleDto>> getDue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @PageableDefault(size = 50, sort = "nextDueOn", direction = Sort.Direction.ASC) Pageable pageable) {
+        return ResponseEntity.ok(inspectionService.getDue(before != null ? before : LocalDate.now(), pageable));
+    }
+
+    /**
+     * POST /api/v1/admin/inspections/reminders/dispatch : Admin sends the reminders that are due now instead of
+     * waiting for the daily run.
+     */
+    @PostMapping("/reminders/dispatch")
+    public ResponseEntity<Map<String, Integer>> dispatchReminders() {
+        log.info("Admin request to dispatch due inspection reminders.");
+        return ResponseEntity.ok(Map.of("vehiclesReminded", inspectionService.dispatchDueReminders()));
+    }
+
+    /**
+     * POST /api/v1/admin/inspections/backfill : One-off scheduling of vehicles registered before inspections were
+     * scheduled. Returns the number of vehicles scheduled; re-running it schedules none.
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillSchedules() {
+        log.info("Admin request to schedule inspections of unscheduled vehicles.");
+        return ResponseEntity.ok(Map.of("vehiclesScheduled", inspectionService.backfill()));
+    }
+}
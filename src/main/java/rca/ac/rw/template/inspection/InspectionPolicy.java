@@ -0,0 +1,60 @@
+package rca.ac.rw.template.inspection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Year;
+
+/**
+ * Inspection intervals: every {@code inspection.interval-months} months, shortened to
+ * {@code inspection.old-vehicle-interval-months} once the vehicle is {@code inspection.old-vehicle-age-years}
+ * old. The first inspection is due one interval after registration, later ones one interval after the last
+ * inspection; the vehicle's age is taken at that starting date.
+ */
+@Component
+public class InspectionPolicy {
+
+    private final int intervalMonths;
+    private final int oldVehicleAgeYears;
+    private final int oldVehicleIntervalMonths;
+    private final int reminderLeadDays;
+
+    public InspectionPolicy(@Value("${inspection.interval-months:12}") int intervalMonths,
+                            @Value("${inspection.old-vehicle-age-years:10}") int oldVehicleAgeYears,
+                            @Value("${inspection.old-vehicle-interval-months:6}") int oldVehicleIntervalMonths,
+                            @Value("${inspection.reminder-lead-days:14}") int reminderLeadDays) {
+        this.intervalMonths = intervalMonths;
+        this.oldVehicleAgeYears = oldVehicleAgeYears;
+        this.oldVehicleIntervalMonths = oldVehicleIntervalMonths;
+        this.reminderLeadDays = reminderLeadDays;
+    }
+
+    /**
+     * @param since Registration date, or the date of the last inspection.
+     */
+    public LocalDate nextDue(Year manufacturedYear, LocalDate since) {
+        int age = since.getYear() - manufacturedYear.getValue();
+        return since.plusMonths(age >= oldVehicleAgeYears ? oldVehicleIntervalMonths : intervalMonths);
+    }
+
+    public LocalDate remindOn(LocalDate dueOn) {
+        return dueOn.minusDays(reminderLeadDays);
+    }
+
+    public int getIntervalMonths() {
+        return intervalMonths;
+    }
+
+    public int getOldVehicleAgeYears() {
+        return oldVehicleAgeYears;
+    }
+
+    public int getOldVehicleIntervalMonths() {
+        return oldVehicleIntervalMonths;
+    }
+
+    public int getReminderLeadDays() {
+        return reminderLeadDays;
+    }
+}
@@ -0,0 +1,308 @@
+package rca.ac.rw.template.inspection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
+import rca.ac.rw.template.email.EmailService;
+import rca.ac.rw.template.email.InspectionDueLine;
+import rca.ac.rw.template.inspection.dto.InspectionScheduleDto;
+import rca.ac.rw.template.owner.Owner;
+import rca.ac.rw.template.ownership.OwnerShip;
+import rca.ac.rw.template.ownership.OwnerShipRepository;
+import rca.ac.rw.template.plateNumber.PlateNumber;
+import rca.ac.rw.template.plateNumber.PlateNumberRepository;
+import rca.ac.rw.template.plateNumber.PlateStatus;
+import rca.ac.rw.template.vehicle.Vehicle;
+import rca.ac.rw.template.vehicle.VehicleRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps one {@link VehicleInspectionSchedule} per active vehicle and sends the inspection-due reminders.
+ * <p>
+ * A schedule row is written when a vehicle is registered (single or bulk) and rewritten when an inspection is
+ * recorded; its {@code remind_on} day is {@code inspection.reminder-lead-days} before the due date. The daily
+ * dispatch claims due rows from the {@code remind_on} index in batches of {@code inspection.reminders.batch-size}
+ * ({@code FOR UPDATE SKIP LOCKED}, so several nodes can dispatch at once), clears their {@code remind_on} in the
+ * same statement and sends one email per owner per batch. A tick reads only the reminders that are due, however
+ * many vehicles are scheduled; a missed tick is caught up by the next one since {@code remind_on <= today}.
+ * <p>
+ * Vehicles registered before this subsystem existed are scheduled from their registration date by {@link #backfill()},
+ * a one-off admin command.
+ */
+@Service
+@Slf4j
+public class InspectionService {
+
+    private static final UUID NIL_UUID = new UUID(0L, 0L);
+    private static final int BACKFILL_PARTITION_SIZE = 10000;
+
+    private static final String PARTITION_UPPER_BOUND_SQL = """
+            SELECT id FROM (SELECT id FROM vehicles WHERE id > ? ORDER BY id LIMIT ?) p
+            ORDER BY id DESC LIMIT 1
+            """;
+
+    // Same rule as InspectionPolicy.nextDue, from the registration date and repeated until the due date is today or
+    // later, so a vehicle registered years ago is not reported overdue on its first reminder; %s selects the vehicles
+    private static final String SCHEDULE_SQL = """
+            INSERT INTO vehicle_inspection_schedule (vehicle_id, next_due_on, remind_on, created_at, updated_at)
+            SELECT d.id, d.due_on, d.due_on - ?, ?, ?
+            FROM (SELECT v.id,
+                         CASE WHEN (r.since + make_interval(months => n.k * i.months))::date >= current_date
+                              THEN (r.since + make_interval(months => n.k * i.months))::date
+                              ELSE (r.since + make_interval(months => (n.k + 1) * i.months))::date END AS due_on
+                  FROM vehicles v
+                  CROSS JOIN LATERAL (SELECT coalesce(v.created_at, now())::date AS since) r
+                  CROSS JOIN LATERAL (SELECT CASE WHEN extract(year FROM r.since)::int - v.manufacturer_year >= ?
+                                                  THEN ? ELSE ? END AS months) i
+                  CROSS JOIN LATERAL (SELECT greatest(1, (extract(year FROM age(current_date, r.since))::int * 12
+                                                          + extract(month FROM age(current_date, r.since))::int) / i.months) AS k) n
+                  WHERE %s AND v.deleted = false) d
+            ON CONFLICT (vehicle_id) DO NOTHING
+            """;
+
+    private static final String CLAIM_DUE_SQL = """
+            WITH due AS (
+                SELECT vehicle_id FROM vehicle_inspection_schedule
+                WHERE remind_on <= ?
+                ORDER BY remind_on
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            UPDATE vehicle_inspection_schedule s
+            SET remind_on = NULL, reminded_for_due_on = s.next_due_on, updated_at = ?
+            FROM due
+            LEFT JOIN vehicle_current_state c ON c.vehicle_id = due.vehicle_id
+            LEFT JOIN users u ON u.id = c.current_owner_id
+            WHERE s.vehicle_id = due.vehicle_id
+            RETURNING s.vehicle_id, s.next_due_on, c.chassis_number, c.current_plate_number,
+                      u.email, u.firstName AS first_name, u.lastName AS last_name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VehicleInspectionScheduleRepository scheduleRepository;
+    private final VehicleRepository vehicleRepository;
+    private final OwnerShipRepository ownerShipRepository;
+    private final PlateNumberRepository plateNumberRepository;
+    private final EmailService emailService;
+    private final InspectionPolicy policy;
+    private final int reminderBatchSize;
+
+    public InspectionService(JdbcTemplate jdbcTemplate,
+                             VehicleInspectionScheduleRepository scheduleRepository,
+                             VehicleRepository vehicleRepository,
+                             OwnerShipRepository ownerShipRepository,
+                             PlateNumberRepository plateNumberRepository,
+                             EmailService emailService,
+                             InspectionPolicy policy,
+                             @Value("${inspection.reminders.batch-size:1000}") int reminderBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.scheduleRepository = scheduleRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.ownerShipRepository = ownerShipRepository;
+        this.plateNumberRepository = plateNumberRepository;
+        this.emailService = emailService;
+        this.policy = policy;
+        this.reminderBatchSize = Math.max(1, reminderBatchSize);
+    }
+
+    /**
+     * Schedules the first inspection of a newly registered vehicle. Runs in the caller's transaction.
+     */
+    public void schedule(Vehicle vehicle) {
+        LocalDate dueOn = policy.nextDue(vehicle.getManufacturedYear(), LocalDate.now());
+        scheduleRepository.save(new VehicleInspectionSchedule(vehicle.getId(), null, dueOn, policy.remindOn(dueOn), null));
+    }
+
+    /**
+     * Schedules the first inspection of vehicles inserted in bulk, in one statement. Runs in the caller's
+     * transaction; vehicles that already have a schedule are left alone.
+     *
+     * @return The number of schedules created.
+     */
+    public int scheduleVehicles(List<UUID> vehicleIds) {
+        if (vehicleIds.isEmpty()) {
+            return 0;
+        }
+        UUID[] ids = vehicleIds.toArray(UUID[]::new);
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(SCHEDULE_SQL.formatted("v.id = ANY(?)"));
+            bindScheduleParameters(statement, now);
+            statement.setArray(7, connection.createArrayOf("uuid", ids));
+            return statement;
+        });
+    }
+
+    /**
+     * Drops the schedule of a deleted vehicle. Runs in the caller's transaction.
+     */
+    public void remove(UUID vehicleId) {
+        jdbcTemplate.update("DELETE FROM vehicle_inspection_schedule WHERE vehicle_id = ?", vehicleId);
+    }
+
+    /**
+     * Records a passed inspection, schedules the next one and notifies the current owner once the transaction
+     * commits.
+     *
+     * @param inspectedOn The inspection date; today when null.
+     * @throws ResourceNotFoundException if the vehicle does not exist.
+     * @throws ValidationException if the date is in the future or before the last recorded inspection.
+     */
+    @Transactional
+    public InspectionScheduleDto recordInspection(UUID vehicleId, LocalDate inspectedOn) {
+        Vehicle vehicle = vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "ID", vehicleId));
+        LocalDate date = inspectedOn != null ? inspectedOn : LocalDate.now();
+        if (date.isAfter(LocalDate.now())) {
+            throw new ValidationException("Inspection date cannot be in the future.");
+        }
+
+        VehicleInspectionSchedule schedule = scheduleRepository.findById(vehicleId)
+                .orElseGet(() -> new VehicleInspectionSchedule(vehicleId, null, null, null, null));
+        if (schedule.getLastInspectedOn() != null && date.isBefore(schedule.getLastInspectedOn())) {
+            throw new ValidationException("An inspection on " + schedule.getLastInspectedOn() + " is already recorded for this vehicle.");
+        }
+        LocalDate dueOn = policy.nextDue(vehicle.getManufacturedYear(), date);
+        schedule.setLastInspectedOn(date);
+        schedule.setNextDueOn(dueOn);
+        schedule.setRemindOn(policy.remindOn(dueOn));
+        schedule.setRemindedForDueOn(null);
+        VehicleInspectionSchedule saved = scheduleRepository.save(schedule);
+        log.info("Inspection of vehicle {} recorded on {}; next inspection due {}", vehicleId, date, dueOn);
+
+        Owner owner = ownerShipRepository.findFirstByVehicleAndEndDateIsNullOrderByStartDateDesc(vehicle)
+                .map(OwnerShip::getOwner)
+                .orElse(null);
+        if (owner != null) {
+            String plate = plateNumberRepository.findFirstByVehicleAndStatusOrderByIssuedDateDesc(vehicle, PlateStatus.IN_USE)
+                    .map(PlateNumber::getPlateNumber)
+                    .orElse(null);
+            String email = owner.getEmail();
+            String name = owner.getFirstName() + " " + owner.getLastName();
+            String chassis = vehicle.getChassisNumber();
+            AfterCommit.run(() -> emailService.sendPostInspectionNotification(email, name, plate, chassis, date));
+        }
+        return toDto(saved);
+    }
+
+    public InspectionScheduleDto getSchedule(UUID vehicleId) {
+        return scheduleRepository.findById(vehicleId)
+                .map(InspectionService::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Inspection schedule", "vehicle ID", vehicleId));
+    }
+
+    /**
+     * @return Schedules whose inspection is due on or before the given date, earliest first per the pageable.
+     */
+    public Page<InspectionScheduleDto> getDue(LocalDate dueOn, Pageable pageable) {
+        return scheduleRepository.findByNextDueOnLessThanEqual(dueOn, pageable).map(InspectionService::toDto);
+    }
+
+    /**
+     * Sends the reminders that are due today, batch by batch, until none are left.
+     *
+     * @return The number of vehicles reminded about.
+     */
+    @Scheduled(cron = "${inspection.reminders.cron:0 0 8 * * ?}") // Daily at 8 AM by default
+    public int dispatchDueReminders() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        int emails = 0;
+        int claimed;
+        do {
+            // One statement per batch: the claim commits on its own, so a crash cannot resend a batch
+            Map<String, Recipient> recipients = new LinkedHashMap<>();
+            int[] count = {0};
+            jdbcTemplate.query(CLAIM_DUE_SQL, rs -> {
+                count[0]++;
+                String email = rs.getString("email");
+                if (email == null) {
+                    log.warn("No current owner to remind about the inspection of vehicle {}", rs.getObject("vehicle_id", UUID.class));
+                    return;
+                }
+                String name = rs.getString("first_name") + " " + rs.getString("last_name");
+                recipients.computeIfAbsent(email, e -> new Recipient(name, new ArrayList<>())).lines().add(new InspectionDueLine(rs.getString("chassis_number"), rs.getString("current_plate_number"),
+                        rs.getObject("next_due_on", LocalDate.class)));
+            }, today, reminderBatchSize, LocalDateTime.now());
+            claimed = count[0];
+            recipients.forEach((email, recipient) -> emailService.sendInspectionDueReminder(email, recipient.name(), recipient.lines()));
+            total += claimed;
+            emails += recipients.size();
+        } while (claimed == reminderBatchSize);
+
+        if (total > 0) {
+            log.info("Dispatched inspection reminders for {} vehicles in {} emails in {} ms",
+                    total, emails, (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    /**
+     * Schedules every active vehicle that has no schedule yet, one partition of the vehicle key at a time. Their
+     * first inspection is due on the first interval after registration that is not already past. A one-off
+     * command for vehicles registered before inspections were scheduled; safe to re-run.
+     *
+     * @return The number of schedules created.
+     */
+    public int backfill() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int created = 0;
+        UUID lowerBound = NIL_UUID;
+        while (true) {
+            List<UUID> upper = jdbcTemplate.queryForList(PARTITION_UPPER_BOUND_SQL, UUID.class, lowerBound, BACKFILL_PARTITION_SIZE);
+            if (upper.isEmpty()) {
+                break;
+            }
+            UUID from = lowerBound;
+            UUID to = upper.get(0);
+            created += jdbcTemplate.update(connection -> {
+                var statement = connection.prepareStatement(SCHEDULE_SQL.formatted("v.id > ? AND v.id <= ?"));
+                bindScheduleParameters(statement, now);
+                statement.setObject(7, from);
+                statement.setObject(8, to);
+                return statement;
+            });
+            lowerBound = to;
+        }
+        log.info("Scheduled inspections for {} previously unscheduled vehicles in {} ms",
+                created, (System.nanoTime() - start) / 1_000_000);
+        return created;
+    }
+
+    // --- Helper Methods ---
+
+    private void bindScheduleParameters(PreparedStatement statement, LocalDateTime now) throws SQLException {
+        statement.setInt(1, policy.getReminderLeadDays());
+        statement.setObject(2, now);
+        statement.setObject(3, now);
+        statement.setInt(4, policy.getOldVehicleAgeYears());
+        statement.setInt(5, policy.getOldVehicleIntervalMonths());
+        statement.setInt(6, policy.getIntervalMonths());
+    }
+
+    private static InspectionScheduleDto toDto(VehicleInspectionSchedule schedule) {
+        return new InspectionScheduleDto(schedule.getVehicleId(), schedule.getLastInspectedOn(), schedule.getNextDueOn(),
+                schedule.getRemindOn(), schedule.getRemindedForDueOn());
+    }
+
+    private record Recipient(String name, List<InspectionDueLine> lines) {
+    }
+}
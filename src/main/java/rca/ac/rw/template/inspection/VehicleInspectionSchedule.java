@@ -0,0 +1,43 @@
+package rca.ac.rw.template.inspection;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rca.ac.rw.template.audits.TimestampAudit;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Next inspection due date of one active vehicle, and the day its reminder becomes due.
+ * {@code remind_on} is cleared once the reminder is sent, so a {@code remind_on <= today} range scan of its index
+ * reads exactly the reminders that are due.
+ */
+@Entity
+@Table(name = "vehicle_inspection_schedule", indexes = {
+        @Index(name = "idx_vis_remind_on", columnList = "remind_on"),
+        @Index(name = "idx_vis_next_due_on", columnList = "next_due_on")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleInspectionSchedule extends TimestampAudit {
+
+    @Id
+    @Column(name = "vehicle_id", updatable = false, nullable = false)
+    private UUID vehicleId;
+
+    @Column(name = "last_inspected_on")
+    private LocalDate lastInspectedOn;
+
+    @Column(name = "next_due_on", nullable = false)
+    private LocalDate nextDueOn;
+
+    // Null once the reminder for next_due_on has been sent
+    @Column(name = "remind_on")
+    private LocalDate remindOn;
+
+    @Column(name = "reminded_for_due_on")
+    private LocalDate remindedForDueOn;
+}
@@ -0,0 +1,15 @@
+package rca.ac.rw.template.inspection;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Repository
+public interface VehicleInspectionScheduleRepository extends JpaRepository<VehicleInspectionSchedule, UUID> {
+
+    Page<VehicleInspectionSchedule> findByNextDueOnLessThanEqual(LocalDate dueOn, Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package rca.ac.rw.template.inspection.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InspectionScheduleDto {
+    private UUID vehicleId;
+    private LocalDate lastInspectedOn;
+    private LocalDate nextDueOn;
+    private LocalDate remindOn;          // null once the reminder for nextDueOn was sent
+    private LocalDate remindedForDueOn;
+}
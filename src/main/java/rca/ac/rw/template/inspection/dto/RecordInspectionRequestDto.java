@@ -0,0 +1,17 @@
+package rca.ac.rw.template.inspection.dto;
+
+import jakarta.validation.constraints.PastOrPresent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordInspectionRequestDto {
+
+    @PastOrPresent(message = "Inspection date cannot be in the future")
+    private LocalDate inspectedOn; // Defaults to today
+}
@@ -61,14 +61,19 @@ public class OwnerController {
      *
      * @param pageable Spring Data Pageable automatically resolved from request parameters.
      * @param search   Optional search term from query parameter.
-     * @return ResponseEntity with a Page of OwnerResponseDto and HttpStatus.OK.
+     * @param after    Optional keyset cursor (empty for the first page); switches to keyset pagination.
+     * @return ResponseEntity with a Page of OwnerResponseDto (or a KeysetPage when {@code after} is given) and HttpStatus.OK.
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<OwnerResponseDto>> getAllOwners(
+    public ResponseEntity<?> getAllOwners(
             @PageableDefault(size = 10, sort = "firstName") Pageable pageable,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after
     ) {
+        if (after != null) {
+            return ResponseEntity.ok(ownerService.getAllOwnersAfter(after, pageable, search));
+        }
 
         Page<OwnerResponseDto> ownersPage = ownerService.getAllOwners(pageable, search);
 
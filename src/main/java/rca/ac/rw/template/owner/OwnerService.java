@@ -10,6 +10,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.commons.pagination.KeysetPage;
+import rca.ac.rw.template.commons.pagination.KeysetRequest;
 import rca.ac.rw.template.owner.dto.OwnerResponseDto;
 import rca.ac.rw.template.owner.dto.RegisterOwnerRequestDto;
 import rca.ac.rw.template.users.Role;
@@ -89,4 +91,21 @@ public class OwnerService {
 
         return new PageImpl<>(ownerResponseDtos, pageable, ownerPage.getTotalElements());
     }
+
+    /**
+     * Keyset variant of {@link #getAllOwners}: continues after the given cursor and skips the total count.
+     *
+     * @param after    Cursor returned with the previous page; blank for the first page.
+     * @param pageable Page size and sort (the page number is ignored).
+     * @param search   Optional search term.
+     * @return KeysetPage of OwnerResponseDto.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<OwnerResponseDto> getAllOwnersAfter(String after, Pageable pageable, String search) {
+        log.debug("Fetching owners after cursor. Search: '{}'", search);
+        KeysetRequest keyset = KeysetRequest.of(after, pageable);
+        Specification<Owner> spec = OwnerSpecifications.searchOwners(search).and(keyset.seek());
+        List<Owner> rows = ownerRepository.findBy(spec, q -> q.sortBy(keyset.sort()).limit(keyset.limit()).all());
+        return keyset.toPage(rows, OwnerConverter::toDto);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package rca.ac.rw.template.owner;
 
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils; // Use Spring's StringUtils for checking empty/null
+import rca.ac.rw.template.commons.search.SearchPredicates;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -15,7 +16,8 @@ public class OwnerSpecifications {
     /**
      * Creates a Specification for searching Owners by a general search term
      * across multiple fields (firstName, lastName, email, nationalId).
-     * The search is case-insensitive and uses 'LIKE' for partial matches.
+     * The search is case-insensitive and uses 'LIKE' for partial matches, served by the
+     * trigram indexes on the users table (see db/search-indexes.sql).
      *
      * @param searchTerm The term to search for.
      * @return A Specification that filters Owners.
@@ -28,17 +30,12 @@ public class OwnerSpecifications {
             }
 
 
-            String lowerCaseSearchTerm = searchTerm.toLowerCase();
-
-
-            Predicate firstNameLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), "%" + lowerCaseSearchTerm + "%");
-            Predicate lastNameLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), "%" + lowerCaseSearchTerm + "%");
-            Predicate emailLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), "%" + lowerCaseSearchTerm + "%");
-            Predicate nationalIdLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("nationalId")), "%" + lowerCaseSearchTerm + "%");
-            // Add other fields to search if needed (e.g., phoneNumber)
-
-            // Combine the predicates using OR - match if term is found in ANY of these fields
-            return criteriaBuilder.or(firstNameLike, lastNameLike, emailLike, nationalIdLike);
+            // Match if term is found in ANY of these fields
+            return SearchPredicates.anyContainsIgnoreCase(criteriaBuilder, searchTerm,
+                    root.get("firstName"),
+                    root.get("lastName"),
+                    root.get("email"),
+                    root.get("nationalId"));
         };
     }
 
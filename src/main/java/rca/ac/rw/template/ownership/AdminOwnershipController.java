@@ -3,13 +3,23 @@ package rca.ac.rw.template.ownership;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import rca.ac.rw.template.ownership.OwnerShipService;
+import rca.ac.rw.template.ownership.dto.BulkVehicleTransferRequestDto;
+import rca.ac.rw.template.ownership.dto.BulkVehicleTransferResultDto;
+import rca.ac.rw.template.ownership.dto.OwnershipAsOfBatchRequestDto;
+import rca.ac.rw.template.ownership.dto.OwnershipAsOfResultDto;
 import rca.ac.rw.template.ownership.dto.OwnershipRecordDto;
 import rca.ac.rw.template.ownership.dto.VehicleTransferRequestDto;
+import rca.ac.rw.template.plateNumber.PlateNumberNormalizer;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,7 +30,12 @@ import java.util.UUID;
 @Slf4j
 public class AdminOwnershipController {
 
+    private static final int HISTORY_PAGE_SIZE = 20;
+
     private final OwnerShipService ownershipService;
+    private final OwnershipBulkTransferService ownershipBulkTransferService;
+    private final OwnershipAsOfService ownershipAsOfService;
+    private final OwnershipPartitionManager ownershipPartitionManager;
 
     /**
      * POST /api/v1/admin/ownership/transfer : Admin transfers a vehicle's ownership.
@@ -34,14 +49,29 @@ public class AdminOwnershipController {
         return ResponseEntity.ok("Vehicle ownership transferred successfully.");
     }
 
+    /**
+     * POST /api/v1/admin/ownership/transfer/bulk : Admin transfers a batch of vehicles (e.g., a fleet sale).
+     * Items are validated and applied independently; the response reports the outcome of every item.
+     */
+    @PostMapping("/transfer/bulk")
+    public ResponseEntity<BulkVehicleTransferResultDto> transferVehiclesInBulk(
+            @Valid @RequestBody BulkVehicleTransferRequestDto requestDto) {
+        log.info("Admin API request to bulk transfer {} vehicles", requestDto.getTransfers().size());
+        BulkVehicleTransferResultDto result = ownershipBulkTransferService.transferVehicles(requestDto.getTransfers());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * GET /api/v1/admin/ownership/history/by-vehicle/{vehicleId} : Admin views ownership history of a vehicle by Vehicle ID.
      * (Task 5: History of Vehicle ownership)
+     * All history endpoints accept {@code includeArchived=true} to add records moved to the archive.
      */
     @GetMapping("/history/by-vehicle/{vehicleId}")
-    public ResponseEntity<List<OwnershipRecordDto>> getVehicleOwnershipHistoryByVehicleId(@PathVariable UUID vehicleId) {
+    public ResponseEntity<List<OwnershipRecordDto>> getVehicleOwnershipHistoryByVehicleId(
+            @PathVariable UUID vehicleId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("Admin API request for ownership history of vehicle ID: {}", vehicleId);
-        List<OwnershipRecordDto> history = ownershipService.getVehicleOwnershipHistoryByVehicleId(vehicleId);
+        List<OwnershipRecordDto> history = ownershipService.getVehicleOwnershipHistoryByVehicleId(vehicleId, includeArchived);
         return ResponseEntity.ok(history);
     }
 
@@ -50,9 +80,11 @@ public class AdminOwnershipController {
      * Admin views ownership history by vehicle's chassis number.
      */
     @GetMapping("/history/by-chassis")
-    public ResponseEntity<List<OwnershipRecordDto>> getVehicleOwnershipHistoryByChassis(@RequestParam String chassisNumber) {
+    public ResponseEntity<List<OwnershipRecordDto>> getVehicleOwnershipHistoryByChassis(
+            @RequestParam String chassisNumber,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("Admin API request for ownership history by chassis number: {}", chassisNumber);
-        List<OwnershipRecordDto> history = ownershipService.getVehicleOwnershipHistoryByChassisNumber(chassisNumber);
+        List<OwnershipRecordDto> history = ownershipService.getVehicleOwnershipHistoryByChassisNumber(chassisNumber, includeArchived);
         return ResponseEntity.ok(history);
     }
 
@@ -61,9 +93,98 @@ public class AdminOwnershipController {
      * Admin views ownership history by vehicle's plate number.
      */
     @GetMapping("/history/by-plate")
-    public ResponseEntity<List<OwnershipRecordDto>> getVehicleOwnershipHistoryByPlate(@RequestParam String plateNumber) {
+    public ResponseEntity<List<OwnershipRecordDto>> getVehicleOwnershipHistoryByPlate(
+            @RequestParam String plateNumber,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("Admin API request for ownership history by plate number: {}", plateNumber);
-        List<OwnershipRecordDto> history = ownershipService.getVehicleOwnershipHistoryByPlateNumber(plateNumber);
+        List<OwnershipRecordDto> history = ownershipService.getVehicleOwnershipHistoryByPlateNumber(
+                PlateNumberNormalizer.normalize(plateNumber), includeArchived);
         return ResponseEntity.ok(history);
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /api/v1/admin/ownership/history/by-vehicle/{vehicleId}/paged : One page of a vehicle's ownership history.
+     * Newest first unless a sort is given (e.g. {@code sort=startDate,asc}).
+     */
+    @GetMapping("/history/by-vehicle/{vehicleId}/paged")
+    public ResponseEntity<Page<OwnershipRecordDto>> getVehicleOwnershipHistoryPageByVehicleId(
+            @PathVariable UUID vehicleId,
+            @PageableDefault(size = HISTORY_PAGE_SIZE) Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.info("Admin API request for paged ownership history of vehicle ID: {}", vehicleId);
+        return ResponseEntity.ok(ownershipService.getVehicleOwnershipHistoryPageByVehicleId(vehicleId, pageable, includeArchived));
+    }
+
+    /**
+     * GET /api/v1/admin/ownership/history/by-chassis/paged?chassisNumber=...
+     * One page of ownership history by vehicle's chassis number.
+     */
+    @GetMapping("/history/by-chassis/paged")
+    public ResponseEntity<Page<OwnershipRecordDto>> getVehicleOwnershipHistoryPageByChassis(
+            @RequestParam String chassisNumber,
+            @PageableDefault(size = HISTORY_PAGE_SIZE) Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.info("Admin API request for paged ownership history by chassis number: {}", chassisNumber);
+        return ResponseEntity.ok(ownershipService.getVehicleOwnershipHistoryPageByChassisNumber(chassisNumber, pageable, includeArchived));
+    }
+
+    /**
+     * GET /api/v1/admin/ownership/history/by-plate/paged?plateNumber=...
+     * One page of ownership history by vehicle's plate number.
+     */
+    @GetMapping("/history/by-plate/paged")
+    public ResponseEntity<Page<OwnershipRecordDto>> getVehicleOwnershipHistoryPageByPlate(
+            @RequestParam String plateNumber,
+            @PageableDefault(size = HISTORY_PAGE_SIZE) Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.info("Admin API request for paged ownership history by plate number: {}", plateNumber);
+        return ResponseEntity.ok(ownershipService.getVehicleOwnershipHistoryPageByPlateNumber(
+                PlateNumberNormalizer.normalize(plateNumber), pageable, includeArchived));
+    }
+
+    /**
+     * GET /api/v1/admin/ownership/as-of?vehicleId=...&at=... (or plateNumber=...&at=...)
+     * Who owned the vehicle, or held the plate, at the given instant (ISO-8601, e.g. 2024-03-01T10:15:00Z).
+     */
+    @GetMapping("/as-of")
+    public ResponseEntity<OwnershipRecordDto> getOwnershipAsOf(
+            @RequestParam(required = false) UUID vehicleId,
+            @RequestParam(required = false) String plateNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        log.info("Admin API request for ownership of vehicle {} / plate {} as of {}", vehicleId, plateNumber, at);
+        String canonicalPlate = plateNumber != null ? PlateNumberNormalizer.normalize(plateNumber) : null;
+        return ResponseEntity.ok(ownershipAsOfService.findOwnershipAt(vehicleId, canonicalPlate, at));
+    }
+
+    /**
+     * POST /api/v1/admin/ownership/as-of/batch : Answers many (vehicle or plate, instant) ownership queries at once.
+     * Every query gets a result, in request order; unanswerable ones carry a message instead of an ownership.
+     */
+    @PostMapping("/as-of/batch")
+    public ResponseEntity<List<OwnershipAsOfResultDto>> getOwnershipsAsOf(
+            @Valid @RequestBody OwnershipAsOfBatchRequestDto requestDto) {
+        log.info("Admin API request for {} as-of ownership queries", requestDto.getQueries().size());
+        return ResponseEntity.ok(ownershipAsOfService.findOwnershipsAt(requestDto.getQueries()));
+    }
+
+    /**
+     * POST /api/v1/admin/ownership/archive?olderThanYears=... : Moves closed ownership records that ended more than
+     * the given number of years ago to the archive. Returns the number of records moved.
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<Integer> archiveClosedOwnerships(@RequestParam int olderThanYears) {
+        log.info("Admin API request to archive ownership records closed more than {} years ago", olderThanYears);
+        return ResponseEntity.ok(ownershipPartitionManager.archiveClosedOlderThan(olderThanYears));
+    }
+
+    /**
+     * POST /api/v1/admin/ownership/partition : One-off conversion of the ownership table to yearly partitions.
+     * Locks the table while its rows are copied; run it in a maintenance window.
+     */
+    @PostMapping("/partition")
+    public ResponseEntity<String> partitionOwnershipTable() {
+        log.info("Admin API request to convert the ownership table to a partitioned table");
+        boolean converted = ownershipPartitionManager.convertToPartitioned();
+        return ResponseEntity.ok(converted ? "Ownership table converted to yearly partitions." : "Ownership table is already partitioned.");
+    }
+}
@@ -20,7 +20,9 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "ownership")
+@Table(name = "ownership", indexes = {
+        @Index(name = "idx_ownership_vehicle_start_date", columnList = "vehicle_id, start_date") // history order
+})
 public class OwnerShip extends InitiatorAudit {
     @Id
     @GeneratedValue(generator = "UUID")
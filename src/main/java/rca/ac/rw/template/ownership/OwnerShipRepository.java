@@ -1,9 +1,14 @@
 package rca.ac.rw.template.ownership;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query; // Optional for more complex queries
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rca.ac.rw.template.owner.Owner; // Import Owner
+import rca.ac.rw.template.ownership.dto.OwnershipRecordDto;
 import rca.ac.rw.template.vehicle.Vehicle; // Import Vehicle
 
 import java.util.List; // If you need list finders
@@ -11,7 +16,18 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OwnerShipRepository extends JpaRepository<OwnerShip, UUID> {
+public interface OwnerShipRepository extends JpaRepository<OwnerShip, UUID>, OwnerShipRepositoryCustom {
+
+    /**
+     * Ownership rows of one vehicle projected straight into OwnershipRecordDto with a single join to the owner.
+     * The vehicle summary is left null: it is the same for every row, so callers resolve it once and set it.
+     */
+    String HISTORY_QUERY = """
+            SELECT new rca.ac.rw.template.ownership.dto.OwnershipRecordDto(
+                   os.id, o.id, o.firstName, o.lastName, os.startDate, os.endDate, os.transferAmount)
+            FROM OwnerShip os JOIN os.owner o
+            WHERE os.vehicle.id = :vehicleId
+            """;
 
 
     Optional<OwnerShip> findFirstByVehicleAndEndDateIsNullOrderByStartDateDesc(Vehicle vehicle);
@@ -22,5 +38,12 @@ public interface OwnerShipRepository extends JpaRepository<OwnerShip, UUID> {
 
     List<OwnerShip> findByVehicleOrderByStartDateDesc(Vehicle vehicle);
 
+    @Query(HISTORY_QUERY)
+    List<OwnershipRecordDto> findHistoryByVehicleId(@Param("vehicleId") UUID vehicleId, Sort sort);
+
+    @Query(value = HISTORY_QUERY,
+            countQuery = "SELECT count(os) FROM OwnerShip os WHERE os.vehicle.id = :vehicleId")
+    Page<OwnershipRecordDto> findHistoryByVehicleId(@Param("vehicleId") UUID vehicleId, Pageable pageable);
+
 
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package rca.ac.rw.template.ownership;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import rca.ac.rw.template.ownership.dto.OwnershipRecordDto;
+
+import java.util.UUID;
+
+/**
+ * Custom read paths for {@link OwnerShip} that span the live table and {@code ownership_archive}.
+ */
+public interface OwnerShipRepositoryCustom {
+
+    /**
+     * Same projection as {@link OwnerShipRepository#HISTORY_QUERY}, over live and archived records
+     * (see OwnershipPartitionManager). The vehicle summary is left null.
+     *
+     * @param vehicleId The vehicle.
+     * @param pageable  Pagination and sorting (sort properties: startDate, endDate, transferAmount, id);
+     *                  unpaged returns the whole history.
+     */
+    Page<OwnershipRecordDto> findHistoryIncludingArchive(UUID vehicleId, Pageable pageable);
+}
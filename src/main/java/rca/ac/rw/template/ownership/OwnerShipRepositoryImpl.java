@@ -0,0 +1,86 @@
+package rca.ac.rw.template.ownership;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.ownership.dto.OwnershipRecordDto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * SQL implementation of {@link OwnerShipRepositoryCustom}: the archive is not an entity, so live and archived
+ * rows are combined with UNION ALL. Picked up by Spring Data through the {@code Impl} suffix.
+ */
+public class OwnerShipRepositoryImpl implements OwnerShipRepositoryCustom {
+
+    private static final String HISTORY_SQL = """
+            SELECT h.id, h.owner_id, u.firstName AS first_name, u.lastName AS last_name,
+                   h.start_date, h.end_date, h.transfer_amount
+            FROM (SELECT id, owner_id, start_date, end_date, transfer_amount FROM ownership WHERE vehicle_id = :vehicleId
+                  UNION ALL
+                  SELECT id, owner_id, start_date, end_date, transfer_amount FROM ownership_archive WHERE vehicle_id = :vehicleId) h
+            JOIN users u ON u.id = h.owner_id
+            """;
+    private static final String COUNT_SQL = """
+            SELECT (SELECT count(*) FROM ownership WHERE vehicle_id = :vehicleId)
+                 + (SELECT count(*) FROM ownership_archive WHERE vehicle_id = :vehicleId)
+            """;
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "startDate", "h.start_date",
+            "endDate", "h.end_date",
+            "transferAmount", "h.transfer_amount",
+            "id", "h.id");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OwnerShipRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<OwnershipRecordDto> findHistoryIncludingArchive(UUID vehicleId, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("vehicleId", vehicleId);
+        StringBuilder sql = new StringBuilder(HISTORY_SQL).append(orderBy(pageable.getSort()));
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT :limit OFFSET :offset");
+            params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+        }
+
+        List<OwnershipRecordDto> content = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            OffsetDateTime endDate = rs.getObject("end_date", OffsetDateTime.class);
+            return new OwnershipRecordDto(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("owner_id", UUID.class),
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getObject("start_date", OffsetDateTime.class).toInstant(),
+                    endDate != null ? endDate.toInstant() : null,
+                    rs.getBigDecimal("transfer_amount"));
+        });
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(COUNT_SQL, params, Long.class));
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " ORDER BY h.start_date DESC, h.id DESC";
+        }
+        return sort.stream()
+                .map(order -> {
+                    String column = SORT_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new ValidationException("Cannot sort ownership history by '" + order.getProperty() + "'.");
+                    }
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+}
@@ -2,31 +2,40 @@ package rca.ac.rw.template.ownership;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rca.ac.rw.template.analytics.MarketValueStatisticsService;
+import rca.ac.rw.template.analytics.SuspiciousTransferDetector;
+import rca.ac.rw.template.commons.exceptions.ConflictException;
 import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
 import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
 import rca.ac.rw.template.email.EmailService;
 import rca.ac.rw.template.owner.Owner;
 import rca.ac.rw.template.owner.OwnerRepository;
-import rca.ac.rw.template.owner.dto.OwnerNameDto;
 import rca.ac.rw.template.ownership.dto.OwnershipRecordDto;
 import rca.ac.rw.template.ownership.dto.VehicleTransferRequestDto;
 import rca.ac.rw.template.plateNumber.PlateNumber;
 import rca.ac.rw.template.plateNumber.PlateNumberRepository;
+import rca.ac.rw.template.plateNumber.PlateOccupancyIndex;
 import rca.ac.rw.template.plateNumber.PlateStatus;
 import rca.ac.rw.template.vehicle.Vehicle;
+import rca.ac.rw.template.vehicle.VehicleCurrentStateService;
+import rca.ac.rw.template.vehicle.VehicleLocks;
 import rca.ac.rw.template.vehicle.VehicleRepository;
 import rca.ac.rw.template.vehicle.dto.VehicleSummaryDto;
 
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -38,6 +47,14 @@ public class OwnerShipService {
     private final OwnerShipRepository ownerShipRepository;
     private final PlateNumberRepository plateNumberRepository;
     private final EmailService emailService; // For notifications
+    private final VehicleCurrentStateService vehicleCurrentStateService;
+    private final PlateOccupancyIndex plateOccupancyIndex;
+    private final VehicleLocks vehicleLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final MarketValueStatisticsService marketValueStatisticsService;
+    private final SuspiciousTransferDetector suspiciousTransferDetector;
+
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Direction.DESC, "startDate", "id");
     // No specific OwnershipConverter/Mapper needed if we construct DTOs directly in service
 
         /**
@@ -47,14 +64,22 @@ public class OwnerShipService {
      * @param dto The request DTO containing transfer details.
      * @throws ResourceNotFoundException if vehicle, current owner, or new owner is not found.
      * @throws ValidationException for various business rule violations.
+     * @throws ConflictException if another request keeps the vehicle locked.
      */
-    @Transactional
     public void transferVehicleOwnership(VehicleTransferRequestDto dto) {
+        // Serialized per vehicle: the stripe is held until the transfer transaction has committed
+        TransferNotice notice = vehicleLocks.withLock(dto.getVehicleId(),
+                () -> transactionTemplate.execute(status -> applyTransfer(dto)));
+        // Mail goes out once the stripe and the row lock are released, so SMTP latency never holds either
+        AfterCommit.run(() -> sendTransferNotifications(notice));
+    }
+
+    private TransferNotice applyTransfer(VehicleTransferRequestDto dto) {
         log.info("Admin initiating vehicle transfer for vehicle ID: {} to new owner ID: {}",
                 dto.getVehicleId(), dto.getNewOwnerId()); // Removed currentOwnerId from initial log as it needs verification
 
         // 1. Validate Entities
-        Vehicle vehicle = vehicleRepository.findById(dto.getVehicleId())
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(dto.getVehicleId())
                 .filter(v -> !v.isDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "ID", dto.getVehicleId()));
 
@@ -137,7 +162,8 @@ public class OwnerShipService {
             brandNewPlate.setOwner(newOwner);
             brandNewPlate.setVehicle(vehicle);
             brandNewPlate.setStatus(PlateStatus.IN_USE);
-            plateToAssignToVehicle = plateNumberRepository.save(brandNewPlate);
+            plateToAssignToVehicle = plateNumberRepository.saveNewPlate(brandNewPlate);
+            plateOccupancyIndex.markTaken(plateToAssignToVehicle.getPlateNumber());
         }
 
         // --- Update Ownership Records ---
@@ -155,122 +181,139 @@ public class OwnerShipService {
         ownerShipRepository.save(newOwnerShipRecord);
         log.info("Created new ownership record for vehicle ID {} by new owner ID {}", vehicle.getId(), newOwner.getId());
 
-        sendTransferNotifications(actualCurrentOwner, newOwner, vehicle,
-                existingPlateOnVehicle.getPlateNumber(),
-                plateToAssignToVehicle.getPlateNumber(),
-                dto.getTransferAmount());
+        vehicleCurrentStateService.record(vehicle, plateToAssignToVehicle, newOwner);
+        marketValueStatisticsService.record(vehicle.getManufacturerCompany(), vehicle.getModelName(),
+                vehicle.getManufacturedYear(), dto.getTransferAmount());
+        suspiciousTransferDetector.record(vehicle.getId(), newOwner.getId(), newOwnerShipRecord.getStartDate());
 
         log.info("Vehicle transfer completed successfully for vehicle ID: {}", vehicle.getId());
+        // Copied out now: the entities are detached by the time the notifications are sent
+        return new TransferNotice(actualCurrentOwner.getEmail(), fullName(actualCurrentOwner),
+                newOwner.getEmail(), fullName(newOwner), vehicle.getChassisNumber(),
+                existingPlateOnVehicle.getPlateNumber(), plateToAssignToVehicle.getPlateNumber(), dto.getTransferAmount());
     }
 
 
     /**
      * Retrieves the ownership history for a given vehicle ID.
      *
-     * @param vehicleId The UUID of the vehicle.
+     * @param vehicleId       The UUID of the vehicle.
+     * @param includeArchived Whether records moved to ownership_archive are included.
      * @return A list of OwnershipRecordDto, sorted by start date descending.
      */
     @Transactional(readOnly = true)
-    public List<OwnershipRecordDto> getVehicleOwnershipHistoryByVehicleId(UUID vehicleId) {
+    public List<OwnershipRecordDto> getVehicleOwnershipHistoryByVehicleId(UUID vehicleId, boolean includeArchived) {
         log.debug("Fetching ownership history for vehicle ID: {}", vehicleId);
-        Vehicle vehicle = vehicleRepository.findById(vehicleId)
-                .filter(v -> !v.isDeleted())
-                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "ID", vehicleId));
-
-        return vehicle.getOwnerships().stream()
-                .sorted(Comparator.comparing(OwnerShip::getStartDate).reversed())
-                .map(this::mapToOwnershipRecordDto)
-                .collect(Collectors.toList());
+        return historyOf(vehicleSummaryById(vehicleId), includeArchived);
     }
 
     /**
      * Retrieves the ownership history for a vehicle identified by its chassis number.
      */
     @Transactional(readOnly = true)
-    public List<OwnershipRecordDto> getVehicleOwnershipHistoryByChassisNumber(String chassisNumber) {
-        Vehicle vehicle = vehicleRepository.findByChassisNumber(chassisNumber)
-                .filter(v -> !v.isDeleted())
-                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "Chassis Number", chassisNumber));
-        return getVehicleOwnershipHistoryByVehicleId(vehicle.getId());
+    public List<OwnershipRecordDto> getVehicleOwnershipHistoryByChassisNumber(String chassisNumber, boolean includeArchived) {
+        return historyOf(vehicleSummaryByChassisNumber(chassisNumber), includeArchived);
     }
 
     /**
-     * Retrieves the ownership history for a vehicle currently or previously associated with a plate number.
+     * Retrieves the ownership history for the vehicle a plate number is (or was last) attached to.
      */
     @Transactional(readOnly = true)
-    public List<OwnershipRecordDto> getVehicleOwnershipHistoryByPlateNumber(String plateNumberString) {
-        // This might return history for multiple vehicles if a plate was re-used over time,
-        // but typically a plate is tied to one vehicle at a time.
-        // We'll find the *latest* vehicle associated with this plate if it has moved.
-        // Or, if a plate is unique to a vehicle throughout its life, this is simpler.
-        // For now, let's assume we find the vehicle the plate is currently or was most recently on.
-        PlateNumber plate = plateNumberRepository.findByPlateNumber(plateNumberString)
-                // .filter(p -> p.getVehicle() != null) // Ensure it's associated with a vehicle
-                .orElseThrow(() -> new ResourceNotFoundException("PlateNumber", "Number", plateNumberString));
-
-        if(plate.getVehicle() == null){
-            log.warn("Plate number {} is not currently associated with any vehicle.", plateNumberString);
-            throw new ResourceNotFoundException("Vehicle", "associated with plate", plateNumberString + " (plate not assigned to a vehicle)");
-        }
-        if (plate.getVehicle().isDeleted()){
-            log.warn("Vehicle associated with plate {} (Vehicle ID: {}) is soft-deleted.", plateNumberString, plate.getVehicle().getId());
-            throw new ResourceNotFoundException("Vehicle", "associated with plate", plateNumberString + " (vehicle deleted)");
-        }
-        return getVehicleOwnershipHistoryByVehicleId(plate.getVehicle().getId());
+    public List<OwnershipRecordDto> getVehicleOwnershipHistoryByPlateNumber(String plateNumberString, boolean includeArchived) {
+        return historyOf(vehicleSummaryByPlateNumber(plateNumberString), includeArchived);
+    }
+
+    /**
+     * Retrieves one page of a vehicle's ownership history, ordered and paged in the database.
+     *
+     * @param vehicleId       The UUID of the vehicle.
+     * @param pageable        Page and sort; sort properties refer to OwnerShip fields such as {@code startDate}.
+     * @param includeArchived Whether records moved to ownership_archive are included.
+     */
+    @Transactional(readOnly = true)
+    public Page<OwnershipRecordDto> getVehicleOwnershipHistoryPageByVehicleId(UUID vehicleId, Pageable pageable, boolean includeArchived) {
+        return historyPageOf(vehicleSummaryById(vehicleId), pageable, includeArchived);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OwnershipRecordDto> getVehicleOwnershipHistoryPageByChassisNumber(String chassisNumber, Pageable pageable, boolean includeArchived) {
+        return historyPageOf(vehicleSummaryByChassisNumber(chassisNumber), pageable, includeArchived);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OwnershipRecordDto> getVehicleOwnershipHistoryPageByPlateNumber(String plateNumberString, Pageable pageable, boolean includeArchived) {
+        return historyPageOf(vehicleSummaryByPlateNumber(plateNumberString), pageable, includeArchived);
     }
 
 
     // --- Helper Methods ---
 
-    private OwnershipRecordDto mapToOwnershipRecordDto(OwnerShip os) {
-        VehicleSummaryDto vehicleSummary = null;
-        if (os.getVehicle() != null) {
-            vehicleSummary = new VehicleSummaryDto(
-                    os.getVehicle().getId(),
-                    os.getVehicle().getChassisNumber(),
-                    os.getVehicle().getModelName()
-            );
-        }
-        OwnerNameDto ownerDetails = null;
-        if (os.getOwner() != null) {
-            ownerDetails = new OwnerNameDto(
-                    os.getOwner().getId(),
-                    os.getOwner().getFirstName(),
-                    os.getOwner().getLastName()
-            );
-        }
-        return new OwnershipRecordDto(
-                os.getId(),
-                vehicleSummary,
-                ownerDetails,
-                os.getStartDate(),
-                os.getEndDate(),
-                os.getTransferAmount()
-        );
+    private VehicleSummaryDto vehicleSummaryById(UUID vehicleId) {
+        return vehicleRepository.findSummaryById(vehicleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "ID", vehicleId));
+    }
+
+    private VehicleSummaryDto vehicleSummaryByChassisNumber(String chassisNumber) {
+        return vehicleRepository.findSummaryByChassisNumber(chassisNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "Chassis Number", chassisNumber));
+    }
+
+    private VehicleSummaryDto vehicleSummaryByPlateNumber(String plateNumberString) {
+        return plateNumberRepository.findVehicleSummaryByPlateNumber(plateNumberString)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "associated with plate", plateNumberString));
     }
 
-    private void sendTransferNotifications(Owner fromOwner, Owner toOwner, Vehicle vehicle,
-                                           String oldPlate, String newPlate, BigDecimal amount) {
+    private List<OwnershipRecordDto> historyOf(VehicleSummaryDto vehicle, boolean includeArchived) {
+        List<OwnershipRecordDto> history = includeArchived
+                ? ownerShipRepository.findHistoryIncludingArchive(vehicle.getVehicleId(), Pageable.unpaged()).getContent()
+                : ownerShipRepository.findHistoryByVehicleId(vehicle.getVehicleId(), HISTORY_ORDER);
+        history.forEach(record -> record.setVehicleSummary(vehicle));
+        return history;
+    }
+
+    private Page<OwnershipRecordDto> historyPageOf(VehicleSummaryDto vehicle, Pageable pageable, boolean includeArchived) {
+        Pageable ordered = pageable.getSort().isSorted()
+                ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), HISTORY_ORDER);
+        Page<OwnershipRecordDto> page = includeArchived
+                ? ownerShipRepository.findHistoryIncludingArchive(vehicle.getVehicleId(), ordered)
+                : ownerShipRepository.findHistoryByVehicleId(vehicle.getVehicleId(), ordered);
+        page.forEach(record -> record.setVehicleSummary(vehicle));
+        return page;
+    }
+
+    private void sendTransferNotifications(TransferNotice notice) {
         try {
             emailService.sendOwnershipTransferEmailToSender(
-                    fromOwner.getEmail(),
-                    fromOwner.getFirstName() + " " + fromOwner.getLastName(),
-                    vehicle.getChassisNumber(),
-                    oldPlate,
-                    amount,
-                    toOwner.getFirstName() + " " +toOwner.getLastName());
+                    notice.fromEmail(),
+                    notice.fromName(),
+                    notice.chassisNumber(),
+                    notice.oldPlate(),
+                    notice.amount(),
+                    notice.toName());
 
             emailService.sendOwnershipTransferEmailToReceiver(
-                    toOwner.getEmail(),
-                    toOwner.getFirstName() + " " + toOwner.getLastName(),
-                    vehicle.getChassisNumber(),
-                    newPlate,
-                    amount,
-                    fromOwner.getFirstName() + " "+ fromOwner.getLastName());
-            log.info("Ownership transfer notification emails sent for vehicle chassis: {}", vehicle.getChassisNumber());
+                    notice.toEmail(),
+                    notice.toName(),
+                    notice.chassisNumber(),
+                    notice.newPlate(),
+                    notice.amount(),
+                    notice.fromName());
+            log.info("Ownership transfer notification emails sent for vehicle chassis: {}", notice.chassisNumber());
         } catch (Exception e) {
             log.error("Failed to send ownership transfer notification emails for vehicle chassis {}: {}",
-                    vehicle.getChassisNumber(), e.getMessage(), e);
+                    notice.chassisNumber(), e.getMessage(), e);
         }
     }
+
+    private static String fullName(Owner owner) {
+        return owner.getFirstName() + " " + owner.getLastName();
+    }
+
+    /**
+     * What the transfer notifications need, read inside the transfer transaction.
+     */
+    private record TransferNotice(String fromEmail, String fromName, String toEmail, String toName,
+                                  String chassisNumber, String oldPlate, String newPlate, BigDecimal amount) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package rca.ac.rw.template.ownership;
+
+import com.google.common.collect.Lists;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
+import rca.ac.rw.template.owner.dto.OwnerNameDto;
+import rca.ac.rw.template.ownership.dto.OwnershipAsOfQueryDto;
+import rca.ac.rw.template.ownership.dto.OwnershipAsOfResultDto;
+import rca.ac.rw.template.ownership.dto.OwnershipRecordDto;
+import rca.ac.rw.template.vehicle.dto.VehicleSummaryDto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Answers "who owned vehicle X (or held plate P) at instant T?", one at a time or for thousands of pairs at once.
+ * <p>
+ * A batch is sent to Postgres as parallel arrays, unnested into a query table and joined to {@code ownership}
+ * (and {@code ownership_archive}, since old periods are exactly what these lookups ask about) on
+ * {@code tstzrange(start_date, end_date) @> at}, which the GiST indexes on both tables answer with one index
+ * probe per pair.
+ * <p>
+ * Plates are tied to one owner for life, and a plate's history of vehicles is not stored, so a plate lookup
+ * resolves to the plate's recorded vehicle and reports its ownership at T only when that owner is the plate's owner.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class OwnershipAsOfService {
+
+    private static final int QUERY_PARTITION_SIZE = 5000;
+
+    private static final String PLATES_SQL =
+            "SELECT plate_number, vehicle_id, owner_id FROM plate_number WHERE plate_number IN (:plateNumbers)";
+
+    private static final String AS_OF_SQL = """
+            SELECT q.idx, os.id, os.vehicle_id, v.chassis_number, v.model_name,
+                   os.owner_id, u.firstName AS first_name, u.lastName AS last_name,
+                   os.start_date, os.end_date, os.transfer_amount
+            FROM unnest(?::int[], ?::uuid[], ?::uuid[], ?::timestamptz[]) AS q(idx, vehicle_id, owner_id, at)
+            JOIN (SELECT id, vehicle_id, owner_id, start_date, end_date, transfer_amount FROM ownership
+                  UNION ALL
+                  SELECT id, vehicle_id, owner_id, start_date, end_date, transfer_amount FROM ownership_archive) os
+                 ON os.vehicle_id = q.vehicle_id
+                AND tstzrange(os.start_date, os.end_date, '[)') @> q.at
+                AND (q.owner_id IS NULL OR os.owner_id = q.owner_id)
+            JOIN vehicles v ON v.id = os.vehicle_id
+            JOIN users u ON u.id = os.owner_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @param vehicleId   The vehicle; takes precedence over the plate number.
+     * @param plateNumber Canonical plate number, used when no vehicle ID is given.
+     * @param at          The instant to look up.
+     * @return The ownership record covering the instant.
+     * @throws ResourceNotFoundException if the plate is unknown or nobody owned the vehicle at that instant.
+     */
+    public OwnershipRecordDto findOwnershipAt(UUID vehicleId, String plateNumber, Instant at) {
+        OwnershipAsOfResultDto result = findOwnershipsAt(List.of(new OwnershipAsOfQueryDto(vehicleId, plateNumber, at))).get(0);
+        if (!result.isFound()) {
+            throw new ResourceNotFoundException("Ownership", "instant", at + " (" + result.getMessage() + ")");
+        }
+        return result.getOwnership();
+    }
+
+    /**
+     * Answers every query of a batch; queries that cannot be answered are reported with a message.
+     *
+     * @param queries Pairs of (vehicle ID or plate number, instant).
+     * @return One result per query, in request order.
+     */
+    public List<OwnershipAsOfResultDto> findOwnershipsAt(List<OwnershipAsOfQueryDto> queries) {
+        long start = System.nanoTime();
+        OwnershipAsOfResultDto[] results = new OwnershipAsOfResultDto[queries.size()];
+
+        // 1. Resolve plate numbers to (vehicle, owner) in set-based lookups
+        Map<String, PlateHolder> plates = resolvePlates(queries.stream()
+                .filter(q -> q != null && q.getVehicleId() == null && StringUtils.hasText(q.getPlateNumber()))
+                .map(OwnershipAsOfQueryDto::getPlateNumber)
+                .distinct()
+                .toList());
+
+        List<Lookup> lookups = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            OwnershipAsOfQueryDto query = queries.get(i);
+            if (query == null || query.getAt() == null) {
+                results[i] = notFound(i, query, "The instant to look up is required.");
+            } else if (query.getVehicleId() != null) {
+                lookups.add(new Lookup(i, query.getVehicleId(), null, query.getAt()));
+            } else if (!StringUtils.hasText(query.getPlateNumber())) {
+                results[i] = notFound(i, query, "Either vehicleId or plateNumber is required.");
+            } else {
+                PlateHolder plate = plates.get(query.getPlateNumber());
+                if (plate == null) {
+                    results[i] = notFound(i, query, "Plate number '" + query.getPlateNumber() + "' not found.");
+                } else {
+                    lookups.add(new Lookup(i, plate.vehicleId(), plate.ownerId(), query.getAt()));
+                }
+            }
+        }
+
+        // 2. One range-index join per partition
+        for (List<Lookup> partition : Lists.partition(lookups, QUERY_PARTITION_SIZE)) {
+            Map<Integer, OwnershipRecordDto> found = queryPartition(partition);
+            for (Lookup lookup : partition) {
+                OwnershipRecordDto ownership = found.get(lookup.index());
+                OwnershipAsOfQueryDto query = queries.get(lookup.index());
+                results[lookup.index()] = ownership != null
+                        ? new OwnershipAsOfResultDto(lookup.index(), lookup.vehicleId(), query.getPlateNumber(), query.getAt(), true, ownership, null)
+                        : new OwnershipAsOfResultDto(lookup.index(), lookup.vehicleId(), query.getPlateNumber(), query.getAt(), false, null,
+                        "No ownership record covers this instant.");
+            }
+        }
+
+        log.debug("Answered {} as-of ownership queries in {} ms", queries.size(), (System.nanoTime() - start) / 1_000_000);
+        return Arrays.asList(results);
+    }
+
+    // --- Helper Methods ---
+
+    private Map<String, PlateHolder> resolvePlates(List<String> plateNumbers) {
+        Map<String, PlateHolder> plates = new HashMap<>();
+        for (List<String> partition : Lists.partition(plateNumbers, QUERY_PARTITION_SIZE)) {
+            namedParameterJdbcTemplate.query(PLATES_SQL, Map.of("plateNumbers", partition), rs -> {
+                plates.put(rs.getString("plate_number"),
+                        new PlateHolder(rs.getObject("vehicle_id", UUID.class), rs.getObject("owner_id", UUID.class)));
+            });
+        }
+        return plates;
+    }
+
+    private Map<Integer, OwnershipRecordDto> queryPartition(List<Lookup> lookups) {
+        Integer[] indexes = new Integer[lookups.size()];
+        UUID[] vehicleIds = new UUID[lookups.size()];
+        UUID[] ownerIds = new UUID[lookups.size()];
+        String[] instants = new String[lookups.size()];
+        for (int i = 0; i < lookups.size(); i++) {
+            Lookup lookup = lookups.get(i);
+            indexes[i] = lookup.index();
+            vehicleIds[i] = lookup.vehicleId();
+            ownerIds[i] = lookup.ownerId();
+            instants[i] = lookup.at().toString(); // ISO-8601 in UTC, parsed by the timestamptz[] cast
+        }
+
+        Map<Integer, OwnershipRecordDto> found = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(AS_OF_SQL);
+            statement.setArray(1, connection.createArrayOf("int4", indexes));
+            statement.setArray(2, connection.createArrayOf("uuid", vehicleIds));
+            statement.setArray(3, connection.createArrayOf("uuid", ownerIds));
+            statement.setArray(4, connection.createArrayOf("text", instants));
+            return statement;
+        }, rs -> {
+            OwnershipRecordDto record = mapRecord(rs);
+            // Overlapping periods would be a data error; report the most recent one
+            found.merge(rs.getInt("idx"), record,
+                    (a, b) -> a.getStartDate().isAfter(b.getStartDate()) ? a : b);
+        });
+        return found;
+    }
+
+    private static OwnershipRecordDto mapRecord(ResultSet rs) throws SQLException {
+        OffsetDateTime endDate = rs.getObject("end_date", OffsetDateTime.class);
+        return new OwnershipRecordDto(
+                rs.getObject("id", UUID.class),
+                new VehicleSummaryDto(rs.getObject("vehicle_id", UUID.class), rs.getString("chassis_number"), rs.getString("model_name")),
+                new OwnerNameDto(rs.getObject("owner_id", UUID.class), rs.getString("first_name"), rs.getString("last_name")),
+                rs.getObject("start_date", OffsetDateTime.class).toInstant(),
+                endDate != null ? endDate.toInstant() : null,
+                rs.getBigDecimal("transfer_amount")
+        );
+    }
+
+    private static OwnershipAsOfResultDto notFound(int index, OwnershipAsOfQueryDto query, String message) {
+        return new OwnershipAsOfResultDto(index,
+                query != null ? query.getVehicleId() : null,
+                query != null ? query.getPlateNumber() : null,
+                query != null ? query.getAt() : null,
+                false, null, message);
+    }
+
+    private record PlateHolder(UUID vehicleId, UUID ownerId) {
+    }
+
+    private record Lookup(int index, UUID vehicleId, UUID ownerId, Instant at) {
+    }
+}
@@ -0,0 +1,477 @@
+package rca.ac.rw.template.ownership;
+
+import com.google.common.collect.Lists;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import rca.ac.rw.template.analytics.MarketValueStatisticsService;
+import rca.ac.rw.template.analytics.SuspiciousTransferDetector;
+import rca.ac.rw.template.email.EmailService;
+import rca.ac.rw.template.email.TransferNoticeLine;
+import rca.ac.rw.template.owner.Owner;
+import rca.ac.rw.template.owner.OwnerRepository;
+import rca.ac.rw.template.ownership.dto.BulkVehicleTransferItemResultDto;
+import rca.ac.rw.template.ownership.dto.BulkVehicleTransferResultDto;
+import rca.ac.rw.template.ownership.dto.VehicleTransferRequestDto;
+import rca.ac.rw.template.plateNumber.PlateOccupancyIndex;
+import rca.ac.rw.template.plateNumber.PlateStatus;
+import rca.ac.rw.template.vehicle.ActivePlate;
+import rca.ac.rw.template.vehicle.ActivePlateRegistry;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transfers many vehicles at once (fleet sales by leasing companies or agencies).
+ * Current ownership, current plates and requested plates are checked with set-based queries over the
+ * whole request, the plate/ownership/current-state changes are written with JDBC batches, one transaction
+ * per chunk, and each party receives a single consolidated email once all chunks are done.
+ * <p>
+ * Every UPDATE is guarded by the state it was validated against (open ownership, plate status); if a
+ * concurrent single transfer got there first, the chunk is rolled back and retried one item per transaction,
+ * so only the items that actually changed are reported as failed.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class OwnershipBulkTransferService {
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int LOOKUP_PARTITION_SIZE = 1000;
+
+    private static final String VEHICLE_STATE_SQL = """
+            SELECT v.id AS vehicle_id, v.chassis_number, v.model_name, v.manufacturer_company, v.manufacturer_year, v.price,
+                   os.id AS ownership_id, os.owner_id,
+                   p.id AS plate_id, p.plate_number, p.owner_id AS plate_owner_id
+            FROM vehicles v
+            LEFT JOIN ownership os ON os.vehicle_id = v.id AND os.end_date IS NULL
+            LEFT JOIN plate_number p ON p.vehicle_id = v.id AND p.plate_status = 'IN_USE'
+            WHERE v.deleted = false AND v.id IN (:vehicleIds)
+            """;
+    private static final String PLATES_SQL =
+            "SELECT id, plate_number, owner_id, vehicle_id, plate_status, issued_date FROM plate_number WHERE plate_number IN (:plateNumbers)";
+
+    private static final String RELEASE_PLATE_SQL =
+            "UPDATE plate_number SET plate_status = 'TRANSFERRED_OUT', updated_at = ?, updated_by = ? " +
+                    "WHERE id = ? AND plate_status = 'IN_USE'";
+    private static final String REASSIGN_PLATE_SQL =
+            "UPDATE plate_number SET vehicle_id = ?, plate_status = 'IN_USE', updated_at = ?, updated_by = ? " +
+                    "WHERE id = ? AND owner_id = ? AND plate_status IN ('AVAILABLE', 'TRANSFERRED_OUT')";
+    private static final String INSERT_PLATE_SQL =
+            "INSERT INTO plate_number (id, plate_number, issued_date, owner_id, vehicle_id, plate_status, " +
+                    "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String END_OWNERSHIP_SQL =
+            "UPDATE ownership SET end_date = ?, updated_at = ?, updated_by = ? WHERE id = ? AND end_date IS NULL";
+    private static final String INSERT_OWNERSHIP_SQL =
+            "INSERT INTO ownership (id, vehicle_id, owner_id, start_date, end_date, transfer_amount, " +
+                    "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, NULL, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_CURRENT_STATE_SQL =
+            "UPDATE vehicle_current_state SET current_plate_id = ?, current_plate_number = ?, current_plate_issued_date = ?, " +
+                    "current_plate_owner_id = ?, current_owner_id = ?, owner_first_name = ?, owner_last_name = ?, " +
+                    "owner_national_id = ?, updated_at = ? WHERE vehicle_id = ?";
+
+    private final OwnerRepository ownerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<UUID> auditorAware;
+    private final Validator validator;
+    private final EmailService emailService;
+    private final ActivePlateRegistry activePlateRegistry;
+    private final PlateOccupancyIndex plateOccupancyIndex;
+    private final MarketValueStatisticsService marketValueStatisticsService;
+    private final SuspiciousTransferDetector suspiciousTransferDetector;
+
+    /**
+     * Transfers every valid item of the request and reports the outcome of each item.
+     *
+     * @param items The transfers, with the same rules as a single {@code POST /api/v1/admin/ownership/transfer}.
+     * @return Per-item results plus totals.
+     */
+    public BulkVehicleTransferResultDto transferVehicles(List<VehicleTransferRequestDto> items) {
+        log.info("Bulk transfer requested for {} vehicles", items.size());
+        BulkVehicleTransferItemResultDto[] results = new BulkVehicleTransferItemResultDto[items.size()];
+
+        // 1. Per-item bean validation and duplicates inside the request itself
+        Set<UUID> seenVehicles = new HashSet<>();
+        Set<String> seenPlates = new HashSet<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            VehicleTransferRequestDto item = items.get(i);
+            String error = validate(item);
+            if (error == null && !seenVehicles.add(item.getVehicleId())) {
+                error = "Vehicle ID " + item.getVehicleId() + " appears more than once in the request.";
+            }
+            if (error == null && !seenPlates.add(item.getNewPlateNumberStringForNewOwner())) {
+                error = "Plate number '" + item.getNewPlateNumberStringForNewOwner() + "' appears more than once in the request.";
+            }
+            if (error != null) {
+                results[i] = failure(i, item, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // 2. Set-based reads: vehicles with their open ownership and IN_USE plate, owners, requested plates
+        Map<UUID, List<VehicleState>> vehicles = lookup(
+                candidates.stream().map(i -> items.get(i).getVehicleId()).toList(),
+                "vehicleIds", VEHICLE_STATE_SQL, this::mapVehicleState).stream()
+                .collect(Collectors.groupingBy(VehicleState::vehicleId));
+        Map<String, ExistingPlate> plates = lookup(
+                candidates.stream().map(i -> items.get(i).getNewPlateNumberStringForNewOwner()).toList(),
+                "plateNumbers", PLATES_SQL, this::mapExistingPlate).stream()
+                .collect(Collectors.toMap(ExistingPlate::plateNumber, Function.identity()));
+        Set<UUID> ownerIds = new HashSet<>();
+        for (int i : candidates) {
+            ownerIds.add(items.get(i).getCurrentOwnerId());
+            ownerIds.add(items.get(i).getNewOwnerId());
+        }
+        Map<UUID, Owner> owners = ownerRepository.findAllById(ownerIds).stream()
+                .filter(o -> !o.isDeleted())
+                .collect(Collectors.toMap(Owner::getId, Function.identity()));
+
+        List<Row> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            VehicleTransferRequestDto item = items.get(i);
+            List<VehicleState> states = vehicles.getOrDefault(item.getVehicleId(), List.of());
+            String error = check(item, states, owners, plates);
+            if (error != null) {
+                results[i] = failure(i, item, error);
+            } else {
+                VehicleState state = states.get(0);
+                accepted.add(new Row(i, item, state, owners.get(state.ownerId()), owners.get(item.getNewOwnerId()),
+                        plates.get(item.getNewPlateNumberStringForNewOwner()), UUID.randomUUID(), UUID.randomUUID()));
+            }
+        }
+
+        // 3. Batched writes, one transaction per chunk; a failed chunk is retried item by item
+        UUID auditor = auditorAware.getCurrentAuditor().orElse(null);
+        List<Row> transferred = new ArrayList<>();
+        for (List<Row> chunk : Lists.partition(accepted, CHUNK_SIZE)) {
+            if (transfer(chunk, auditor, results, transferred)) {
+                continue;
+            }
+            log.warn("Bulk transfer chunk of {} vehicles failed; retrying its items one by one", chunk.size());
+            for (Row row : chunk) {
+                if (!transfer(List.of(row), auditor, results, transferred)) {
+                    results[row.index()] = failure(row.index(), row.item(),
+                            "Batch update failed (likely a concurrent transfer or plate change); retry this item.");
+                }
+            }
+        }
+
+        // 4. One consolidated notification per party
+        sendNotifications(transferred);
+
+        List<BulkVehicleTransferItemResultDto> itemResults = Arrays.asList(results);
+        log.info("Bulk transfer finished: {} transferred, {} failed", transferred.size(), items.size() - transferred.size());
+        return new BulkVehicleTransferResultDto(items.size(), transferred.size(), items.size() - transferred.size(), itemResults);
+    }
+
+    /**
+     * Applies the same business rules as OwnerShipService.transferVehicleOwnership to pre-loaded state.
+     *
+     * @return The reason the item cannot be transferred, or {@code null} if it can.
+     */
+    private String check(VehicleTransferRequestDto item, List<VehicleState> states,
+                         Map<UUID, Owner> owners, Map<String, ExistingPlate> plates) {
+        if (states.isEmpty()) {
+            return "Vehicle with ID ['" + item.getVehicleId() + "'] not found";
+        }
+        if (states.size() > 1) {
+            return "Vehicle ID " + item.getVehicleId() + " has more than one open ownership or IN_USE plate. Data inconsistency.";
+        }
+        VehicleState state = states.get(0);
+        if (state.ownershipId() == null) {
+            return "Vehicle ID " + item.getVehicleId() + " has no current active ownership record. Cannot transfer.";
+        }
+        if (!state.ownerId().equals(item.getCurrentOwnerId())) {
+            return String.format("The provided currentOwnerId (%s) does not match the vehicle's actual current owner (ID: %s).",
+                    item.getCurrentOwnerId(), state.ownerId());
+        }
+        if (!owners.containsKey(state.ownerId())) {
+            return "Owner with ID ['" + state.ownerId() + "'] not found";
+        }
+        if (!owners.containsKey(item.getNewOwnerId())) {
+            return "New Owner with ID ['" + item.getNewOwnerId() + "'] not found";
+        }
+        if (state.ownerId().equals(item.getNewOwnerId())) {
+            return "Cannot transfer vehicle to the same owner.";
+        }
+        if (state.plateId() == null) {
+            return "No active IN_USE plate found for vehicle ID " + item.getVehicleId() + ". Data inconsistency.";
+        }
+        if (!state.ownerId().equals(state.plateOwnerId())) {
+            return String.format("Data inconsistency: Active plate %s on vehicle %s is owned by %s, but current vehicle owner is %s.",
+                    state.plateNumber(), item.getVehicleId(), state.plateOwnerId(), state.ownerId());
+        }
+
+        ExistingPlate plate = plates.get(item.getNewPlateNumberStringForNewOwner());
+        if (plate == null) {
+            return null; // A brand-new plate is issued to the new owner
+        }
+        if (!plate.ownerId().equals(item.getNewOwnerId())) {
+            return String.format("Plate number '%s' for new owner exists but is registered to a different owner (Owner ID %s).",
+                    plate.plateNumber(), plate.ownerId());
+        }
+        if (plate.status() == PlateStatus.IN_USE) {
+            return String.format("Plate number '%s' is already IN_USE on a different vehicle (ID: %s).",
+                    plate.plateNumber(), plate.vehicleId());
+        }
+        if (plate.status() != PlateStatus.AVAILABLE && plate.status() != PlateStatus.TRANSFERRED_OUT) {
+            return String.format("Plate number '%s' (owned by new owner) is not in an assignable status (current: %s).",
+                    plate.plateNumber(), plate.status());
+        }
+        return null;
+    }
+
+    /**
+     * Writes the rows in one transaction and records them as transferred.
+     *
+     * @return {@code false} if the transaction failed and rolled back; the rows' results are left unset.
+     */
+    private boolean transfer(List<Row> rows, UUID auditor, BulkVehicleTransferItemResultDto[] results, List<Row> transferred) {
+        Instant transferredAt;
+        try {
+            transferredAt = transactionTemplate.execute(status -> writeChunk(rows, auditor));
+        } catch (DataAccessException e) {
+            log.debug("Bulk transfer of {} vehicles failed: {}", rows.size(), e.getMessage());
+            return false;
+        }
+        for (Row row : rows) {
+            activePlateRegistry.put(toActivePlate(row, transferredAt));
+            if (row.existingPlate() == null) {
+                plateOccupancyIndex.markTaken(row.newPlateNumber());
+            }
+            marketValueStatisticsService.record(row.state().manufacturerCompany(), row.state().modelName(),
+                    row.state().manufacturedYear(), row.item().getTransferAmount());
+            suspiciousTransferDetector.record(row.state().vehicleId(), row.newOwner().getId(), transferredAt);
+            results[row.index()] = new BulkVehicleTransferItemResultDto(row.index(), row.item().getVehicleId(),
+                    row.newPlateNumber(), true, "Transferred");
+        }
+        transferred.addAll(rows);
+        return true;
+    }
+
+    private Instant writeChunk(List<Row> rows, UUID auditor) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS); // Postgres timestamp precision
+        OffsetDateTime nowUtc = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        LocalDateTime auditNow = LocalDateTime.now();
+
+        int[][] released = jdbcTemplate.batchUpdate(RELEASE_PLATE_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, auditNow);
+            ps.setObject(2, auditor);
+            ps.setObject(3, row.state().plateId());
+        });
+        requireAllApplied(released, "current plate");
+
+        List<Row> reassigned = rows.stream().filter(row -> row.existingPlate() != null).toList();
+        int[][] reassignedCounts = jdbcTemplate.batchUpdate(REASSIGN_PLATE_SQL, reassigned, reassigned.size(), (ps, row) -> {
+            ps.setObject(1, row.item().getVehicleId());
+            ps.setObject(2, auditNow);
+            ps.setObject(3, auditor);
+            ps.setObject(4, row.existingPlate().id());
+            ps.setObject(5, row.newOwner().getId());
+        });
+        requireAllApplied(reassignedCounts, "new owner's plate");
+
+        List<Row> issued = rows.stream().filter(row -> row.existingPlate() == null).toList();
+        jdbcTemplate.batchUpdate(INSERT_PLATE_SQL, issued, issued.size(), (ps, row) -> {
+            ps.setObject(1, row.newPlateId());
+            ps.setString(2, row.newPlateNumber());
+            ps.setObject(3, nowUtc);
+            ps.setObject(4, row.newOwner().getId());
+            ps.setObject(5, row.item().getVehicleId());
+            ps.setString(6, PlateStatus.IN_USE.name());
+            ps.setObject(7, auditNow);
+            ps.setObject(8, auditNow);
+            ps.setObject(9, auditor);
+            ps.setObject(10, auditor);
+        });
+
+        int[][] ended = jdbcTemplate.batchUpdate(END_OWNERSHIP_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, nowUtc);
+            ps.setObject(2, auditNow);
+            ps.setObject(3, auditor);
+            ps.setObject(4, row.state().ownershipId());
+        });
+        requireAllApplied(ended, "current ownership");
+
+        jdbcTemplate.batchUpdate(INSERT_OWNERSHIP_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.newOwnershipId());
+            ps.setObject(2, row.item().getVehicleId());
+            ps.setObject(3, row.newOwner().getId());
+            ps.setObject(4, nowUtc);
+            ps.setBigDecimal(5, row.item().getTransferAmount());
+            ps.setObject(6, auditNow);
+            ps.setObject(7, auditNow);
+            ps.setObject(8, auditor);
+            ps.setObject(9, auditor);
+        });
+
+        jdbcTemplate.batchUpdate(UPDATE_CURRENT_STATE_SQL, rows, rows.size(), (ps, row) -> {
+            Owner newOwner = row.newOwner();
+            ps.setObject(1, row.newPlateId());
+            ps.setString(2, row.newPlateNumber());
+            ps.setObject(3, OffsetDateTime.ofInstant(row.newPlateIssuedDate(now), ZoneOffset.UTC));
+            ps.setObject(4, newOwner.getId());
+            ps.setObject(5, newOwner.getId());
+            ps.setString(6, newOwner.getFirstName());
+            ps.setString(7, newOwner.getLastName());
+            ps.setString(8, newOwner.getNationalId());
+            ps.setObject(9, auditNow);
+            ps.setObject(10, row.item().getVehicleId());
+        });
+        return now;
+    }
+
+    /**
+     * Rolls the chunk back if any guarded UPDATE matched no row, i.e. the state changed since it was validated.
+     */
+    private void requireAllApplied(int[][] counts, String what) {
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new OptimisticLockingFailureException("The " + what + " of a vehicle in this chunk changed concurrently.");
+                }
+            }
+        }
+    }
+
+    private void sendNotifications(List<Row> transferred) {
+        Map<UUID, List<Row>> bySender = transferred.stream().collect(Collectors.groupingBy(row -> row.previousOwner().getId()));
+        Map<UUID, List<Row>> byReceiver = transferred.stream().collect(Collectors.groupingBy(row -> row.newOwner().getId()));
+        bySender.values().forEach(rows -> {
+            Owner sender = rows.get(0).previousOwner();
+            emailService.sendFleetTransferEmailToSender(sender.getEmail(), fullName(sender), rows.stream()
+                    .map(row -> new TransferNoticeLine(row.state().chassisNumber(), row.state().plateNumber(),
+                            row.item().getTransferAmount(), fullName(row.newOwner())))
+                    .toList());
+        });
+        byReceiver.values().forEach(rows -> {
+            Owner receiver = rows.get(0).newOwner();
+            emailService.sendFleetTransferEmailToReceiver(receiver.getEmail(), fullName(receiver), rows.stream()
+                    .map(row -> new TransferNoticeLine(row.state().chassisNumber(), row.newPlateNumber(),
+                            row.item().getTransferAmount(), fullName(row.previousOwner())))
+                    .toList());
+        });
+        log.info("Bulk transfer notifications queued for {} senders and {} receivers", bySender.size(), byReceiver.size());
+    }
+
+    private ActivePlate toActivePlate(Row row, Instant transferredAt) {
+        VehicleState state = row.state();
+        Owner newOwner = row.newOwner();
+        return new ActivePlate(row.newPlateNumber(), row.newPlateId(), row.newPlateIssuedDate(transferredAt), newOwner.getId(),
+                state.vehicleId(), state.chassisNumber(), state.modelName(), state.manufacturerCompany(),
+                state.manufacturedYear(), state.price(), newOwner.getId(), newOwner.getFirstName(), newOwner.getLastName());
+    }
+
+    private <K, T> List<T> lookup(List<K> keys, String parameter, String sql, RowMapper<T> rowMapper) {
+        List<T> found = new ArrayList<>();
+        for (List<K> partition : Lists.partition(keys, LOOKUP_PARTITION_SIZE)) {
+            found.addAll(namedParameterJdbcTemplate.query(sql, Map.of(parameter, partition), rowMapper));
+        }
+        return found;
+    }
+
+    private VehicleState mapVehicleState(ResultSet rs, int rowNum) throws SQLException {
+        return new VehicleState(
+                rs.getObject("vehicle_id", UUID.class),
+                rs.getString("chassis_number"),
+                rs.getString("model_name"),
+                rs.getString("manufacturer_company"),
+                Year.of(rs.getInt("manufacturer_year")),
+                rs.getBigDecimal("price"),
+                rs.getObject("ownership_id", UUID.class),
+                rs.getObject("owner_id", UUID.class),
+                rs.getObject("plate_id", UUID.class),
+                rs.getString("plate_number"),
+                rs.getObject("plate_owner_id", UUID.class)
+        );
+    }
+
+    private ExistingPlate mapExistingPlate(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp issued = rs.getTimestamp("issued_date");
+        return new ExistingPlate(
+                rs.getObject("id", UUID.class),
+                rs.getString("plate_number"),
+                rs.getObject("owner_id", UUID.class),
+                rs.getObject("vehicle_id", UUID.class),
+                PlateStatus.valueOf(rs.getString("plate_status")),
+                issued != null ? issued.toInstant() : null
+        );
+    }
+
+    private String validate(VehicleTransferRequestDto item) {
+        if (item == null) {
+            return "Item is empty.";
+        }
+        Set<ConstraintViolation<VehicleTransferRequestDto>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private BulkVehicleTransferItemResultDto failure(int index, VehicleTransferRequestDto item, String message) {
+        return new BulkVehicleTransferItemResultDto(index,
+                item != null ? item.getVehicleId() : null,
+                item != null ? item.getNewPlateNumberStringForNewOwner() : null,
+                false, message);
+    }
+
+    private static String fullName(Owner owner) {
+        return owner.getFirstName() + " " + owner.getLastName();
+    }
+
+    /**
+     * A vehicle with its open ownership and IN_USE plate, as read before the transfer.
+     */
+    private record VehicleState(UUID vehicleId, String chassisNumber, String modelName, String manufacturerCompany,
+                                Year manufacturedYear, BigDecimal price, UUID ownershipId, UUID ownerId,
+                                UUID plateId, String plateNumber, UUID plateOwnerId) {
+    }
+
+    private record ExistingPlate(UUID id, String plateNumber, UUID ownerId, UUID vehicleId, PlateStatus status,
+                                 Instant issuedDate) {
+    }
+
+    private record Row(int index, VehicleTransferRequestDto item, VehicleState state, Owner previousOwner,
+                       Owner newOwner, ExistingPlate existingPlate, UUID issuedPlateId, UUID newOwnershipId) {
+
+        UUID newPlateId() {
+            return existingPlate != null ? existingPlate.id() : issuedPlateId;
+        }
+
+        String newPlateNumber() {
+            return item.getNewPlateNumberStringForNewOwner();
+        }
+
+        Instant newPlateIssuedDate(Instant transferredAt) {
+            return existingPlate != null ? existingPlate.issuedDate() : transferredAt;
+        }
+    }
+}
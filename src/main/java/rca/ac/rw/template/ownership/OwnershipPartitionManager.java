@@ -0,0 +1,227 @@
+package rca.ac.rw.template.ownership;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Keeps {@code ownership} range-partitioned by {@code start_date} year and moves old closed records to
+ * {@code ownership_archive}.
+ * <p>
+ * Hibernate creates {@code ownership} as a plain table. Converting it is a one-off admin operation
+ * ({@link #convertToPartitioned()}, {@code POST /api/v1/admin/ownership/partition}): in one transaction the
+ * table becomes a partitioned table with one partition per year plus a default partition, keeping its rows,
+ * foreign keys and primary key name (the key becomes {@code (id, start_date)} because Postgres requires the
+ * partition key in it). Startup only runs idempotent DDL: the upcoming yearly partitions and the hot-path
+ * indexes, including a partial index on open records ({@code end_date IS NULL}).
+ * <p>
+ * Archiving moves closed records whose period ended more than N years ago, in small batches, into
+ * {@code ownership_archive}: an append-only table with the same columns, packed (fillfactor 100) and indexed
+ * only for per-vehicle history. As-of lookups always read it; history lookups only when asked to.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@Slf4j
+public class OwnershipPartitionManager {
+
+    private static final String RELKIND_SQL = """
+            SELECT c.relkind FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+            WHERE c.relname = ? AND n.nspname = current_schema()
+            """;
+    private static final String CONSTRAINTS_SQL =
+            "SELECT conname, contype, pg_get_constraintdef(oid) AS definition FROM pg_constraint WHERE conrelid = 'ownership_legacy'::regclass";
+    private static final String LEGACY_INDEXES_SQL = """
+            SELECT i.relname FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid
+            WHERE x.indrelid = 'ownership_legacy'::regclass AND NOT x.indisprimary
+            """;
+    // Serializes conversions across nodes; the holder re-checks the table kind once it has the lock
+    private static final String CONVERSION_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('ownership_partitioning'))";
+    private static final String LEGACY_YEARS_SQL =
+            "SELECT DISTINCT extract(year FROM start_date AT TIME ZONE 'UTC')::int FROM ownership_legacy";
+
+    private static final List<String> INDEX_DDL = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_ownership_vehicle_start_date ON ownership (vehicle_id, start_date)",
+            "CREATE INDEX IF NOT EXISTS idx_ownership_open ON ownership (vehicle_id) WHERE end_date IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_ownership_vehicle_period ON ownership USING gist (vehicle_id, tstzrange(start_date, end_date, '[)'))",
+            "CREATE TABLE IF NOT EXISTS ownership_archive (LIKE ownership INCLUDING DEFAULTS) WITH (fillfactor = 100)",
+            "CREATE INDEX IF NOT EXISTS idx_ownership_archive_vehicle_start_date ON ownership_archive (vehicle_id, start_date)",
+            "CREATE INDEX IF NOT EXISTS idx_ownership_archive_vehicle_period ON ownership_archive USING gist (vehicle_id, tstzrange(start_date, end_date, '[)'))"
+    );
+
+    private static final String ARCHIVE_BATCH_SQL = """
+            WITH moved AS (
+                DELETE FROM ownership o
+                USING (SELECT id, start_date FROM ownership
+                       WHERE end_date IS NOT NULL AND end_date < ? AND start_date < ?
+                       LIMIT ?) batch
+                WHERE o.id = batch.id AND o.start_date = batch.start_date
+                RETURNING o.*)
+            INSERT INTO ownership_archive SELECT * FROM moved
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean archiveEnabled;
+    private final int archiveOlderThanYears;
+    private final int archiveBatchSize;
+
+    public OwnershipPartitionManager(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${ownership.archive.enabled:false}") boolean archiveEnabled,
+                                     @Value("${ownership.archive.older-than-years:10}") int archiveOlderThanYears,
+                                     @Value("${ownership.archive.batch-size:5000}") int archiveBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveEnabled = archiveEnabled;
+        this.archiveOlderThanYears = archiveOlderThanYears;
+        this.archiveBatchSize = archiveBatchSize;
+    }
+
+    /**
+     * Makes sure this and next year's partitions, the indexes and the archive table exist. Safe to run on
+     * every node at once; a table still waiting for {@link #convertToPartitioned()} is only reported.
+     */
+    @PostConstruct
+    public void initialize() {
+        if ("r".equals(relkind("ownership"))) {
+            log.warn("ownership is not partitioned yet; convert it with POST /api/v1/admin/ownership/partition in a maintenance window");
+        }
+        ensureUpcomingPartitions();
+        INDEX_DDL.forEach(jdbcTemplate::execute);
+    }
+
+    /**
+     * Converts {@code ownership} from a plain to a partitioned table and recreates its indexes. The table is
+     * locked ACCESS EXCLUSIVE while every row is copied, so run it in a maintenance window. Concurrent calls,
+     * on this node or another, wait for the first one and then find the table converted.
+     *
+     * @return {@code true} if the table was converted, {@code false} if it already was partitioned.
+     */
+    public boolean convertToPartitioned() {
+        Boolean converted = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(CONVERSION_LOCK_SQL);
+            if (!"r".equals(relkind("ownership"))) {
+                return false;
+            }
+            copyIntoPartitionedTable();
+            INDEX_DDL.forEach(jdbcTemplate::execute);
+            return true;
+        });
+        return Boolean.TRUE.equals(converted);
+    }
+
+    /**
+     * Creates the partitions for the current and the next year ahead of time, so new rows never land in the
+     * default partition.
+     */
+    @Scheduled(cron = "0 15 3 * * ?") // Daily at 3:15 AM
+    public void ensureUpcomingPartitions() {
+        if (!"p".equals(relkind("ownership"))) {
+            return;
+        }
+        int year = LocalDate.now(ZoneOffset.UTC).getYear();
+        createYearPartition(year);
+        createYearPartition(year + 1);
+    }
+
+    /**
+     * Runs the archiving pass when {@code ownership.archive.enabled} is set.
+     */
+    @Scheduled(cron = "${ownership.archive.cron:0 30 3 1 * ?}") // Monthly by default
+    public void archiveOnSchedule() {
+        if (archiveEnabled) {
+            archiveClosedOlderThan(archiveOlderThanYears);
+        }
+    }
+
+    /**
+     * Moves closed ownership records whose period ended more than {@code years} years ago into
+     * {@code ownership_archive}, one short transaction per batch.
+     *
+     * @return The number of records archived.
+     * @throws ValidationException if {@code years} is less than one.
+     */
+    public int archiveClosedOlderThan(int years) {
+        if (years < 1) {
+            throw new ValidationException("Only records closed at least one year ago can be archived.");
+        }
+        OffsetDateTime cutoff = LocalDate.now(ZoneOffset.UTC).minusYears(years).atStartOfDay().atOffset(ZoneOffset.UTC);
+        long start = System.nanoTime();
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> jdbcTemplate.update(ARCHIVE_BATCH_SQL, cutoff, cutoff, archiveBatchSize));
+            total += moved;
+        } while (moved == archiveBatchSize);
+        log.info("Archived {} ownership records closed before {} in {} ms", total, cutoff, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    // --- Helper Methods ---
+
+    private void copyIntoPartitionedTable() {
+        long start = System.nanoTime();
+        jdbcTemplate.execute("LOCK TABLE ownership IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE ownership RENAME TO ownership_legacy");
+
+        // Index names are schema-wide: free them for the new table
+        List<Map<String, Object>> constraints = jdbcTemplate.queryForList(CONSTRAINTS_SQL);
+        String primaryKeyName = "ownership_pkey";
+        for (Map<String, Object> constraint : constraints) {
+            if ("p".equals(String.valueOf(constraint.get("contype")))) {
+                primaryKeyName = (String) constraint.get("conname");
+                jdbcTemplate.execute("ALTER TABLE ownership_legacy RENAME CONSTRAINT \"" + primaryKeyName + "\" TO ownership_legacy_pkey");
+            }
+        }
+        for (String index : jdbcTemplate.queryForList(LEGACY_INDEXES_SQL, String.class)) {
+            jdbcTemplate.execute("DROP INDEX \"" + index + "\"");
+        }
+
+        jdbcTemplate.execute("CREATE TABLE ownership (LIKE ownership_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (start_date)");
+        jdbcTemplate.execute("ALTER TABLE ownership ADD CONSTRAINT \"" + primaryKeyName + "\" PRIMARY KEY (id, start_date)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS ownership_default PARTITION OF ownership DEFAULT");
+
+        TreeSet<Integer> years = new TreeSet<>(jdbcTemplate.queryForList(LEGACY_YEARS_SQL, Integer.class));
+        int currentYear = LocalDate.now(ZoneOffset.UTC).getYear();
+        years.add(currentYear);
+        years.add(currentYear + 1);
+        years.forEach(this::createYearPartition);
+
+        int rows = jdbcTemplate.update("INSERT INTO ownership SELECT * FROM ownership_legacy");
+        for (Map<String, Object> constraint : constraints) {
+            if ("f".equals(String.valueOf(constraint.get("contype")))) {
+                jdbcTemplate.execute("ALTER TABLE ownership ADD CONSTRAINT \"" + constraint.get("conname") + "\" " + constraint.get("definition"));
+            }
+        }
+        jdbcTemplate.execute("DROP TABLE ownership_legacy");
+        log.info("Converted ownership to a partitioned table ({} rows, {} yearly partitions) in {} ms",
+                rows, years.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void createYearPartition(int year) {
+        Instant from = LocalDate.of(year, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = LocalDate.of(year + 1, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS ownership_y" + year + " PARTITION OF ownership " +
+                "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private String relkind(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(RELKIND_SQL, String.class, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+}
@@ -0,0 +1,18 @@
+package rca.ac.rw.template.ownership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkVehicleTransferItemResultDto {
+    private int index; // Position of the item in the request list
+    private UUID vehicleId;
+    private String newPlateNumber;
+    private boolean transferred;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package rca.ac.rw.template.ownership.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for an admin transferring many vehicles (e.g., a leasing company or agency selling its fleet) in one call.
+ * Items are validated individually so that one bad item does not reject the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkVehicleTransferRequestDto {
+
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 10000, message = "A bulk transfer cannot exceed 10000 vehicles")
+    private List<VehicleTransferRequestDto> transfers;
+}
@@ -0,0 +1,17 @@
+package rca.ac.rw.template.ownership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkVehicleTransferResultDto {
+    private int total;
+    private int transferred;
+    private int failed;
+    private List<BulkVehicleTransferItemResultDto> items;
+}
@@ -0,0 +1,23 @@
+package rca.ac.rw.template.ownership.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a batch of as-of ownership lookups (e.g., a nightly file of fines or tax assessments).
+ * Each query is answered independently.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnershipAsOfBatchRequestDto {
+
+    @NotEmpty(message = "At least one query is required")
+    @Size(max = 50000, message = "A batch cannot exceed 50000 queries")
+    private List<OwnershipAsOfQueryDto> queries;
+}
@@ -0,0 +1,29 @@
+package rca.ac.rw.template.ownership.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rca.ac.rw.template.plateNumber.PlateNumberDeserializer;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One "who owned it at that time?" question: either a vehicle ID or a plate number, and an instant.
+ * When both are given, the vehicle ID wins.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnershipAsOfQueryDto {
+
+    private UUID vehicleId;
+
+    @JsonDeserialize(using = PlateNumberDeserializer.class)
+    private String plateNumber;
+
+    @NotNull(message = "The instant to look up is required")
+    private Instant at;
+}
@@ -0,0 +1,21 @@
+package rca.ac.rw.template.ownership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnershipAsOfResultDto {
+    private int index; // Position of the query in the request list
+    private UUID vehicleId;
+    private String plateNumber;
+    private Instant at;
+    private boolean found;
+    private OwnershipRecordDto ownership; // Null when no ownership covers the instant
+    private String message;
+}
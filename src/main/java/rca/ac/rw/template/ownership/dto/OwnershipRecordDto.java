@@ -21,4 +21,11 @@ public class OwnershipRecordDto {
     private Instant endDate; // Null for current owner
     private BigDecimal transferAmount;
 
+    /**
+     * Constructor used by the JPQL history projection (OwnerShipRepository.HISTORY_QUERY).
+     */
+    public OwnershipRecordDto(UUID ownershipId, UUID ownerId, String ownerFirstName, String ownerLastName,
+                              Instant startDate, Instant endDate, BigDecimal transferAmount) {
+        this(ownershipId, null, new OwnerNameDto(ownerId, ownerFirstName, ownerLastName), startDate, endDate, transferAmount);
+    }
 }
\ No newline at end of file
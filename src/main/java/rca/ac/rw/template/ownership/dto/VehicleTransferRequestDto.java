@@ -1,5 +1,6 @@
 package rca.ac.rw.template.ownership.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -7,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import rca.ac.rw.template.commons.validation.ValidPlateNumber;
+import rca.ac.rw.template.plateNumber.PlateNumberDeserializer;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -32,6 +34,7 @@ public class VehicleTransferRequestDto {
     // Option 1: New owner provides one of THEIR available plate numbers
     @NotBlank(message = "Plate number from new owner's list is required")
     @ValidPlateNumber
+    @JsonDeserialize(using = PlateNumberDeserializer.class)
     private String newPlateNumberStringForNewOwner;
 
     // Option 2: System issues a completely new plate (if "new Owner platenumbers list" means this)
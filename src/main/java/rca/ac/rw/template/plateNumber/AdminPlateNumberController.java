@@ -10,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import rca.ac.rw.template.plateNumber.PlateNumberNormalizer;
 import rca.ac.rw.template.plateNumber.PlateNumberService;
 import rca.ac.rw.template.plateNumber.PlateStatus;
 import rca.ac.rw.template.plateNumber.dto.IssueNewPlateRequestDto;
@@ -40,15 +41,21 @@ public class AdminPlateNumberController {
 
     /**
      * GET /api/v1/admin/plates : Get all plate numbers with filtering and pagination.
+     * Passing {@code after} (empty for the first page) switches to keyset pagination (no total count).
      */
     @GetMapping
-    public ResponseEntity<Page<PlateNumberResponseDto>> getAllPlateNumbers(
+    public ResponseEntity<?> getAllPlateNumbers(
             @PageableDefault(size = 10, sort = "issuedDate") Pageable pageable,
             @RequestParam(required = false) String plateString,
             @RequestParam(required = false) PlateStatus status,
             @RequestParam(required = false) UUID vehicleId,
-            @RequestParam(required = false) UUID ownerId) {
+            @RequestParam(required = false) UUID ownerId,
+            @RequestParam(required = false) String after) {
         log.info("Admin request to get all plates. Filters - plateString: {}, status: {}, vehicleId: {}, ownerId: {}", plateString, status, vehicleId, ownerId);
+        plateString = PlateNumberNormalizer.normalize(plateString);
+        if (after != null) {
+            return ResponseEntity.ok(plateNumberService.getAllPlateNumbersAfter(after, pageable, plateString, status, vehicleId, ownerId));
+        }
         Page<PlateNumberResponseDto> plates = plateNumberService.getAllPlateNumbers(pageable, plateString, status, vehicleId, ownerId);
         return ResponseEntity.ok(plates);
     }
@@ -88,6 +95,15 @@ public class AdminPlateNumberController {
         return ResponseEntity.ok(plates);
     }
 
+    /**
+     * GET /api/v1/admin/plates/next-free?series=RAC : Returns the first plate of the series not yet in use.
+     */
+    @GetMapping("/next-free")
+    public ResponseEntity<String> getNextFreePlate(@RequestParam String series) {
+        log.info("Admin request for next free plate in series {}", series);
+        return ResponseEntity.ok(plateNumberService.findNextFreePlate(series));
+    }
+
     /**
      * PATCH /api/v1/admin/plates/{plateId}/status : Admin updates the status of a plate.
      */
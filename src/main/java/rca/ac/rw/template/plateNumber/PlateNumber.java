@@ -14,7 +14,10 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "plate_number")
+@Table(name = "plate_number", indexes = {
+        @Index(name = "idx_plate_issued_date_id", columnList = "issued_date, id"), // keyset listing order
+        @Index(name = "idx_plate_vehicle_status", columnList = "vehicle_id, plate_status") // per-vehicle plate lookups, reconciliation ranges
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +29,7 @@ public class PlateNumber extends InitiatorAudit {
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
+    // Canonical form (PlateNumberNormalizer), unique: idx_plate_number_unq in db/plate-number-unique-index.sql
     @Column(nullable = false, name = "plate_number")
     private String plateNumber;
 
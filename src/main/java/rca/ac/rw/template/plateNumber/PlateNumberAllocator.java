@@ -0,0 +1,110 @@
+package rca.ac.rw.template.plateNumber;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out free plate numbers of the configured series for automatic issuance.
+ * <p>
+ * Each node reserves a block of consecutive codes at a time by advancing the series row in
+ * {@code plate_series_allocation} (one short, independent transaction), so nodes never hand out the same
+ * code. Within a block, codes are taken with a single atomic increment; only refilling an exhausted block
+ * is serialized. Codes already held by a plate record (per {@link PlateOccupancyIndex}) and number 000 are
+ * skipped. Codes handed out for a registration that later fails are not reused.
+ */
+@Component
+@Slf4j
+public class PlateNumberAllocator {
+
+    private static final String RESERVE_SQL = """
+            INSERT INTO plate_series_allocation (series, next_code) VALUES (?, ?)
+            ON CONFLICT (series) DO UPDATE SET next_code = plate_series_allocation.next_code + ?
+            RETURNING next_code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reservationTransaction;
+    private final PlateOccupancyIndex plateOccupancyIndex;
+    private final String series;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>();
+
+    public PlateNumberAllocator(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                PlateOccupancyIndex plateOccupancyIndex,
+                                @Value("${plates.allocation.series:RAH}") String series,
+                                @Value("${plates.allocation.block-size:100}") int blockSize) {
+        if (PlateNumberCodec.seriesStart(series) == PlateNumberCodec.INVALID) {
+            throw new IllegalArgumentException("plates.allocation.series must look like RAH, got: " + series);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.plateOccupancyIndex = plateOccupancyIndex;
+        this.series = series;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Call outside any transaction: refilling the block runs in a transaction of its own, on a second connection,
+     * while other callers wait for the refill.
+     *
+     * @return A plate number of the configured series that no other caller, on any node, has received.
+     * @throws ValidationException if the series is exhausted or the occupancy index is still loading.
+     */
+    public String allocate() {
+        if (!plateOccupancyIndex.isLoaded()) {
+            throw new ValidationException("Plate allocation is not available yet. Try again shortly or supply a plate number.");
+        }
+        while (true) {
+            Block block = current.get();
+            int code = block == null ? -1 : block.next.getAndIncrement();
+            if (block == null || code >= block.end) {
+                refill(block);
+                continue;
+            }
+            if (PlateNumberCodec.number(code) == 0 || plateOccupancyIndex.isSet(code)) {
+                continue;
+            }
+            return PlateNumberCodec.decode(code);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private synchronized void refill(Block exhausted) {
+        if (current.get() != exhausted) {
+            return; // another thread already refilled
+        }
+        int seriesStart = PlateNumberCodec.seriesStart(series);
+        int seriesEnd = seriesStart + PlateNumberCodec.SERIES_SIZE;
+        Integer reservedUpTo = reservationTransaction.execute(status ->
+                jdbcTemplate.queryForObject(RESERVE_SQL, Integer.class, series, seriesStart + blockSize, blockSize));
+        int start = reservedUpTo - blockSize;
+        if (start >= seriesEnd) {
+            throw new ValidationException("Plate series " + series + " is exhausted. Configure another series.");
+        }
+        current.set(new Block(start, Math.min(reservedUpTo, seriesEnd)));
+        log.info("Reserved plate block {} to {} in series {}", PlateNumberCodec.decode(start),
+                PlateNumberCodec.decode(Math.min(reservedUpTo, seriesEnd) - 1), series);
+    }
+
+    private static final class Block {
+        private final int end;
+        private final AtomicInteger next;
+
+        private Block(int start, int end) {
+            this.end = end;
+            this.next = new AtomicInteger(start);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package rca.ac.rw.template.plateNumber;
+
+/**
+ * Maps Rwandan plate numbers ({@code RA[A-Z][0-9]{3}[A-Z]}, see PlateNumberValidator) to dense ints and back.
+ * <p>
+ * Layout: {@code code = (series * 26 + suffix) * 1000 + number}, where {@code series} is the third letter
+ * (RA<b>C</b>...), {@code suffix} the last letter and {@code number} the three digits. Each series is a
+ * contiguous range of {@link #SERIES_SIZE} codes ordered RAC000A, RAC001A, ..., RAC999A, RAC000B, ...
+ */
+public final class PlateNumberCodec {
+
+    public static final int LETTERS = 26;
+    public static final int NUMBERS = 1000;
+    public static final int SERIES_SIZE = LETTERS * NUMBERS;     // 26,000 plates per series
+    public static final int CAPACITY = LETTERS * SERIES_SIZE;    // 676,000 plates in total
+    public static final int INVALID = -1;
+
+    private static final String PREFIX = "RA";
+
+    private PlateNumberCodec() {
+    }
+
+    /**
+     * @param plateNumber Plate string; whitespace is ignored, as in PlateNumberValidator.
+     * @return The plate's code, or {@link #INVALID} if the string is not a well-formed plate.
+     */
+    public static int encode(String plateNumber) {
+        if (plateNumber == null) {
+            return INVALID;
+        }
+        String plate = plateNumber.length() == 7 ? plateNumber : plateNumber.replaceAll("\\s", ""); // Canonical plates skip the regex
+        if (plate.length() != 7 || !plate.startsWith(PREFIX)) {
+            return INVALID;
+        }
+        int series = letter(plate.charAt(2));
+        int number = digit(plate.charAt(3)) * 100 + digit(plate.charAt(4)) * 10 + digit(plate.charAt(5));
+        int suffix = letter(plate.charAt(6));
+        if (series < 0 || suffix < 0 || number < 0) {
+            return INVALID;
+        }
+        return (series * LETTERS + suffix) * NUMBERS + number;
+    }
+
+    public static String decode(int code) {
+        if (code < 0 || code >= CAPACITY) {
+            throw new IllegalArgumentException("Plate code out of range: " + code);
+        }
+        int number = code % NUMBERS;
+        int rest = code / NUMBERS;
+        char suffix = (char) ('A' + rest % LETTERS);
+        char series = (char) ('A' + rest / LETTERS);
+        return new String(new char[]{'R', 'A', series,
+                (char) ('0' + number / 100), (char) ('0' + number / 10 % 10), (char) ('0' + number % 10), suffix});
+    }
+
+    /**
+     * @param series Series prefix such as {@code "RAC"}.
+     * @return The first code of the series, or {@link #INVALID} if the prefix is not a series.
+     */
+    public static int seriesStart(String series) {
+        if (series == null || series.length() != 3 || !series.startsWith(PREFIX)) {
+            return INVALID;
+        }
+        int letter = letter(series.charAt(2));
+        return letter < 0 ? INVALID : letter * SERIES_SIZE;
+    }
+
+    public static int number(int code) {
+        return code % NUMBERS;
+    }
+
+    private static int letter(char c) {
+        return c >= 'A' && c <= 'Z' ? c - 'A' : -1;
+    }
+
+    private static int digit(char c) {
+        return c >= '0' && c <= '9' ? c - '0' : -1000;
+    }
+}
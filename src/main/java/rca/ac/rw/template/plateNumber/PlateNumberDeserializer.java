@@ -0,0 +1,23 @@
+package rca.ac.rw.template.plateNumber;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Normalizes plate number fields of request bodies while they are read:
+ * {@code @JsonDeserialize(using = PlateNumberDeserializer.class)}.
+ */
+public class PlateNumberDeserializer extends StdDeserializer<String> {
+
+    public PlateNumberDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return PlateNumberNormalizer.normalize(parser.getValueAsString());
+    }
+}
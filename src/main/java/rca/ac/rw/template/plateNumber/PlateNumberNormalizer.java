@@ -0,0 +1,22 @@
+package rca.ac.rw.template.plateNumber;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of a plate number: upper case, no whitespace (" rac 123 a" becomes "RAC123A").
+ * Applied once at the API boundary (request bodies through {@link PlateNumberDeserializer}, query
+ * parameters in the controllers), so services, the unique index on {@code plate_number} and the
+ * in-memory plate indexes all see the same key.
+ */
+public final class PlateNumberNormalizer {
+
+    private PlateNumberNormalizer() {
+    }
+
+    public static String normalize(String plateNumber) {
+        if (plateNumber == null) {
+            return null;
+        }
+        return plateNumber.replaceAll("\\s", "").toUpperCase(Locale.ROOT);
+    }
+}
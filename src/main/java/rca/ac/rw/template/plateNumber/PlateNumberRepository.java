@@ -1,17 +1,24 @@
 package rca.ac.rw.template.plateNumber;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor; // Add this
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 // import rca.ac.rw.template.owner.Owner; // Not needed if using Specifications for findByOwner
 
 // import java.util.List; // Not needed for List<PlateNumber> findByOwner if using Page with Specs
 import org.springframework.data.domain.Page; // For paginated results
 import org.springframework.data.domain.Pageable; // For Pageable
+import rca.ac.rw.template.commons.exceptions.ValidationException;
 import rca.ac.rw.template.owner.Owner;
 import rca.ac.rw.template.vehicle.Vehicle;
+import rca.ac.rw.template.vehicle.dto.VehicleSummaryDto;
 
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,4 +30,30 @@ public interface PlateNumberRepository extends JpaRepository<PlateNumber, UUID>,
     Page<PlateNumber> findByVehicle(Vehicle vehicle, Pageable pageable); // Keep if you prefer direct method
 
     Optional<PlateNumber> findByPlateNumber(String plateNumber);
+
+    Optional<PlateNumber> findFirstByVehicleAndStatusOrderByIssuedDateDesc(Vehicle vehicle, PlateStatus status);
+
+    @Query("SELECT p.plateNumber FROM PlateNumber p WHERE p.plateNumber IN :plateNumbers")
+    List<String> findExistingPlateNumbers(@Param("plateNumbers") Collection<String> plateNumbers);
+
+    /**
+     * Summary of the non-deleted vehicle the plate is (or was last) attached to.
+     */
+    @Query("SELECT new rca.ac.rw.template.vehicle.dto.VehicleSummaryDto(v.id, v.chassisNumber, v.modelName) " +
+            "FROM PlateNumber p JOIN p.vehicle v WHERE p.plateNumber = :plateNumber AND v.deleted = false")
+    Optional<VehicleSummaryDto> findVehicleSummaryByPlateNumber(@Param("plateNumber") String plateNumber);
+
+    /**
+     * Inserts a brand-new plate and flushes, so a duplicate is rejected here by the unique index on
+     * {@code plate_number} (db/plate-number-unique-index.sql) rather than by a racy read-then-insert check.
+     *
+     * @throws ValidationException if another record already holds the plate number.
+     */
+    default PlateNumber saveNewPlate(PlateNumber plateNumber) {
+        try {
+            return saveAndFlush(plateNumber);
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException("Plate number '" + plateNumber.getPlateNumber() + "' is already registered.", e);
+        }
+    }
 }
\ No newline at end of file
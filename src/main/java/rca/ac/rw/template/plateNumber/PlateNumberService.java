@@ -8,8 +8,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import rca.ac.rw.template.commons.exceptions.ConflictException;
 import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
 import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.commons.pagination.KeysetPage;
+import rca.ac.rw.template.commons.pagination.KeysetRequest;
 import rca.ac.rw.template.owner.Owner;
 import rca.ac.rw.template.owner.OwnerRepository;
 import rca.ac.rw.template.ownership.OwnerShip;
@@ -17,6 +22,8 @@ import rca.ac.rw.template.ownership.OwnerShipRepository;
 import rca.ac.rw.template.plateNumber.dto.IssueNewPlateRequestDto;
 import rca.ac.rw.template.plateNumber.dto.PlateNumberResponseDto;
 import rca.ac.rw.template.vehicle.Vehicle;
+import rca.ac.rw.template.vehicle.VehicleCurrentStateService;
+import rca.ac.rw.template.vehicle.VehicleLocks;
 import rca.ac.rw.template.vehicle.VehicleRepository;
 
 import java.util.List;
@@ -33,22 +40,34 @@ public class PlateNumberService {
     private final OwnerRepository ownerRepository;
     public  final OwnerShipRepository ownerShipRepository;
     private final VehicleRepository vehicleRepository;
+    private final VehicleCurrentStateService vehicleCurrentStateService;
+    private final PlateOccupancyIndex plateOccupancyIndex;
+    private final PlateNumberAllocator plateNumberAllocator;
+    private final VehicleLocks vehicleLocks;
+    private final TransactionTemplate transactionTemplate;
 
 
     /**
      * Issues a new plate number to an existing vehicle for a specific owner.
      * Optionally marks an old plate as RETIRED if provided.
      *
-     * @param dto Request containing vehicleId, ownerId, new plate string, and optional old plate string.
+     * @param dto Request containing vehicleId, ownerId, and the new plate string (allocated automatically when absent).
      * @return The DTO of the newly issued plate.
+     * @throws ConflictException if another request keeps the vehicle locked.
      */
-    @Transactional
-
     public PlateNumberResponseDto issueNewPlateForVehicle(IssueNewPlateRequestDto dto) {
+        if (!StringUtils.hasText(dto.getPlateNumberString())) {
+            dto.setPlateNumberString(plateNumberAllocator.allocate());
+        }
+        // Serialized per vehicle: the stripe is held until the issuing transaction has committed
+        return vehicleLocks.withLock(dto.getVehicleId(), () -> transactionTemplate.execute(status -> applyNewPlate(dto)));
+    }
+
+    private PlateNumberResponseDto applyNewPlate(IssueNewPlateRequestDto dto) {
         log.info("Attempting to issue new plate {} for vehicle {} by alleged owner {}",
                 dto.getPlateNumberString(), dto.getVehicleId(), dto.getOwnerId());
 
-        Vehicle vehicle = vehicleRepository.findById(dto.getVehicleId())
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(dto.getVehicleId())
                 .filter(v -> !v.isDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "ID", dto.getVehicleId()));
 
@@ -71,7 +90,8 @@ public class PlateNumberService {
         Owner currentLegalOwner = specifiedOwnerInDto; // or currentActualOwnerShip.getOwner();
 
         // Validate new plate number uniqueness
-        if (plateNumberRepository.findByPlateNumber(dto.getPlateNumberString())
+        Optional<PlateNumber> existingPlateOpt = plateNumberRepository.findByPlateNumber(dto.getPlateNumberString());
+        if (existingPlateOpt
                 .filter(existingPlate -> existingPlate.getStatus() == PlateStatus.IN_USE && (existingPlate.getVehicle() == null || !existingPlate.getVehicle().getId().equals(vehicle.getId())) ) // Check if IN_USE on a DIFFERENT vehicle
                 .isPresent()) {
             throw new ValidationException("Plate number '" + dto.getPlateNumberString() + "' is already IN_USE on another vehicle.");
@@ -88,7 +108,6 @@ public class PlateNumberService {
                 });
 
         PlateNumber newPlate;
-        Optional<PlateNumber> existingPlateOpt = plateNumberRepository.findByPlateNumber(dto.getPlateNumberString());
         if (existingPlateOpt.isPresent()) {
             // Plate string exists. Can it be used?
             newPlate = existingPlateOpt.get();
@@ -102,7 +121,7 @@ public class PlateNumberService {
             }
             log.info("Re-activating plate {} for vehicle {} and owner {}", dto.getPlateNumberString(), vehicle.getId(), currentLegalOwner.getId());
         } else {
-            // Plate string does not exist, create a new one
+            // Plate string does not exist, create a new one (saveNewPlate below guards against a concurrent insert)
             newPlate = new PlateNumber();
             newPlate.setPlateNumber(dto.getPlateNumberString());
             log.info("Issuing brand new plate {} for vehicle {} and owner {}", dto.getPlateNumberString(), vehicle.getId(), currentLegalOwner.getId());
@@ -111,12 +130,36 @@ public class PlateNumberService {
         newPlate.setVehicle(vehicle);
         newPlate.setOwner(currentLegalOwner); // Plate is associated with the current legal owner of the vehicle
         newPlate.setStatus(PlateStatus.IN_USE);
-        PlateNumber savedPlate = plateNumberRepository.save(newPlate);
+        PlateNumber savedPlate = newPlate.getId() == null
+                ? plateNumberRepository.saveNewPlate(newPlate)
+                : plateNumberRepository.save(newPlate);
+        plateOccupancyIndex.markTaken(savedPlate.getPlateNumber());
         log.info("Plate {} successfully set to IN_USE for vehicle {} with owner {}", savedPlate.getPlateNumber(), vehicle.getId(), currentLegalOwner.getId());
 
+        vehicleCurrentStateService.recordPlate(vehicle, savedPlate);
+
         return PlateNumberConverter.toDto(savedPlate);
     }
 
+    /**
+     * Finds the first plate of a series (e.g. "RAC") that no plate record holds, from the occupancy index
+     * confirmed against the table.
+     *
+     * @param series The three-letter series prefix.
+     * @return The free plate string.
+     * @throws ValidationException if the series is malformed, full, or the index is still loading.
+     */
+    public String findNextFreePlate(String series) {
+        if (PlateNumberCodec.seriesStart(series) == PlateNumberCodec.INVALID) {
+            throw new ValidationException("Invalid plate series '" + series + "'. Expected RA followed by a letter, e.g. RAC.");
+        }
+        if (!plateOccupancyIndex.isLoaded()) {
+            throw new ValidationException("Plate occupancy index is still loading. Try again shortly.");
+        }
+        return plateOccupancyIndex.nextFree(series)
+                .orElseThrow(() -> new ValidationException("No free plate left in series " + series + "."));
+    }
+
     /**
      * Retrieves a plate number by its ID.
      * @param plateId The UUID of the plate number.
@@ -151,6 +194,23 @@ public class PlateNumberService {
         return new PageImpl<>(dtos, pageable, platePage.getTotalElements());
     }
 
+    /**
+     * Keyset variant of {@link #getAllPlateNumbers}: continues after the given cursor and skips the total count.
+     *
+     * @param after Cursor returned with the previous page; blank for the first page.
+     * @param pageable Page size and sort (the page number is ignored).
+     * @return KeysetPage of PlateNumberResponseDto.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PlateNumberResponseDto> getAllPlateNumbersAfter(String after, Pageable pageable, String plateString, PlateStatus status, UUID vehicleId, UUID ownerId) {
+        log.debug("Fetching plate numbers after cursor. PlateString: '{}', Status: {}, VehicleId: {}, OwnerId: {}", plateString, status, vehicleId, ownerId);
+        KeysetRequest keyset = KeysetRequest.of(after, pageable);
+        Specification<PlateNumber> spec = PlateNumberSpecifications.filterPlates(plateString, status, vehicleId, ownerId)
+                .and(keyset.seek());
+        List<PlateNumber> rows = plateNumberRepository.findBy(spec, q -> q.sortBy(keyset.sort()).limit(keyset.limit()).all());
+        return keyset.toPage(rows, PlateNumberConverter::toDto);
+    }
+
     /**
      * Retrieves all plate numbers associated with a specific owner.
      *
@@ -214,6 +274,10 @@ public class PlateNumberService {
         plateNumber.setStatus(newStatus);
         PlateNumber updatedPlate = plateNumberRepository.save(plateNumber);
         log.info("Plate {} status updated to {}", updatedPlate.getId(), updatedPlate.getStatus());
+
+        if (updatedPlate.getVehicle() != null) {
+            vehicleCurrentStateService.refresh(updatedPlate.getVehicle());
+        }
         return PlateNumberConverter.toDto(updatedPlate);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
+import rca.ac.rw.template.commons.search.SearchPredicates;
 import rca.ac.rw.template.owner.Owner;
 import rca.ac.rw.template.vehicle.Vehicle;
 
@@ -18,7 +19,7 @@ public class PlateNumberSpecifications {
             List<Predicate> predicates = new ArrayList<>();
 
             if (StringUtils.hasText(plateString)) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("plateNumber")), "%" + plateString.toLowerCase() + "%"));
+                predicates.add(SearchPredicates.anyContainsIgnoreCase(criteriaBuilder, plateString, root.get("plateNumber")));
             }
             if (status != null) {
                 predicates.add(criteriaBuilder.equal(root.get("status"), status));
@@ -0,0 +1,173 @@
+package rca.ac.rw.template.plateNumber;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap of every plate string present in {@code plate_number}, one bit per {@link PlateNumberCodec} code
+ * (676,000 bits, about 83 KB). Answers "is this plate taken?" and "next free plate in series RAC" from memory.
+ * <p>
+ * Plates are never deleted, so bits are only ever set: the index is filled from the table at startup, marked
+ * by this node's services after each new plate commits, and picked up from plates issued on other nodes every
+ * {@code plates.occupancy.sync-interval-ms}. A set bit is therefore authoritative, but a clear bit is only a
+ * hint: the plate may have been created elsewhere since the last sync. Callers that need a plate to be free
+ * confirm it against the table. Bits live in an {@link AtomicLongArray}, so reads and marks are lock-free.
+ * Plates that do not fit the codec are not tracked and always go to the database.
+ */
+@Component
+@Slf4j
+public class PlateOccupancyIndex {
+
+    private static final String SYNC_SQL = "SELECT plate_number, issued_date FROM plate_number WHERE issued_date > ?";
+    private static final String EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM plate_number WHERE plate_number = ?)";
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLongArray bits = new AtomicLongArray((PlateNumberCodec.CAPACITY + 63) / 64);
+    private volatile boolean loaded = false;
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+
+    public PlateOccupancyIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return {@code true} if the plate fits the codec and is held by some row.
+     */
+    public boolean isTaken(String plateNumber) {
+        int code = PlateNumberCodec.encode(plateNumber);
+        return code != PlateNumberCodec.INVALID && isSet(code);
+    }
+
+    /**
+     * Marks a plate as taken once the current transaction commits.
+     */
+    public void markTaken(String plateNumber) {
+        int code = PlateNumberCodec.encode(plateNumber);
+        if (code != PlateNumberCodec.INVALID) {
+            AfterCommit.run(() -> set(code));
+        }
+    }
+
+    /**
+     * Finds the first free plate of a series, skipping number 000. Each candidate from the bitmap is confirmed
+     * against {@code plate_number}; one found there was created on another node since the last sync, and is
+     * marked before moving on.
+     *
+     * @param series Series prefix such as {@code "RAC"}.
+     * @return The plate string, or empty if the series is full or not a valid series.
+     */
+    public Optional<String> nextFree(String series) {
+        int start = PlateNumberCodec.seriesStart(series);
+        if (start == PlateNumberCodec.INVALID) {
+            return Optional.empty();
+        }
+        int end = start + PlateNumberCodec.SERIES_SIZE;
+        int code = nextClear(start, end);
+        while (code >= 0) {
+            String plate = PlateNumberCodec.decode(code);
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, plate))) {
+                return Optional.of(plate);
+            }
+            set(code);
+            code = nextClear(code + 1, end);
+        }
+        return Optional.empty();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Sets the bit of every plate in {@code plate_number}. Marks made concurrently are kept.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        int[] tracked = {0};
+        jdbcTemplate.query("SELECT plate_number FROM plate_number", rs -> {
+            int code = PlateNumberCodec.encode(rs.getString(1));
+            if (code != PlateNumberCodec.INVALID) {
+                set(code);
+                tracked[0]++;
+            }
+        });
+        syncedUpTo = startedAt;
+        loaded = true;
+        log.info("Plate occupancy index built from {} plates in {} ms", tracked[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Sets the bits of the plates issued since the last sync, by this node or any other.
+     */
+    @Scheduled(fixedDelayString = "${plates.occupancy.sync-interval-ms:10000}")
+    public void sync() {
+        if (!loaded) {
+            return;
+        }
+        // Rows commit out of issued_date order and node clocks differ; re-read the last few seconds rather than miss one
+        Instant since = syncedUpTo.minus(SYNC_OVERLAP);
+        jdbcTemplate.query(SYNC_SQL, rs -> {
+            int code = PlateNumberCodec.encode(rs.getString("plate_number"));
+            if (code != PlateNumberCodec.INVALID) {
+                set(code);
+            }
+            Instant issuedAt = rs.getObject("issued_date", OffsetDateTime.class).toInstant();
+            if (issuedAt.isAfter(syncedUpTo)) {
+                syncedUpTo = issuedAt;
+            }
+        }, OffsetDateTime.ofInstant(since, ZoneOffset.UTC));
+    }
+
+    // --- Helper Methods ---
+
+    boolean isSet(int code) {
+        return (bits.get(code >>> 6) & (1L << code)) != 0;
+    }
+
+    /**
+     * @return {@code true} if this call set the bit, {@code false} if it was already set.
+     */
+    boolean set(int code) {
+        long mask = 1L << code;
+        return (bits.getAndAccumulate(code >>> 6, mask, (word, m) -> word | m) & mask) == 0;
+    }
+
+    /**
+     * First clear bit in {@code [from, to)} whose plate number is not 000, or -1.
+     */
+    int nextClear(int from, int to) {
+        int i = from;
+        while (i < to) {
+            int word = i >>> 6;
+            long free = ~bits.get(word) & (-1L << i); // shift uses the low 6 bits of i
+            if (free == 0) {
+                i = (word + 1) << 6;
+                continue;
+            }
+            int candidate = (word << 6) + Long.numberOfTrailingZeros(free);
+            if (candidate >= to) {
+                return -1;
+            }
+            if (PlateNumberCodec.number(candidate) != 0) {
+                return candidate;
+            }
+            i = candidate + 1;
+        }
+        return -1;
+    }
+}
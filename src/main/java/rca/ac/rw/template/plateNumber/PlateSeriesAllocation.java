@@ -0,0 +1,29 @@
+package rca.ac.rw.template.plateNumber;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * High-water mark of automatic plate allocation per series, shared by all application nodes.
+ * Each node reserves a block of codes by advancing {@code nextCode} (see {@link PlateNumberAllocator}).
+ */
+@Entity
+@Table(name = "plate_series_allocation")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlateSeriesAllocation {
+
+    @Id
+    @Column(name = "series", length = 3, nullable = false)
+    private String series;
+
+    // First PlateNumberCodec code not yet reserved by any node
+    @Column(name = "next_code", nullable = false)
+    private int nextCode;
+}
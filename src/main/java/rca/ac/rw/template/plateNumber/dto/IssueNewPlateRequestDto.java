@@ -1,11 +1,12 @@
 package rca.ac.rw.template.plateNumber.dto;
 
-import jakarta.validation.constraints.NotBlank;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import rca.ac.rw.template.commons.validation.ValidPlateNumber;
+import rca.ac.rw.template.plateNumber.PlateNumberDeserializer;
 
 import java.util.UUID;
 
@@ -20,8 +21,9 @@ public class IssueNewPlateRequestDto {
     @NotNull(message = "Owner ID is required")
     private UUID ownerId; // The owner who will be associated with this new plate for this vehicle
 
-    @NotBlank(message = "New plate number string is required")
+    // Optional: when omitted, the next free plate of the configured series is allocated.
     @ValidPlateNumber
+    @JsonDeserialize(using = PlateNumberDeserializer.class)
     private String plateNumberString;
 
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package rca.ac.rw.template.reconciliation;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/admin/reconciliation")
+@AllArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+public class AdminReconciliationController {
+
+    private final RegistryReconciliationService reconciliationService;
+
+    /**
+     * POST /api/v1/admin/reconciliation/runs : Admin starts a registry reconciliation run in the background.
+     * Returns 409 if a run is already in progress.
+     */
+    @PostMapping("/runs")
+    public ResponseEntity<ReconciliationRun> startRun() {
+        log.info("Admin request to start a registry reconciliation run.");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationService.startRun());
+    }
+
+    /**
+     * GET /api/v1/admin/reconciliation/runs : Admin lists reconciliation runs, most recent first.
+     */
+    @GetMapping("/runs")
+    public ResponseEntity<Page<ReconciliationRun>> getRuns(@PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(reconciliationService.getRuns(pageable));
+    }
+
+    /**
+     * GET /api/v1/admin/reconciliation/runs/{runId} : Admin displays the status and progress of a run.
+     */
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<ReconciliationRun> getRun(@PathVariable UUID runId) {
+        return ResponseEntity.ok(reconciliationService.getRun(runId));
+    }
+
+    /**
+     * GET /api/v1/admin/reconciliation/runs/{runId}/summary : Admin displays the number of findings per kind.
+     */
+    @GetMapping("/runs/{runId}/summary")
+    public ResponseEntity<Map<FindingKind, Long>> getSummary(@PathVariable UUID runId) {
+        return ResponseEntity.ok(reconciliationService.getFindingCounts(runId));
+    }
+
+    /**
+     * GET /api/v1/admin/reconciliation/runs/{runId}/findings?kind=... : Admin pages through the findings of a run,
+     * optionally of one kind.
+     */
+    @GetMapping("/runs/{runId}/findings")
+    public ResponseEntity<Page<ReconciliationFinding>> getFindings(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) FindingKind kind,
+            @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+        return ResponseEntity.ok(reconciliationService.getFindings(runId, kind, pageable));
+    }
+}
@@ -0,0 +1,13 @@
+package rca.ac.rw.template.reconciliation;
+
+/**
+ * Registry invariants checked for every active vehicle; each violation is recorded as one finding.
+ * These are the states that make a transfer fail with a "Data inconsistency" error.
+ */
+public enum FindingKind {
+    NO_IN_USE_PLATE,          // Vehicle has no IN_USE plate
+    MULTIPLE_IN_USE_PLATES,   // Vehicle has more than one IN_USE plate
+    NO_OPEN_OWNERSHIP,        // Vehicle has no open ownership record (end_date IS NULL)
+    MULTIPLE_OPEN_OWNERSHIPS, // Vehicle has more than one open ownership record
+    PLATE_OWNER_MISMATCH      // IN_USE plate is held by someone other than the current owner
+}
@@ -0,0 +1,43 @@
+package rca.ac.rw.template.reconciliation;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One violated invariant of one vehicle, found by a {@link ReconciliationRun}.
+ * Written with JDBC batch inserts by {@link RegistryReconciliationService}.
+ */
+@Entity
+@Table(name = "reconciliation_finding", indexes = {
+        @Index(name = "idx_reconciliation_finding_run_kind", columnList = "run_id, kind")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationFinding {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private UUID vehicleId;
+
+    @Column(name = "chassis_number", nullable = false)
+    private String chassisNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false)
+    private FindingKind kind;
+
+    @Column(name = "detail", length = 500)
+    private String detail;
+}
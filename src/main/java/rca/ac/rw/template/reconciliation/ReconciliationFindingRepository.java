@@ -0,0 +1,28 @@
+package rca.ac.rw.template.reconciliation;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReconciliationFindingRepository extends JpaRepository<ReconciliationFinding, Long> {
+
+    Page<ReconciliationFinding> findByRunId(UUID runId, Pageable pageable);
+
+    Page<ReconciliationFinding> findByRunIdAndKind(UUID runId, FindingKind kind, Pageable pageable);
+
+    @Query("SELECT f.kind AS kind, count(f) AS count FROM ReconciliationFinding f WHERE f.runId = :runId GROUP BY f.kind")
+    List<KindCount> countByKind(@Param("runId") UUID runId);
+
+    interface KindCount {
+        FindingKind getKind();
+
+        long getCount();
+    }
+}
@@ -0,0 +1,47 @@
+package rca.ac.rw.template.reconciliation;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One pass of the registry reconciliation job. The counters are advanced by the workers as partitions
+ * finish, so a running job reports its progress.
+ */
+@Entity
+@Table(name = "reconciliation_run")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ReconciliationStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "vehicles_checked", nullable = false)
+    private long vehiclesChecked;
+
+    @Column(name = "finding_count", nullable = false)
+    private long findingCount;
+
+    @Column(name = "failure_message", length = 1000)
+    private String failureMessage;
+}
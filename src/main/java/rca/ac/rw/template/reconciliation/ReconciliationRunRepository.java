@@ -0,0 +1,14 @@
+package rca.ac.rw.template.reconciliation;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, UUID> {
+
+    Page<ReconciliationRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+}
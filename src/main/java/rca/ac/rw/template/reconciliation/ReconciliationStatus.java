@@ -0,0 +1,7 @@
+package rca.ac.rw.template.reconciliation;
+
+public enum ReconciliationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,300 @@
+package rca.ac.rw.template.reconciliation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import rca.ac.rw.template.commons.exceptions.ConflictException;
+import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks the registry invariants (one IN_USE plate, one open ownership, plate held by the current owner)
+ * for every active vehicle and records each violation as a {@link ReconciliationFinding}.
+ * <p>
+ * The coordinator walks the vehicle primary key in partitions of {@code reconciliation.partition-size} IDs,
+ * reading only each partition's upper bound. Each partition is checked by a worker with one aggregate
+ * query over {@code vehicles}, {@code plate_number} and {@code ownership} for that ID range, and its findings
+ * are batch-inserted before the next partition is taken. The worker queue is bounded and the coordinator
+ * runs a partition itself when it is full, so memory stays at about
+ * {@code 2 * parallelism} partitions however large the tables are. No entities are loaded.
+ * <p>
+ * Workers each hold a connection while they run, so {@code reconciliation.parallelism} should stay well
+ * below the connection pool size. One run at a time per node.
+ */
+@Service
+@Slf4j
+public class RegistryReconciliationService {
+
+    private static final UUID NIL_UUID = new UUID(0L, 0L);
+
+    private static final String PARTITION_UPPER_BOUND_SQL = """
+            SELECT id FROM (SELECT id FROM vehicles WHERE id > ? ORDER BY id LIMIT ?) p
+            ORDER BY id DESC LIMIT 1
+            """;
+
+    // One row per active vehicle of the range (lower bound exclusive, upper bound inclusive)
+    private static final String PARTITION_STATE_SQL = """
+            WITH v AS (
+                SELECT id, chassis_number FROM vehicles
+                WHERE id > ? AND id <= ? AND deleted = false),
+            p AS (
+                SELECT vehicle_id, count(*) AS in_use, count(DISTINCT owner_id) AS plate_owners,
+                       (array_agg(owner_id))[1] AS plate_owner_id, (array_agg(plate_number))[1] AS plate_number
+                FROM plate_number
+                WHERE vehicle_id > ? AND vehicle_id <= ? AND plate_status = 'IN_USE'
+                GROUP BY vehicle_id),
+            o AS (
+                SELECT vehicle_id, count(*) AS open, (array_agg(owner_id))[1] AS owner_id
+                FROM ownership
+                WHERE vehicle_id > ? AND vehicle_id <= ? AND end_date IS NULL
+                GROUP BY vehicle_id)
+            SELECT v.id, v.chassis_number,
+                   coalesce(p.in_use, 0) AS in_use, coalesce(p.plate_owners, 0) AS plate_owners,
+                   p.plate_owner_id, p.plate_number,
+                   coalesce(o.open, 0) AS open, o.owner_id
+            FROM v
+            LEFT JOIN p ON p.vehicle_id = v.id
+            LEFT JOIN o ON o.vehicle_id = v.id
+            """;
+
+    private static final String INSERT_FINDING_SQL =
+            "INSERT INTO reconciliation_finding (run_id, vehicle_id, chassis_number, kind, detail) VALUES (?, ?, ?, ?, ?)";
+    private static final String ADD_PROGRESS_SQL =
+            "UPDATE reconciliation_run SET vehicles_checked = vehicles_checked + ?, finding_count = finding_count + ? WHERE id = ?";
+    private static final String FINISH_RUN_SQL =
+            "UPDATE reconciliation_run SET status = ?, finished_at = ?, failure_message = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationFindingRepository findingRepository;
+    private final int partitionSize;
+    private final int parallelism;
+    private final boolean scheduleEnabled;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(named("reconciliation-coordinator"));
+
+    public RegistryReconciliationService(JdbcTemplate jdbcTemplate,
+                                         ReconciliationRunRepository runRepository,
+                                         ReconciliationFindingRepository findingRepository,
+                                         @Value("${reconciliation.partition-size:5000}") int partitionSize,
+                                         @Value("${reconciliation.parallelism:4}") int parallelism,
+                                         @Value("${reconciliation.enabled:false}") boolean scheduleEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.runRepository = runRepository;
+        this.findingRepository = findingRepository;
+        this.partitionSize = partitionSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.scheduleEnabled = scheduleEnabled;
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return The new run, in status RUNNING.
+     * @throws ConflictException if a run is already in progress on this node.
+     */
+    public ReconciliationRun startRun() {
+        ReconciliationRun run = beginRun();
+        coordinator.execute(() -> execute(run));
+        return run;
+    }
+
+    /**
+     * Starts the reconciliation nightly when {@code reconciliation.enabled} is set. The run goes to the coordinator
+     * like {@link #startRun()}, so it does not hold the scheduler thread the periodic syncs share.
+     */
+    @Scheduled(cron = "${reconciliation.cron:0 0 2 * * ?}") // Daily at 2 AM by default
+    public void runOnSchedule() {
+        if (!scheduleEnabled) {
+            return;
+        }
+        if (running.get()) {
+            log.info("Skipping scheduled reconciliation: a run is already in progress.");
+            return;
+        }
+        startRun();
+    }
+
+    public ReconciliationRun getRun(UUID runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run", "ID", runId));
+    }
+
+    public Page<ReconciliationRun> getRuns(Pageable pageable) {
+        return runRepository.findAllByOrderByStartedAtDesc(pageable);
+    }
+
+    /**
+     * @param kind Optional; restricts the page to one kind of finding.
+     */
+    public Page<ReconciliationFinding> getFindings(UUID runId, FindingKind kind, Pageable pageable) {
+        getRun(runId);
+        return kind != null
+                ? findingRepository.findByRunIdAndKind(runId, kind, pageable)
+                : findingRepository.findByRunId(runId, pageable);
+    }
+
+    /**
+     * @return Number of findings of each kind, zero for kinds that were not found.
+     */
+    public Map<FindingKind, Long> getFindingCounts(UUID runId) {
+        getRun(runId);
+        Map<FindingKind, Long> counts = new EnumMap<>(FindingKind.class);
+        for (FindingKind kind : FindingKind.values()) {
+            counts.put(kind, 0L);
+        }
+        findingRepository.countByKind(runId).forEach(c -> counts.put(c.getKind(), c.getCount()));
+        return counts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    // --- Helper Methods ---
+
+    private ReconciliationRun beginRun() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A reconciliation run is already in progress.");
+        }
+        try {
+            ReconciliationRun run = new ReconciliationRun();
+            run.setStatus(ReconciliationStatus.RUNNING);
+            run.setStartedAt(Instant.now());
+            return runRepository.save(run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    private void execute(ReconciliationRun run) {
+        long start = System.nanoTime();
+        log.info("Reconciliation run {} started (partition size {}, parallelism {})", run.getId(), partitionSize, parallelism);
+        // Bounded queue + caller-runs: the coordinator never gets more than one queue ahead of the workers
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism), named("reconciliation-worker"), new ThreadPoolExecutor.CallerRunsPolicy());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int partitions = 0;
+        try {
+            UUID lowerBound = NIL_UUID;
+            while (failure.get() == null) {
+                List<UUID> upper = jdbcTemplate.queryForList(PARTITION_UPPER_BOUND_SQL, UUID.class, lowerBound, partitionSize);
+                if (upper.isEmpty()) {
+                    break;
+                }
+                UUID from = lowerBound;
+                UUID to = upper.get(0);
+                workers.execute(() -> {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                    try {
+                        checkPartition(run.getId(), from, to);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                });
+                lowerBound = to;
+                partitions++;
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Reconciliation workers did not finish.");
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            finish(run.getId(), ReconciliationStatus.COMPLETED, null);
+            log.info("Reconciliation run {} completed: {} partitions in {} ms",
+                    run.getId(), partitions, (System.nanoTime() - start) / 1_000_000);
+        } catch (Throwable t) {
+            workers.shutdownNow();
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Reconciliation run {} failed after {} partitions", run.getId(), partitions, t);
+            finish(run.getId(), ReconciliationStatus.FAILED, Objects.toString(t.getMessage(), t.getClass().getName()));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void checkPartition(UUID runId, UUID from, UUID to) {
+        List<Object[]> findings = new ArrayList<>();
+        int[] vehicles = {0};
+        jdbcTemplate.query(PARTITION_STATE_SQL, rs -> {
+            vehicles[0]++;
+            UUID vehicleId = rs.getObject("id", UUID.class);
+            String chassisNumber = rs.getString("chassis_number");
+            int inUse = rs.getInt("in_use");
+            int open = rs.getInt("open");
+            UUID plateOwnerId = rs.getObject("plate_owner_id", UUID.class);
+            UUID ownerId = rs.getObject("owner_id", UUID.class);
+
+            if (inUse == 0) {
+                findings.add(finding(runId, vehicleId, chassisNumber, FindingKind.NO_IN_USE_PLATE,
+                        "No active IN_USE plate found for vehicle."));
+            } else if (inUse > 1) {
+                findings.add(finding(runId, vehicleId, chassisNumber, FindingKind.MULTIPLE_IN_USE_PLATES,
+                        inUse + " IN_USE plates held by " + rs.getInt("plate_owners") + " owner(s)."));
+            }
+            if (open == 0) {
+                findings.add(finding(runId, vehicleId, chassisNumber, FindingKind.NO_OPEN_OWNERSHIP,
+                        "No open ownership record found for vehicle."));
+            } else if (open > 1) {
+                findings.add(finding(runId, vehicleId, chassisNumber, FindingKind.MULTIPLE_OPEN_OWNERSHIPS,
+                        open + " open ownership records."));
+            }
+            if (inUse == 1 && open == 1 && !plateOwnerId.equals(ownerId)) {
+                findings.add(finding(runId, vehicleId, chassisNumber, FindingKind.PLATE_OWNER_MISMATCH,
+                        String.format("Active plate %s is owned by %s, but current vehicle owner is %s.",
+                                rs.getString("plate_number"), plateOwnerId, ownerId)));
+            }
+        }, from, to, from, to, from, to);
+
+        if (!findings.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FINDING_SQL, findings);
+        }
+        jdbcTemplate.update(ADD_PROGRESS_SQL, vehicles[0], findings.size(), runId);
+    }
+
+    private void finish(UUID runId, ReconciliationStatus status, String failureMessage) {
+        // Plain update: the counters were advanced in the database by the workers and must not be overwritten
+        jdbcTemplate.update(FINISH_RUN_SQL, status.name(), OffsetDateTime.now(ZoneOffset.UTC),
+                failureMessage != null && failureMessage.length() > 1000 ? failureMessage.substring(0, 1000) : failureMessage,
+                runId);
+    }
+
+    private static Object[] finding(UUID runId, UUID vehicleId, String chassisNumber, FindingKind kind, String detail) {
+        return new Object[]{runId, vehicleId, chassisNumber, kind.name(), detail};
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package rca.ac.rw.template.tax;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import rca.ac.rw.template.tax.dto.TaxAssessmentDto;
+import rca.ac.rw.template.tax.dto.TaxRateBandDto;
+import rca.ac.rw.template.tax.dto.TaxRateTableRequestDto;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/admin/tax")
+@AllArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+public class AdminTaxController {
+
+    private final TaxRateService taxRateService;
+    private final TaxAssessmentService taxAssessmentService;
+
+    /**
+     * GET /api/v1/admin/tax/rates : Admin displays the tax rate table.
+     */
+    @GetMapping("/rates")
+    public ResponseEntity<List<TaxRateBandDto>> getRateBands() {
+        return ResponseEntity.ok(taxRateService.getRateBands());
+    }
+
+    /**
+     * PUT /api/v1/admin/tax/rates : Admin replaces the whole tax rate table.
+     */
+    @PutMapping("/rates")
+    public ResponseEntity<List<TaxRateBandDto>> replaceRateBands(@Valid @RequestBody TaxRateTableRequestDto requestDto) {
+        log.info("Admin request to replace the tax rate table with {} bands", requestDto.getBands().size());
+        return ResponseEntity.ok(taxRateService.replaceRateBands(requestDto.getBands()));
+    }
+
+    /**
+     * POST /api/v1/admin/tax/assessments/runs : Admin starts a tax assessment run in the background.
+     * Returns 409 if a run is already in progress.
+     */
+    @PostMapping("/assessments/runs")
+    public ResponseEntity<TaxAssessmentRun> startRun() {
+        log.info("Admin request to start a tax assessment run.");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(taxAssessmentService.startRun());
+    }
+
+    /**
+     * GET /api/v1/admin/tax/assessments/runs : Admin lists tax assessment runs, most recent first.
+     */
+    @GetMapping("/assessments/runs")
+    public ResponseEntity<Page<TaxAssessmentRun>> getRuns(@PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(taxAssessmentService.getRuns(pageable));
+    }
+
+    /**
+     * GET /api/v1/admin/tax/assessments/runs/{runId} : Admin displays the status and totals of a run.
+     */
+    @GetMapping("/assessments/runs/{runId}")
+    public ResponseEntity<TaxAssessmentRun> getRun(@PathVariable UUID runId) {
+        return ResponseEntity.ok(taxAssessmentService.getRun(runId));
+    }
+
+    /**
+     * GET /api/v1/admin/tax/assessments/runs/{runId}/assessments : Admin pages through the assessments of a run.
+     */
+    @GetMapping("/assessments/runs/{runId}/assessments")
+    public ResponseEntity<Page<TaxAssessmentDto>> getAssessmentsByRun(
+            @PathVariable UUID runId,
+            @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(taxAssessmentService.getAssessmentsByRun(runId, pageable));
+    }
+
+    /**
+     * GET /api/v1/admin/tax/assessments/by-vehicle/{vehicleId} : Admin pages through the assessments of a vehicle.
+     */
+    @GetMapping("/assessments/by-vehicle/{vehicleId}")
+    public ResponseEntity<Page<TaxAssessmentDto>> getAssessmentsByVehicle(
+            @PathVariable UUID vehicleId,
+            @PageableDefault(size = 50, sort = "assessedAt") Pageable pageable) {
+        return ResponseEntity.ok(taxAssessmentService.getAssessmentsByVehicle(vehicleId, pageable));
+    }
+}
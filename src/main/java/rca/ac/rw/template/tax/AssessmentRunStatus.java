@@ -0,0 +1,7 @@
+package rca.ac.rw.template.tax;
+
+public enum AssessmentRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,68 @@
+package rca.ac.rw.template.tax;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Tax assessed on one ownership record (TRANSFER) or one vehicle (REGISTRATION).
+ * Amounts are stored in cents; each source is assessed once (unique kind + source).
+ * Written with JDBC batch inserts by {@link TaxAssessmentService}.
+ */
+@Entity
+@Table(name = "tax_assessment", indexes = {
+        @Index(name = "idx_tax_assessment_kind_source_unq", columnList = "kind, source_id", unique = true),
+        @Index(name = "idx_tax_assessment_vehicle", columnList = "vehicle_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxAssessment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false)
+    private TaxKind kind;
+
+    // Ownership ID for TRANSFER, vehicle ID for REGISTRATION
+    @Column(name = "source_id", nullable = false)
+    private UUID sourceId;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private UUID vehicleId;
+
+    @Column(name = "owner_id")
+    private UUID ownerId;
+
+    @Column(name = "vehicle_age", nullable = false)
+    private int vehicleAge;
+
+    @Column(name = "taxable_cents", nullable = false)
+    private long taxableCents;
+
+    @Column(name = "rate_band_id", nullable = false)
+    private long rateBandId;
+
+    @Column(name = "rate_basis_points", nullable = false)
+    private int rateBasisPoints;
+
+    @Column(name = "fixed_fee_cents", nullable = false)
+    private long fixedFeeCents;
+
+    @Column(name = "tax_cents", nullable = false)
+    private long taxCents;
+
+    @Column(name = "assessed_at", nullable = false)
+    private Instant assessedAt;
+}
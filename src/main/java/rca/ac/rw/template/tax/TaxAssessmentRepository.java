@@ -0,0 +1,16 @@
+package rca.ac.rw.template.tax;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface TaxAssessmentRepository extends JpaRepository<TaxAssessment, Long> {
+
+    Page<TaxAssessment> findByVehicleId(UUID vehicleId, Pageable pageable);
+
+    Page<TaxAssessment> findByRunId(UUID runId, Pageable pageable);
+}
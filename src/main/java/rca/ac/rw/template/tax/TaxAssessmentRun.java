@@ -0,0 +1,53 @@
+package rca.ac.rw.template.tax;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One pass of the tax assessment engine. The counters are advanced by the workers as partitions finish.
+ */
+@Entity
+@Table(name = "tax_assessment_run")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxAssessmentRun {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private AssessmentRunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "records_read", nullable = false)
+    private long recordsRead;
+
+    @Column(name = "records_assessed", nullable = false)
+    private long recordsAssessed;
+
+    // Records no rate band applies to; they stay unassessed and are picked up again by the next run
+    @Column(name = "records_unmatched", nullable = false)
+    private long recordsUnmatched;
+
+    @Column(name = "tax_cents", nullable = false)
+    private long taxCents;
+
+    @Column(name = "failure_message", length = 1000)
+    private String failureMessage;
+}
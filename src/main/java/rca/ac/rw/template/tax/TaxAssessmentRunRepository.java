@@ -0,0 +1,14 @@
+package rca.ac.rw.template.tax;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface TaxAssessmentRunRepository extends JpaRepository<TaxAssessmentRun, UUID> {
+
+    Page<TaxAssessmentRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+}
@@ -0,0 +1,384 @@
+package rca.ac.rw.template.tax;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import rca.ac.rw.template.commons.exceptions.ConflictException;
+import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.tax.dto.TaxAssessmentDto;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Assesses transfer tax on ownership records and registration fees on vehicles in batch runs.
+ * <p>
+ * Each kind is processed like the registry reconciliation: the coordinator walks the source table's primary
+ * key in partitions of {@code tax.assessment.partition-size} IDs, and a bounded pool of
+ * {@code tax.assessment.parallelism} workers reads each partition's not-yet-assessed records, applies the
+ * {@link TaxRateTable} and batch-inserts the assessments. Amounts are read as {@code bigint} cents and taxed
+ * with {@code long} arithmetic, and each partition is buffered in primitive arrays, so the per-row loop
+ * allocates no {@link BigDecimal}.
+ * <p>
+ * A source is assessed at most once (unique kind + source), so a run only picks up records added since the
+ * previous one, plus records no rate band applied to at the time.
+ */
+@Service
+@Slf4j
+public class TaxAssessmentService {
+
+    private static final UUID NIL_UUID = new UUID(0L, 0L);
+
+    private static final String OWNERSHIP_UPPER_BOUND_SQL =
+            "SELECT id FROM (SELECT id FROM ownership WHERE id > ? ORDER BY id LIMIT ?) p ORDER BY id DESC LIMIT 1";
+    private static final String VEHICLE_UPPER_BOUND_SQL =
+            "SELECT id FROM (SELECT id FROM vehicles WHERE id > ? ORDER BY id LIMIT ?) p ORDER BY id DESC LIMIT 1";
+
+    // Ownership records after a vehicle's first one, archived or not, are transfers; the first one is the registration
+    private static final String TRANSFER_PARTITION_SQL = """
+            SELECT os.id AS source_id, os.vehicle_id, os.owner_id,
+                   greatest(extract(year FROM os.start_date AT TIME ZONE 'UTC')::int - v.manufacturer_year, 0) AS vehicle_age,
+                   round(os.transfer_amount * 100)::bigint AS amount_cents
+            FROM ownership os
+            JOIN vehicles v ON v.id = os.vehicle_id
+            WHERE os.id > ? AND os.id <= ? AND os.transfer_amount IS NOT NULL AND v.deleted = false
+              AND (EXISTS (SELECT 1 FROM ownership prev
+                           WHERE prev.vehicle_id = os.vehicle_id AND prev.start_date < os.start_date)
+                   OR EXISTS (SELECT 1 FROM ownership_archive prev
+                              WHERE prev.vehicle_id = os.vehicle_id AND prev.start_date < os.start_date))
+              AND NOT EXISTS (SELECT 1 FROM tax_assessment a WHERE a.kind = 'TRANSFER' AND a.source_id = os.id)
+            """;
+    private static final String REGISTRATION_PARTITION_SQL = """
+            SELECT v.id AS source_id, v.id AS vehicle_id, first_owner.owner_id,
+                   greatest(extract(year FROM v.created_at)::int - v.manufacturer_year, 0) AS vehicle_age,
+                   round(v.price * 100)::bigint AS amount_cents
+            FROM vehicles v
+            LEFT JOIN LATERAL (
+                SELECT owner_id FROM (SELECT os.owner_id, os.start_date FROM ownership os WHERE os.vehicle_id = v.id
+                                      UNION ALL
+                                      SELECT oa.owner_id, oa.start_date FROM ownership_archive oa WHERE oa.vehicle_id = v.id) o
+                ORDER BY start_date LIMIT 1) first_owner ON true
+            WHERE v.id > ? AND v.id <= ? AND v.deleted = false
+              AND NOT EXISTS (SELECT 1 FROM tax_assessment a WHERE a.kind = 'REGISTRATION' AND a.source_id = v.id)
+            """;
+
+    private static final String INSERT_ASSESSMENT_SQL = """
+            INSERT INTO tax_assessment (run_id, kind, source_id, vehicle_id, owner_id, vehicle_age, taxable_cents,
+                    rate_band_id, rate_basis_points, fixed_fee_cents, tax_cents, assessed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (kind, source_id) DO NOTHING
+            """;
+    private static final String ADD_PROGRESS_SQL = "UPDATE tax_assessment_run SET records_read = records_read + ?, " +
+            "records_assessed = records_assessed + ?, records_unmatched = records_unmatched + ?, tax_cents = tax_cents + ? WHERE id = ?";
+    private static final String FINISH_RUN_SQL =
+            "UPDATE tax_assessment_run SET status = ?, finished_at = ?, failure_message = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaxRateService taxRateService;
+    private final TaxAssessmentRunRepository runRepository;
+    private final TaxAssessmentRepository assessmentRepository;
+    private final int partitionSize;
+    private final int parallelism;
+    private final boolean scheduleEnabled;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(named("tax-assessment-coordinator"));
+
+    public TaxAssessmentService(JdbcTemplate jdbcTemplate,
+                                TaxRateService taxRateService,
+                                TaxAssessmentRunRepository runRepository,
+                                TaxAssessmentRepository assessmentRepository,
+                                @Value("${tax.assessment.partition-size:10000}") int partitionSize,
+                                @Value("${tax.assessment.parallelism:4}") int parallelism,
+                                @Value("${tax.assessment.enabled:false}") boolean scheduleEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taxRateService = taxRateService;
+        this.runRepository = runRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.partitionSize = partitionSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.scheduleEnabled = scheduleEnabled;
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return The new run, in status RUNNING.
+     * @throws ValidationException if the rate table is empty.
+     * @throws ConflictException if a run is already in progress on this node.
+     */
+    public TaxAssessmentRun startRun() {
+        TaxRateTable table = requireRates();
+        TaxAssessmentRun run = beginRun();
+        coordinator.execute(() -> execute(run, table));
+        return run;
+    }
+
+    /**
+     * Starts the assessment nightly when {@code tax.assessment.enabled} is set. The run goes to the coordinator like
+     * {@link #startRun()}, so it does not hold the scheduler thread the periodic syncs share.
+     */
+    @Scheduled(cron = "${tax.assessment.cron:0 0 1 * * ?}") // Daily at 1 AM by default
+    public void runOnSchedule() {
+        if (!scheduleEnabled) {
+            return;
+        }
+        if (running.get()) {
+            log.info("Skipping scheduled tax assessment: a run is already in progress.");
+            return;
+        }
+        startRun();
+    }
+
+    public TaxAssessmentRun getRun(UUID runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tax assessment run", "ID", runId));
+    }
+
+    public Page<TaxAssessmentRun> getRuns(Pageable pageable) {
+        return runRepository.findAllByOrderByStartedAtDesc(pageable);
+    }
+
+    public Page<TaxAssessmentDto> getAssessmentsByVehicle(UUID vehicleId, Pageable pageable) {
+        return assessmentRepository.findByVehicleId(vehicleId, pageable).map(TaxAssessmentService::toDto);
+    }
+
+    public Page<TaxAssessmentDto> getAssessmentsByRun(UUID runId, Pageable pageable) {
+        getRun(runId);
+        return assessmentRepository.findByRunId(runId, pageable).map(TaxAssessmentService::toDto);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    // --- Helper Methods ---
+
+    private TaxRateTable requireRates() {
+        TaxRateTable table = taxRateService.table();
+        if (table.isEmpty(TaxKind.TRANSFER) && table.isEmpty(TaxKind.REGISTRATION)) {
+            throw new ValidationException("The tax rate table is empty; configure rate bands before assessing.");
+        }
+        return table;
+    }
+
+    private TaxAssessmentRun beginRun() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A tax assessment run is already in progress.");
+        }
+        try {
+            TaxAssessmentRun run = new TaxAssessmentRun();
+            run.setStatus(AssessmentRunStatus.RUNNING);
+            run.setStartedAt(Instant.now());
+            return runRepository.save(run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    private void execute(TaxAssessmentRun run, TaxRateTable table) {
+        long start = System.nanoTime();
+        log.info("Tax assessment run {} started (partition size {}, parallelism {})", run.getId(), partitionSize, parallelism);
+        try {
+            int partitions = 0;
+            if (!table.isEmpty(TaxKind.TRANSFER)) {
+                partitions += assessKind(run.getId(), table, TaxKind.TRANSFER, OWNERSHIP_UPPER_BOUND_SQL, TRANSFER_PARTITION_SQL);
+            }
+            if (!table.isEmpty(TaxKind.REGISTRATION)) {
+                partitions += assessKind(run.getId(), table, TaxKind.REGISTRATION, VEHICLE_UPPER_BOUND_SQL, REGISTRATION_PARTITION_SQL);
+            }
+            finish(run.getId(), AssessmentRunStatus.COMPLETED, null);
+            log.info("Tax assessment run {} completed: {} partitions in {} ms",
+                    run.getId(), partitions, (System.nanoTime() - start) / 1_000_000);
+        } catch (Throwable t) {
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Tax assessment run {} failed", run.getId(), t);
+            finish(run.getId(), AssessmentRunStatus.FAILED, Objects.toString(t.getMessage(), t.getClass().getName()));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Walks one source table in partitions and assesses them on the worker pool.
+     *
+     * @return The number of partitions processed.
+     */
+    private int assessKind(UUID runId, TaxRateTable table, TaxKind kind, String upperBoundSql, String partitionSql) throws Throwable {
+        // Bounded queue + caller-runs: the coordinator never gets more than one queue ahead of the workers
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism), named("tax-assessment-worker"), new ThreadPoolExecutor.CallerRunsPolicy());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int partitions = 0;
+        try {
+            UUID lowerBound = NIL_UUID;
+            while (failure.get() == null) {
+                List<UUID> upper = jdbcTemplate.queryForList(upperBoundSql, UUID.class, lowerBound, partitionSize);
+                if (upper.isEmpty()) {
+                    break;
+                }
+                UUID from = lowerBound;
+                UUID to = upper.get(0);
+                workers.execute(() -> {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                    try {
+                        assessPartition(runId, table, kind, partitionSql, from, to);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                });
+                lowerBound = to;
+                partitions++;
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Tax assessment workers did not finish.");
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        log.info("Tax assessment run {}: {} partitions of {} records assessed", runId, partitions, kind);
+        return partitions;
+    }
+
+    private void assessPartition(UUID runId, TaxRateTable table, TaxKind kind, String partitionSql, UUID from, UUID to) {
+        AssessmentBuffer buffer = new AssessmentBuffer(partitionSize);
+        long[] unmatched = {0};
+        jdbcTemplate.query(partitionSql, rs -> {
+            int age = rs.getInt("vehicle_age");
+            long amountCents = rs.getLong("amount_cents");
+            int band = table.find(kind, age, amountCents);
+            if (band == TaxRateTable.NO_BAND) {
+                unmatched[0]++;
+                return;
+            }
+            buffer.add(rs.getObject("source_id", UUID.class), rs.getObject("vehicle_id", UUID.class),
+                    rs.getObject("owner_id", UUID.class), age, amountCents, band, table.tax(kind, band, amountCents));
+        }, from, to);
+
+        if (buffer.size > 0) {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            jdbcTemplate.batchUpdate(INSERT_ASSESSMENT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int band = buffer.bands[i];
+                    ps.setObject(1, runId);
+                    ps.setString(2, kind.name());
+                    ps.setObject(3, buffer.sourceIds[i]);
+                    ps.setObject(4, buffer.vehicleIds[i]);
+                    ps.setObject(5, buffer.ownerIds[i]);
+                    ps.setInt(6, buffer.ages[i]);
+                    ps.setLong(7, buffer.taxableCents[i]);
+                    ps.setLong(8, table.bandId(kind, band));
+                    ps.setInt(9, table.basisPoints(kind, band));
+                    ps.setLong(10, table.feeCents(kind, band));
+                    ps.setLong(11, buffer.taxCents[i]);
+                    ps.setObject(12, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return buffer.size;
+                }
+            });
+        }
+        jdbcTemplate.update(ADD_PROGRESS_SQL, buffer.size + unmatched[0], buffer.size, unmatched[0], buffer.totalTaxCents, runId);
+    }
+
+    private void finish(UUID runId, AssessmentRunStatus status, String failureMessage) {
+        // Plain update: the counters were advanced in the database by the workers and must not be overwritten
+        jdbcTemplate.update(FINISH_RUN_SQL, status.name(), OffsetDateTime.now(ZoneOffset.UTC),
+                failureMessage != null && failureMessage.length() > 1000 ? failureMessage.substring(0, 1000) : failureMessage,
+                runId);
+    }
+
+    private static TaxAssessmentDto toDto(TaxAssessment a) {
+        return new TaxAssessmentDto(a.getId(), a.getRunId(), a.getKind(), a.getSourceId(), a.getVehicleId(), a.getOwnerId(),
+                a.getVehicleAge(), BigDecimal.valueOf(a.getTaxableCents(), 2), a.getRateBasisPoints(),
+                BigDecimal.valueOf(a.getFixedFeeCents(), 2), BigDecimal.valueOf(a.getTaxCents(), 2), a.getAssessedAt());
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One partition's assessments as parallel arrays, sized for a full partition; grows only if rows were
+     * inserted into the ID range after its bounds were read.
+     */
+    private static final class AssessmentBuffer {
+        UUID[] sourceIds;
+        UUID[] vehicleIds;
+        UUID[] ownerIds;
+        int[] ages;
+        long[] taxableCents;
+        int[] bands;
+        long[] taxCents;
+        int size;
+        long totalTaxCents;
+
+        AssessmentBuffer(int capacity) {
+            sourceIds = new UUID[capacity];
+            vehicleIds = new UUID[capacity];
+            ownerIds = new UUID[capacity];
+            ages = new int[capacity];
+            taxableCents = new long[capacity];
+            bands = new int[capacity];
+            taxCents = new long[capacity];
+        }
+
+        void add(UUID sourceId, UUID vehicleId, UUID ownerId, int age, long amountCents, int band, long tax) {
+            if (size == ages.length) {
+                int capacity = Math.max(16, size * 2);
+                sourceIds = Arrays.copyOf(sourceIds, capacity);
+                vehicleIds = Arrays.copyOf(vehicleIds, capacity);
+                ownerIds = Arrays.copyOf(ownerIds, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                taxableCents = Arrays.copyOf(taxableCents, capacity);
+                bands = Arrays.copyOf(bands, capacity);
+                taxCents = Arrays.copyOf(taxCents, capacity);
+            }
+            sourceIds[size] = sourceId;
+            vehicleIds[size] = vehicleId;
+            ownerIds[size] = ownerId;
+            ages[size] = age;
+            taxableCents[size] = amountCents;
+            bands[size] = band;
+            taxCents[size] = tax;
+            totalTaxCents += tax;
+            size++;
+        }
+    }
+}
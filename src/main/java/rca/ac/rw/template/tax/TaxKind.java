@@ -0,0 +1,6 @@
+package rca.ac.rw.template.tax;
+
+public enum TaxKind {
+    TRANSFER,     // Transfer tax on OwnerShip.transferAmount (every ownership record after the first)
+    REGISTRATION  // Registration fee on Vehicle.price
+}
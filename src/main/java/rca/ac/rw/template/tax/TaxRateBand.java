@@ -0,0 +1,54 @@
+package rca.ac.rw.template.tax;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rca.ac.rw.template.audits.InitiatorAudit;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the tax rate table: the rate applied to amounts of one kind that fall in an age band and a price
+ * band. Lower bounds are inclusive, upper bounds exclusive, a null upper bound is open-ended. When bands
+ * overlap, the one with the lowest {@code priority} wins.
+ */
+@Entity
+@Table(name = "tax_rate_band")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxRateBand extends InitiatorAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false)
+    private TaxKind kind;
+
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    // Vehicle age in whole years at the time of the transfer or registration
+    @Column(name = "min_vehicle_age", nullable = false)
+    private int minVehicleAge;
+
+    @Column(name = "max_vehicle_age")
+    private Integer maxVehicleAge;
+
+    @Column(name = "min_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount", precision = 19, scale = 2)
+    private BigDecimal maxAmount;
+
+    // 1 basis point = 0.01 %
+    @Column(name = "rate_basis_points", nullable = false)
+    private int rateBasisPoints;
+
+    @Column(name = "fixed_fee", nullable = false, precision = 19, scale = 2)
+    private BigDecimal fixedFee;
+}
@@ -0,0 +1,12 @@
+package rca.ac.rw.template.tax;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaxRateBandRepository extends JpaRepository<TaxRateBand, Long> {
+
+    List<TaxRateBand> findAllByOrderByKindAscPriorityAscIdAsc();
+}
@@ -0,0 +1,87 @@
+package rca.ac.rw.template.tax;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
+import rca.ac.rw.template.tax.dto.TaxRateBandDto;
+
+import java.util.List;
+
+/**
+ * Maintains the tax rate table and the compiled {@link TaxRateTable} the assessment engine reads.
+ */
+@Service
+@Slf4j
+public class TaxRateService {
+
+    private final TaxRateBandRepository taxRateBandRepository;
+    private volatile TaxRateTable table;
+
+    public TaxRateService(TaxRateBandRepository taxRateBandRepository) {
+        this.taxRateBandRepository = taxRateBandRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaxRateBandDto> getRateBands() {
+        return taxRateBandRepository.findAllByOrderByKindAscPriorityAscIdAsc().stream()
+                .map(TaxRateService::toDto)
+                .toList();
+    }
+
+    /**
+     * Replaces the whole rate table. Assessments already written keep the rate they were assessed with.
+     *
+     * @throws ValidationException if a band's upper bound is not above its lower bound.
+     */
+    @Transactional
+    public List<TaxRateBandDto> replaceRateBands(List<TaxRateBandDto> dtos) {
+        for (TaxRateBandDto dto : dtos) {
+            if (dto.getMaxVehicleAge() != null && dto.getMaxVehicleAge() <= dto.getMinVehicleAge()) {
+                throw new ValidationException("Maximum vehicle age must be greater than the minimum vehicle age.");
+            }
+            if (dto.getMaxAmount() != null && dto.getMaxAmount().compareTo(dto.getMinAmount()) <= 0) {
+                throw new ValidationException("Maximum amount must be greater than the minimum amount.");
+            }
+        }
+        taxRateBandRepository.deleteAllInBatch();
+        List<TaxRateBand> saved = taxRateBandRepository.saveAll(dtos.stream().map(TaxRateService::toEntity).toList());
+        log.info("Tax rate table replaced with {} bands", saved.size());
+        AfterCommit.run(() -> table = null);
+        return saved.stream().map(TaxRateService::toDto).toList();
+    }
+
+    /**
+     * @return The compiled rate table, loaded on first use after each change.
+     */
+    TaxRateTable table() {
+        TaxRateTable current = table;
+        if (current == null) {
+            current = new TaxRateTable(taxRateBandRepository.findAll());
+            table = current;
+        }
+        return current;
+    }
+
+    // --- Helper Methods ---
+
+    private static TaxRateBand toEntity(TaxRateBandDto dto) {
+        TaxRateBand band = new TaxRateBand();
+        band.setKind(dto.getKind());
+        band.setPriority(dto.getPriority());
+        band.setMinVehicleAge(dto.getMinVehicleAge());
+        band.setMaxVehicleAge(dto.getMaxVehicleAge());
+        band.setMinAmount(dto.getMinAmount());
+        band.setMaxAmount(dto.getMaxAmount());
+        band.setRateBasisPoints(dto.getRateBasisPoints());
+        band.setFixedFee(dto.getFixedFee());
+        return band;
+    }
+
+    private static TaxRateBandDto toDto(TaxRateBand band) {
+        return new TaxRateBandDto(band.getId(), band.getKind(), band.getPriority(), band.getMinVehicleAge(),
+                band.getMaxVehicleAge(), band.getMinAmount(), band.getMaxAmount(), band.getRateBasisPoints(),
+                band.getFixedFee());
+    }
+}
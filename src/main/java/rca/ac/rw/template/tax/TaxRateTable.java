@@ -0,0 +1,115 @@
+package rca.ac.rw.template.tax;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of the {@link TaxRateBand} rows used in the assessment hot loop.
+ * <p>
+ * Bands are kept per kind in priority order as parallel primitive arrays, and money is fixed-point
+ * {@code long} cents, so a lookup and a tax computation allocate nothing. Tax is
+ * {@code round_half_up(amount * rate / 10000) + fixedFee}, exact in cents for any amount below about
+ * 9 * 10^14 cents; larger amounts fall back to {@link BigDecimal}.
+ */
+final class TaxRateTable {
+
+    static final int NO_BAND = -1;
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+    private static final long BASIS_POINTS = 10_000L;
+
+    private final Map<TaxKind, Bands> bands = new EnumMap<>(TaxKind.class);
+
+    TaxRateTable(List<TaxRateBand> rows) {
+        for (TaxKind kind : TaxKind.values()) {
+            List<TaxRateBand> ofKind = rows.stream()
+                    .filter(row -> row.getKind() == kind)
+                    .sorted(Comparator.comparingInt(TaxRateBand::getPriority).thenComparing(TaxRateBand::getId))
+                    .toList();
+            bands.put(kind, new Bands(ofKind));
+        }
+    }
+
+    boolean isEmpty(TaxKind kind) {
+        return bands.get(kind).size == 0;
+    }
+
+    /**
+     * @return Index of the first band covering the age and amount, or {@link #NO_BAND}.
+     */
+    int find(TaxKind kind, int vehicleAge, long amountCents) {
+        Bands b = bands.get(kind);
+        for (int i = 0; i < b.size; i++) {
+            if (vehicleAge >= b.minAge[i] && vehicleAge < b.maxAge[i]
+                    && amountCents >= b.minCents[i] && amountCents < b.maxCents[i]) {
+                return i;
+            }
+        }
+        return NO_BAND;
+    }
+
+    long tax(TaxKind kind, int band, long amountCents) {
+        Bands b = bands.get(kind);
+        long rate = b.basisPoints[band];
+        long product;
+        try {
+            product = Math.multiplyExact(amountCents, rate);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(amountCents).multiply(BigDecimal.valueOf(rate))
+                    .divide(BigDecimal.valueOf(BASIS_POINTS), 0, RoundingMode.HALF_UP)
+                    .longValueExact() + b.feeCents[band];
+        }
+        return (product + BASIS_POINTS / 2) / BASIS_POINTS + b.feeCents[band]; // amounts are never negative
+    }
+
+    long bandId(TaxKind kind, int band) {
+        return bands.get(kind).ids[band];
+    }
+
+    int basisPoints(TaxKind kind, int band) {
+        return bands.get(kind).basisPoints[band];
+    }
+
+    long feeCents(TaxKind kind, int band) {
+        return bands.get(kind).feeCents[band];
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static final class Bands {
+        final int size;
+        final long[] ids;
+        final int[] minAge;
+        final int[] maxAge;
+        final long[] minCents;
+        final long[] maxCents;
+        final int[] basisPoints;
+        final long[] feeCents;
+
+        Bands(List<TaxRateBand> rows) {
+            size = rows.size();
+            ids = new long[size];
+            minAge = new int[size];
+            maxAge = new int[size];
+            minCents = new long[size];
+            maxCents = new long[size];
+            basisPoints = new int[size];
+            feeCents = new long[size];
+            for (int i = 0; i < size; i++) {
+                TaxRateBand row = rows.get(i);
+                ids[i] = row.getId();
+                minAge[i] = row.getMinVehicleAge();
+                maxAge[i] = row.getMaxVehicleAge() != null ? row.getMaxVehicleAge() : Integer.MAX_VALUE;
+                minCents[i] = toCents(row.getMinAmount());
+                maxCents[i] = row.getMaxAmount() != null ? toCents(row.getMaxAmount()) : NO_LIMIT;
+                basisPoints[i] = row.getRateBasisPoints();
+                feeCents[i] = toCents(row.getFixedFee());
+            }
+        }
+    }
+}
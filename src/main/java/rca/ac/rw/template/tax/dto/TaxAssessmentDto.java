@@ -0,0 +1,28 @@
+package rca.ac.rw.template.tax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rca.ac.rw.template.tax.TaxKind;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxAssessmentDto {
+    private Long id;
+    private UUID runId;
+    private TaxKind kind;
+    private UUID sourceId;
+    private UUID vehicleId;
+    private UUID ownerId;
+    private int vehicleAge;
+    private BigDecimal taxableAmount;
+    private int rateBasisPoints;
+    private BigDecimal fixedFee;
+    private BigDecimal tax;
+    private Instant assessedAt;
+}
@@ -0,0 +1,47 @@
+package rca.ac.rw.template.tax.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rca.ac.rw.template.tax.TaxKind;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxRateBandDto {
+
+    private Long id; // Ignored on replace
+
+    @NotNull(message = "Tax kind is required")
+    private TaxKind kind;
+
+    @Min(value = 0, message = "Priority cannot be negative")
+    private int priority;
+
+    @Min(value = 0, message = "Minimum vehicle age cannot be negative")
+    private int minVehicleAge;
+
+    @Min(value = 1, message = "Maximum vehicle age must be at least 1")
+    private Integer maxVehicleAge; // Exclusive; null for no upper bound
+
+    @NotNull(message = "Minimum amount is required")
+    @DecimalMin(value = "0.0", message = "Minimum amount cannot be negative")
+    private BigDecimal minAmount;
+
+    @DecimalMin(value = "0.01", message = "Maximum amount must be positive")
+    private BigDecimal maxAmount; // Exclusive; null for no upper bound
+
+    @Min(value = 0, message = "Rate cannot be negative")
+    @Max(value = 10000, message = "Rate cannot exceed 10000 basis points (100 %)")
+    private int rateBasisPoints;
+
+    @NotNull(message = "Fixed fee is required")
+    @DecimalMin(value = "0.0", message = "Fixed fee cannot be negative")
+    private BigDecimal fixedFee;
+}
@@ -0,0 +1,20 @@
+package rca.ac.rw.template.tax.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxRateTableRequestDto {
+
+    @NotNull(message = "Rate bands are required")
+    @Size(max = 1000, message = "A rate table can have at most 1000 bands")
+    private List<@Valid @NotNull TaxRateBandDto> bands;
+}
@@ -33,10 +33,12 @@ public class AdminUserController {
      * @param role          Optional role to filter by.
      * @param status        Optional status to filter by.
      * @param enabled       Optional enabled status to filter by.
-     * @return Page of UserProfileResponseDto.
+     * @param after         Optional keyset cursor (empty for the first page); when present the response is a
+     *                      KeysetPage without total count.
+     * @return Page of UserProfileResponseDto, or KeysetPage when {@code after} is given.
      */
     @GetMapping
-    public ResponseEntity<Page<UserProfileResponseDto>> getAllUsers(
+    public ResponseEntity<?> getAllUsers(
 //
             @PageableDefault(
                     size = DEFAULT_PAGE_SIZE,
@@ -47,8 +49,12 @@ public class AdminUserController {
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Role role,
             @RequestParam(required = false) Status status,
-            @RequestParam(required = false) Boolean enabled) {
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String after) {
         log.info("Admin request to get all users with search: {}, role: {}, status: {}, enabled: {}", search, role, status, enabled);
+        if (after != null) {
+            return ResponseEntity.ok(userService.getAllUsersForAdminAfter(after, pageable, search, role, status, enabled));
+        }
         // Corrected method call:
         Page<UserProfileResponseDto> users = userService.getAllUsersForAdmin(pageable, search, role, status, enabled);
         return ResponseEntity.ok(users);
@@ -17,7 +17,8 @@ import java.util.UUID;
 @Table(name = "users", indexes = {
         @Index(name = "idx_user_email_unq", columnList = "email", unique = true),
         @Index(name = "idx_user_phonenumber_unq", columnList = "phoneNumber", unique = true),
-        @Index(name = "idx_user_nationalid_unq", columnList = "nationalId", unique = true)
+        @Index(name = "idx_user_nationalid_unq", columnList = "nationalId", unique = true),
+        @Index(name = "idx_user_firstname_id", columnList = "firstName, id") // keyset listing order for owners
 })
 @Inheritance(strategy = InheritanceType.JOINED)
 @Entity
@@ -17,6 +17,8 @@ import rca.ac.rw.template.commons.exceptions.BadRequestException;
 import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
 import rca.ac.rw.template.commons.exceptions.UnauthenticatedException;
 import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.commons.pagination.KeysetPage;
+import rca.ac.rw.template.commons.pagination.KeysetRequest;
 import rca.ac.rw.template.users.dtos.*;
 import rca.ac.rw.template.users.converters.UserConverter;
 
@@ -258,6 +260,23 @@ public class UserService {
         return new PageImpl<>(dtos, pageable, userPage.getTotalElements());
     }
 
+    /**
+     * Keyset variant of {@link #getAllUsersForAdmin}: continues after the given cursor and skips the total count.
+     *
+     * @param after    Cursor returned with the previous page; blank for the first page.
+     * @param pageable Page size and sort (the page number is ignored).
+     * @return KeysetPage of UserProfileResponseDto.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<UserProfileResponseDto> getAllUsersForAdminAfter(String after, Pageable pageable, String searchTerm, Role roleFilter, Status statusFilter, Boolean enabledFilter) {
+        log.debug("Fetching users for admin after cursor. Search: '{}', Role: {}, Status: {}, Enabled: {}", searchTerm, roleFilter, statusFilter, enabledFilter);
+        KeysetRequest keyset = KeysetRequest.of(after, pageable);
+        Specification<User> spec = UserSpecifications.adminSearchUsers(searchTerm, roleFilter, statusFilter, enabledFilter)
+                .and(keyset.seek());
+        List<User> rows = userRepository.findBy(spec, q -> q.sortBy(keyset.sort()).limit(keyset.limit()).all());
+        return keyset.toPage(rows, UserConverter::toUserProfileResponseDto);
+    }
+
     /**
      * Retrieves a single user by ID for admin purposes.
      *
@@ -3,6 +3,7 @@ package rca.ac.rw.template.users;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
+import rca.ac.rw.template.commons.search.SearchPredicates;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,13 +25,13 @@ public class UserSpecifications {
 
             // Search Term Predicate (searches multiple fields with OR)
             if (StringUtils.hasText(searchTerm)) {
-                String lowerCaseSearchTerm = searchTerm.toLowerCase().trim();
-                Predicate searchPredicate = criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), "%" + lowerCaseSearchTerm + "%"),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), "%" + lowerCaseSearchTerm + "%"),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), "%" + lowerCaseSearchTerm + "%"),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("nationalId")), "%" + lowerCaseSearchTerm + "%"),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("phoneNumber")), "%" + lowerCaseSearchTerm + "%")
+                // Backed by the trigram indexes on lower(column), see db/search-indexes.sql
+                Predicate searchPredicate = SearchPredicates.anyContainsIgnoreCase(criteriaBuilder, searchTerm,
+                        root.get("firstName"),
+                        root.get("lastName"),
+                        root.get("email"),
+                        root.get("nationalId"),
+                        root.get("phoneNumber")
                 );
                 predicates.add(searchPredicate);
             }
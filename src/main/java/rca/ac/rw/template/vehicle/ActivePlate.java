@@ -0,0 +1,51 @@
+package rca.ac.rw.template.vehicle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.Year;
+import java.util.UUID;
+
+/**
+ * Immutable summary of an IN_USE plate, the vehicle carrying it and the vehicle's current owner,
+ * as held by {@link ActivePlateRegistry}.
+ */
+public record ActivePlate(
+        String plateNumber,
+        UUID plateId,
+        Instant issuedDate,
+        UUID plateOwnerId,
+        UUID vehicleId,
+        String chassisNumber,
+        String modelName,
+        String manufacturerCompany,
+        Year manufacturedYear,
+        BigDecimal price,
+        UUID ownerId,
+        String ownerFirstName,
+        String ownerLastName
+) {
+
+    /**
+     * @return The summary of the state's current plate, or {@code null} if the vehicle has no IN_USE plate.
+     */
+    public static ActivePlate from(VehicleCurrentState state) {
+        if (state.getCurrentPlateNumber() == null) {
+            return null;
+        }
+        return new ActivePlate(
+                state.getCurrentPlateNumber(),
+                state.getCurrentPlateId(),
+                state.getCurrentPlateIssuedDate(),
+                state.getCurrentPlateOwnerId(),
+                state.getVehicleId(),
+                state.getChassisNumber(),
+                state.getModelName(),
+                state.getManufacturerCompany(),
+                state.getManufacturedYear(),
+                state.getPrice(),
+                state.getCurrentOwnerId(),
+                state.getOwnerFirstName(),
+                state.getOwnerLastName()
+        );
+    }
+}
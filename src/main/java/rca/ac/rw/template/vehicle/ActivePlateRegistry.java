@@ -0,0 +1,195 @@
+package rca.ac.rw.template.vehicle;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rca.ac.rw.template.commons.transaction.AfterCommit;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory index of every IN_USE plate, answering roadside plate lookups without a database round trip.
+ * <p>
+ * Loaded from {@code vehicle_current_state} at startup and kept in step with it by
+ * {@link VehicleCurrentStateService}: changes are applied only after the surrounding transaction commits,
+ * so a rolled-back registration or transfer never becomes visible here. Plates are held in an
+ * {@link ActivePlateTable}, a few primitive arrays indexed by plate code rather than an object graph per plate;
+ * reads are lock-free unless they overlap a write. A reload builds a new table and swaps it in.
+ * <p>
+ * Changes committed on other nodes are picked up every {@code plates.registry.sync-interval-ms} from the rows
+ * of {@code vehicle_current_state} updated since the last sync, plus the vehicles soft-deleted since then.
+ * Until that sync a plate issued elsewhere is missing here; callers fall back to the database on a miss.
+ */
+@Component
+@Slf4j
+public class ActivePlateRegistry {
+
+    private static final String LOAD_SQL = """
+            SELECT vehicle_id, chassis_number, model_name, manufacturer_company, manufacturer_year, price,
+                   current_plate_id, current_plate_number, current_plate_issued_date, current_plate_owner_id,
+                   current_owner_id, owner_first_name, owner_last_name
+            FROM vehicle_current_state
+            WHERE current_plate_number IS NOT NULL
+            """;
+    private static final String SYNC_SQL = """
+            SELECT vehicle_id, chassis_number, model_name, manufacturer_company, manufacturer_year, price,
+                   current_plate_id, current_plate_number, current_plate_issued_date, current_plate_owner_id,
+                   current_owner_id, owner_first_name, owner_last_name, updated_at
+            FROM vehicle_current_state
+            WHERE updated_at > ?
+            """;
+    private static final String SYNC_DELETED_SQL = "SELECT id, updated_at FROM vehicles WHERE deleted = true AND updated_at > ?";
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    // Rows commit out of updated_at order and node clocks differ; each sync re-reads this much before the last one
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile ActivePlateTable table = new ActivePlateTable();
+    private volatile boolean loaded = false;
+    private volatile LocalDateTime syncedUpTo = LocalDateTime.MIN;
+
+    public ActivePlateRegistry(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("plates.registry.size", this, ActivePlateRegistry::size)
+                .description("Number of IN_USE plates held in the in-memory registry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The active plate summary, or empty if the plate is not IN_USE.
+     */
+    public Optional<ActivePlate> find(String plateNumber) {
+        return Optional.ofNullable(table.find(plateNumber));
+    }
+
+    /**
+     * @return {@code false} until the first load finished; callers should fall back to the database.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Records the current plate of a vehicle once the current transaction commits,
+     * replacing whatever plate the vehicle had before.
+     */
+    public void put(ActivePlate activePlate) {
+        AfterCommit.run(() -> apply(activePlate));
+    }
+
+    /**
+     * Drops the vehicle's plate once the current transaction commits.
+     */
+    public void remove(UUID vehicleId) {
+        AfterCommit.run(() -> removeVehicle(vehicleId));
+    }
+
+    /**
+     * Reloads the whole registry from {@code vehicle_current_state} once the current transaction commits.
+     */
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    /**
+     * Reloads the whole registry from {@code vehicle_current_state}, streaming the rows.
+     *
+     * @return The number of active plates loaded.
+     */
+    public synchronized int reload() {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        ActivePlateTable plates = new ActivePlateTable();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOAD_SQL);
+            statement.setFetchSize(LOAD_FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            plates.put(mapRow(rs));
+        });
+        table = plates;
+        syncedUpTo = startedAt;
+        loaded = true;
+        log.info("Active plate registry loaded {} plates in {} ms", plates.size(), (System.nanoTime() - start) / 1_000_000);
+        return plates.size();
+    }
+
+    /**
+     * Applies the current-state rows updated since the last sync, by this node or any other, and drops the
+     * plates of vehicles deleted since then.
+     */
+    @Scheduled(fixedDelayString = "${plates.registry.sync-interval-ms:5000}")
+    public void sync() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime since = syncedUpTo.minus(SYNC_OVERLAP);
+        int[] changed = new int[1];
+        jdbcTemplate.query(SYNC_SQL, rs -> {
+            if (rs.getString("current_plate_number") != null) {
+                apply(mapRow(rs));
+            } else {
+                removeVehicle(rs.getObject("vehicle_id", UUID.class));
+            }
+            advanceSyncedUpTo(rs.getObject("updated_at", LocalDateTime.class));
+            changed[0]++;
+        }, since);
+        jdbcTemplate.query(SYNC_DELETED_SQL, rs -> {
+            removeVehicle(rs.getObject("id", UUID.class));
+            advanceSyncedUpTo(rs.getObject("updated_at", LocalDateTime.class));
+            changed[0]++;
+        }, since);
+        log.debug("Active plate registry synced {} changed vehicles since {}", changed[0], since);
+    }
+
+    // --- Helper Methods ---
+
+    private void advanceSyncedUpTo(LocalDateTime updatedAt) {
+        if (updatedAt != null && updatedAt.isAfter(syncedUpTo)) {
+            syncedUpTo = updatedAt;
+        }
+    }
+
+    // Synchronized with reload(), so a change is never applied to a table about to be replaced
+    private synchronized void apply(ActivePlate activePlate) {
+        table.put(activePlate);
+    }
+
+    private synchronized void removeVehicle(UUID vehicleId) {
+        table.removeVehicle(vehicleId);
+    }
+
+    private static ActivePlate mapRow(ResultSet rs) throws SQLException {
+        Timestamp issued = rs.getTimestamp("current_plate_issued_date");
+        return new ActivePlate(
+                rs.getString("current_plate_number"),
+                rs.getObject("current_plate_id", UUID.class),
+                issued != null ? issued.toInstant() : null,
+                rs.getObject("current_plate_owner_id", UUID.class),
+                rs.getObject("vehicle_id", UUID.class),
+                rs.getString("chassis_number"),
+                rs.getString("model_name"),
+                rs.getString("manufacturer_company"),
+                Year.of(rs.getInt("manufacturer_year")),
+                rs.getBigDecimal("price"),
+                rs.getObject("current_owner_id", UUID.class),
+                rs.getString("owner_first_name"),
+                rs.getString("owner_last_name")
+        );
+    }
+}
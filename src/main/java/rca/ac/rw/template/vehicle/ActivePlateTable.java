@@ -0,0 +1,339 @@
+package rca.ac.rw.template.vehicle;
+
+import rca.ac.rw.template.plateNumber.PlateNumberCodec;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Columnar storage of the {@link ActivePlate}s held by {@link ActivePlateRegistry}: one row per vehicle with an
+ * IN_USE plate, each field in a primitive array, instead of a record and its boxed fields per plate.
+ * <p>
+ * Plates are stored as their {@link PlateNumberCodec} code; only plates outside the codec keep their string.
+ * UUIDs are stored as two longs, the issue date as epoch nanoseconds, and the repetitive values (model,
+ * manufacturer, owner names, price) as ids into value pools. The chassis number is the only per-row object.
+ * Two open-addressing indexes of row numbers find a row by plate and by vehicle; they compare keys against the
+ * row itself, so they hold nothing but ints. A row costs about 270 bytes, see ActivePlateTableTests.
+ * <p>
+ * Writers take a {@link StampedLock}; readers read optimistically and only retry under the read lock when a
+ * write overlapped. Pools only grow until the table is rebuilt by {@link ActivePlateRegistry#reload()}.
+ */
+final class ActivePlateTable {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int UUIDS = 4;              // plate, plate owner, vehicle, owner: a (most, least) pair each
+    private static final int PLATE_ID = 0;
+    private static final int PLATE_OWNER_ID = 2;
+    private static final int VEHICLE_ID = 4;
+    private static final int OWNER_ID = 6;
+    private static final int NAMES = 4;              // model, manufacturer, owner first name, owner last name
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final StampedLock lock = new StampedLock();
+    private final Pool<String> names = new Pool<>();
+    private final Pool<BigDecimal> prices = new Pool<>();
+
+    private int[] plateCodes = new int[INITIAL_ROWS];
+    private String[] otherPlates = new String[INITIAL_ROWS];   // Only for plates PlateNumberCodec cannot encode
+    private long[] uuids = new long[INITIAL_ROWS * UUIDS * 2];
+    private long[] issuedNanos = new long[INITIAL_ROWS];
+    private short[] years = new short[INITIAL_ROWS];
+    private int[] priceIds = new int[INITIAL_ROWS];
+    private int[] nameIds = new int[INITIAL_ROWS * NAMES];
+    private String[] chassisNumbers = new String[INITIAL_ROWS];
+
+    // Row number + 1 per slot, 0 when empty; at most half full
+    private int[] plateSlots = new int[INITIAL_ROWS * 2];
+    private int[] vehicleSlots = new int[INITIAL_ROWS * 2];
+
+    private int highWater;                                      // Rows ever used
+    private int[] freeRows = new int[16];
+    private int freeCount;
+    private volatile int size;
+
+    /**
+     * @return The active plate, or {@code null} if the plate is not held.
+     */
+    ActivePlate find(String plateNumber) {
+        if (plateNumber == null) {
+            return null;
+        }
+        int code = PlateNumberCodec.encode(plateNumber);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                ActivePlate found = read(plateNumber, code);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            } catch (RuntimeException e) {
+                // Arrays replaced or rows moved by an overlapping write; read again under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(plateNumber, code);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Stores the vehicle's current plate, replacing the plate it had before. A vehicle previously holding the
+     * same plate loses it.
+     */
+    void put(ActivePlate plate) {
+        int code = PlateNumberCodec.encode(plate.plateNumber());
+        long stamp = lock.writeLock();
+        try {
+            int row = findRow(vehicleSlots, vehicleHash(plate.vehicleId()), r -> sameVehicle(r, plate.vehicleId()));
+            int holder = findRow(plateSlots, plateHash(plate.plateNumber(), code), r -> samePlate(r, plate.plateNumber(), code));
+            if (holder >= 0 && holder != row) {
+                deleteRow(holder);
+            }
+            if (row >= 0) {
+                unlink(plateSlots, row, this::plateHash);
+                write(row, plate, code);
+            } else {
+                row = allocateRow();
+                write(row, plate, code);
+                link(vehicleSlots, row, this::vehicleHash);
+            }
+            link(plateSlots, row, this::plateHash);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void removeVehicle(UUID vehicleId) {
+        long stamp = lock.writeLock();
+        try {
+            int row = findRow(vehicleSlots, vehicleHash(vehicleId), r -> sameVehicle(r, vehicleId));
+            if (row >= 0) {
+                deleteRow(row);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private ActivePlate read(String plateNumber, int code) {
+        int row = findRow(plateSlots, plateHash(plateNumber, code), r -> samePlate(r, plateNumber, code));
+        if (row < 0) {
+            return null;
+        }
+        long issued = issuedNanos[row];
+        return new ActivePlate(
+                plateCodes[row] != PlateNumberCodec.INVALID ? PlateNumberCodec.decode(plateCodes[row]) : otherPlates[row],
+                uuid(row, PLATE_ID),
+                issued != NO_TIME ? Instant.ofEpochSecond(Math.floorDiv(issued, 1_000_000_000L), Math.floorMod(issued, 1_000_000_000L)) : null,
+                uuid(row, PLATE_OWNER_ID),
+                uuid(row, VEHICLE_ID),
+                chassisNumbers[row],
+                names.get(nameIds[row * NAMES]),
+                names.get(nameIds[row * NAMES + 1]),
+                Year.of(years[row]),
+                prices.get(priceIds[row]),
+                uuid(row, OWNER_ID),
+                names.get(nameIds[row * NAMES + 2]),
+                names.get(nameIds[row * NAMES + 3])
+        );
+    }
+
+    private void write(int row, ActivePlate plate, int code) {
+        plateCodes[row] = code;
+        otherPlates[row] = code == PlateNumberCodec.INVALID ? plate.plateNumber() : null;
+        setUuid(row, PLATE_ID, plate.plateId());
+        setUuid(row, PLATE_OWNER_ID, plate.plateOwnerId());
+        setUuid(row, VEHICLE_ID, plate.vehicleId());
+        setUuid(row, OWNER_ID, plate.ownerId());
+        Instant issued = plate.issuedDate();
+        issuedNanos[row] = issued != null ? issued.getEpochSecond() * 1_000_000_000L + issued.getNano() : NO_TIME;
+        years[row] = (short) plate.manufacturedYear().getValue();
+        priceIds[row] = prices.id(plate.price());
+        chassisNumbers[row] = plate.chassisNumber();
+        nameIds[row * NAMES] = names.id(plate.modelName());
+        nameIds[row * NAMES + 1] = names.id(plate.manufacturerCompany());
+        nameIds[row * NAMES + 2] = names.id(plate.ownerFirstName());
+        nameIds[row * NAMES + 3] = names.id(plate.ownerLastName());
+    }
+
+    private void deleteRow(int row) {
+        unlink(plateSlots, row, this::plateHash);
+        unlink(vehicleSlots, row, this::vehicleHash);
+        otherPlates[row] = null;
+        chassisNumbers[row] = null;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+        size--;
+    }
+
+    private int allocateRow() {
+        size++;
+        if (size * 2 > plateSlots.length) {
+            plateSlots = rehash(plateSlots, this::plateHash);
+            vehicleSlots = rehash(vehicleSlots, this::vehicleHash);
+        }
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (highWater == plateCodes.length) {
+            int rows = highWater * 2;
+            plateCodes = Arrays.copyOf(plateCodes, rows);
+            otherPlates = Arrays.copyOf(otherPlates, rows);
+            uuids = Arrays.copyOf(uuids, rows * UUIDS * 2);
+            issuedNanos = Arrays.copyOf(issuedNanos, rows);
+            years = Arrays.copyOf(years, rows);
+            priceIds = Arrays.copyOf(priceIds, rows);
+            nameIds = Arrays.copyOf(nameIds, rows * NAMES);
+            chassisNumbers = Arrays.copyOf(chassisNumbers, rows);
+        }
+        return highWater++;
+    }
+
+    private boolean samePlate(int row, String plateNumber, int code) {
+        return code != PlateNumberCodec.INVALID ? plateCodes[row] == code : plateNumber.equals(otherPlates[row]);
+    }
+
+    private boolean sameVehicle(int row, UUID vehicleId) {
+        int base = row * UUIDS * 2 + VEHICLE_ID;
+        return uuids[base] == vehicleId.getMostSignificantBits() && uuids[base + 1] == vehicleId.getLeastSignificantBits();
+    }
+
+    private int plateHash(int row) {
+        return plateHash(otherPlates[row], plateCodes[row]);
+    }
+
+    private static int plateHash(String plateNumber, int code) {
+        return mix(code != PlateNumberCodec.INVALID ? code : plateNumber.hashCode());
+    }
+
+    private int vehicleHash(int row) {
+        int base = row * UUIDS * 2 + VEHICLE_ID;
+        return vehicleHash(uuids[base], uuids[base + 1]);
+    }
+
+    private static int vehicleHash(UUID vehicleId) {
+        return vehicleHash(vehicleId.getMostSignificantBits(), vehicleId.getLeastSignificantBits());
+    }
+
+    private static int vehicleHash(long most, long least) {
+        long bits = most ^ least;
+        return mix((int) (bits ^ (bits >>> 32)));
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private UUID uuid(int row, int field) {
+        int base = row * UUIDS * 2 + field;
+        long most = uuids[base];
+        long least = uuids[base + 1];
+        return most == 0 && least == 0 ? null : new UUID(most, least); // The nil UUID is never an id
+    }
+
+    private void setUuid(int row, int field, UUID value) {
+        int base = row * UUIDS * 2 + field;
+        uuids[base] = value != null ? value.getMostSignificantBits() : 0;
+        uuids[base + 1] = value != null ? value.getLeastSignificantBits() : 0;
+    }
+
+    private static int findRow(int[] slots, int hash, IntPredicate matcher) {
+        int mask = slots.length - 1;
+        for (int i = hash & mask, probes = 0; probes < slots.length; i = (i + 1) & mask, probes++) {
+            int entry = slots[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (matcher.test(entry - 1)) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    private static void link(int[] slots, int row, IntUnaryOperator rowHash) {
+        int mask = slots.length - 1;
+        int i = rowHash.applyAsInt(row) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = row + 1;
+    }
+
+    /**
+     * Removes the row from a linear-probing index, shifting later entries of its cluster back so that no
+     * lookup stops at the hole.
+     */
+    private static void unlink(int[] slots, int row, IntUnaryOperator rowHash) {
+        int mask = slots.length - 1;
+        int hole = rowHash.applyAsInt(row) & mask;
+        while (slots[hole] != row + 1) {
+            if (slots[hole] == 0) {
+                return;
+            }
+            hole = (hole + 1) & mask;
+        }
+        for (int i = (hole + 1) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int home = rowHash.applyAsInt(slots[i] - 1) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                slots[hole] = slots[i];
+                hole = i;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    private static int[] rehash(int[] slots, IntUnaryOperator rowHash) {
+        int[] grown = new int[slots.length * 2];
+        for (int entry : slots) {
+            if (entry != 0) {
+                link(grown, entry - 1, rowHash);
+            }
+        }
+        return grown;
+    }
+
+    /**
+     * Interned values by id; -1 stands for {@code null}.
+     */
+    private static final class Pool<T> {
+
+        private final Map<T, Integer> ids = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int id(T value) {
+            if (value == null) {
+                return -1;
+            }
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        T get(int id) {
+            return id >= 0 ? values.get(id) : null;
+        }
+    }
+}
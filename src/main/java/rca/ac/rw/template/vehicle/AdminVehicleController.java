@@ -12,6 +12,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import rca.ac.rw.template.vehicle.VehicleRegistrationService;
 import rca.ac.rw.template.vehicle.VehicleService; // Import new service
+import rca.ac.rw.template.plateNumber.PlateNumberNormalizer;
+import rca.ac.rw.template.vehicle.dto.BulkVehicleRegistrationRequestDto;
+import rca.ac.rw.template.vehicle.dto.BulkVehicleRegistrationResultDto;
+import rca.ac.rw.template.vehicle.dto.OwnerPortfolioDto;
 import rca.ac.rw.template.vehicle.dto.RegisterVehicleAndIssuePlateRequestDto;
 import rca.ac.rw.template.vehicle.dto.UpdateVehicleRequestDto; // Import DTO
 import rca.ac.rw.template.vehicle.dto.VehicleResponseDto;
@@ -30,7 +34,8 @@ public class AdminVehicleController {
 
 
     private final VehicleService vehicleService;
-
+    private final VehicleCurrentStateService vehicleCurrentStateService;
+    private final VehicleBulkRegistrationService vehicleBulkRegistrationService;
 
     /**
      * POST /api/v1/admin/vehicles/register : Admin registers a new vehicle and issues its first plate.
@@ -44,6 +49,18 @@ public class AdminVehicleController {
         return ResponseEntity.status(HttpStatus.CREATED).body(registeredVehicle);
     }
 
+    /**
+     * POST /api/v1/admin/vehicles/register/bulk : Admin registers a batch of vehicles, each with its first plate.
+     * Items are validated and inserted independently; the response reports the outcome of every item.
+     */
+    @PostMapping("/register/bulk")
+    public ResponseEntity<BulkVehicleRegistrationResultDto> registerVehiclesInBulk(
+            @Valid @RequestBody BulkVehicleRegistrationRequestDto requestDto) {
+        log.info("Admin request to bulk register {} vehicles", requestDto.getVehicles().size());
+        BulkVehicleRegistrationResultDto result = vehicleBulkRegistrationService.registerVehicles(requestDto.getVehicles());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * GET /api/v1/admin/vehicles/{vehicleId} : Admin displays details of a specific vehicle.
      * (Task 3: Vehicle registration - Part 2: Allow display of the details)
@@ -59,13 +76,19 @@ public class AdminVehicleController {
 
     /**
      * GET /api/v1/admin/vehicles : Get all vehicles with pagination, sorting, and filtering.
+     * Passing {@code after} (empty for the first page) switches to keyset pagination: the response is a
+     * KeysetPage with a {@code nextCursor} instead of a Page with totals.
      */
     @GetMapping
-    public ResponseEntity<Page<VehicleResponseDto>> getAllVehicles(
+    public ResponseEntity<?> getAllVehicles(
             @PageableDefault(size = 10, sort = "chassisNumber") Pageable pageable,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) Year manufacturedYear) {
+            @RequestParam(required = false) Year manufacturedYear,
+            @RequestParam(required = false) String after) {
         log.info("Admin request to get all vehicles. Search: {}, Manufactured Year: {}", search, manufacturedYear);
+        if (after != null) {
+            return ResponseEntity.ok(vehicleService.getAllVehiclesAdminAfter(after, pageable, search, manufacturedYear));
+        }
         Page<VehicleResponseDto> vehicles = vehicleService.getAllVehiclesAdmin(pageable, search, manufacturedYear);
         return ResponseEntity.ok(vehicles);
     }
@@ -106,6 +129,18 @@ public class AdminVehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    /**
+     * GET /api/v1/admin/vehicles/portfolio?nationalId=... : Admin pages through the vehicles an owner currently
+     * owns, with their active plates, the vehicle count and the summed price of the whole portfolio.
+     */
+    @GetMapping("/portfolio")
+    public ResponseEntity<OwnerPortfolioDto> getOwnerPortfolio(
+            @RequestParam String nationalId,
+            @PageableDefault(size = 50, sort = "chassisNumber") Pageable pageable) {
+        log.info("Admin API request for owner portfolio by national ID: {}", nationalId);
+        return ResponseEntity.ok(vehicleService.getOwnerPortfolio(nationalId, pageable));
+    }
+
     /**
      * GET /api/v1/admin/vehicles/search/by-plate-number?plateNumber=...
      * Admin searches for a vehicle by its plate number.
@@ -113,7 +148,7 @@ public class AdminVehicleController {
     @GetMapping("/search/by-plate-number")
     public ResponseEntity<VehicleResponseDto> searchVehicleByPlateNumber(@RequestParam String plateNumber) {
         log.info("Admin API search for vehicle by plate number: {}", plateNumber);
-        Optional<VehicleResponseDto> vehicleOpt = vehicleService.findVehicleByPlateNumber(plateNumber);
+        Optional<VehicleResponseDto> vehicleOpt = vehicleService.findVehicleByPlateNumber(PlateNumberNormalizer.normalize(plateNumber));
         return vehicleOpt.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -130,5 +165,24 @@ public class AdminVehicleController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * POST /api/v1/admin/vehicles/current-state/rebuild : Admin rebuilds the vehicle current-state read model
+     * from the vehicles, plate and ownership tables.
+     */
+    @PostMapping("/current-state/rebuild")
+    public ResponseEntity<String> rebuildCurrentState() {
+        log.info("Admin request to rebuild vehicle current state.");
+        int rebuilt = vehicleCurrentStateService.rebuild();
+        return ResponseEntity.ok("Vehicle current state rebuilt for " + rebuilt + " vehicles.");
+    }
 
+    /**
+     * GET /api/v1/admin/vehicles/current-state/inconsistencies : Admin runs the consistency check of the
+     * vehicle current-state read model. Returns the IDs of vehicles whose read-model row is missing or stale.
+     */
+    @GetMapping("/current-state/inconsistencies")
+    public ResponseEntity<List<UUID>> checkCurrentStateConsistency() {
+        log.info("Admin request to check vehicle current state consistency.");
+        return ResponseEntity.ok(vehicleCurrentStateService.findInconsistentVehicleIds());
+    }
 }
\ No newline at end of file
@@ -15,7 +15,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+        @Index(name = "idx_vehicles_deleted_updated_at", columnList = "deleted, updated_at") // ActivePlateRegistry sync of deletions
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
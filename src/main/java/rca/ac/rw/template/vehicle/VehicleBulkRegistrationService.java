@@ -0,0 +1,302 @@
+package rca.ac.rw.template.vehicle;
+
+import com.google.common.collect.Lists;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import rca.ac.rw.template.analytics.MarketValueStatisticsService;
+import rca.ac.rw.template.inspection.InspectionService;
+import rca.ac.rw.template.owner.Owner;
+import rca.ac.rw.template.owner.OwnerRepository;
+import rca.ac.rw.template.plateNumber.PlateNumberAllocator;
+import rca.ac.rw.template.plateNumber.PlateNumberRepository;
+import rca.ac.rw.template.plateNumber.PlateOccupancyIndex;
+import rca.ac.rw.template.plateNumber.PlateStatus;
+import rca.ac.rw.template.vehicle.dto.BulkVehicleRegistrationItemResultDto;
+import rca.ac.rw.template.vehicle.dto.BulkVehicleRegistrationResultDto;
+import rca.ac.rw.template.vehicle.dto.RegisterVehicleAndIssuePlateRequestDto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registers many vehicles at once (dealer/importer consignments).
+ * Uniqueness and owner checks run as set-based queries over the whole request, and the
+ * vehicle, plate, ownership and current-state rows are written with JDBC batch inserts,
+ * one transaction per chunk so a failing chunk does not roll back the others. A chunk that fails
+ * (typically a duplicate inserted concurrently by another request) is retried one item per
+ * transaction, so only the offending items are reported as failed. Plates are allocated only
+ * for items that passed every check.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class VehicleBulkRegistrationService {
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int LOOKUP_PARTITION_SIZE = 1000;
+
+    private static final String INSERT_VEHICLE_SQL =
+            "INSERT INTO vehicles (id, chassis_number, model_name, manufacturer_company, manufacturer_year, price, deleted, " +
+                    "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?)";
+    private static final String INSERT_PLATE_SQL =
+            "INSERT INTO plate_number (id, plate_number, issued_date, owner_id, vehicle_id, plate_status, " +
+                    "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_OWNERSHIP_SQL =
+            "INSERT INTO ownership (id, vehicle_id, owner_id, start_date, end_date, transfer_amount, " +
+                    "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, NULL, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CURRENT_STATE_SQL =
+            "INSERT INTO vehicle_current_state (vehicle_id, chassis_number, model_name, manufacturer_company, manufacturer_year, " +
+                    "price, vehicle_created_at, current_plate_id, current_plate_number, current_plate_issued_date, " +
+                    "current_plate_owner_id, current_owner_id, owner_first_name, owner_last_name, owner_national_id, " +
+                    "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final VehicleRepository vehicleRepository;
+    private final PlateNumberRepository plateNumberRepository;
+    private final OwnerRepository ownerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<UUID> auditorAware;
+    private final Validator validator;
+    private final ActivePlateRegistry activePlateRegistry;
+    private final PlateOccupancyIndex plateOccupancyIndex;
+    private final PlateNumberAllocator plateNumberAllocator;
+    private final MarketValueStatisticsService marketValueStatisticsService;
+    private final InspectionService inspectionService;
+
+    /**
+     * Registers every valid item of the request and reports the outcome of each item.
+     *
+     * @param items The vehicles to register, each with its owner and first plate.
+     * @return Per-item results plus totals.
+     */
+    public BulkVehicleRegistrationResultDto registerVehicles(List<RegisterVehicleAndIssuePlateRequestDto> items) {
+        log.info("Bulk registration requested for {} vehicles", items.size());
+        BulkVehicleRegistrationItemResultDto[] results = new BulkVehicleRegistrationItemResultDto[items.size()];
+
+        // 1. Per-item bean validation and duplicates inside the request itself
+        Set<String> seenChassis = new HashSet<>();
+        Set<String> seenPlates = new HashSet<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            RegisterVehicleAndIssuePlateRequestDto item = items.get(i);
+            String error = validate(item);
+            if (error == null && !seenChassis.add(item.getChassisNumber())) {
+                error = "Chassis number '" + item.getChassisNumber() + "' appears more than once in the request.";
+            }
+            if (error == null && StringUtils.hasText(item.getPlateNumberString()) && !seenPlates.add(item.getPlateNumberString())) {
+                error = "Plate number '" + item.getPlateNumberString() + "' appears more than once in the request.";
+            }
+            if (error != null) {
+                results[i] = failure(i, item, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // 2. Set-based checks against the database
+        Set<String> takenChassis = lookup(candidates.stream().map(i -> items.get(i).getChassisNumber()).toList(),
+                vehicleRepository::findExistingChassisNumbers);
+        Set<String> takenPlates = lookup(candidates.stream().map(i -> items.get(i).getPlateNumberString())
+                        .filter(StringUtils::hasText).toList(),
+                plateNumberRepository::findExistingPlateNumbers);
+        Set<UUID> ownerIds = candidates.stream().map(i -> items.get(i).getOwnerId()).collect(Collectors.toSet());
+        Map<UUID, Owner> owners = ownerRepository.findAllById(ownerIds).stream()
+                .collect(Collectors.toMap(Owner::getId, Function.identity()));
+
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            RegisterVehicleAndIssuePlateRequestDto item = items.get(i);
+            if (!owners.containsKey(item.getOwnerId())) {
+                results[i] = failure(i, item, "Owner with ID ['" + item.getOwnerId() + "'] not found");
+            } else if (takenChassis.contains(item.getChassisNumber())) {
+                results[i] = failure(i, item, "Vehicle with chassis number '" + item.getChassisNumber() + "' already exists.");
+            } else if (takenPlates.contains(item.getPlateNumberString())) {
+                results[i] = failure(i, item, "Plate number '" + item.getPlateNumberString() + "' is already registered.");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // 3. Plates for the items that passed every check and brought none; rejected items never take one
+        for (int i : accepted) {
+            RegisterVehicleAndIssuePlateRequestDto item = items.get(i);
+            if (!StringUtils.hasText(item.getPlateNumberString())) {
+                item.setPlateNumberString(plateNumberAllocator.allocate());
+            }
+        }
+
+        // 4. Batch inserts, one transaction per chunk; a failed chunk is retried item by item
+        UUID auditor = auditorAware.getCurrentAuditor().orElse(null);
+        for (List<Integer> chunk : Lists.partition(accepted, CHUNK_SIZE)) {
+            List<Row> rows = chunk.stream()
+                    .map(i -> new Row(i, items.get(i), owners.get(items.get(i).getOwnerId()), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))
+                    .toList();
+            if (insert(rows, auditor, results)) {
+                continue;
+            }
+            log.warn("Bulk registration chunk of {} vehicles failed; retrying its items one by one", rows.size());
+            for (Row row : rows) {
+                if (!insert(List.of(row), auditor, results)) {
+                    results[row.index()] = failure(row.index(), row.item(),
+                            "Insert failed (likely a concurrent duplicate chassis or plate number); retry this item.");
+                }
+            }
+        }
+
+        List<BulkVehicleRegistrationItemResultDto> itemResults = Arrays.asList(results);
+        int registered = (int) itemResults.stream().filter(BulkVehicleRegistrationItemResultDto::isRegistered).count();
+        log.info("Bulk registration finished: {} registered, {} failed", registered, items.size() - registered);
+        return new BulkVehicleRegistrationResultDto(items.size(), registered, items.size() - registered, itemResults);
+    }
+
+    /**
+     * Inserts the rows in one transaction and records them as registered.
+     *
+     * @return {@code false} if the transaction failed and rolled back; the rows' results are left unset.
+     */
+    private boolean insert(List<Row> rows, UUID auditor, BulkVehicleRegistrationItemResultDto[] results) {
+        Instant issuedAt;
+        try {
+            issuedAt = transactionTemplate.execute(status -> {
+                Instant insertedAt = insertChunk(rows, auditor);
+                inspectionService.scheduleVehicles(rows.stream().map(Row::vehicleId).toList());
+                return insertedAt;
+            });
+        } catch (DataAccessException e) {
+            log.debug("Bulk registration insert of {} vehicles failed: {}", rows.size(), e.getMessage());
+            return false;
+        }
+        for (Row row : rows) {
+            activePlateRegistry.put(toActivePlate(row, issuedAt));
+            plateOccupancyIndex.markTaken(row.item().getPlateNumberString());
+            marketValueStatisticsService.record(row.item().getManufacturerCompany(), row.item().getModelName(),
+                    row.item().getManufacturedYear(), row.item().getPrice());
+            results[row.index()] = new BulkVehicleRegistrationItemResultDto(row.index(), row.item().getChassisNumber(),
+                    row.item().getPlateNumberString(), true, row.vehicleId(), "Registered");
+        }
+        return true;
+    }
+
+    private Instant insertChunk(List<Row> rows, UUID auditor) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS); // Postgres timestamp precision
+        OffsetDateTime nowUtc = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        LocalDateTime auditNow = LocalDateTime.now();
+
+        jdbcTemplate.batchUpdate(INSERT_VEHICLE_SQL, rows, rows.size(), (ps, row) -> {
+            RegisterVehicleAndIssuePlateRequestDto item = row.item();
+            ps.setObject(1, row.vehicleId());
+            ps.setString(2, item.getChassisNumber());
+            ps.setString(3, item.getModelName());
+            ps.setString(4, item.getManufacturerCompany());
+            ps.setInt(5, item.getManufacturedYear().getValue());
+            ps.setBigDecimal(6, item.getPrice());
+            ps.setObject(7, auditNow);
+            ps.setObject(8, auditNow);
+            ps.setObject(9, auditor);
+            ps.setObject(10, auditor);
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_PLATE_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.plateId());
+            ps.setString(2, row.item().getPlateNumberString());
+            ps.setObject(3, nowUtc);
+            ps.setObject(4, row.owner().getId());
+            ps.setObject(5, row.vehicleId());
+            ps.setString(6, PlateStatus.IN_USE.name());
+            ps.setObject(7, auditNow);
+            ps.setObject(8, auditNow);
+            ps.setObject(9, auditor);
+            ps.setObject(10, auditor);
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_OWNERSHIP_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.ownershipId());
+            ps.setObject(2, row.vehicleId());
+            ps.setObject(3, row.owner().getId());
+            ps.setObject(4, nowUtc);
+            ps.setBigDecimal(5, row.item().getPrice());
+            ps.setObject(6, auditNow);
+            ps.setObject(7, auditNow);
+            ps.setObject(8, auditor);
+            ps.setObject(9, auditor);
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_CURRENT_STATE_SQL, rows, rows.size(), (ps, row) -> {
+            RegisterVehicleAndIssuePlateRequestDto item = row.item();
+            Owner owner = row.owner();
+            ps.setObject(1, row.vehicleId());
+            ps.setString(2, item.getChassisNumber());
+            ps.setString(3, item.getModelName());
+            ps.setString(4, item.getManufacturerCompany());
+            ps.setInt(5, item.getManufacturedYear().getValue());
+            ps.setBigDecimal(6, item.getPrice());
+            ps.setObject(7, auditNow);
+            ps.setObject(8, row.plateId());
+            ps.setString(9, item.getPlateNumberString());
+            ps.setObject(10, nowUtc);
+            ps.setObject(11, owner.getId());
+            ps.setObject(12, owner.getId());
+            ps.setString(13, owner.getFirstName());
+            ps.setString(14, owner.getLastName());
+            ps.setString(15, owner.getNationalId());
+            ps.setObject(16, auditNow);
+            ps.setObject(17, auditNow);
+        });
+        return now;
+    }
+
+    private ActivePlate toActivePlate(Row row, Instant issuedAt) {
+        RegisterVehicleAndIssuePlateRequestDto item = row.item();
+        Owner owner = row.owner();
+        return new ActivePlate(item.getPlateNumberString(), row.plateId(), issuedAt, owner.getId(),
+                row.vehicleId(), item.getChassisNumber(), item.getModelName(), item.getManufacturerCompany(),
+                item.getManufacturedYear(), item.getPrice(), owner.getId(), owner.getFirstName(), owner.getLastName());
+    }
+
+    private Set<String> lookup(List<String> values, Function<Collection<String>, List<String>> query) {
+        Set<String> found = new HashSet<>();
+        for (List<String> partition : Lists.partition(values, LOOKUP_PARTITION_SIZE)) {
+            found.addAll(query.apply(partition));
+        }
+        return found;
+    }
+
+    private String validate(RegisterVehicleAndIssuePlateRequestDto item) {
+        if (item == null) {
+            return "Item is empty.";
+        }
+        Set<ConstraintViolation<RegisterVehicleAndIssuePlateRequestDto>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private BulkVehicleRegistrationItemResultDto failure(int index, RegisterVehicleAndIssuePlateRequestDto item, String message) {
+        return new BulkVehicleRegistrationItemResultDto(index,
+                item != null ? item.getChassisNumber() : null,
+                item != null ? item.getPlateNumberString() : null,
+                false, null, message);
+    }
+
+    private record Row(int index, RegisterVehicleAndIssuePlateRequestDto item, Owner owner,
+                       UUID vehicleId, UUID plateId, UUID ownershipId) {
+    }
+}
@@ -1,5 +1,8 @@
 package rca.ac.rw.template.vehicle;
 
+import rca.ac.rw.template.owner.dto.OwnerNameDto;
+import rca.ac.rw.template.plateNumber.PlateStatus;
+import rca.ac.rw.template.plateNumber.dto.PlateNumberResponseDto;
 import rca.ac.rw.template.vehicle.dto.VehicleResponseDto; // Corrected package
 
 /**
@@ -31,4 +34,70 @@ public class VehicleConverter {
         // CurrentPlate and CurrentOwner would be set by the service method that has access to all related data
         return dto;
     }
+
+    /**
+     * Converts a {@link VehicleCurrentState} read-model row to a fully populated {@link VehicleResponseDto}.
+     * The row already carries the current plate and owner, so no related entities are loaded.
+     *
+     * @param state The read-model row.
+     * @return The mapped {@link VehicleResponseDto}.
+     */
+    public static VehicleResponseDto toDto(VehicleCurrentState state) {
+        if (state == null) return null;
+        VehicleResponseDto dto = new VehicleResponseDto(
+                state.getVehicleId(),
+                state.getChassisNumber(),
+                state.getModelName(),
+                state.getManufacturerCompany(),
+                state.getManufacturedYear(),
+                state.getPrice()
+        );
+        dto.setCreatedAt(state.getVehicleCreatedAt());
+        dto.setUpdatedAt(state.getUpdatedAt());
+        if (state.getCurrentPlateId() != null) {
+            dto.setCurrentPlate(new PlateNumberResponseDto(
+                    state.getCurrentPlateId(),
+                    state.getCurrentPlateNumber(),
+                    state.getCurrentPlateIssuedDate(),
+                    state.getCurrentPlateOwnerId(),
+                    state.getVehicleId(),
+                    PlateStatus.IN_USE
+            ));
+        }
+        if (state.getCurrentOwnerId() != null) {
+            dto.setCurrentOwner(new OwnerNameDto(state.getCurrentOwnerId(), state.getOwnerFirstName(), state.getOwnerLastName()));
+        }
+        return dto;
+    }
+
+    /**
+     * Converts an {@link ActivePlate} registry entry to a {@link VehicleResponseDto} with its current plate and owner.
+     * Audit timestamps are not kept in the registry and are left empty.
+     *
+     * @param activePlate The registry entry.
+     * @return The mapped {@link VehicleResponseDto}.
+     */
+    public static VehicleResponseDto toDto(ActivePlate activePlate) {
+        if (activePlate == null) return null;
+        VehicleResponseDto dto = new VehicleResponseDto(
+                activePlate.vehicleId(),
+                activePlate.chassisNumber(),
+                activePlate.modelName(),
+                activePlate.manufacturerCompany(),
+                activePlate.manufacturedYear(),
+                activePlate.price()
+        );
+        dto.setCurrentPlate(new PlateNumberResponseDto(
+                activePlate.plateId(),
+                activePlate.plateNumber(),
+                activePlate.issuedDate(),
+                activePlate.plateOwnerId(),
+                activePlate.vehicleId(),
+                PlateStatus.IN_USE
+        ));
+        if (activePlate.ownerId() != null) {
+            dto.setCurrentOwner(new OwnerNameDto(activePlate.ownerId(), activePlate.ownerFirstName(), activePlate.ownerLastName()));
+        }
+        return dto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package rca.ac.rw.template.vehicle;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import rca.ac.rw.template.audits.TimestampAudit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.UUID;
+
+/**
+ * Denormalized read model holding the current plate and current owner of each active vehicle.
+ * Maintained in the same transaction as registration, transfer and plate issuance
+ * (see {@link VehicleCurrentStateService}) so lookups become single indexed reads.
+ */
+@Entity
+@Table(name = "vehicle_current_state", indexes = {
+        @Index(name = "idx_vcs_chassis_number_unq", columnList = "chassis_number", unique = true),
+        @Index(name = "idx_vcs_current_plate_number", columnList = "current_plate_number"),
+        @Index(name = "idx_vcs_owner_national_id_chassis", columnList = "owner_national_id, chassis_number"), // owner portfolio pages
+        @Index(name = "idx_vcs_updated_at", columnList = "updated_at") // ActivePlateRegistry sync
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleCurrentState extends TimestampAudit {
+
+    @Id
+    @Column(name = "vehicle_id", updatable = false, nullable = false)
+    private UUID vehicleId;
+
+    @Column(name = "chassis_number", nullable = false)
+    private String chassisNumber;
+
+    @Column(name = "model_name", nullable = false)
+    private String modelName;
+
+    @Column(name = "manufacturer_company")
+    private String manufacturerCompany;
+
+    @Column(name = "manufacturer_year", nullable = false)
+    private Year manufacturedYear;
+
+    @Column(nullable = false)
+    private BigDecimal price;
+
+    @Column(name = "vehicle_created_at")
+    private LocalDateTime vehicleCreatedAt;
+
+    // Current IN_USE plate (null if the vehicle has none)
+    @Column(name = "current_plate_id")
+    private UUID currentPlateId;
+
+    @Column(name = "current_plate_number")
+    private String currentPlateNumber;
+
+    @Column(name = "current_plate_issued_date")
+    private Instant currentPlateIssuedDate;
+
+    @Column(name = "current_plate_owner_id")
+    private UUID currentPlateOwnerId;
+
+    // Current owner from the open ownership record (null if none)
+    @Column(name = "current_owner_id")
+    private UUID currentOwnerId;
+
+    @Column(name = "owner_first_name")
+    private String ownerFirstName;
+
+    @Column(name = "owner_last_name")
+    private String ownerLastName;
+
+    @Column(name = "owner_national_id")
+    private String ownerNationalId;
+}
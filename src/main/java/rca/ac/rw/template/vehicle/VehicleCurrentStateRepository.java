@@ -0,0 +1,113 @@
+package rca.ac.rw.template.vehicle;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface VehicleCurrentStateRepository extends JpaRepository<VehicleCurrentState, UUID> {
+
+    Optional<VehicleCurrentState> findByCurrentPlateNumber(String currentPlateNumber);
+
+    Optional<VehicleCurrentState> findByChassisNumber(String chassisNumber);
+
+    List<VehicleCurrentState> findByOwnerNationalId(String ownerNationalId);
+
+    /**
+     * One page of an owner's current vehicles, without a count query (see {@link #findPortfolioTotals}).
+     */
+    @Query("SELECT s FROM VehicleCurrentState s WHERE s.ownerNationalId = :nationalId")
+    List<VehicleCurrentState> findPortfolioPage(@Param("nationalId") String nationalId, Pageable pageable);
+
+    /**
+     * Number and summed price of an owner's current vehicles, aggregated in the database.
+     */
+    @Query("SELECT count(s) AS vehicleCount, sum(s.price) AS totalPrice " +
+            "FROM VehicleCurrentState s WHERE s.ownerNationalId = :nationalId")
+    PortfolioTotals findPortfolioTotals(@Param("nationalId") String nationalId);
+
+    @Modifying
+    @Query(value = "DELETE FROM vehicle_current_state", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Recomputes the read model for every non-deleted vehicle in one statement.
+     * Current plate = most recently issued IN_USE plate, current owner = open ownership record.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO vehicle_current_state (vehicle_id, chassis_number, model_name, manufacturer_company,
+                    manufacturer_year, price, vehicle_created_at,
+                    current_plate_id, current_plate_number, current_plate_issued_date, current_plate_owner_id,
+                    current_owner_id, owner_first_name, owner_last_name, owner_national_id,
+                    created_at, updated_at)
+            SELECT v.id, v.chassis_number, v.model_name, v.manufacturer_company,
+                   v.manufacturer_year, v.price, v.created_at,
+                   p.id, p.plate_number, p.issued_date, p.owner_id,
+                   u.id, u.firstName, u.lastName, u.nationalId,
+                   CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            FROM vehicles v
+            LEFT JOIN LATERAL (
+                SELECT pn.id, pn.plate_number, pn.issued_date, pn.owner_id
+                FROM plate_number pn
+                WHERE pn.vehicle_id = v.id AND pn.plate_status = 'IN_USE'
+                ORDER BY pn.issued_date DESC
+                LIMIT 1) p ON true
+            LEFT JOIN LATERAL (
+                SELECT os.owner_id
+                FROM ownership os
+                WHERE os.vehicle_id = v.id AND os.end_date IS NULL
+                ORDER BY os.start_date DESC
+                LIMIT 1) o ON true
+            LEFT JOIN users u ON u.id = o.owner_id
+            WHERE v.deleted = false
+            """, nativeQuery = true)
+    int insertFromSourceTables();
+
+    /**
+     * Consistency check: vehicle ids whose read-model row is missing, stale or orphaned
+     * compared to what the source tables say right now.
+     */
+    @Query(value = """
+            SELECT v.id
+            FROM vehicles v
+            LEFT JOIN vehicle_current_state s ON s.vehicle_id = v.id
+            LEFT JOIN LATERAL (
+                SELECT pn.id
+                FROM plate_number pn
+                WHERE pn.vehicle_id = v.id AND pn.plate_status = 'IN_USE'
+                ORDER BY pn.issued_date DESC
+                LIMIT 1) p ON true
+            LEFT JOIN LATERAL (
+                SELECT os.owner_id
+                FROM ownership os
+                WHERE os.vehicle_id = v.id AND os.end_date IS NULL
+                ORDER BY os.start_date DESC
+                LIMIT 1) o ON true
+            WHERE v.deleted = false
+              AND (s.vehicle_id IS NULL
+                   OR s.current_plate_id IS DISTINCT FROM p.id
+                   OR s.current_owner_id IS DISTINCT FROM o.owner_id
+                   OR s.chassis_number IS DISTINCT FROM v.chassis_number)
+            UNION ALL
+            SELECT s.vehicle_id
+            FROM vehicle_current_state s
+            LEFT JOIN vehicles v ON v.id = s.vehicle_id
+            WHERE v.id IS NULL OR v.deleted = true
+            """, nativeQuery = true)
+    List<UUID> findInconsistentVehicleIds();
+
+    interface PortfolioTotals {
+        long getVehicleCount();
+
+        BigDecimal getTotalPrice(); // null when the owner has no vehicles
+    }
+}
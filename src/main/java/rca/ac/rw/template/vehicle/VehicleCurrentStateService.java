@@ -0,0 +1,196 @@
+package rca.ac.rw.template.vehicle;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rca.ac.rw.template.owner.Owner;
+import rca.ac.rw.template.ownership.OwnerShip;
+import rca.ac.rw.template.ownership.OwnerShipRepository;
+import rca.ac.rw.template.plateNumber.PlateNumber;
+import rca.ac.rw.template.plateNumber.PlateNumberRepository;
+import rca.ac.rw.template.plateNumber.PlateStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maintains the {@link VehicleCurrentState} read model.
+ * Write methods join the caller's transaction (MANDATORY), so the read model is committed
+ * or rolled back together with the registration, transfer or plate change that produced it.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class VehicleCurrentStateService {
+
+    private final VehicleCurrentStateRepository currentStateRepository;
+    private final VehicleRepository vehicleRepository;
+    private final PlateNumberRepository plateNumberRepository;
+    private final OwnerShipRepository ownerShipRepository;
+    private final ActivePlateRegistry activePlateRegistry;
+
+    /**
+     * Records the full current state of a vehicle: its details, current plate and current owner.
+     * Used after registration and ownership transfer.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Vehicle vehicle, PlateNumber currentPlate, Owner currentOwner) {
+        VehicleCurrentState state = currentStateRepository.findById(vehicle.getId())
+                .orElseGet(VehicleCurrentState::new);
+        applyVehicle(state, vehicle);
+        applyPlate(state, currentPlate);
+        applyOwner(state, currentOwner);
+        publish(currentStateRepository.save(state));
+    }
+
+    /**
+     * Records a new current plate for a vehicle whose owner did not change (plate issuance).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPlate(Vehicle vehicle, PlateNumber currentPlate) {
+        Optional<VehicleCurrentState> stateOpt = currentStateRepository.findById(vehicle.getId());
+        if (stateOpt.isEmpty()) {
+            refresh(vehicle);
+            return;
+        }
+        VehicleCurrentState state = stateOpt.get();
+        applyPlate(state, currentPlate);
+        publish(currentStateRepository.save(state));
+    }
+
+    /**
+     * Recomputes the state of one vehicle from the source tables.
+     * Used by the less frequent write paths (vehicle update, plate status change).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Vehicle vehicle) {
+        if (vehicle.isDeleted()) {
+            remove(vehicle.getId());
+            return;
+        }
+        PlateNumber currentPlate = plateNumberRepository
+                .findFirstByVehicleAndStatusOrderByIssuedDateDesc(vehicle, PlateStatus.IN_USE)
+                .orElse(null);
+        Owner currentOwner = ownerShipRepository.findFirstByVehicleAndEndDateIsNullOrderByStartDateDesc(vehicle)
+                .map(OwnerShip::getOwner)
+                .orElse(null);
+        record(vehicle, currentPlate, currentOwner);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(UUID vehicleId) {
+        if (currentStateRepository.existsById(vehicleId)) {
+            currentStateRepository.deleteById(vehicleId);
+        }
+        activePlateRegistry.remove(vehicleId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<VehicleCurrentState> findByPlateNumber(String plateNumber) {
+        return currentStateRepository.findByCurrentPlateNumber(plateNumber);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<VehicleCurrentState> findByChassisNumber(String chassisNumber) {
+        return currentStateRepository.findByChassisNumber(chassisNumber);
+    }
+
+    @Transactional(readOnly = true)
+    public List<VehicleCurrentState> findByOwnerNationalId(String nationalId) {
+        return currentStateRepository.findByOwnerNationalId(nationalId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<VehicleCurrentState> findPortfolioPage(String nationalId, Pageable pageable) {
+        return currentStateRepository.findPortfolioPage(nationalId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public VehicleCurrentStateRepository.PortfolioTotals findPortfolioTotals(String nationalId) {
+        return currentStateRepository.findPortfolioTotals(nationalId);
+    }
+
+    /**
+     * Drops and recomputes the whole read model from the source tables.
+     *
+     * @return The number of vehicles written.
+     */
+    @Transactional
+    public int rebuild() {
+        int deleted = currentStateRepository.deleteAllRows();
+        int inserted = currentStateRepository.insertFromSourceTables();
+        log.info("Vehicle current state rebuilt: {} rows removed, {} rows written.", deleted, inserted);
+        activePlateRegistry.reloadAfterCommit();
+        return inserted;
+    }
+
+    /**
+     * Compares the read model with the source tables.
+     *
+     * @return IDs of vehicles whose row is missing, stale, or orphaned. Empty when consistent.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findInconsistentVehicleIds() {
+        List<UUID> inconsistent = currentStateRepository.findInconsistentVehicleIds();
+        if (!inconsistent.isEmpty()) {
+            log.warn("Vehicle current state is inconsistent for {} vehicle(s).", inconsistent.size());
+        }
+        return inconsistent;
+    }
+
+    /**
+     * Populates the read model on first start against an existing database, then loads the
+     * {@link ActivePlateRegistry} from it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeOnStartup() {
+        if (currentStateRepository.count() == 0 && vehicleRepository.count() > 0) {
+            log.info("Vehicle current state is empty; building it from existing vehicles.");
+            rebuild();
+        } else {
+            activePlateRegistry.reload();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void publish(VehicleCurrentState state) {
+        ActivePlate activePlate = ActivePlate.from(state);
+        if (activePlate != null) {
+            activePlateRegistry.put(activePlate);
+        } else {
+            activePlateRegistry.remove(state.getVehicleId());
+        }
+    }
+
+    private void applyVehicle(VehicleCurrentState state, Vehicle vehicle) {
+        state.setVehicleId(vehicle.getId());
+        state.setChassisNumber(vehicle.getChassisNumber());
+        state.setModelName(vehicle.getModelName());
+        state.setManufacturerCompany(vehicle.getManufacturerCompany());
+        state.setManufacturedYear(vehicle.getManufacturedYear());
+        state.setPrice(vehicle.getPrice());
+        state.setVehicleCreatedAt(vehicle.getCreatedAt());
+    }
+
+    private void applyPlate(VehicleCurrentState state, PlateNumber plate) {
+        state.setCurrentPlateId(plate != null ? plate.getId() : null);
+        state.setCurrentPlateNumber(plate != null ? plate.getPlateNumber() : null);
+        state.setCurrentPlateIssuedDate(plate != null ? plate.getIssuedDate() : null);
+        state.setCurrentPlateOwnerId(plate != null && plate.getOwner() != null ? plate.getOwner().getId() : null);
+    }
+
+    private void applyOwner(VehicleCurrentState state, Owner owner) {
+        state.setCurrentOwnerId(owner != null ? owner.getId() : null);
+        state.setOwnerFirstName(owner != null ? owner.getFirstName() : null);
+        state.setOwnerLastName(owner != null ? owner.getLastName() : null);
+        state.setOwnerNationalId(owner != null ? owner.getNationalId() : null);
+    }
+}
@@ -0,0 +1,97 @@
+package rca.ac.rw.template.vehicle;
+
+import com.google.common.util.concurrent.Striped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import rca.ac.rw.template.commons.exceptions.ConflictException;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes changes to the same vehicle (transfers, plate issuance) while changes to different vehicles run
+ * in parallel.
+ * <p>
+ * Two layers: an in-JVM striped lock keyed by vehicle ID queues callers on this node without touching the
+ * database, and the action itself locks the vehicle row ({@link VehicleRepository#findByIdForUpdate}, which
+ * uses {@code FOR UPDATE NOWAIT}) to exclude other nodes and the bulk jobs. When the row is locked elsewhere,
+ * the action's transaction is rolled back and retried a bounded number of times with a short backoff.
+ * <p>
+ * The action must start its own transaction, so that the lock is held until after it commits.
+ */
+@Component
+@Slf4j
+public class VehicleLocks {
+
+    private static final long BACKOFF_MILLIS = 50;
+
+    private final Striped<Lock> stripes;
+    private final long waitMillis;
+    private final int maxAttempts;
+
+    public VehicleLocks(@Value("${vehicles.locks.stripes:256}") int stripes,
+                        @Value("${vehicles.locks.wait-ms:5000}") long waitMillis,
+                        @Value("${vehicles.locks.max-attempts:3}") int maxAttempts) {
+        this.stripes = Striped.lock(stripes);
+        this.waitMillis = waitMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Runs the action while holding the vehicle's stripe, retrying it when the vehicle row is locked elsewhere.
+     *
+     * @throws ConflictException if the stripe or the row could not be acquired in time.
+     */
+    public <T> T withLock(UUID vehicleId, Supplier<T> action) {
+        Lock lock = stripes.get(vehicleId);
+        acquire(lock, vehicleId);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return action.get();
+                } catch (PessimisticLockingFailureException e) {
+                    if (attempt >= maxAttempts) {
+                        throw new ConflictException("Vehicle " + vehicleId + " is being changed by another request. Please retry.", e);
+                    }
+                    log.debug("Vehicle {} row is locked elsewhere, retrying (attempt {} of {})", vehicleId, attempt, maxAttempts);
+                    sleep(BACKOFF_MILLIS * attempt, vehicleId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withLock(UUID vehicleId, Runnable action) {
+        withLock(vehicleId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // --- Helper Methods ---
+
+    private void acquire(Lock lock, UUID vehicleId) {
+        try {
+            if (!lock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Vehicle " + vehicleId + " is busy with another request. Please retry.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for vehicle " + vehicleId + ".", e);
+        }
+    }
+
+    private void sleep(long millis, UUID vehicleId) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for vehicle " + vehicleId + ".", e);
+        }
+    }
+}
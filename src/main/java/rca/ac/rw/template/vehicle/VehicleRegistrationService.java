@@ -3,7 +3,8 @@ package rca.ac.rw.template.vehicle;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
 import rca.ac.rw.template.commons.exceptions.ValidationException;
 import rca.ac.rw.template.owner.Owner;
@@ -13,7 +14,9 @@ import rca.ac.rw.template.ownership.OwnerShip;
 import rca.ac.rw.template.ownership.OwnerShipRepository;
 import rca.ac.rw.template.plateNumber.PlateNumber;
 import rca.ac.rw.template.plateNumber.PlateNumberConverter;
+import rca.ac.rw.template.plateNumber.PlateNumberAllocator;
 import rca.ac.rw.template.plateNumber.PlateNumberRepository;
+import rca.ac.rw.template.plateNumber.PlateOccupancyIndex;
 import rca.ac.rw.template.plateNumber.PlateStatus; // Ensure this enum exists
 import rca.ac.rw.template.vehicle.dto.RegisterVehicleAndIssuePlateRequestDto; // Corrected package
 import rca.ac.rw.template.vehicle.dto.VehicleResponseDto; // Corrected package
@@ -31,6 +34,10 @@ public class VehicleRegistrationService {
     private final OwnerRepository ownerRepository;
     private final PlateNumberRepository plateNumberRepository;
     private final OwnerShipRepository ownerShipRepository;
+    private final VehicleCurrentStateService vehicleCurrentStateService;
+    private final PlateOccupancyIndex plateOccupancyIndex;
+    private final PlateNumberAllocator plateNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
     // Removed VehicleMapper, will use VehicleConverter for basic mapping
     // and assemble richer DTOs in service methods.
 
@@ -42,8 +49,15 @@ public class VehicleRegistrationService {
      * @throws ResourceNotFoundException if the specified owner does not exist.
      * @throws ValidationException if the chassis number or plate number already exists.
      */
-    @Transactional
     public VehicleResponseDto registerVehicleAndIssuePlate(RegisterVehicleAndIssuePlateRequestDto dto) {
+        if (!StringUtils.hasText(dto.getPlateNumberString())) {
+            // Outside the transaction: refilling the allocator's block needs a connection of its own
+            dto.setPlateNumberString(plateNumberAllocator.allocate());
+        }
+        return transactionTemplate.execute(status -> register(dto));
+    }
+
+    private VehicleResponseDto register(RegisterVehicleAndIssuePlateRequestDto dto) {
         log.info("Attempting to register vehicle with chassis {} and plate {}", dto.getChassisNumber(), dto.getPlateNumberString());
 
         Owner owner = ownerRepository.findById(dto.getOwnerId())
@@ -52,7 +66,8 @@ public class VehicleRegistrationService {
         if (vehicleRepository.findByChassisNumber(dto.getChassisNumber()).isPresent()) {
             throw new ValidationException("Vehicle with chassis number '" + dto.getChassisNumber() + "' already exists.");
         }
-        if (plateNumberRepository.findByPlateNumber(dto.getPlateNumberString()).isPresent()) {
+        // Fast in-memory rejection; the unique index on plate_number is the authoritative check (saveNewPlate).
+        if (plateOccupancyIndex.isTaken(dto.getPlateNumberString())) {
             throw new ValidationException("Plate number '" + dto.getPlateNumberString() + "' is already registered.");
         }
 
@@ -70,7 +85,8 @@ public class VehicleRegistrationService {
         plateNumber.setOwner(owner);
         plateNumber.setVehicle(savedVehicle);
         plateNumber.setStatus(PlateStatus.IN_USE); // Set initial status
-        PlateNumber savedPlateNumber = plateNumberRepository.save(plateNumber);
+        PlateNumber savedPlateNumber = plateNumberRepository.saveNewPlate(plateNumber);
+        plateOccupancyIndex.markTaken(savedPlateNumber.getPlateNumber());
         log.info("Plate number {} issued with ID: {} for vehicle {}", savedPlateNumber.getPlateNumber(), savedPlateNumber.getId(), savedVehicle.getId());
 
 
@@ -83,6 +99,8 @@ public class VehicleRegistrationService {
         ownerShipRepository.save(ownerShip);
         log.info("Initial ownership record created for vehicle ID {} and owner ID {}", savedVehicle.getId(), owner.getId());
 
+        vehicleCurrentStateService.record(savedVehicle, savedPlateNumber, owner);
+
         // Construct a detailed response
         VehicleResponseDto responseDto = VehicleConverter.toDto(savedVehicle);
         responseDto.setCurrentPlate(PlateNumberConverter.toDto(savedPlateNumber));
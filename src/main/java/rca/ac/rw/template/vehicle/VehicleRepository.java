@@ -1,13 +1,47 @@
 package rca.ac.rw.template.vehicle;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor; // Add this
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import rca.ac.rw.template.vehicle.dto.VehicleSummaryDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, UUID>, JpaSpecificationExecutor<Vehicle> { // Extend here
+public interface VehicleRepository extends JpaRepository<Vehicle, UUID>, JpaSpecificationExecutor<Vehicle>, VehicleRepositoryCustom { // Extend here
     Optional<Vehicle> findByChassisNumber(String chassisNumber);
+
+    /**
+     * Loads the vehicle and locks its row until the transaction ends ({@code FOR UPDATE NOWAIT}).
+     * Fails immediately with a PessimisticLockingFailureException if another transaction holds the row;
+     * see VehicleLocks for the retry.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Returns which of the given chassis numbers are already taken, including by soft-deleted vehicles
+     * (the unique constraint on chassis_number covers them too).
+     */
+    @Query(value = "SELECT v.chassis_number FROM vehicles v WHERE v.chassis_number IN (:chassisNumbers)", nativeQuery = true)
+    List<String> findExistingChassisNumbers(@Param("chassisNumbers") Collection<String> chassisNumbers);
+
+    @Query("SELECT new rca.ac.rw.template.vehicle.dto.VehicleSummaryDto(v.id, v.chassisNumber, v.modelName) " +
+            "FROM Vehicle v WHERE v.id = :id AND v.deleted = false")
+    Optional<VehicleSummaryDto> findSummaryById(@Param("id") UUID id);
+
+    @Query("SELECT new rca.ac.rw.template.vehicle.dto.VehicleSummaryDto(v.id, v.chassisNumber, v.modelName) " +
+            "FROM Vehicle v WHERE v.chassisNumber = :chassisNumber AND v.deleted = false")
+    Optional<VehicleSummaryDto> findSummaryByChassisNumber(@Param("chassisNumber") String chassisNumber);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package rca.ac.rw.template.vehicle;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import rca.ac.rw.template.vehicle.dto.VehicleResponseDto;
+
+import java.util.List;
+
+/**
+ * Custom read paths for {@link Vehicle} that cannot be expressed as derived queries.
+ */
+public interface VehicleRepositoryCustom {
+
+    /**
+     * Returns a page of vehicles already enriched with their current IN_USE plate and current owner.
+     * The page is built from two queries, the ids of the page's vehicles and then their current plate and
+     * owner (plus a count query when the total is needed), so no lazy collections are touched. Offsets count
+     * vehicles, however many plate or ownership rows a vehicle joins to.
+     *
+     * @param spec     Optional filter applied to the vehicle root.
+     * @param pageable Pagination and sorting information (sort properties refer to {@link Vehicle}).
+     * @return A Page of enriched VehicleResponseDto.
+     */
+    Page<VehicleResponseDto> findAllWithCurrentPlateAndOwner(Specification<Vehicle> spec, Pageable pageable);
+
+    /**
+     * Same projection as {@link #findAllWithCurrentPlateAndOwner}, without offset or count:
+     * returns at most {@code limit} vehicles in {@code sort} order. Used by keyset pagination.
+     *
+     * @param spec  Optional filter applied to the vehicle root (including the seek predicate).
+     * @param sort  Sort order (properties refer to {@link Vehicle}).
+     * @param limit Maximum number of rows to fetch.
+     * @return Enriched VehicleResponseDto list.
+     */
+    List<VehicleResponseDto> findWithCurrentPlateAndOwner(Specification<Vehicle> spec, Sort sort, int limit);
+}
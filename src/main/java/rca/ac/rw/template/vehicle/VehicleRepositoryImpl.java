@@ -0,0 +1,203 @@
+package rca.ac.rw.template.vehicle;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import rca.ac.rw.template.owner.Owner;
+import rca.ac.rw.template.owner.dto.OwnerNameDto;
+import rca.ac.rw.template.ownership.OwnerShip;
+import rca.ac.rw.template.plateNumber.PlateNumber;
+import rca.ac.rw.template.plateNumber.PlateStatus;
+import rca.ac.rw.template.plateNumber.dto.PlateNumberResponseDto;
+import rca.ac.rw.template.vehicle.dto.VehicleResponseDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Criteria based implementation of {@link VehicleRepositoryCustom}.
+ * Picked up by Spring Data through the {@code Impl} suffix.
+ */
+public class VehicleRepositoryImpl implements VehicleRepositoryCustom {
+
+    private static final int ID_BATCH_SIZE = 1000; // Ids per projection query; only unpaged listings need more than one
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<VehicleResponseDto> findAllWithCurrentPlateAndOwner(Specification<Vehicle> spec, Pageable pageable) {
+        TypedQuery<UUID> idQuery = createIdQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset());
+            idQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<VehicleResponseDto> content = findByIdsInOrder(idQuery.getResultList());
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<VehicleResponseDto> findWithCurrentPlateAndOwner(Specification<Vehicle> spec, Sort sort, int limit) {
+        TypedQuery<UUID> idQuery = createIdQuery(spec, sort);
+        idQuery.setMaxResults(limit);
+        return findByIdsInOrder(idQuery.getResultList());
+    }
+
+    /**
+     * Selects the ids of the matching vehicles in {@code sort} order, one row per vehicle, so offsets and
+     * limits count vehicles rather than joined rows.
+     */
+    private TypedQuery<UUID> createIdQuery(Specification<Vehicle> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Vehicle> vehicle = query.from(Vehicle.class);
+        query.select(vehicle.<UUID>get("id"));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(vehicle, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, vehicle, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Loads the current plate and owner of the given vehicles and returns them in the order of {@code ids}.
+     */
+    private List<VehicleResponseDto> findByIdsInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, VehicleResponseDto> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE));
+            toDtos(createProjectionQuery(batch).getResultList(), byId);
+        }
+        List<VehicleResponseDto> ordered = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            VehicleResponseDto dto = byId.get(id);
+            if (dto != null) { // Deleted between the two queries
+                ordered.add(dto);
+            }
+        }
+        return ordered;
+    }
+
+    private TypedQuery<Tuple> createProjectionQuery(List<UUID> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Vehicle> vehicle = query.from(Vehicle.class);
+
+        // Current plate: the IN_USE plate(s) of the vehicle.
+        Join<Vehicle, PlateNumber> plate = vehicle.join("plateNumbers", JoinType.LEFT);
+        plate.on(cb.equal(plate.get("status"), PlateStatus.IN_USE));
+
+        // Current owner: the open ownership record (end_date IS NULL).
+        Join<Vehicle, OwnerShip> ownership = vehicle.join("ownerships", JoinType.LEFT);
+        ownership.on(cb.isNull(ownership.get("endDate")));
+        Join<OwnerShip, Owner> owner = ownership.join("owner", JoinType.LEFT);
+
+        query.multiselect(
+                vehicle.get("id").alias("id"),
+                vehicle.get("chassisNumber").alias("chassisNumber"),
+                vehicle.get("modelName").alias("modelName"),
+                vehicle.get("manufacturerCompany").alias("manufacturerCompany"),
+                vehicle.get("manufacturedYear").alias("manufacturedYear"),
+                vehicle.get("price").alias("price"),
+                vehicle.get("createdAt").alias("createdAt"),
+                vehicle.get("updatedAt").alias("updatedAt"),
+                plate.get("id").alias("plateId"),
+                plate.get("plateNumber").alias("plateNumber"),
+                plate.get("issuedDate").alias("plateIssuedDate"),
+                plate.get("owner").get("id").alias("plateOwnerId"),
+                plate.get("status").alias("plateStatus"),
+                owner.get("id").alias("ownerId"),
+                owner.get("firstName").alias("ownerFirstName"),
+                owner.get("lastName").alias("ownerLastName")
+        );
+
+        query.where(vehicle.get("id").in(ids));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Vehicle> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Vehicle> vehicle = countQuery.from(Vehicle.class);
+        countQuery.select(cb.count(vehicle));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(vehicle, countQuery, cb);
+        if (predicate != null) {
+            countQuery.where(predicate);
+        }
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    /**
+     * Maps projection rows to DTOs, keyed by vehicle id.
+     * A vehicle with more than one IN_USE plate (inconsistent data) yields several rows;
+     * like the entity based enrichment, the most recently issued plate wins.
+     */
+    private void toDtos(List<Tuple> rows, Map<UUID, VehicleResponseDto> byId) {
+        for (Tuple row : rows) {
+            UUID id = row.get("id", UUID.class);
+            VehicleResponseDto dto = byId.get(id);
+            if (dto == null) {
+                dto = new VehicleResponseDto(
+                        id,
+                        row.get("chassisNumber", String.class),
+                        row.get("modelName", String.class),
+                        row.get("manufacturerCompany", String.class),
+                        row.get("manufacturedYear", Year.class),
+                        row.get("price", BigDecimal.class)
+                );
+                dto.setCreatedAt(row.get("createdAt", LocalDateTime.class));
+                dto.setUpdatedAt(row.get("updatedAt", LocalDateTime.class));
+
+                UUID ownerId = row.get("ownerId", UUID.class);
+                if (ownerId != null) {
+                    dto.setCurrentOwner(new OwnerNameDto(
+                            ownerId,
+                            row.get("ownerFirstName", String.class),
+                            row.get("ownerLastName", String.class)));
+                }
+                byId.put(id, dto);
+            }
+
+            UUID plateId = row.get("plateId", UUID.class);
+            if (plateId != null) {
+                Instant issuedDate = row.get("plateIssuedDate", Instant.class);
+                PlateNumberResponseDto current = dto.getCurrentPlate();
+                if (current == null || (issuedDate != null && current.getIssuedDate() != null
+                        && issuedDate.isAfter(current.getIssuedDate()))) {
+                    dto.setCurrentPlate(new PlateNumberResponseDto(
+                            plateId,
+                            row.get("plateNumber", String.class),
+                            issuedDate,
+                            row.get("plateOwnerId", UUID.class),
+                            id,
+                            row.get("plateStatus", PlateStatus.class)));
+                }
+            }
+        }
+    }
+}
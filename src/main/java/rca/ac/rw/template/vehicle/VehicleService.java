@@ -8,7 +8,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import rca.ac.rw.template.analytics.MarketValueStatisticsService;
 import rca.ac.rw.template.commons.exceptions.ResourceNotFoundException;
+import rca.ac.rw.template.commons.pagination.KeysetPage;
+import rca.ac.rw.template.commons.pagination.KeysetRequest;
+import rca.ac.rw.template.inspection.InspectionService;
 import rca.ac.rw.template.commons.exceptions.ValidationException;
 import rca.ac.rw.template.owner.Owner;
 import rca.ac.rw.template.owner.OwnerRepository;
@@ -17,12 +23,16 @@ import rca.ac.rw.template.ownership.OwnerShip;
 import rca.ac.rw.template.ownership.OwnerShipRepository;
 import rca.ac.rw.template.plateNumber.PlateNumber;
 import rca.ac.rw.template.plateNumber.PlateNumberConverter;
+import rca.ac.rw.template.plateNumber.PlateNumberAllocator;
 import rca.ac.rw.template.plateNumber.PlateNumberRepository;
+import rca.ac.rw.template.plateNumber.PlateOccupancyIndex;
 import rca.ac.rw.template.plateNumber.PlateStatus;
+import rca.ac.rw.template.vehicle.dto.OwnerPortfolioDto;
 import rca.ac.rw.template.vehicle.dto.RegisterVehicleAndIssuePlateRequestDto;
 import rca.ac.rw.template.vehicle.dto.UpdateVehicleRequestDto;
 import rca.ac.rw.template.vehicle.dto.VehicleResponseDto;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.Year;
 import java.util.*;
@@ -34,10 +44,16 @@ import java.util.stream.Collectors;
 public class VehicleService {
 
     private final VehicleRepository vehicleRepository;
-    private final OwnerRepository ownerRepository; // Needed for search by owner's national ID
-    private final PlateNumberRepository plateNumberRepository; // Needed for search by plate number
+    private final OwnerRepository ownerRepository;
+    private final PlateNumberRepository plateNumberRepository;
     private final OwnerShipRepository ownerShipRepository;
-
+    private final VehicleCurrentStateService vehicleCurrentStateService;
+    private final PlateOccupancyIndex plateOccupancyIndex;
+    private final PlateNumberAllocator plateNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final ActivePlateRegistry activePlateRegistry;
+    private final MarketValueStatisticsService marketValueStatisticsService;
+    private final InspectionService inspectionService;
 
 
     /**
@@ -48,8 +64,15 @@ public class VehicleService {
      * @throws ResourceNotFoundException if the specified owner does not exist.
      * @throws ValidationException if the chassis number or plate number already exists.
      */
-    @Transactional
     public VehicleResponseDto registerVehicleAndIssuePlate(RegisterVehicleAndIssuePlateRequestDto dto) {
+        if (!StringUtils.hasText(dto.getPlateNumberString())) {
+            // Outside the transaction: refilling the allocator's block needs a connection of its own
+            dto.setPlateNumberString(plateNumberAllocator.allocate());
+        }
+        return transactionTemplate.execute(status -> register(dto));
+    }
+
+    private VehicleResponseDto register(RegisterVehicleAndIssuePlateRequestDto dto) {
         log.info("Attempting to register vehicle with chassis {} and plate {}", dto.getChassisNumber(), dto.getPlateNumberString());
 
         Owner owner = ownerRepository.findById(dto.getOwnerId())
@@ -58,7 +81,8 @@ public class VehicleService {
         if (vehicleRepository.findByChassisNumber(dto.getChassisNumber()).isPresent()) {
             throw new ValidationException("Vehicle with chassis number '" + dto.getChassisNumber() + "' already exists.");
         }
-        if (plateNumberRepository.findByPlateNumber(dto.getPlateNumberString()).isPresent()) {
+        // Fast in-memory rejection; the unique index on plate_number is the authoritative check (saveNewPlate).
+        if (plateOccupancyIndex.isTaken(dto.getPlateNumberString())) {
             throw new ValidationException("Plate number '" + dto.getPlateNumberString() + "' is already registered.");
         }
 
@@ -78,7 +102,8 @@ public class VehicleService {
         plateNumber.setStatus(PlateStatus.IN_USE); // Set initial status
          // issuedDate is handled by @CreationTimestamp on PlateNumber entity's 'createdAt' or a specific 'issuedDate' field
         //        // If 'issuedDate' is separate from 'createdAt' on PlateNumber, setit here: plateNumber.setIssuedDate(Instant.now());
-        PlateNumber savedPlateNumber = plateNumberRepository.save(plateNumber);
+        PlateNumber savedPlateNumber = plateNumberRepository.saveNewPlate(plateNumber);
+        plateOccupancyIndex.markTaken(savedPlateNumber.getPlateNumber());
         log.info("Plate number {} issued with ID: {} for vehicle {}", savedPlateNumber.getPlateNumber(), savedPlateNumber.getId(), savedVehicle.getId());
 
 
@@ -91,6 +116,11 @@ public class VehicleService {
         ownerShipRepository.save(ownerShip);
         log.info("Initial ownership record created for vehicle ID {} and owner ID {}", savedVehicle.getId(), owner.getId());
 
+        vehicleCurrentStateService.record(savedVehicle, savedPlateNumber, owner);
+        marketValueStatisticsService.record(savedVehicle.getManufacturerCompany(), savedVehicle.getModelName(),
+                savedVehicle.getManufacturedYear(), ownerShip.getTransferAmount());
+        inspectionService.schedule(savedVehicle);
+
         // Construct a detailed response
         VehicleResponseDto responseDto = VehicleConverter.toDto(savedVehicle);
         responseDto.setCurrentPlate(PlateNumberConverter.toDto(savedPlateNumber));
@@ -101,7 +131,7 @@ public class VehicleService {
 
 
     /**
-     * Retrieves a paginated list of all vehicles for admin purposes.
+     * Retrieves a paginated list of all vehicles for admin purposes, enriched with current owner and plate.
      * Soft-deleted vehicles are excluded by default due to @Where clause on Vehicle entity.
      *
      * @param pageable      Pagination and sorting information.
@@ -113,12 +143,27 @@ public class VehicleService {
     public Page<VehicleResponseDto> getAllVehiclesAdmin(Pageable pageable, String searchTerm, Year manufacturedYear) {
         log.debug("Fetching all vehicles for admin. Search: '{}', Manufactured Year: {}", searchTerm, manufacturedYear);
         Specification<Vehicle> spec = VehicleSpecifications.adminSearchVehicles(searchTerm, manufacturedYear);
-        Page<Vehicle> vehiclePage = vehicleRepository.findAll(spec, pageable);
+        // Projection query: current plate and owner come back with the page, no per-row lazy loading.
+        return vehicleRepository.findAllWithCurrentPlateAndOwner(spec, pageable);
+    }
 
-        List<VehicleResponseDto> dtos = vehiclePage.getContent().stream()
-                .map(this::enrichVehicleResponseDto) // Use helper to enrich DTO
-                .collect(Collectors.toList());
-        return new PageImpl<>(dtos, pageable, vehiclePage.getTotalElements());
+    /**
+     * Keyset variant of {@link #getAllVehiclesAdmin}: continues after the given cursor and skips the total count.
+     *
+     * @param after            Cursor returned with the previous page; blank for the first page.
+     * @param pageable         Page size and sort (the page number is ignored).
+     * @param searchTerm       Optional search term for chassis number, model name, or manufacturer.
+     * @param manufacturedYear Optional year of manufacture to filter by.
+     * @return KeysetPage of enriched VehicleResponseDto.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<VehicleResponseDto> getAllVehiclesAdminAfter(String after, Pageable pageable, String searchTerm, Year manufacturedYear) {
+        log.debug("Fetching vehicles for admin after cursor. Search: '{}', Manufactured Year: {}", searchTerm, manufacturedYear);
+        KeysetRequest keyset = KeysetRequest.of(after, pageable);
+        Specification<Vehicle> spec = VehicleSpecifications.adminSearchVehicles(searchTerm, manufacturedYear)
+                .and(keyset.seek());
+        List<VehicleResponseDto> rows = vehicleRepository.findWithCurrentPlateAndOwner(spec, keyset.sort(), keyset.limit());
+        return keyset.toPage(rows, dto -> dto);
     }
 
     /**
@@ -164,6 +209,7 @@ public class VehicleService {
         // Chassis number is not updated.
 
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        vehicleCurrentStateService.refresh(savedVehicle);
         return enrichVehicleResponseDto(savedVehicle);
     }
 
@@ -192,6 +238,8 @@ public class VehicleService {
                 });
 
         vehicleRepository.delete(vehicle); // Triggers @SQLDelete
+        vehicleCurrentStateService.remove(vehicleId);
+        inspectionService.remove(vehicleId);
     }
 
 
@@ -225,6 +273,7 @@ public class VehicleService {
     /**
      * Searches for vehicles by the current owner's national ID.
      * Returns a list as an owner can have multiple vehicles.
+     * Answered from the vehicle current-state read model (single indexed read).
      *
      * @param nationalId The national ID of the current owner.
      * @return A list of enriched VehicleResponseDto.
@@ -232,44 +281,65 @@ public class VehicleService {
     @Transactional(readOnly = true)
     public List<VehicleResponseDto> findVehiclesByOwnerNationalId(String nationalId) {
         log.debug("Admin searching for vehicles by owner's national ID: {}", nationalId);
-        Optional<Owner> ownerOpt = ownerRepository.findByNationalId(nationalId); // Assuming OwnerRepository has this
-        if (ownerOpt.isEmpty()) {
-            log.warn("No owner found with national ID: {}", nationalId);
-            return Collections.emptyList();
-        }
-        Owner owner = ownerOpt.get();
-
-        // Find current ownerships for this owner
-        // This assumes Owner entity has a 'ownerShips' collection properly mapped.
-        // And that OwnerShip links to Vehicle.
-        return owner.getOwnerShips().stream()
-                .filter(os -> os.getEndDate() == null && os.getVehicle() != null) // Current ownership
-                .map(OwnerShip::getVehicle)
-                .filter(vehicle -> !vehicle.isDeleted()) // Ensure vehicle is not soft-deleted
-                .map(this::enrichVehicleResponseDto)
+        List<VehicleResponseDto> vehicles = vehicleCurrentStateService.findByOwnerNationalId(nationalId).stream()
+                .map(VehicleConverter::toDto)
                 .collect(Collectors.toList());
+        if (vehicles.isEmpty()) {
+            log.warn("No current vehicles found for owner national ID: {}", nationalId);
+        }
+        return vehicles;
+    }
+
+    /**
+     * Returns one page of the vehicles an owner currently owns, each with its active plate, plus the
+     * vehicle count and summed price of the whole portfolio.
+     * Both come from the vehicle current-state read model: one projection query for the page and one
+     * aggregate query, which also serves as the page total.
+     *
+     * @param nationalId The national ID of the current owner.
+     * @param pageable   Pagination and sorting information (sort properties refer to the vehicle fields).
+     * @return The owner's portfolio; empty (zero vehicles, no owner) if the owner has no current vehicles.
+     */
+    @Transactional(readOnly = true)
+    public OwnerPortfolioDto getOwnerPortfolio(String nationalId, Pageable pageable) {
+        long start = System.nanoTime();
+        VehicleCurrentStateRepository.PortfolioTotals totals = vehicleCurrentStateService.findPortfolioTotals(nationalId);
+        long vehicleCount = totals != null ? totals.getVehicleCount() : 0;
+        BigDecimal totalPrice = totals != null && totals.getTotalPrice() != null ? totals.getTotalPrice() : BigDecimal.ZERO;
+
+        List<VehicleResponseDto> vehicles = pageable.isUnpaged() || vehicleCount > pageable.getOffset()
+                ? vehicleCurrentStateService.findPortfolioPage(nationalId, pageable).stream().map(VehicleConverter::toDto).toList()
+                : List.of();
+        OwnerNameDto owner = vehicles.isEmpty() ? null : vehicles.get(0).getCurrentOwner();
+
+        log.debug("Owner portfolio for national ID {}: {} vehicles, page of {} in {} ms",
+                nationalId, vehicleCount, vehicles.size(), (System.nanoTime() - start) / 1_000_000);
+        return new OwnerPortfolioDto(nationalId, owner, vehicleCount, totalPrice,
+                new PageImpl<>(vehicles, pageable, vehicleCount));
     }
 
     /**
      * Finds a vehicle by its current plate number.
+     * Only IN_USE plates are present in the read model, so a match is always the current plate.
      *
      * @param plateNumberString The plate number string.
      * @return An Optional containing the enriched VehicleResponseDto if found.
      */
-    @Transactional(readOnly = true)
     public Optional<VehicleResponseDto> findVehicleByPlateNumber(String plateNumberString) {
         log.debug("Admin searching for vehicle by plate number: {}", plateNumberString);
-        Optional<PlateNumber> plateOpt = plateNumberRepository.findByPlateNumber(plateNumberString);
-        if (plateOpt.isEmpty() || plateOpt.get().getVehicle() == null || plateOpt.get().getVehicle().isDeleted()) {
-            log.warn("No active vehicle found for plate number: {}", plateNumberString);
-            return Optional.empty();
+        // Answered from memory once the registry is loaded; no transaction, no connection.
+        // A miss may be a plate issued on another node since the registry's last sync, so it goes to the database.
+        if (activePlateRegistry.isLoaded()) {
+            Optional<ActivePlate> activePlate = activePlateRegistry.find(plateNumberString);
+            if (activePlate.isPresent()) {
+                return activePlate.map(VehicleConverter::toDto);
+            }
         }
-        // Ensure the plate is currently IN_USE for this vehicle
-        if (plateOpt.get().getStatus() != PlateStatus.IN_USE) {
-            log.warn("Plate {} found but is not currently IN_USE.", plateNumberString);
-            return Optional.empty();
+        Optional<VehicleCurrentState> stateOpt = vehicleCurrentStateService.findByPlateNumber(plateNumberString);
+        if (stateOpt.isEmpty()) {
+            log.warn("No active vehicle found for IN_USE plate number: {}", plateNumberString);
         }
-        return Optional.of(enrichVehicleResponseDto(plateOpt.get().getVehicle()));
+        return stateOpt.map(VehicleConverter::toDto);
     }
 
     /**
@@ -277,15 +347,16 @@ public class VehicleService {
      *
      * @param chassisNumber The chassis number.
      * @return An Optional containing the enriched VehicleResponseDto if found.
+     * @throws ResourceNotFoundException if no active vehicle has this chassis number.
      */
     @Transactional(readOnly = true)
     public Optional<VehicleResponseDto> findVehicleByChassisNumber(String chassisNumber) {
         log.debug("Admin searching for vehicle by chassis number: {}", chassisNumber);
-        Optional<Vehicle> vehicleOpt = vehicleRepository.findByChassisNumber(chassisNumber);
-        if (vehicleOpt.isEmpty() || vehicleOpt.get().isDeleted()) {
-            log.warn("No active vehicle found for chassis number: {}", chassisNumber);
-            throw new ResourceNotFoundException("vehicle", "Chassis number", chassisNumber);
-        }
-        return vehicleOpt.map(this::enrichVehicleResponseDto);
+        VehicleCurrentState state = vehicleCurrentStateService.findByChassisNumber(chassisNumber)
+                .orElseThrow(() -> {
+                    log.warn("No active vehicle found for chassis number: {}", chassisNumber);
+                    return new ResourceNotFoundException("vehicle", "Chassis number", chassisNumber);
+                });
+        return Optional.of(VehicleConverter.toDto(state));
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package rca.ac.rw.template.vehicle;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
+import rca.ac.rw.template.commons.search.SearchPredicates;
 
 import java.time.Year;
 import java.util.ArrayList;
@@ -15,11 +16,11 @@ public class VehicleSpecifications {
             List<Predicate> predicates = new ArrayList<>();
 
             if (StringUtils.hasText(searchTerm)) {
-                String lowerCaseSearchTerm = searchTerm.toLowerCase().trim();
-                predicates.add(criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("chassisNumber")), "%" + lowerCaseSearchTerm + "%"),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("modelName")), "%" + lowerCaseSearchTerm + "%"),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("manufacturerCompany")), "%" + lowerCaseSearchTerm + "%")
+                // Backed by the trigram indexes on lower(column), see db/search-indexes.sql
+                predicates.add(SearchPredicates.anyContainsIgnoreCase(criteriaBuilder, searchTerm,
+                        root.get("chassisNumber"),
+                        root.get("modelName"),
+                        root.get("manufacturerCompany")
                 ));
             }
 
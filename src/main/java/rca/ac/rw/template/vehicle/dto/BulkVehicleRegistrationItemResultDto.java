@@ -0,0 +1,19 @@
+package rca.ac.rw.template.vehicle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkVehicleRegistrationItemResultDto {
+    private int index; // Position of the item in the request list
+    private String chassisNumber;
+    private String plateNumber;
+    private boolean registered;
+    private UUID vehicleId; // Null when the item was rejected
+    private String message;
+}
@@ -0,0 +1,23 @@
+package rca.ac.rw.template.vehicle.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for an admin registering many vehicles (e.g., a dealer or importer consignment) in one call.
+ * Items are validated individually so that one bad item does not reject the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkVehicleRegistrationRequestDto {
+
+    @NotEmpty(message = "At least one vehicle is required")
+    @Size(max = 10000, message = "A bulk registration cannot exceed 10000 vehicles")
+    private List<RegisterVehicleAndIssuePlateRequestDto> vehicles;
+}
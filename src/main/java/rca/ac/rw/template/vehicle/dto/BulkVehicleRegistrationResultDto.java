@@ -0,0 +1,17 @@
+package rca.ac.rw.template.vehicle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkVehicleRegistrationResultDto {
+    private int total;
+    private int registered;
+    private int failed;
+    private List<BulkVehicleRegistrationItemResultDto> items;
+}
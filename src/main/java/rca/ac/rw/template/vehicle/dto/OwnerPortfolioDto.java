@@ -0,0 +1,20 @@
+package rca.ac.rw.template.vehicle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import rca.ac.rw.template.owner.dto.OwnerNameDto;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerPortfolioDto {
+    private String nationalId;
+    private OwnerNameDto owner;
+    private long vehicleCount;
+    private BigDecimal totalPrice;
+    private Page<VehicleResponseDto> vehicles;
+}
@@ -1,5 +1,6 @@
 package rca.ac.rw.template.vehicle.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -8,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import rca.ac.rw.template.commons.validation.ValidPlateNumber;
+import rca.ac.rw.template.plateNumber.PlateNumberDeserializer;
 
 import java.math.BigDecimal;
 import java.time.Year;
@@ -42,8 +44,9 @@ public class RegisterVehicleAndIssuePlateRequestDto {
     private UUID ownerId;
 
 
-    @NotBlank(message = "Plate number string is required")
+    // Optional: when omitted, the next free plate of the configured series is allocated.
     @ValidPlateNumber
+    @JsonDeserialize(using = PlateNumberDeserializer.class)
     private String plateNumberString;
 
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+-- One-off migration: canonical plate numbers (upper case, no whitespace), see PlateNumberNormalizer, then the
+-- unique index of db/plate-number-unique-index.sql. Run it once per existing database, before starting the
+-- version that creates the index at startup:
+--     psql -v ON_ERROR_STOP=1 --single-transaction -f plate-number-normalization.sql
+-- Safe to re-run. As one transaction, a refusal in step 1 leaves the database untouched.
+
+-- 1. Refuse when rows sharing a canonical key cannot be merged without losing data: more than one IN_USE row,
+--    or rows of different vehicles or owners. Each of those needs a decision; resolve them by hand and re-run.
+DO $$
+DECLARE
+    conflicts bigint;
+    sample text;
+BEGIN
+    SELECT count(*), string_agg(canonical, ', ' ORDER BY canonical) FILTER (WHERE rn <= 20)
+    INTO conflicts, sample
+    FROM (SELECT upper(regexp_replace(plate_number, '\s', '', 'g')) AS canonical,
+                 row_number() OVER (ORDER BY upper(regexp_replace(plate_number, '\s', '', 'g'))) AS rn
+          FROM plate_number
+          GROUP BY 1
+          HAVING count(*) > 1
+             AND (count(*) FILTER (WHERE plate_status = 'IN_USE') > 1
+                  OR count(DISTINCT coalesce(vehicle_id::text, '')) > 1
+                  OR count(DISTINCT coalesce(owner_id::text, '')) > 1)) colliding;
+    IF conflicts > 0 THEN
+        RAISE EXCEPTION '% plate number(s) collide across IN_USE rows, vehicles or owners, e.g. %', conflicts, sample;
+    END IF;
+END $$;
+
+-- 2. The remaining duplicates belong to one vehicle and owner and hold at most one IN_USE row. Keep one row per
+--    key (IN_USE first, then the most recently issued) and move the others to an archive table.
+CREATE TABLE IF NOT EXISTS plate_number_duplicate_archive (LIKE plate_number INCLUDING DEFAULTS);
+
+INSERT INTO plate_number_duplicate_archive
+SELECT p.*
+FROM plate_number p
+JOIN (SELECT id,
+             row_number() OVER (PARTITION BY upper(regexp_replace(plate_number, '\s', '', 'g'))
+                                ORDER BY (plate_status = 'IN_USE') DESC, issued_date DESC, id) AS rn
+      FROM plate_number) ranked ON ranked.id = p.id
+WHERE ranked.rn > 1;
+
+DELETE FROM plate_number p
+USING plate_number_duplicate_archive a
+WHERE p.id = a.id;
+
+-- 3. Rewrite the remaining rows in canonical form.
+UPDATE plate_number
+SET plate_number = upper(regexp_replace(plate_number, '\s', '', 'g'))
+WHERE plate_number <> upper(regexp_replace(plate_number, '\s', '', 'g'));
+
+-- 4. Recompute the current plate of every read-model row whose plate was removed or rewritten above.
+--    Touching updated_at lets the ActivePlateRegistry of running nodes pick the rows up on their next sync.
+UPDATE vehicle_current_state s
+SET (current_plate_id, current_plate_number, current_plate_issued_date, current_plate_owner_id, updated_at) =
+    (SELECT p.id, p.plate_number, p.issued_date, p.owner_id, CURRENT_TIMESTAMP
+     FROM (SELECT 1) one
+     LEFT JOIN LATERAL (
+         SELECT pn.id, pn.plate_number, pn.issued_date, pn.owner_id
+         FROM plate_number pn
+         WHERE pn.vehicle_id = s.vehicle_id AND pn.plate_status = 'IN_USE'
+         ORDER BY pn.issued_date DESC
+         LIMIT 1) p ON true)
+WHERE s.current_plate_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1
+                  FROM plate_number pn
+                  WHERE pn.id = s.current_plate_id AND pn.plate_number = s.current_plate_number);
+
+-- 5. The unique index every plate lookup and uniqueness check relies on.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_plate_number_unq ON plate_number (plate_number);
@@ -0,0 +1,9 @@
+-- Range index backing the as-of ownership lookups (OwnershipAsOfService): who owned vehicle X at instant T.
+-- Ownership periods are half-open, [start_date, end_date), with a NULL end meaning "still owned", so the
+-- lookup predicate is tstzrange(start_date, end_date, '[)') @> T. btree_gist lets vehicle_id share the index.
+-- Runs after Hibernate has created/updated the tables; every statement is idempotent.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE INDEX IF NOT EXISTS idx_ownership_vehicle_period
+    ON ownership USING gist (vehicle_id, tstzrange(start_date, end_date, '[)'));
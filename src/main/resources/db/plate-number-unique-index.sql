@@ -0,0 +1,6 @@
+-- The unique index every plate lookup and uniqueness check relies on; plates are stored in canonical form
+-- (PlateNumberNormalizer). Cheap to re-run: once the index exists this is a catalog lookup.
+-- A database holding plates written before normalization must run db/migration/plate-number-normalization.sql
+-- once, before starting this version, so the index covers canonical keys.
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_plate_number_unq ON plate_number (plate_number);
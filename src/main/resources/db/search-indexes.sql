@@ -0,0 +1,20 @@
+-- Trigram indexes backing the admin substring searches (SearchPredicates: lower(column) LIKE '%term%').
+-- Runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization=true).
+-- Every statement is idempotent so the script can run on each startup.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- VehicleSpecifications.adminSearchVehicles
+CREATE INDEX IF NOT EXISTS idx_vehicles_chassis_number_trgm ON vehicles USING gin (lower(chassis_number) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_model_name_trgm ON vehicles USING gin (lower(model_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_manufacturer_company_trgm ON vehicles USING gin (lower(manufacturer_company) gin_trgm_ops);
+
+-- UserSpecifications.adminSearchUsers and OwnerSpecifications.searchOwners (owners join to users)
+CREATE INDEX IF NOT EXISTS idx_users_firstname_trgm ON users USING gin (lower(firstName) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_lastname_trgm ON users USING gin (lower(lastName) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_nationalid_trgm ON users USING gin (lower(nationalId) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_phonenumber_trgm ON users USING gin (lower(phoneNumber) gin_trgm_ops);
+
+-- PlateNumberSpecifications.filterPlates
+CREATE INDEX IF NOT EXISTS idx_plate_number_plate_number_trgm ON plate_number USING gin (lower(plate_number) gin_trgm_ops);
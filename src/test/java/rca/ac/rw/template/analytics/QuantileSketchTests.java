@@ -0,0 +1,166 @@
+package rca.ac.rw.template.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTests {
+
+	private static final double ACCURACY = 0.01;
+	private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+	@Test
+	void quantilesAreWithinTheRelativeAccuracy() {
+		double[] values = prices(100_000, 1);
+		QuantileSketch sketch = sketchOf(values);
+
+		Arrays.sort(values);
+		for (double q : QUANTILES) {
+			double exact = values[(int) Math.floor(q * (values.length - 1))];
+			assertThat(sketch.quantile(q)).as("p%s", q * 100).isCloseTo(exact, within(exact * ACCURACY));
+		}
+		assertThat(sketch.getCount()).isEqualTo(values.length);
+		assertThat(sketch.getMin()).isEqualTo(values[0]);
+		assertThat(sketch.getMax()).isEqualTo(values[values.length - 1]);
+	}
+
+	@Test
+	void mergedSketchesAnswerLikeOneSketchOfAllValues() {
+		double[] first = prices(20_000, 2);
+		double[] second = prices(30_000, 3);
+		double[] all = new double[first.length + second.length];
+		System.arraycopy(first, 0, all, 0, first.length);
+		System.arraycopy(second, 0, all, first.length, second.length);
+
+		QuantileSketch merged = sketchOf(first);
+		merged.merge(sketchOf(second));
+		QuantileSketch whole = sketchOf(all);
+
+		assertThat(merged.getCount()).isEqualTo(whole.getCount());
+		assertThat(merged.getMin()).isEqualTo(whole.getMin());
+		assertThat(merged.getMax()).isEqualTo(whole.getMax());
+		for (double q : QUANTILES) {
+			assertThat(merged.quantile(q)).as("p%s", q * 100).isEqualTo(whole.quantile(q));
+		}
+		assertThat(merged.toBytes()).isEqualTo(whole.toBytes());
+	}
+
+	@Test
+	void mergingAnEmptySketchChangesNothing() {
+		QuantileSketch sketch = sketchOf(prices(100, 4));
+		byte[] before = sketch.toBytes();
+
+		sketch.merge(new QuantileSketch(ACCURACY));
+
+		assertThat(sketch.toBytes()).isEqualTo(before);
+	}
+
+	@Test
+	void sketchesOfDifferentAccuracyDoNotMerge() {
+		QuantileSketch sketch = new QuantileSketch(ACCURACY);
+
+		assertThatThrownBy(() -> sketch.merge(new QuantileSketch(0.02))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void convertedSketchKeepsItsCountsWithinBothAccuracies() {
+		double[] values = prices(100_000, 6);
+		QuantileSketch sketch = sketchOf(values);
+		sketch.add(0);
+
+		QuantileSketch converted = sketch.withAccuracy(0.02);
+
+		assertThat(converted.getRelativeAccuracy()).isEqualTo(0.02);
+		assertThat(converted.getCount()).isEqualTo(sketch.getCount());
+		assertThat(converted.getMin()).isEqualTo(sketch.getMin());
+		assertThat(converted.getMax()).isEqualTo(sketch.getMax());
+		for (double q : QUANTILES) {
+			double expected = sketch.quantile(q);
+			assertThat(converted.quantile(q)).as("p%s", q * 100).isCloseTo(expected, within(expected * (ACCURACY + 0.02)));
+		}
+		converted.merge(new QuantileSketch(0.02)); // Merges with sketches of its new accuracy
+		assertThat(sketch.withAccuracy(ACCURACY)).isSameAs(sketch);
+	}
+
+	@Test
+	void serializationRoundTrips() {
+		QuantileSketch sketch = sketchOf(prices(10_000, 5));
+		sketch.add(0);
+		sketch.add(-3);
+
+		QuantileSketch restored = QuantileSketch.fromBytes(sketch.toBytes());
+
+		assertThat(restored.getRelativeAccuracy()).isEqualTo(ACCURACY);
+		assertThat(restored.getCount()).isEqualTo(sketch.getCount());
+		assertThat(restored.getMin()).isEqualTo(sketch.getMin());
+		assertThat(restored.getMax()).isEqualTo(sketch.getMax());
+		for (double q : QUANTILES) {
+			assertThat(restored.quantile(q)).isEqualTo(sketch.quantile(q));
+		}
+		assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+	}
+
+	@Test
+	void emptySketchRoundTrips() {
+		QuantileSketch restored = QuantileSketch.fromBytes(new QuantileSketch(ACCURACY).toBytes());
+
+		assertThat(restored.getCount()).isZero();
+		assertThat(restored.quantile(0.5)).isNaN();
+	}
+
+	@Test
+	void unknownFormatVersionIsRejected() {
+		byte[] bytes = new QuantileSketch(ACCURACY).toBytes();
+		ByteBuffer.wrap(bytes).put((byte) 99);
+
+		assertThatThrownBy(() -> QuantileSketch.fromBytes(bytes)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void zeroAndNegativeValuesCountAsZero() {
+		QuantileSketch sketch = new QuantileSketch(ACCURACY);
+		sketch.add(-5);
+		sketch.add(0);
+		sketch.add(100);
+		sketch.add(Double.NaN); // Ignored
+
+		assertThat(sketch.getCount()).isEqualTo(3);
+		assertThat(sketch.quantile(0)).isZero();
+		assertThat(sketch.quantile(0.5)).isZero();
+		assertThat(sketch.quantile(1)).isEqualTo(100);
+	}
+
+	@Test
+	void accuracyMustBeBetweenZeroAndOne() {
+		assertThatThrownBy(() -> new QuantileSketch(0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new QuantileSketch(1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// --- Helper Methods ---
+
+	/**
+	 * Log-normally distributed prices around 10,000, like transfer amounts.
+	 */
+	private static double[] prices(int n, long seed) {
+		Random random = new Random(seed);
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = Math.round(Math.exp(Math.log(10_000) + random.nextGaussian()) * 100) / 100.0;
+		}
+		return values;
+	}
+
+	private static QuantileSketch sketchOf(double[] values) {
+		QuantileSketch sketch = new QuantileSketch(ACCURACY);
+		for (double value : values) {
+			sketch.add(value);
+		}
+		return sketch;
+	}
+}
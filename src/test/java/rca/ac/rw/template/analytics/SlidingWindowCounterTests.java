@@ -0,0 +1,53 @@
+package rca.ac.rw.template.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowCounterTests {
+
+	@Test
+	void reportsNothingUntilCapacityEventsWereSeen() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+
+		assertThat(counter.add(100)).isEqualTo(-1);
+		assertThat(counter.add(200)).isEqualTo(-1);
+		assertThat(counter.add(300)).isEqualTo(100);
+	}
+
+	@Test
+	void reportsTheOldestOfTheLastCapacityEvents() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+		for (long t = 1; t <= 3; t++) {
+			counter.add(t * 1000);
+		}
+
+		for (long t = 4; t <= 20; t++) {
+			assertThat(counter.add(t * 1000)).as("after event %d", t).isEqualTo((t - 2) * 1000);
+		}
+	}
+
+	@Test
+	void capacityOfOneReportsTheEventItself() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(1);
+
+		assertThat(counter.add(42)).isEqualTo(42);
+		assertThat(counter.add(43)).isEqualTo(43);
+	}
+
+	@Test
+	void muteHoldsForOneWindow() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(3);
+
+		assertThat(counter.mute(1_000, 500)).isTrue();
+		assertThat(counter.mute(1_499, 500)).isFalse();
+		assertThat(counter.mute(1_500, 500)).isTrue();
+		assertThat(counter.mute(1_600, 500)).isFalse();
+	}
+
+	@Test
+	void capacityMustBeAtLeastOne() {
+		assertThatThrownBy(() -> new SlidingWindowCounter(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
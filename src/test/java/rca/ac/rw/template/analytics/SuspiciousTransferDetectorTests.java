@@ -0,0 +1,148 @@
+package rca.ac.rw.template.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the detector outside a transaction, so {@code record} queues at once. The benchmark is opt-in:
+ * {@code mvn test -Dtest=SuspiciousTransferDetectorTests -Dbenchmarks=true}.
+ */
+class SuspiciousTransferDetectorTests {
+
+	private SuspiciousTransferDetector detector;
+
+	@AfterEach
+	void stop() {
+		if (detector != null) {
+			detector.shutdown();
+		}
+	}
+
+	@Test
+	void vehicleResoldTooOftenRaisesAnAlert() throws InterruptedException {
+		detector = start(1_000);
+		UUID vehicle = UUID.randomUUID();
+		Instant now = Instant.now();
+
+		for (int i = 0; i < 3; i++) {
+			detector.record(vehicle, UUID.randomUUID(), now.plusSeconds(i));
+		}
+		awaitProcessed(3);
+
+		assertThat(detector.getRecentAlerts()).singleElement()
+				.satisfies(alert -> {
+					assertThat(alert.kind()).isEqualTo(TransferAlertKind.VEHICLE_RAPID_RESALE);
+					assertThat(alert.subjectId()).isEqualTo(vehicle);
+				});
+	}
+
+	@Test
+	void fleetSaleToOneOwnerRaisesOneAlert() throws InterruptedException {
+		detector = start(1_000);
+		UUID owner = UUID.randomUUID();
+		Instant now = Instant.now();
+
+		for (int i = 0; i < 500; i++) {
+			detector.record(UUID.randomUUID(), owner, now.plusMillis(i));
+		}
+		awaitProcessed(500);
+
+		assertThat(detector.getRecentAlerts()).singleElement()
+				.satisfies(alert -> {
+					assertThat(alert.kind()).isEqualTo(TransferAlertKind.OWNER_HIGH_INFLOW);
+					assertThat(alert.subjectId()).isEqualTo(owner);
+				});
+		assertThat(detector.getStatistics()).containsEntry("trackedVehicles", 500L).containsEntry("trackedOwners", 1L);
+	}
+
+	@Test
+	void keyAlertsAgainOnceItsWindowHasPassed() throws InterruptedException {
+		detector = start(1_000);
+		UUID vehicle = UUID.randomUUID();
+		Instant now = Instant.now();
+
+		for (int i = 0; i < 6; i++) {
+			detector.record(vehicle, UUID.randomUUID(), now.plusSeconds(i)); // Muted after the first alert
+		}
+		Instant later = now.plus(Duration.ofHours(721));
+		for (int i = 0; i < 3; i++) {
+			detector.record(vehicle, UUID.randomUUID(), later.plusSeconds(i));
+		}
+		awaitProcessed(9);
+
+		assertThat(detector.getRecentAlerts()).hasSize(2)
+				.allSatisfy(alert -> assertThat(alert.kind()).isEqualTo(TransferAlertKind.VEHICLE_RAPID_RESALE));
+	}
+
+	@Test
+	void thresholdsBelowOneAreRejected() {
+		assertThatThrownBy(() -> new SuspiciousTransferDetector(event -> {
+		}, 0, 720, 10, 24, 1_000, 1_000, 1_000)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new SuspiciousTransferDetector(event -> {
+		}, 3, 720, 0, 24, 1_000, 1_000, 1_000)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void throughputAndMemory() throws InterruptedException {
+		int events = 1_000_000;
+		UUID[] vehicles = ids(200_000);
+		UUID[] owners = ids(50_000);
+		long heapBefore = usedHeap();
+		detector = start(events);
+		Instant base = Instant.now();
+
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < events; i++) {
+			detector.record(vehicles[i % vehicles.length], owners[(i * 31) % owners.length], base.plusSeconds(60L * i)); // Steady state: no alerts
+		}
+		awaitProcessed(events);
+		long elapsedNanos = System.nanoTime() - startedAt;
+		long heapAfter = usedHeap();
+
+		assertThat(detector.getStatistics()).containsEntry("dropped", 0L);
+		System.out.printf("%d events over %d vehicles and %d owners in %d ms (%.0f events/s), %.1f MB retained%n",
+				events, vehicles.length, owners.length, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+				events * 1e9 / elapsedNanos, (heapAfter - heapBefore) / 1e6);
+	}
+
+	// --- Helper Methods ---
+
+	private SuspiciousTransferDetector start(int queueCapacity) {
+		SuspiciousTransferDetector started = new SuspiciousTransferDetector(event -> {
+		}, 3, 720, 10, 24, 1_000_000, queueCapacity, 1_000);
+		started.start();
+		return started;
+	}
+
+	private void awaitProcessed(long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+		while (detector.getStatistics().get("processed") < expected) {
+			assertThat(System.nanoTime()).as("events still queued").isLessThan(deadline);
+			Thread.sleep(1);
+		}
+	}
+
+	private static UUID[] ids(int n) {
+		UUID[] ids = new UUID[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = UUID.randomUUID();
+		}
+		return ids;
+	}
+
+	private static long usedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
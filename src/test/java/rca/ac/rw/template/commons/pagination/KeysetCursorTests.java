@@ -0,0 +1,112 @@
+package rca.ac.rw.template.commons.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import rca.ac.rw.template.commons.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTests {
+
+	@Test
+	void encodeDecodeRoundTrips() {
+		KeysetCursor cursor = new KeysetCursor("createdAt", Sort.Direction.DESC, "2024-05-01T10:15:30", UUID.randomUUID());
+
+		assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void nullAndEmptyValuesStayDistinct() {
+		UUID id = UUID.randomUUID();
+		KeysetCursor nullValue = new KeysetCursor("modelName", Sort.Direction.ASC, null, id);
+		KeysetCursor emptyValue = new KeysetCursor("modelName", Sort.Direction.ASC, "", id);
+
+		assertThat(KeysetCursor.decode(nullValue.encode()).value()).isNull();
+		assertThat(KeysetCursor.decode(emptyValue.encode()).value()).isEmpty();
+	}
+
+	@Test
+	void valueMayContainTheSeparator() {
+		KeysetCursor cursor = new KeysetCursor("modelName", Sort.Direction.ASC, "two\nlines", UUID.randomUUID());
+
+		assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void encodedCursorIsUrlSafe() {
+		KeysetCursor cursor = new KeysetCursor("modelName", Sort.Direction.ASC, "??>>~~", UUID.randomUUID());
+
+		assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void malformedCursorsAreBadRequests() {
+		String missingParts = Base64.getUrlEncoder().encodeToString("id\nASC".getBytes(StandardCharsets.UTF_8));
+		String badDirection = Base64.getUrlEncoder().encodeToString(("id\nUP\n" + UUID.randomUUID() + "\n").getBytes(StandardCharsets.UTF_8));
+		String badId = Base64.getUrlEncoder().encodeToString("id\nASC\nnot-a-uuid\n".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : List.of("%%%", missingParts, badDirection, badId)) {
+			assertThatThrownBy(() -> KeysetCursor.decode(cursor)).isInstanceOf(BadRequestException.class);
+		}
+	}
+
+	@Test
+	void pageOfFetchedRowsCarriesTheCursorOfItsLastRow() {
+		List<Row> rows = IntStream.range(0, 4).mapToObj(i -> new Row(UUID.randomUUID(), "model-" + i)).toList();
+		KeysetRequest request = KeysetRequest.of(null, PageRequest.of(0, 3, Sort.by("name")));
+
+		KeysetPage<String> page = request.toPage(rows, Row::getName);
+
+		assertThat(page.getContent()).containsExactly("model-0", "model-1", "model-2");
+		assertThat(page.isHasNext()).isTrue();
+		assertThat(KeysetCursor.decode(page.getNextCursor()))
+				.isEqualTo(new KeysetCursor("name", Sort.Direction.ASC, "model-2", rows.get(2).getId()));
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		List<Row> rows = List.of(new Row(UUID.randomUUID(), "only"));
+		KeysetRequest request = KeysetRequest.of("", PageRequest.of(0, 3, Sort.by("name")));
+
+		KeysetPage<String> page = request.toPage(rows, Row::getName);
+
+		assertThat(page.isHasNext()).isFalse();
+		assertThat(page.getNextCursor()).isNull();
+		assertThat(request.limit()).isEqualTo(4);
+	}
+
+	@Test
+	void continuingRequestSortsLikeItsCursor() {
+		String after = new KeysetCursor("name", Sort.Direction.DESC, "m", UUID.randomUUID()).encode();
+
+		KeysetRequest request = KeysetRequest.of(after, PageRequest.of(0, 10, Sort.by("id")));
+
+		assertThat(request.sort()).isEqualTo(Sort.by(Sort.Direction.DESC, "name").and(Sort.by(Sort.Direction.DESC, "id")));
+	}
+
+	public static class Row {
+		private final UUID id;
+		private final String name;
+
+		Row(UUID id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public UUID getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+}
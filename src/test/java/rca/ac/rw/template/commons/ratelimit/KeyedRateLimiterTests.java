@@ -0,0 +1,157 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import rca.ac.rw.template.commons.exceptions.TooManyRequestsException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Uses limits of one request per refill period, so a client's second request is rejected until the period has
+ * passed or its bucket was evicted. The benchmark is opt-in:
+ * {@code mvn test -Dtest=KeyedRateLimiterTests -Dbenchmarks=true}.
+ */
+class KeyedRateLimiterTests {
+
+	private static final String HOURLY = "hourly";
+	private static final String FAST = "fast";
+
+	@Test
+	void retryAfterIsTheRefillWaitRoundedUpToSeconds() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(properties(1_000, Duration.ofMinutes(30), 64));
+		limiter.acquire(HOURLY, RateLimitKey.IP, "10.0.0.1");
+
+		TooManyRequestsException e = catchThrowableOfType(() -> limiter.acquire(HOURLY, RateLimitKey.IP, "10.0.0.1"),
+				TooManyRequestsException.class);
+
+		assertThat(e.getRetryAfterSeconds()).isEqualTo(3_600);
+		assertThat(e).hasMessage("Too many requests. Please try again in 3600 seconds.");
+	}
+
+	@Test
+	void retryAfterIsAtLeastOneSecond() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(properties(1_000, Duration.ofMinutes(30), 64));
+		limiter.acquire(FAST, RateLimitKey.IP, "10.0.0.1");
+
+		TooManyRequestsException e = catchThrowableOfType(() -> limiter.acquire(FAST, RateLimitKey.IP, "10.0.0.1"),
+				TooManyRequestsException.class);
+
+		assertThat(e.getRetryAfterSeconds()).isEqualTo(1);
+	}
+
+	@Test
+	void clientsAndKeyTypesHaveSeparateBuckets() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(properties(1_000, Duration.ofMinutes(30), 64));
+		limiter.acquire(HOURLY, RateLimitKey.IP, "10.0.0.1");
+
+		limiter.acquire(HOURLY, RateLimitKey.IP, "10.0.0.2");
+		limiter.acquire(HOURLY, RateLimitKey.USER, "10.0.0.1");
+		limiter.acquire(FAST, RateLimitKey.IP, "10.0.0.1");
+
+		assertThat(limiter.size(HOURLY)).isEqualTo(3);
+		assertThat(limiter.size(FAST)).isEqualTo(1);
+		assertThatThrownBy(() -> limiter.acquire(HOURLY, RateLimitKey.IP, "10.0.0.1"))
+				.isInstanceOf(TooManyRequestsException.class);
+	}
+
+	@Test
+	void unconfiguredLimitIsRejected() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(properties(1_000, Duration.ofMinutes(30), 64));
+
+		assertThatThrownBy(() -> limiter.acquire("missing", RateLimitKey.IP, "10.0.0.1"))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("rate-limits.limits.missing");
+		assertThat(limiter.size("missing")).isZero();
+	}
+
+	@Test
+	void bucketsBeyondMaxKeysAreEvictedLeastRecentlyUsedFirst() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(properties(100, Duration.ofMinutes(30), 1)); // One segment: exact LRU
+		limiter.acquire(HOURLY, RateLimitKey.IP, "client-0");
+
+		for (int i = 1; i <= 1_000; i++) {
+			limiter.acquire(HOURLY, RateLimitKey.IP, "client-" + i);
+		}
+
+		assertThat(limiter.size(HOURLY)).isEqualTo(100);
+		limiter.acquire(HOURLY, RateLimitKey.IP, "client-0"); // Evicted, so a full bucket again
+		assertThatThrownBy(() -> limiter.acquire(HOURLY, RateLimitKey.IP, "client-1000"))
+				.isInstanceOf(TooManyRequestsException.class);
+	}
+
+	@Test
+	void idleBucketsAreEvicted() throws InterruptedException {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(properties(1_000, Duration.ofMillis(50), 1));
+		limiter.acquire(HOURLY, RateLimitKey.IP, "10.0.0.1");
+
+		Thread.sleep(100);
+
+		limiter.acquire(HOURLY, RateLimitKey.IP, "10.0.0.1"); // A new bucket, although the old one had not refilled
+		assertThat(limiter.size(HOURLY)).isEqualTo(1);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void oneMillionClients() {
+		int clients = 1_000_000;
+		String[] keys = new String[clients];
+		for (int i = 0; i < clients; i++) {
+			keys[i] = "10." + (i >>> 16) + '.' + ((i >>> 8) & 0xff) + '.' + (i & 0xff);
+		}
+		KeyedRateLimiter limiter = new KeyedRateLimiter(properties(clients, Duration.ofMinutes(30), 64));
+		long heapBefore = usedHeap();
+
+		long startedAt = System.nanoTime();
+		for (String key : keys) {
+			limiter.acquire(FAST, RateLimitKey.IP, key);
+		}
+		long createNanos = System.nanoTime() - startedAt;
+		long heapAfter = usedHeap();
+
+		startedAt = System.nanoTime();
+		int rejected = 0;
+		for (String key : keys) {
+			try {
+				limiter.acquire(FAST, RateLimitKey.IP, key);
+			} catch (TooManyRequestsException e) {
+				rejected++;
+			}
+		}
+		long lookupNanos = System.nanoTime() - startedAt;
+
+		long held = limiter.size(FAST);
+		assertThat(held).isLessThanOrEqualTo(clients); // Each segment evicts at its share of max-keys, so a little early
+		System.out.printf("%d clients (%d buckets held): %.0f new buckets/s, %.0f decisions/s (%d rejected), %.1f MB retained (%.0f bytes per client)%n",
+				clients, held, clients * 1e9 / createNanos, clients * 1e9 / lookupNanos, rejected,
+				(heapAfter - heapBefore) / 1e6, (double) (heapAfter - heapBefore) / clients);
+	}
+
+	// --- Helper Methods ---
+
+	private static RateLimitProperties properties(int maxKeys, Duration idleEviction, int concurrencyLevel) {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setMaxKeys(maxKeys);
+		properties.setIdleEviction(idleEviction);
+		properties.setConcurrencyLevel(concurrencyLevel);
+		properties.getLimits().put(HOURLY, limit(1, Duration.ofHours(1)));
+		properties.getLimits().put(FAST, limit(1, Duration.ofMillis(100)));
+		return properties;
+	}
+
+	private static RateLimitProperties.Limit limit(int capacity, Duration refillPeriod) {
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+		limit.setCapacity(capacity);
+		limit.setRefillPeriod(refillPeriod);
+		return limit;
+	}
+
+	private static long usedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
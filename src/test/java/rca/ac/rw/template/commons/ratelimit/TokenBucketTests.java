@@ -0,0 +1,80 @@
+package rca.ac.rw.template.commons.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a bucket with explicit clock readings: 10 tokens per 10 seconds, so one token per second.
+ */
+class TokenBucketTests {
+
+	private static final int CAPACITY = 10;
+	private static final double TOKENS_PER_NANO = (double) CAPACITY / TimeUnit.SECONDS.toNanos(10);
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void newBucketAllowsAFullBurst() {
+		TokenBucket bucket = new TokenBucket(CAPACITY, 0);
+
+		for (int i = 0; i < CAPACITY; i++) {
+			assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, 0)).as("request %d", i).isZero();
+		}
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, 0)).isEqualTo(SECOND);
+	}
+
+	@Test
+	void waitIsTheTimeUntilTheNextWholeToken() {
+		TokenBucket bucket = drained();
+
+		long wait = bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, SECOND / 4);
+
+		assertThat(wait).isEqualTo(SECOND * 3 / 4);
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, SECOND / 4 + wait)).isZero();
+	}
+
+	@Test
+	void refillIsProportionalToElapsedTime() {
+		TokenBucket bucket = drained();
+		long now = 3 * SECOND + SECOND / 2; // 3.5 tokens
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, now)).as("request %d", i).isZero();
+		}
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, now)).isEqualTo(SECOND / 2);
+	}
+
+	@Test
+	void refillIsCappedAtCapacity() {
+		TokenBucket bucket = drained();
+		long now = TimeUnit.HOURS.toNanos(1);
+
+		for (int i = 0; i < CAPACITY; i++) {
+			assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, now)).as("request %d", i).isZero();
+		}
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, now)).isEqualTo(SECOND);
+	}
+
+	@Test
+	void clockReadingsFromThePastDoNotRefill() {
+		TokenBucket bucket = drained();
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, 2 * SECOND)).isZero();
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, 2 * SECOND)).isZero();
+
+		// A thread that read the clock earlier but reaches the bucket later
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, SECOND)).isEqualTo(SECOND);
+		assertThat(bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, 3 * SECOND)).isZero();
+	}
+
+	// --- Helper Methods ---
+
+	private static TokenBucket drained() {
+		TokenBucket bucket = new TokenBucket(CAPACITY, 0);
+		for (int i = 0; i < CAPACITY; i++) {
+			bucket.tryAcquire(CAPACITY, TOKENS_PER_NANO, 0);
+		}
+		return bucket;
+	}
+}
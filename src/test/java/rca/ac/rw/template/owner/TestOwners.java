@@ -0,0 +1,34 @@
+package rca.ac.rw.template.owner;
+
+import rca.ac.rw.template.users.Role;
+import rca.ac.rw.template.users.Status;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Owner fixtures for tests that save owners to the database. Email, phone number and national id are random,
+ * so owners created by different tests or runs never hit a unique constraint.
+ */
+public final class TestOwners {
+
+	private TestOwners() {
+	}
+
+	/**
+	 * @return An active customer, not yet saved.
+	 */
+	public static Owner customer() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Owner owner = new Owner();
+		owner.setFirstName("Test");
+		owner.setLastName("Owner");
+		owner.setEmail("owner-" + UUID.randomUUID() + "@example.com");
+		owner.setPhoneNumber("07" + random.nextInt(10_000_000, 100_000_000));
+		owner.setNationalId("1" + random.nextLong(100_000_000_000_000L, 1_000_000_000_000_000L));
+		owner.setPassword("not-a-hash");
+		owner.setStatus(Status.ACTIVE);
+		owner.setRole(Role.ROLE_CUSTOMER);
+		return owner;
+	}
+}
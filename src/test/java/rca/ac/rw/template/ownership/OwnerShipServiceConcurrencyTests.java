@@ -0,0 +1,145 @@
+package rca.ac.rw.template.ownership;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import rca.ac.rw.template.commons.exceptions.ConflictException;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+import rca.ac.rw.template.email.EmailService;
+import rca.ac.rw.template.owner.Owner;
+import rca.ac.rw.template.owner.OwnerRepository;
+import rca.ac.rw.template.owner.TestOwners;
+import rca.ac.rw.template.ownership.dto.VehicleTransferRequestDto;
+import rca.ac.rw.template.plateNumber.PlateNumberAllocator;
+import rca.ac.rw.template.vehicle.VehicleService;
+import rca.ac.rw.template.vehicle.dto.RegisterVehicleAndIssuePlateRequestDto;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Races many transfers over a few vehicles and checks that each vehicle still has exactly one owner, one IN_USE
+ * plate and a read model that agrees, with one ownership record per successful transfer.
+ * Losers of a race are rejected, never applied twice.
+ */
+@SpringBootTest
+class OwnerShipServiceConcurrencyTests {
+
+	private static final int VEHICLES = 4;
+	private static final int THREADS = 16;
+	private static final int ATTEMPTS_PER_THREAD = 25;
+
+	private static final String OPEN_OWNER_SQL = "SELECT owner_id FROM ownership WHERE vehicle_id = ? AND end_date IS NULL";
+
+	@Autowired
+	private OwnerShipService ownerShipService;
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private OwnerRepository ownerRepository;
+
+	@Autowired
+	private PlateNumberAllocator plateNumberAllocator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private EmailService emailService; // No SMTP in tests
+
+	@Test
+	void concurrentTransfersNeverLeaveTwoOwners() throws Exception {
+		Owner first = ownerRepository.save(TestOwners.customer());
+		Owner second = ownerRepository.save(TestOwners.customer());
+		List<UUID> vehicleIds = new ArrayList<>();
+		for (int i = 0; i < VEHICLES; i++) {
+			vehicleIds.add(vehicleService.registerVehicleAndIssuePlate(registration(first)).getId());
+		}
+
+		Map<UUID, AtomicInteger> transfers = new ConcurrentHashMap<>();
+		vehicleIds.forEach(id -> transfers.put(id, new AtomicInteger()));
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			workers.add(pool.submit(() -> {
+				start.await();
+				for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+					UUID vehicleId = vehicleIds.get((thread + attempt) % VEHICLES);
+					UUID owner = jdbcTemplate.queryForObject(OPEN_OWNER_SQL, UUID.class, vehicleId);
+					UUID next = first.getId().equals(owner) ? second.getId() : first.getId();
+					try {
+						ownerShipService.transferVehicleOwnership(new VehicleTransferRequestDto(vehicleId, owner, next,
+								BigDecimal.valueOf(5_000), plateNumberAllocator.allocate()));
+						transfers.get(vehicleId).incrementAndGet();
+					} catch (ValidationException | ConflictException e) {
+						rejected.incrementAndGet(); // Another thread transferred the vehicle first
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> worker : workers) {
+			worker.get(5, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+
+		int succeeded = transfers.values().stream().mapToInt(AtomicInteger::get).sum();
+		assertThat(succeeded + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+		assertThat(succeeded).isGreaterThanOrEqualTo(VEHICLES);
+		for (UUID vehicleId : vehicleIds) {
+			assertThat(count("SELECT count(*) FROM ownership WHERE vehicle_id = ? AND end_date IS NULL", vehicleId))
+					.as("open ownerships of %s", vehicleId).isEqualTo(1);
+			assertThat(count("SELECT count(*) FROM plate_number WHERE vehicle_id = ? AND plate_status = 'IN_USE'", vehicleId))
+					.as("IN_USE plates of %s", vehicleId).isEqualTo(1);
+			assertThat(count("SELECT count(*) FROM ownership WHERE vehicle_id = ?", vehicleId))
+					.as("ownership records of %s", vehicleId).isEqualTo(1 + transfers.get(vehicleId).get());
+			UUID owner = jdbcTemplate.queryForObject(OPEN_OWNER_SQL, UUID.class, vehicleId);
+			assertThat(jdbcTemplate.queryForObject("SELECT current_owner_id FROM vehicle_current_state WHERE vehicle_id = ?",
+					UUID.class, vehicleId)).isEqualTo(owner);
+		}
+		verify(emailService, atLeast(succeeded)).sendOwnershipTransferEmailToReceiver(anyString(), anyString(), anyString(),
+				anyString(), any(), anyString());
+	}
+
+	// --- Helper Methods ---
+
+	private int count(String sql, UUID vehicleId) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, vehicleId);
+	}
+
+	private static RegisterVehicleAndIssuePlateRequestDto registration(Owner owner) {
+		RegisterVehicleAndIssuePlateRequestDto dto = new RegisterVehicleAndIssuePlateRequestDto();
+		dto.setChassisNumber("ct-" + UUID.randomUUID());
+		dto.setModelName("Concurrency");
+		dto.setManufacturerCompany("Test Motors");
+		dto.setManufacturedYear(Year.of(2021));
+		dto.setPrice(BigDecimal.valueOf(12_000));
+		dto.setOwnerId(owner.getId());
+		return dto; // No plate: one is allocated
+	}
+}
@@ -0,0 +1,125 @@
+package rca.ac.rw.template.plateNumber;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import rca.ac.rw.template.commons.exceptions.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs allocators against a mocked reservation upsert shared like the {@code plate_series_allocation} row:
+ * every call moves the series' next code by one block, whichever "node" makes it.
+ */
+class PlateNumberAllocatorTests {
+
+	private static final String SERIES = "RAH";
+	private static final int BLOCK_SIZE = 100;
+	private static final int THREADS = 16;
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final PlateOccupancyIndex occupancyIndex = new PlateOccupancyIndex(jdbcTemplate);
+	private final AtomicInteger reservedUpTo = new AtomicInteger(PlateNumberCodec.seriesStart(SERIES));
+
+	PlateNumberAllocatorTests() {
+		when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any(), any()))
+				.thenAnswer(invocation -> reservedUpTo.addAndGet(BLOCK_SIZE));
+		occupancyIndex.rebuild(); // Empty table
+	}
+
+	@Test
+	void concurrentAllocationsOnTwoNodesNeverCollide() throws Exception {
+		PlateNumberAllocator nodeA = allocator();
+		PlateNumberAllocator nodeB = allocator();
+		int perThread = 1_200;
+		Set<String> taken = takeSomePlates();
+
+		Set<String> allocated = ConcurrentHashMap.newKeySet();
+		AtomicInteger duplicates = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			PlateNumberAllocator allocator = t % 2 == 0 ? nodeA : nodeB;
+			workers.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					if (!allocated.add(allocator.allocate())) {
+						duplicates.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> worker : workers) {
+			worker.get(1, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+
+		assertThat(duplicates).hasValue(0);
+		assertThat(allocated).hasSize(THREADS * perThread);
+		assertThat(allocated).doesNotContainAnyElementsOf(taken);
+		assertThat(allocated).allSatisfy(plate -> {
+			assertThat(plate).startsWith(SERIES);
+			assertThat(PlateNumberCodec.number(PlateNumberCodec.encode(plate))).isNotZero();
+		});
+	}
+
+	@Test
+	void exhaustedSeriesIsReported() {
+		PlateNumberAllocator allocator = allocator();
+		int free = PlateNumberCodec.SERIES_SIZE - PlateNumberCodec.LETTERS - takeSomePlates().size(); // Number 000 is never issued
+
+		for (int i = 0; i < free; i++) {
+			allocator.allocate();
+		}
+
+		assertThatThrownBy(allocator::allocate).isInstanceOf(ValidationException.class).hasMessageContaining("exhausted");
+	}
+
+	@Test
+	void allocationWaitsForTheOccupancyIndex() {
+		PlateOccupancyIndex loading = new PlateOccupancyIndex(jdbcTemplate);
+		PlateNumberAllocator allocator = new PlateNumberAllocator(jdbcTemplate, transactionManager, loading, SERIES, BLOCK_SIZE);
+
+		assertThatThrownBy(allocator::allocate).isInstanceOf(ValidationException.class);
+	}
+
+	// --- Helper Methods ---
+
+	private PlateNumberAllocator allocator() {
+		return new PlateNumberAllocator(jdbcTemplate, transactionManager, occupancyIndex, SERIES, BLOCK_SIZE);
+	}
+
+	/**
+	 * Marks every seventh plate of the series' first blocks as already registered.
+	 */
+	private Set<String> takeSomePlates() {
+		Set<String> taken = ConcurrentHashMap.newKeySet();
+		int start = PlateNumberCodec.seriesStart(SERIES);
+		for (int code = start + 7; code < start + 10 * BLOCK_SIZE; code += 7) {
+			occupancyIndex.set(code);
+			taken.add(PlateNumberCodec.decode(code));
+		}
+		return taken;
+	}
+}
@@ -0,0 +1,56 @@
+package rca.ac.rw.template.plateNumber;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlateNumberCodecTests {
+
+	@Test
+	void encodesSeriesSuffixAndNumber() {
+		assertThat(PlateNumberCodec.encode("RAA000A")).isZero();
+		assertThat(PlateNumberCodec.encode("RAC123B")).isEqualTo((2 * 26 + 1) * 1000 + 123);
+		assertThat(PlateNumberCodec.encode("RAZ999Z")).isEqualTo(PlateNumberCodec.CAPACITY - 1);
+	}
+
+	@Test
+	void ignoresWhitespace() {
+		assertThat(PlateNumberCodec.encode(" RAC 123 B ")).isEqualTo(PlateNumberCodec.encode("RAC123B"));
+	}
+
+	@Test
+	void rejectsMalformedPlates() {
+		for (String plate : new String[]{null, "", "RBC123A", "RAc123A", "RAC12A", "RAC1234", "RAC123", "RAC12XA", "RAC123a"}) {
+			assertThat(PlateNumberCodec.encode(plate)).as(plate).isEqualTo(PlateNumberCodec.INVALID);
+		}
+	}
+
+	@Test
+	void everyCodeRoundTrips() {
+		for (int code = 0; code < PlateNumberCodec.CAPACITY; code++) {
+			assertThat(PlateNumberCodec.encode(PlateNumberCodec.decode(code))).isEqualTo(code);
+		}
+	}
+
+	@Test
+	void seriesIsAContiguousRangeOrderedByNumberThenSuffix() {
+		int start = PlateNumberCodec.seriesStart("RAC");
+
+		assertThat(PlateNumberCodec.decode(start)).isEqualTo("RAC000A");
+		assertThat(PlateNumberCodec.decode(start + 1)).isEqualTo("RAC001A");
+		assertThat(PlateNumberCodec.decode(start + 1000)).isEqualTo("RAC000B");
+		assertThat(PlateNumberCodec.decode(start + PlateNumberCodec.SERIES_SIZE - 1)).isEqualTo("RAC999Z");
+		assertThat(PlateNumberCodec.decode(start + PlateNumberCodec.SERIES_SIZE)).isEqualTo("RAD000A");
+		assertThat(PlateNumberCodec.number(PlateNumberCodec.encode("RAC042Q"))).isEqualTo(42);
+	}
+
+	@Test
+	void rejectsMalformedSeriesAndCodes() {
+		assertThat(PlateNumberCodec.seriesStart("RA")).isEqualTo(PlateNumberCodec.INVALID);
+		assertThat(PlateNumberCodec.seriesStart("RBC")).isEqualTo(PlateNumberCodec.INVALID);
+		assertThat(PlateNumberCodec.seriesStart("RA1")).isEqualTo(PlateNumberCodec.INVALID);
+		assertThatThrownBy(() -> PlateNumberCodec.decode(-1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> PlateNumberCodec.decode(PlateNumberCodec.CAPACITY)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
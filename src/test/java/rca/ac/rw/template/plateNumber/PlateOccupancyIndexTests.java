@@ -0,0 +1,94 @@
+package rca.ac.rw.template.plateNumber;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlateOccupancyIndexTests {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final PlateOccupancyIndex index = new PlateOccupancyIndex(jdbcTemplate);
+
+	@Test
+	void nextClearSkipsNumberZero() {
+		int start = PlateNumberCodec.seriesStart("RAC");
+
+		assertThat(index.nextClear(start, start + PlateNumberCodec.SERIES_SIZE)).isEqualTo(start + 1);
+	}
+
+	@Test
+	void nextClearSkipsSetBitsAcrossWords() {
+		int start = PlateNumberCodec.seriesStart("RAC");
+		for (int code = start; code < start + 200; code++) {
+			index.set(code);
+		}
+
+		assertThat(index.nextClear(start, start + PlateNumberCodec.SERIES_SIZE)).isEqualTo(start + 200);
+	}
+
+	@Test
+	void nextClearStartsMidWord() {
+		int from = 64 * 10 + 5;
+		index.set(from);
+		index.set(from + 1);
+
+		assertThat(index.nextClear(from, from + 100)).isEqualTo(from + 2);
+	}
+
+	@Test
+	void nextClearSkipsNumberZeroOfLaterSuffixes() {
+		int start = PlateNumberCodec.seriesStart("RAC");
+		for (int code = start; code < start + 1000; code++) {
+			index.set(code);
+		}
+
+		// start + 1000 is RAC000B
+		assertThat(index.nextClear(start, start + PlateNumberCodec.SERIES_SIZE)).isEqualTo(start + 1001);
+	}
+
+	@Test
+	void nextClearReturnsMinusOneWhenTheRangeIsFull() {
+		int start = PlateNumberCodec.seriesStart("RAC");
+		int end = start + PlateNumberCodec.SERIES_SIZE;
+		for (int code = start; code < end; code++) {
+			index.set(code);
+		}
+
+		assertThat(index.nextClear(start, end)).isEqualTo(-1);
+		// The next series is free, but lies outside the range
+		assertThat(index.nextClear(end - 10, end)).isEqualTo(-1);
+	}
+
+	@Test
+	void setReportsWhetherItChangedTheBit() {
+		int code = PlateNumberCodec.encode("RAC123B");
+
+		assertThat(index.isSet(code)).isFalse();
+		assertThat(index.set(code)).isTrue();
+		assertThat(index.set(code)).isFalse();
+		assertThat(index.isTaken("RAC123B")).isTrue();
+		assertThat(index.isSet(code + 1)).isFalse();
+	}
+
+	@Test
+	void nextFreeConfirmsCandidatesAgainstTheTable() {
+		index.set(PlateNumberCodec.encode("RAC001A"));
+		// RAC002A was created on another node and is not in the bitmap yet
+		when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any()))
+				.thenAnswer(invocation -> "RAC002A".equals(invocation.getArgument(2)));
+
+		assertThat(index.nextFree("RAC")).contains("RAC003A");
+		assertThat(index.isTaken("RAC002A")).isTrue();
+	}
+
+	@Test
+	void nextFreeRejectsMalformedSeries() {
+		assertThat(index.nextFree("RBC")).isEmpty();
+	}
+}
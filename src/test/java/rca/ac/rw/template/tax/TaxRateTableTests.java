@@ -0,0 +1,138 @@
+package rca.ac.rw.template.tax;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The benchmark is opt-in: {@code mvn test -Dtest=TaxRateTableTests -Dbenchmarks=true}.
+ */
+class TaxRateTableTests {
+
+	@Test
+	void taxRoundsHalfUpToTheCentAndAddsTheFee() {
+		TaxRateTable table = new TaxRateTable(List.of(band(1, TaxKind.TRANSFER, 0, 0, null, "0", null, 100, "5.00")));
+		int band = table.find(TaxKind.TRANSFER, 3, 150);
+
+		assertThat(table.tax(TaxKind.TRANSFER, band, 150)).isEqualTo(2 + 500);   // 1.50 cents rounds up
+		assertThat(table.tax(TaxKind.TRANSFER, band, 149)).isEqualTo(1 + 500);   // 1.49 cents rounds down
+		assertThat(table.tax(TaxKind.TRANSFER, band, 0)).isEqualTo(500);
+	}
+
+	@Test
+	void taxMatchesBigDecimalArithmetic() {
+		TaxRateTable table = new TaxRateTable(List.of(band(1, TaxKind.TRANSFER, 0, 0, null, "0", null, 333, "12.34")));
+		Random random = new Random(7);
+
+		for (int i = 0; i < 100_000; i++) {
+			long amountCents = (long) (Math.exp(random.nextDouble() * 30)); // Up to about 10^13 cents
+			assertThat(table.tax(TaxKind.TRANSFER, 0, amountCents)).as("%d cents", amountCents)
+					.isEqualTo(reference(amountCents, 333, 1234));
+		}
+	}
+
+	@Test
+	void amountsTooLargeForLongArithmeticFallBackToBigDecimal() {
+		TaxRateTable table = new TaxRateTable(List.of(band(1, TaxKind.TRANSFER, 0, 0, null, "0", null, 5_000, "1.00")));
+		long amountCents = 100_000_000_000_000_000L; // amount * rate overflows a long
+
+		assertThat(table.tax(TaxKind.TRANSFER, 0, amountCents)).isEqualTo(50_000_000_000_000_000L + 100);
+		assertThat(table.tax(TaxKind.TRANSFER, 0, Long.MAX_VALUE / 2)).isEqualTo(reference(Long.MAX_VALUE / 2, 5_000, 100));
+	}
+
+	@Test
+	void firstBandByPriorityCoveringAgeAndAmountApplies() {
+		TaxRateTable table = new TaxRateTable(List.of(
+				band(3, TaxKind.TRANSFER, 2, 0, null, "0", null, 100, "0"),
+				band(1, TaxKind.TRANSFER, 1, 0, 5, "0", "1000.00", 300, "0"),
+				band(2, TaxKind.TRANSFER, 1, 5, null, "0", null, 200, "0"),
+				band(4, TaxKind.REGISTRATION, 1, 0, null, "0", null, 50, "0")));
+
+		assertThat(table.bandId(TaxKind.TRANSFER, table.find(TaxKind.TRANSFER, 4, 99_999))).isEqualTo(1);
+		assertThat(table.bandId(TaxKind.TRANSFER, table.find(TaxKind.TRANSFER, 4, 100_000))).isEqualTo(3); // max is exclusive
+		assertThat(table.bandId(TaxKind.TRANSFER, table.find(TaxKind.TRANSFER, 5, 10))).isEqualTo(2);      // so is max age
+		assertThat(table.basisPoints(TaxKind.REGISTRATION, table.find(TaxKind.REGISTRATION, 40, 10))).isEqualTo(50);
+	}
+
+	@Test
+	void amountsNoBandCoversAreUnmatched() {
+		TaxRateTable table = new TaxRateTable(List.of(band(1, TaxKind.TRANSFER, 0, 1, 10, "100.00", null, 100, "0")));
+
+		assertThat(table.find(TaxKind.TRANSFER, 0, 50_000)).isEqualTo(TaxRateTable.NO_BAND);
+		assertThat(table.find(TaxKind.TRANSFER, 3, 9_999)).isEqualTo(TaxRateTable.NO_BAND);
+		assertThat(table.isEmpty(TaxKind.REGISTRATION)).isTrue();
+		assertThat(table.isEmpty(TaxKind.TRANSFER)).isFalse();
+	}
+
+	@Test
+	void centsRoundHalfUp() {
+		assertThat(TaxRateTable.toCents(new BigDecimal("10.005"))).isEqualTo(1_001);
+		assertThat(TaxRateTable.toCents(new BigDecimal("10.004"))).isEqualTo(1_000);
+		assertThat(TaxRateTable.toCents(new BigDecimal("7"))).isEqualTo(700);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void lookupAndTaxThroughput() {
+		TaxRateTable table = new TaxRateTable(List.of(
+				band(1, TaxKind.TRANSFER, 1, 0, 3, "0", "20000.00", 150, "10.00"),
+				band(2, TaxKind.TRANSFER, 2, 0, 3, "20000.00", null, 250, "10.00"),
+				band(3, TaxKind.TRANSFER, 3, 3, 10, "0", null, 300, "25.00"),
+				band(4, TaxKind.TRANSFER, 4, 10, null, "0", null, 400, "25.00")));
+		int n = 10_000_000;
+		int[] ages = new int[n];
+		long[] amounts = new long[n];
+		Random random = new Random(11);
+		for (int i = 0; i < n; i++) {
+			ages[i] = random.nextInt(25);
+			amounts[i] = 100_000 + (long) (random.nextDouble() * 10_000_000);
+		}
+
+		long total = 0;
+		long startedAt = System.nanoTime();
+		for (int round = 0; round < 3; round++) { // The first round warms up the JIT
+			startedAt = System.nanoTime();
+			total = 0;
+			for (int i = 0; i < n; i++) {
+				int band = table.find(TaxKind.TRANSFER, ages[i], amounts[i]);
+				if (band != TaxRateTable.NO_BAND) {
+					total += table.tax(TaxKind.TRANSFER, band, amounts[i]);
+				}
+			}
+		}
+		long elapsedNanos = System.nanoTime() - startedAt;
+
+		assertThat(total).isPositive();
+		System.out.printf("%d assessments in %d ms (%.1f ns each, %.0f per second)%n", n,
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), (double) elapsedNanos / n, n * 1e9 / elapsedNanos);
+	}
+
+	// --- Helper Methods ---
+
+	private static long reference(long amountCents, int basisPoints, long feeCents) {
+		return BigDecimal.valueOf(amountCents).multiply(BigDecimal.valueOf(basisPoints))
+				.divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP).longValueExact() + feeCents;
+	}
+
+	private static TaxRateBand band(long id, TaxKind kind, int priority, int minAge, Integer maxAge,
+									String minAmount, String maxAmount, int basisPoints, String fee) {
+		TaxRateBand band = new TaxRateBand();
+		band.setId(id);
+		band.setKind(kind);
+		band.setPriority(priority);
+		band.setMinVehicleAge(minAge);
+		band.setMaxVehicleAge(maxAge);
+		band.setMinAmount(new BigDecimal(minAmount));
+		band.setMaxAmount(maxAmount != null ? new BigDecimal(maxAmount) : null);
+		band.setRateBasisPoints(basisPoints);
+		band.setFixedFee(new BigDecimal(fee));
+		return band;
+	}
+}
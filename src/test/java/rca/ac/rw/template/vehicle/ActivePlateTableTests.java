@@ -0,0 +1,165 @@
+package rca.ac.rw.template.vehicle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import rca.ac.rw.template.plateNumber.PlateNumberCodec;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The benchmark is opt-in: {@code mvn test -Dtest=ActivePlateTableTests -Dbenchmarks=true}.
+ */
+class ActivePlateTableTests {
+
+	private static final String[] MODELS = {"Corolla", "RAV4", "Hilux", "Civic", "Fit", "Land Cruiser", "Prado", "X5"};
+	private static final String[] MANUFACTURERS = {"Toyota", "Honda", "BMW", "Nissan", "Suzuki"};
+
+	private final ActivePlateTable table = new ActivePlateTable();
+
+	@Test
+	void storedPlateIsReadBackUnchanged() {
+		ActivePlate plate = plate("RAC123A", UUID.randomUUID(), new Random(1));
+		ActivePlate anonymous = new ActivePlate("RAD001B", UUID.randomUUID(), null, null, UUID.randomUUID(), "CH-1",
+				null, "Toyota", Year.of(2001), new BigDecimal("1500.50"), null, null, null);
+
+		table.put(plate);
+		table.put(anonymous);
+
+		assertThat(table.find("RAC123A")).isEqualTo(plate);
+		assertThat(table.find("RAD001B")).isEqualTo(anonymous);
+		assertThat(table.find("RAC123B")).isNull();
+		assertThat(table.size()).isEqualTo(2);
+	}
+
+	@Test
+	void platesOutsideTheCodecAreHeldToo() {
+		ActivePlate plate = plate("GR 0042", UUID.randomUUID(), new Random(2));
+
+		table.put(plate);
+
+		assertThat(table.find("GR 0042")).isEqualTo(plate);
+		assertThat(table.find("GR0042")).isNull();
+	}
+
+	@Test
+	void newPlateOfAVehicleReplacesItsOldOne() {
+		UUID vehicle = UUID.randomUUID();
+		table.put(plate("RAC100A", vehicle, new Random(3)));
+
+		ActivePlate replacement = plate("RAC200A", vehicle, new Random(4));
+		table.put(replacement);
+
+		assertThat(table.find("RAC100A")).isNull();
+		assertThat(table.find("RAC200A")).isEqualTo(replacement);
+		assertThat(table.size()).isEqualTo(1);
+	}
+
+	@Test
+	void plateTakenByAnotherVehicleLeavesTheFirstOne() {
+		UUID first = UUID.randomUUID();
+		table.put(plate("RAC300A", first, new Random(5)));
+
+		table.put(plate("RAC300A", UUID.randomUUID(), new Random(6)));
+		table.removeVehicle(first); // No longer holds a plate
+
+		assertThat(table.find("RAC300A")).isNotNull();
+		assertThat(table.size()).isEqualTo(1);
+	}
+
+	@Test
+	void randomChangesAgreeWithAMap() {
+		Random random = new Random(7);
+		UUID[] vehicles = new UUID[5_000];
+		Arrays.setAll(vehicles, i -> UUID.randomUUID());
+		Map<String, ActivePlate> expected = new HashMap<>();
+		Map<UUID, String> plateOfVehicle = new HashMap<>();
+
+		for (int i = 0; i < 200_000; i++) {
+			UUID vehicle = vehicles[random.nextInt(vehicles.length)];
+			String previous = plateOfVehicle.remove(vehicle);
+			if (previous != null) {
+				expected.remove(previous);
+			}
+			if (random.nextInt(4) == 0) {
+				table.removeVehicle(vehicle);
+				continue;
+			}
+			String plateNumber = random.nextInt(10) == 0 ? "IT" + random.nextInt(2_000) : PlateNumberCodec.decode(random.nextInt(20_000));
+			ActivePlate holder = expected.get(plateNumber);
+			if (holder != null) {
+				plateOfVehicle.remove(holder.vehicleId());
+			}
+			ActivePlate plate = plate(plateNumber, vehicle, random);
+			table.put(plate);
+			expected.put(plateNumber, plate);
+			plateOfVehicle.put(vehicle, plateNumber);
+		}
+
+		assertThat(table.size()).isEqualTo(expected.size());
+		expected.forEach((plateNumber, plate) -> assertThat(table.find(plateNumber)).isEqualTo(plate));
+		for (int code = 0; code < 20_000; code++) {
+			String plateNumber = PlateNumberCodec.decode(code);
+			assertThat(table.find(plateNumber)).as(plateNumber).isEqualTo(expected.get(plateNumber));
+		}
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void footprintAndLookupLatency() {
+		int plates = 3_000_000; // Every codec plate, the rest outside the codec
+		Random random = new Random(8);
+		long heapBefore = usedHeap();
+		for (int i = 0; i < plates; i++) {
+			table.put(plate(plateNumber(i), UUID.randomUUID(), random));
+		}
+		long heapAfter = usedHeap();
+
+		int lookups = 1_000_000;
+		long[] latencies = new long[lookups];
+		int found = 0;
+		for (int i = 0; i < lookups; i++) {
+			String plateNumber = plateNumber(random.nextInt(plates));
+			long lookupStart = System.nanoTime();
+			ActivePlate plate = table.find(plateNumber);
+			latencies[i] = System.nanoTime() - lookupStart;
+			found += plate != null ? 1 : 0;
+		}
+		Arrays.sort(latencies);
+
+		assertThat(table.size()).isEqualTo(plates);
+		assertThat(found).isEqualTo(lookups);
+		System.out.printf("%d plates: %.1f MB retained (%.0f bytes per plate); lookup p50 %d ns, p99 %d ns, p99.9 %d ns%n",
+				plates, (heapAfter - heapBefore) / 1e6,
+				(double) (heapAfter - heapBefore) / plates, latencies[lookups / 2], latencies[lookups * 99 / 100],
+				latencies[lookups * 999 / 1000]);
+	}
+
+	// --- Helper Methods ---
+
+	private static String plateNumber(int i) {
+		return i < PlateNumberCodec.CAPACITY ? PlateNumberCodec.decode(i) : "IT" + i;
+	}
+
+	private static ActivePlate plate(String plateNumber, UUID vehicleId, Random random) {
+		return new ActivePlate(plateNumber, UUID.randomUUID(), Instant.ofEpochSecond(1_600_000_000L + random.nextInt(100_000_000), random.nextInt(1_000_000) * 1_000),
+				UUID.randomUUID(), vehicleId, "VIN" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36),
+				MODELS[random.nextInt(MODELS.length)], MANUFACTURERS[random.nextInt(MANUFACTURERS.length)],
+				Year.of(1990 + random.nextInt(35)), BigDecimal.valueOf(500 + random.nextInt(200), -2),
+				UUID.randomUUID(), "First" + random.nextInt(5_000), "Last" + random.nextInt(20_000));
+	}
+
+	private static long usedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,152 @@
+package rca.ac.rw.template.vehicle;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+import rca.ac.rw.template.owner.Owner;
+import rca.ac.rw.template.owner.TestOwners;
+import rca.ac.rw.template.ownership.OwnerShip;
+import rca.ac.rw.template.plateNumber.PlateNumber;
+import rca.ac.rw.template.plateNumber.PlateStatus;
+import rca.ac.rw.template.vehicle.dto.VehicleResponseDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the admin vehicle listing costs a fixed number of statements whatever the page size, and that
+ * pages count vehicles even when a vehicle joins to several IN_USE plates or open ownerships.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class VehicleRepositoryImplTests {
+
+	private static final int VEHICLES = 12;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private Specification<Vehicle> spec;
+	private char plateSeries;
+	private int plates;
+
+	@BeforeEach
+	void seed() {
+		String model = "qc-" + UUID.randomUUID();
+		plateSeries = (char) ('A' + ThreadLocalRandom.current().nextInt(26));
+		Owner owner = TestOwners.customer();
+		entityManager.persist(owner);
+		for (int i = 0; i < VEHICLES; i++) {
+			Vehicle vehicle = new Vehicle();
+			vehicle.setChassisNumber(model + "-" + i);
+			vehicle.setModelName(model);
+			vehicle.setManufacturerCompany("Test Motors");
+			vehicle.setManufacturedYear(Year.of(2020));
+			vehicle.setPrice(BigDecimal.valueOf(10_000));
+			entityManager.persist(vehicle);
+
+			// The first three vehicles carry inconsistent data: two IN_USE plates and two open ownerships
+			int current = i < 3 ? 2 : 1;
+			for (int j = 0; j < current; j++) {
+				entityManager.persist(plate(vehicle, owner));
+				entityManager.persist(ownership(vehicle, owner));
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		spec = (root, query, cb) -> cb.equal(root.get("modelName"), model);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void pageCostsTheSameNumberOfStatementsWhateverItsSize() {
+		for (int size : new int[]{2, 5, VEHICLES}) {
+			statistics.clear();
+			Page<VehicleResponseDto> page = vehicleRepository.findAllWithCurrentPlateAndOwner(spec,
+					PageRequest.of(0, size, Sort.by("chassisNumber")));
+
+			assertThat(page.getContent()).hasSize(size);
+			assertThat(page.getContent()).allSatisfy(dto -> {
+				assertThat(dto.getCurrentPlate()).isNotNull();
+				assertThat(dto.getCurrentOwner()).isNotNull();
+			});
+			// Ids of the page, their plates and owners, and the count
+			assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void pagesCountVehiclesNotJoinedRows() {
+		Set<UUID> seen = new HashSet<>();
+		List<String> chassisNumbers = new ArrayList<>();
+		for (int pageNumber = 0; pageNumber < 3; pageNumber++) {
+			Page<VehicleResponseDto> page = vehicleRepository.findAllWithCurrentPlateAndOwner(spec,
+					PageRequest.of(pageNumber, 5, Sort.by("chassisNumber")));
+			assertThat(page.getTotalElements()).isEqualTo(VEHICLES);
+			page.getContent().forEach(dto -> {
+				assertThat(seen.add(dto.getId())).as("vehicle %s on two pages", dto.getChassisNumber()).isTrue();
+				chassisNumbers.add(dto.getChassisNumber());
+			});
+		}
+		assertThat(seen).hasSize(VEHICLES);
+		assertThat(chassisNumbers).isSorted();
+	}
+
+	@Test
+	void limitCountsVehiclesNotJoinedRows() {
+		statistics.clear();
+		List<VehicleResponseDto> rows = vehicleRepository.findWithCurrentPlateAndOwner(spec, Sort.by("chassisNumber"), 6);
+
+		assertThat(rows).hasSize(6);
+		assertThat(rows).extracting(VehicleResponseDto::getChassisNumber).isSorted().doesNotHaveDuplicates();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	// --- Helper Methods ---
+
+	private PlateNumber plate(Vehicle vehicle, Owner owner) {
+		PlateNumber plate = new PlateNumber();
+		plate.setPlateNumber("RZ" + plateSeries + (100 + plates++) + "Z");
+		plate.setVehicle(vehicle);
+		plate.setOwner(owner);
+		plate.setStatus(PlateStatus.IN_USE);
+		return plate;
+	}
+
+	private static OwnerShip ownership(Vehicle vehicle, Owner owner) {
+		OwnerShip ownership = new OwnerShip();
+		ownership.setVehicle(vehicle);
+		ownership.setOwner(owner);
+		ownership.setStartDate(Instant.now().minusSeconds(60));
+		ownership.setTransferAmount(BigDecimal.ZERO);
+		return ownership;
+	}
+}